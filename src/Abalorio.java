@@ -0,0 +1,37 @@
+/**
+ * Amuleto, anillo o similar: puede sumar algo de ataque y de defensa.
+ *
+ * @version 1.0
+ */
+public class Abalorio extends Equipo {
+    private final double ataque;
+    private final int defensa;
+
+    /**
+     * Crea un abalorio.
+     *
+     * @param nombre  Nombre del abalorio.
+     * @param ataque  Daño extra que suma.
+     * @param defensa Defensa extra que suma.
+     */
+    public Abalorio(String nombre, double ataque, int defensa) {
+        super(nombre);
+        this.ataque = ataque;
+        this.defensa = defensa;
+    }
+
+    @Override
+    public double getAtaque() {
+        return ataque;
+    }
+
+    @Override
+    public int getDefensa() {
+        return defensa;
+    }
+
+    @Override
+    public String toString() {
+        return getNombre() + " [ATQ +" + (int) ataque + ", DEF +" + defensa + "]";
+    }
+}
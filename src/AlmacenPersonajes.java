@@ -0,0 +1,374 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.LongPredicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.LongStream;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+
+/**
+ * Tabla de registros de personaje fuera del montón de Java (API de memoria externa, JDK 22+).
+ * -
+ * Cada registro ocupa {@link #TAMANIO_REGISTRO} bytes con un formato fijo (ver {@link #REGISTRO}):
+ * nombre (como número, el texto lo guarda quien use la tabla), clase, nivel, experiencia, defensa,
+ * vida y los números del equipo de cada RanuraEquipo (-1 si el hueco está vacío). Los datos viven
+ * en un MemorySegment, en memoria o proyectado sobre un fichero, así que el montón no crece con el
+ * número de registros y el recolector de basura no tiene nada que recorrer.
+ * -
+ * La cabecera del segmento guarda una marca, la versión y el número de registros, de modo que un
+ * fichero proyectado se puede volver a abrir. Lecturas simultáneas desde varios hilos son seguras;
+ * las escrituras deben hacerse desde uno solo.
+ *
+ * @version 1.0
+ */
+public final class AlmacenPersonajes implements AutoCloseable {
+
+    /**
+     * Formato de un registro.
+     */
+    public static final MemoryLayout REGISTRO = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withName("nombre"),
+            ValueLayout.JAVA_INT.withName("clase"),
+            ValueLayout.JAVA_INT.withName("nivel"),
+            ValueLayout.JAVA_INT.withName("experiencia"),
+            ValueLayout.JAVA_INT.withName("experienciaTotal"),
+            ValueLayout.JAVA_INT.withName("defensa"),
+            ValueLayout.JAVA_DOUBLE.withName("vida"),
+            ValueLayout.JAVA_DOUBLE.withName("vidaMax"),
+            MemoryLayout.sequenceLayout(RanuraEquipo.values().length, ValueLayout.JAVA_INT).withName("equipo"));
+
+    public static final long TAMANIO_REGISTRO = REGISTRO.byteSize();
+
+    /** Clase guardada para personajes que no son héroes jugables. */
+    public static final int SIN_CLASE = -1;
+    /** Número de equipo de un hueco vacío. */
+    public static final int SIN_EQUIPO = -1;
+
+    private static final int MARCA = 0x50455253; // "PERS"
+    private static final int VERSION = 1;
+    private static final long CABECERA = 16; // marca, versión, número de registros
+
+    private static final long NOMBRE = REGISTRO.byteOffset(groupElement("nombre"));
+    private static final long CLASE = REGISTRO.byteOffset(groupElement("clase"));
+    private static final long NIVEL = REGISTRO.byteOffset(groupElement("nivel"));
+    private static final long EXPERIENCIA = REGISTRO.byteOffset(groupElement("experiencia"));
+    private static final long EXPERIENCIA_TOTAL = REGISTRO.byteOffset(groupElement("experienciaTotal"));
+    private static final long DEFENSA = REGISTRO.byteOffset(groupElement("defensa"));
+    private static final long VIDA = REGISTRO.byteOffset(groupElement("vida"));
+    private static final long VIDA_MAX = REGISTRO.byteOffset(groupElement("vidaMax"));
+    private static final long EQUIPO = REGISTRO.byteOffset(groupElement("equipo"));
+
+    private final Arena arena;
+    private final MemorySegment datos;
+    private final long capacidad;
+    private final boolean proyectado;
+
+    private AlmacenPersonajes(Arena arena, MemorySegment datos, long capacidad, boolean proyectado) {
+        this.arena = arena;
+        this.datos = datos;
+        this.capacidad = capacidad;
+        this.proyectado = proyectado;
+    }
+
+    /**
+     * Crea una tabla vacía en memoria externa.
+     *
+     * @param capacidad Registros como máximo.
+     * @return La tabla (hay que cerrarla para liberar la memoria).
+     */
+    public static AlmacenPersonajes enMemoria(long capacidad) {
+        if (capacidad < 0) throw new IllegalArgumentException("Capacidad negativa: " + capacidad);
+        Arena arena = Arena.ofShared();
+        MemorySegment datos = arena.allocate(CABECERA + capacidad * TAMANIO_REGISTRO, 8);
+        iniciarCabecera(datos);
+        return new AlmacenPersonajes(arena, datos, capacidad, false);
+    }
+
+    /**
+     * Abre (o crea) una tabla proyectada sobre un fichero. Los cambios se escriben en el fichero.
+     *
+     * @param fichero   Fichero de la tabla.
+     * @param capacidad Registros como máximo (el fichero crece hasta ese tamaño).
+     * @return La tabla (hay que cerrarla para deshacer la proyección).
+     * @throws IOException              si no se puede abrir o proyectar el fichero.
+     * @throws IllegalArgumentException si el fichero existe pero no es una tabla válida o no cabe.
+     */
+    public static AlmacenPersonajes proyectar(Path fichero, long capacidad) throws IOException {
+        if (capacidad < 0) throw new IllegalArgumentException("Capacidad negativa: " + capacidad);
+        Arena arena = Arena.ofShared();
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean nuevo = canal.size() == 0;
+            MemorySegment datos = canal.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(canal.size(), CABECERA + capacidad * TAMANIO_REGISTRO), arena);
+            if (nuevo) {
+                iniciarCabecera(datos);
+            } else if (datos.get(ValueLayout.JAVA_INT, 0) != MARCA || datos.get(ValueLayout.JAVA_INT, 4) != VERSION) {
+                throw new IllegalArgumentException("No es una tabla de personajes: " + fichero);
+            }
+            long cabe = (datos.byteSize() - CABECERA) / TAMANIO_REGISTRO;
+            AlmacenPersonajes almacen = new AlmacenPersonajes(arena, datos, cabe, true);
+            if (almacen.tamanio() > cabe) throw new IllegalArgumentException("Tabla dañada: " + fichero);
+            return almacen;
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private static void iniciarCabecera(MemorySegment datos) {
+        datos.set(ValueLayout.JAVA_INT, 0, MARCA);
+        datos.set(ValueLayout.JAVA_INT, 4, VERSION);
+        datos.set(ValueLayout.JAVA_LONG, 8, 0L);
+    }
+
+    /**
+     * @return Registros guardados.
+     */
+    public long tamanio() {
+        return datos.get(ValueLayout.JAVA_LONG, 8);
+    }
+
+    public long getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Añade un registro vacío (todo a 0 y sin equipo).
+     *
+     * @return Su índice.
+     * @throws IllegalStateException si la tabla está llena.
+     */
+    public long anadir() {
+        long i = tamanio();
+        if (i == capacidad) throw new IllegalStateException("Tabla de personajes llena (" + capacidad + ")");
+        long base = CABECERA + i * TAMANIO_REGISTRO;
+        datos.asSlice(base, TAMANIO_REGISTRO).fill((byte) 0);
+        for (int r = 0; r < RanuraEquipo.values().length; r++) {
+            datos.set(ValueLayout.JAVA_INT, base + EQUIPO + 4L * r, SIN_EQUIPO);
+        }
+        datos.set(ValueLayout.JAVA_LONG, 8, i + 1);
+        return i;
+    }
+
+    // --- Acceso por campos ---
+
+    public int getNombre(long i) {
+        return datos.get(ValueLayout.JAVA_INT, base(i) + NOMBRE);
+    }
+    public void setNombre(long i, int nombre) {
+        datos.set(ValueLayout.JAVA_INT, base(i) + NOMBRE, nombre);
+    }
+    /**
+     * @param i Índice del registro.
+     * @return Ordinal de ClasePersonaje, o {@link #SIN_CLASE}.
+     */
+    public int getClase(long i) {
+        return datos.get(ValueLayout.JAVA_INT, base(i) + CLASE);
+    }
+    public void setClase(long i, int clase) {
+        datos.set(ValueLayout.JAVA_INT, base(i) + CLASE, clase);
+    }
+    public int getNivel(long i) {
+        return datos.get(ValueLayout.JAVA_INT, base(i) + NIVEL);
+    }
+    public void setNivel(long i, int nivel) {
+        datos.set(ValueLayout.JAVA_INT, base(i) + NIVEL, nivel);
+    }
+    public int getExperiencia(long i) {
+        return datos.get(ValueLayout.JAVA_INT, base(i) + EXPERIENCIA);
+    }
+    public int getExperienciaTotal(long i) {
+        return datos.get(ValueLayout.JAVA_INT, base(i) + EXPERIENCIA_TOTAL);
+    }
+    public void setExperiencia(long i, int experiencia, int experienciaTotal) {
+        long b = base(i);
+        datos.set(ValueLayout.JAVA_INT, b + EXPERIENCIA, experiencia);
+        datos.set(ValueLayout.JAVA_INT, b + EXPERIENCIA_TOTAL, experienciaTotal);
+    }
+    public int getDefensa(long i) {
+        return datos.get(ValueLayout.JAVA_INT, base(i) + DEFENSA);
+    }
+    public void setDefensa(long i, int defensa) {
+        datos.set(ValueLayout.JAVA_INT, base(i) + DEFENSA, defensa);
+    }
+    public double getVida(long i) {
+        return datos.get(ValueLayout.JAVA_DOUBLE, base(i) + VIDA);
+    }
+    public double getVidaMax(long i) {
+        return datos.get(ValueLayout.JAVA_DOUBLE, base(i) + VIDA_MAX);
+    }
+    public void setVida(long i, double vida, double vidaMax) {
+        long b = base(i);
+        datos.set(ValueLayout.JAVA_DOUBLE, b + VIDA, vida);
+        datos.set(ValueLayout.JAVA_DOUBLE, b + VIDA_MAX, vidaMax);
+    }
+    /**
+     * @param i      Índice del registro.
+     * @param ranura Hueco de equipo.
+     * @return Número de la pieza puesta, o {@link #SIN_EQUIPO}.
+     */
+    public int getEquipo(long i, RanuraEquipo ranura) {
+        return datos.get(ValueLayout.JAVA_INT, base(i) + EQUIPO + 4L * ranura.ordinal());
+    }
+    public void setEquipo(long i, RanuraEquipo ranura, int equipo) {
+        datos.set(ValueLayout.JAVA_INT, base(i) + EQUIPO + 4L * ranura.ordinal(), equipo);
+    }
+
+    // --- Recorridos ---
+
+    /**
+     * Índices de todos los registros, para recorrerlos o filtrarlos (admite .parallel()).
+     *
+     * @return Flujo de índices de 0 a tamanio() - 1.
+     */
+    public LongStream indices() {
+        return LongStream.range(0, tamanio());
+    }
+
+    /**
+     * Cuenta los registros que cumplen un filtro, recorriendo la tabla de principio a fin.
+     *
+     * @param filtro Condición sobre el índice (usando los getters de la tabla).
+     * @return Número de registros que la cumplen.
+     */
+    public long contar(LongPredicate filtro) {
+        long n = tamanio();
+        long total = 0;
+        for (long i = 0; i < n; i++) {
+            if (filtro.test(i)) total++;
+        }
+        return total;
+    }
+
+    // --- Paso desde y hacia Personaje ---
+
+    /**
+     * Añade un registro con los datos de un personaje.
+     *
+     * @param p        Personaje.
+     * @param nombre   Número de su nombre.
+     * @param idEquipo Número de cada pieza de equipo.
+     * @return Índice del registro.
+     */
+    public long guardar(Personaje p, int nombre, ToIntFunction<Equipo> idEquipo) {
+        long i = anadir();
+        escribir(i, p, nombre, idEquipo);
+        return i;
+    }
+
+    /**
+     * Sobrescribe un registro con los datos de un personaje.
+     *
+     * @param i        Índice del registro.
+     * @param p        Personaje.
+     * @param nombre   Número de su nombre.
+     * @param idEquipo Número de cada pieza de equipo.
+     */
+    public void escribir(long i, Personaje p, int nombre, ToIntFunction<Equipo> idEquipo) {
+        ClasePersonaje clase = ClasePersonaje.de(p);
+        setNombre(i, nombre);
+        setClase(i, clase == null ? SIN_CLASE : clase.ordinal());
+        setNivel(i, p.getNivel());
+        setExperiencia(i, p.getExperiencia(), p.getExperienciaTotal());
+        setDefensa(i, p.getDefensa());
+        setVida(i, p.getPuntosVida(), p.getPuntosVidaMax());
+        Equipamiento equipo = p.getEquipamiento();
+        for (RanuraEquipo r : RanuraEquipo.values()) {
+            Equipo pieza = equipo.get(r);
+            setEquipo(i, r, pieza == null ? SIN_EQUIPO : idEquipo.applyAsInt(pieza));
+        }
+    }
+
+    /**
+     * Crea el héroe de un registro.
+     *
+     * @param i      Índice del registro.
+     * @param nombre Nombre del héroe.
+     * @param equipo Pieza que corresponde a cada número de equipo.
+     * @return El héroe, con su nivel, experiencia, vida, defensa y equipo.
+     * @throws IllegalArgumentException si el registro no es de un héroe jugable.
+     */
+    public Personaje cargar(long i, String nombre, IntFunction<Equipo> equipo) {
+        int clase = getClase(i);
+        if (clase < 0 || clase >= ClasePersonaje.values().length) {
+            throw new IllegalArgumentException("El registro " + i + " no es de un héroe jugable");
+        }
+        Personaje p = ClasePersonaje.values()[clase].crear(nombre);
+        p.setNivel(getNivel(i));
+        p.restaurarExperiencia(getExperiencia(i), getExperienciaTotal(i));
+        p.setPuntosVidaMax(getVidaMax(i));
+        p.setPuntosVida(getVida(i));
+        p.setDefensa(getDefensa(i));
+        for (RanuraEquipo r : p.getEquipamiento().getRanuras()) {
+            int id = getEquipo(i, r);
+            p.equipar(r, id == SIN_EQUIPO ? null : equipo.apply(id));
+        }
+        return p;
+    }
+
+    /**
+     * Escribe en el fichero los cambios pendientes (solo tablas proyectadas).
+     */
+    public void sincronizar() {
+        if (proyectado) datos.force();
+    }
+
+    /**
+     * Libera la memoria o deshace la proyección. La tabla no se puede usar después.
+     */
+    @Override
+    public void close() {
+        sincronizar();
+        arena.close();
+    }
+
+    private long base(long i) {
+        return CABECERA + Objects.checkIndex(i, tamanio()) * TAMANIO_REGISTRO;
+    }
+
+    /**
+     * Banco de pruebas: llena una tabla y la recorre, mostrando el montón usado.
+     *
+     * @param args Opcional: número de registros (5000000) y fichero donde proyectarla.
+     * @throws IOException si falla la proyección.
+     */
+    public static void main(String[] args) throws IOException {
+        long n = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000;
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long montonAntes = rt.totalMemory() - rt.freeMemory();
+
+        long t0 = System.nanoTime();
+        try (AlmacenPersonajes tabla = args.length > 1 ? proyectar(Path.of(args[1]), n) : enMemoria(n)) {
+            for (long k = tabla.tamanio(); k < n; k++) {
+                long i = tabla.anadir();
+                int nivel = 1 + (int) (k % 80);
+                tabla.setNombre(i, (int) k);
+                tabla.setClase(i, (int) (k % 3));
+                tabla.setNivel(i, nivel);
+                tabla.setVida(i, 50 + nivel, 100 + nivel * 10);
+                tabla.setDefensa(i, nivel / 4);
+            }
+            long tLlenar = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            long veteranos = tabla.contar(i -> tabla.getNivel(i) >= 40 && tabla.getVida(i) < tabla.getVidaMax(i) / 2);
+            long tRecorrer = System.nanoTime() - t0;
+
+            System.gc();
+            long montonDespues = rt.totalMemory() - rt.freeMemory();
+            System.out.printf("Registros: %d (%d MB fuera del montón)%n", tabla.tamanio(), tabla.tamanio() * TAMANIO_REGISTRO >> 20);
+            System.out.printf("Llenar: %.0f ms   Recorrer y filtrar: %.0f ms (%d coinciden)%n", tLlenar / 1e6, tRecorrer / 1e6, veteranos);
+            System.out.printf("Montón usado: %d KB antes, %d KB después%n", montonAntes >> 10, montonDespues >> 10);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Pieza de equipo que protege el cuerpo y suma defensa.
+ *
+ * @version 1.0
+ */
+public class Armadura extends Equipo {
+    private final int defensa;
+
+    /**
+     * Crea una armadura.
+     *
+     * @param nombre  Nombre de la armadura.
+     * @param defensa Puntos de defensa que suma.
+     */
+    public Armadura(String nombre, int defensa) {
+        super(nombre);
+        this.defensa = defensa;
+    }
+
+    @Override
+    public double getAtaque() {
+        return 0;
+    }
+
+    @Override
+    public int getDefensa() {
+        return defensa;
+    }
+
+    @Override
+    public String toString() {
+        return getNombre() + " [DEF +" + defensa + "]";
+    }
+}
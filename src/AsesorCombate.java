@@ -0,0 +1,228 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Consejero de combate basado en búsqueda en árbol Monte Carlo (MCTS).
+ * -
+ * Dado el combate actual, simula miles de continuaciones con las reglas de {@link EstadoCombate}
+ * durante un tiempo fijo y recomienda la acción con más probabilidad de ganar.
+ * La búsqueda se paraleliza por la raíz: cada núcleo construye su propio árbol con su propio
+ * generador aleatorio y al final se suman las estadísticas de las acciones de la raíz, así que
+ * los hilos no comparten nada mientras buscan.
+ * -
+ * Como el enemigo es aleatorio, el árbol es de "bucle abierto": cada nodo representa una secuencia
+ * de acciones del jugador y el estado se vuelve a simular desde la raíz en cada iteración.
+ *
+ * @version 1.0
+ */
+public final class AsesorCombate {
+
+    /**
+     * Constante de exploración de UCT.
+     */
+    private static final double EXPLORACION = 1.4;
+    /**
+     * Turnos máximos de una simulación.
+     */
+    private static final int MAX_TURNOS = 200;
+
+    /**
+     * Hilos de búsqueda (demonio, para no impedir que el juego termine).
+     */
+    private static final ExecutorService HILOS = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), r -> {
+                Thread t = new Thread(r, "asesor-combate");
+                t.setDaemon(true);
+                return t;
+            });
+
+    /**
+     * Recomendación del asesor.
+     */
+    public static final class Consejo {
+        private final int accion;
+        private final double probabilidadVictoria;
+        private final long simulaciones;
+
+        private Consejo(int accion, double probabilidadVictoria, long simulaciones) {
+            this.accion = accion;
+            this.probabilidadVictoria = probabilidadVictoria;
+            this.simulaciones = simulaciones;
+        }
+
+        /**
+         * Acción recomendada (ver constantes de EstadoCombate).
+         * @return La acción.
+         */
+        public int getAccion() {
+            return accion;
+        }
+        public double getProbabilidadVictoria() {
+            return probabilidadVictoria;
+        }
+        public long getSimulaciones() {
+            return simulaciones;
+        }
+
+        /**
+         * Descripción legible de la acción recomendada.
+         * @param estado Estado sobre el que se pidió consejo (para nombrar objetos).
+         * @return Texto de la acción.
+         */
+        public String describir(EstadoCombate estado) {
+            if (accion == EstadoCombate.ATACAR) return "Atacar";
+            if (accion == EstadoCombate.DESCANSAR) return "Defender y Descansar";
+            int indice = accion - EstadoCombate.USAR_OBJETO;
+            return "Usar " + estado.getInventario().get(indice) + " (objeto " + indice + ")";
+        }
+    }
+
+    private AsesorCombate() {
+    }
+
+    /**
+     * Busca la mejor acción para el estado dado.
+     *
+     * @param estado        Estado actual del combate (no se modifica).
+     * @param presupuestoMs Tiempo de búsqueda en milisegundos.
+     * @return La acción recomendada y su probabilidad estimada de victoria.
+     */
+    public static Consejo aconsejar(EstadoCombate estado, long presupuestoMs) {
+        long limite = System.nanoTime() + presupuestoMs * 1_000_000L;
+        SplittableRandom semilla = new SplittableRandom();
+
+        List<Future<Nodo>> arboles = new ArrayList<>();
+        int hilos = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < hilos; i++) {
+            SplittableRandom azar = semilla.split();
+            arboles.add(HILOS.submit(() -> buscar(estado, limite, azar)));
+        }
+
+        // Suma de las estadísticas de la raíz de todos los árboles
+        int[] acciones = new int[2 + estado.getInventario().getTamanio()];
+        int numAcciones = estado.accionesValidas(acciones);
+        long[] visitas = new long[numAcciones];
+        long[] victorias = new long[numAcciones];
+        long total = 0;
+        for (Future<Nodo> f : arboles) {
+            Nodo raiz;
+            try {
+                raiz = f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Fallo en la búsqueda del asesor", e.getCause());
+            }
+            total += raiz.visitas;
+            for (int i = 0; i < raiz.expandidos; i++) {
+                visitas[i] += raiz.hijos[i].visitas;
+                victorias[i] += raiz.hijos[i].victorias;
+            }
+        }
+
+        int mejor = 0;
+        for (int i = 1; i < numAcciones; i++) {
+            if (visitas[i] > visitas[mejor]) mejor = i;
+        }
+        double probabilidad = visitas[mejor] == 0 ? 0 : (double) victorias[mejor] / visitas[mejor];
+        return new Consejo(acciones[mejor], probabilidad, total);
+    }
+
+    // ------- Búsqueda -------
+
+    /**
+     * Nodo del árbol: una secuencia de acciones del jugador.
+     */
+    private static final class Nodo {
+        final int[] acciones;
+        final int numAcciones;
+        final Nodo[] hijos;
+        int expandidos;
+        long visitas;
+        long victorias;
+
+        Nodo(EstadoCombate estado) {
+            // Las acciones solo dependen del inventario, que no depende del azar:
+            // son las mismas aunque en otra simulación este nodo llegue con el combate terminado.
+            int[] buffer = new int[2 + estado.getInventario().getTamanio()];
+            this.numAcciones = estado.accionesValidas(buffer);
+            this.acciones = buffer;
+            this.hijos = new Nodo[numAcciones];
+        }
+
+        /**
+         * Índice del hijo con mayor valor UCT (todos los hijos ya están expandidos).
+         */
+        int seleccionar() {
+            double logN = Math.log(visitas);
+            int mejor = 0;
+            double mejorValor = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < expandidos; i++) {
+                Nodo h = hijos[i];
+                double valor = (double) h.victorias / h.visitas + EXPLORACION * Math.sqrt(logN / h.visitas);
+                if (valor > mejorValor) {
+                    mejorValor = valor;
+                    mejor = i;
+                }
+            }
+            return mejor;
+        }
+    }
+
+    private static Nodo buscar(EstadoCombate inicial, long limite, SplittableRandom azar) {
+        Nodo raiz = new Nodo(inicial);
+        Nodo[] camino = new Nodo[MAX_TURNOS + 2];
+        int[] buffer = new int[2 + inicial.getInventario().getTamanio()];
+
+        int iteracion = 0;
+        while ((iteracion++ & 63) != 0 || System.nanoTime() < limite) {
+            EstadoCombate estado = inicial.bifurcar();
+            Nodo nodo = raiz;
+            int profundidad = 0;
+            camino[profundidad++] = nodo;
+
+            // Selección y expansión
+            while (!estado.terminado() && profundidad <= MAX_TURNOS) {
+                if (nodo.expandidos < nodo.numAcciones) {
+                    int accion = nodo.acciones[nodo.expandidos];
+                    estado.jugarTurno(accion, azar);
+                    Nodo hijo = new Nodo(estado);
+                    nodo.hijos[nodo.expandidos++] = hijo;
+                    nodo = hijo;
+                    camino[profundidad++] = nodo;
+                    break;
+                }
+                int i = nodo.seleccionar();
+                estado.jugarTurno(nodo.acciones[i], azar);
+                nodo = nodo.hijos[i];
+                camino[profundidad++] = nodo;
+            }
+
+            // Simulación con una política ligera: casi siempre atacar
+            while (!estado.terminado() && estado.getTurnos() < MAX_TURNOS) {
+                int accion = EstadoCombate.ATACAR;
+                if (azar.nextInt(4) == 0) {
+                    int n = estado.accionesValidas(buffer);
+                    accion = buffer[azar.nextInt(n)];
+                } else if (estado.getVidaJugador() < estado.getVidaMaxJugador() * 0.3 && azar.nextBoolean()) {
+                    accion = EstadoCombate.DESCANSAR;
+                }
+                estado.jugarTurno(accion, azar);
+            }
+
+            // Retropropagación
+            int victoria = estado.jugadorGana() ? 1 : 0;
+            for (int i = 0; i < profundidad; i++) {
+                camino[i].visitas++;
+                camino[i].victorias += victoria;
+            }
+        }
+        return raiz;
+    }
+}
@@ -0,0 +1,286 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Guardado automático en segundo plano.
+ * -
+ * El juego solo captura una {@link InstantaneaPartida} y la entrega con {@link #programar}, que nunca
+ * bloquea. Un hilo escritor serializa la instantánea, la escribe en un fichero temporal, fuerza
+ * los datos a disco y lo renombra de forma atómica sobre el guardado anterior, así que un corte
+ * a mitad de escritura nunca deja un guardado a medias.
+ * -
+ * Los guardados se agrupan por sesión: si llegan varias instantáneas de la misma partida antes de
+ * que el escritor la atienda, solo se escribe la más reciente. Un mismo AutoGuardado puede servir
+ * a miles de partidas a la vez.
+ * -
+ * Si se indica qué campos han cambiado, solo se añade al fichero un registro delta con esos campos
+ * (ver {@link GuardadoIncremental}); cada {@link GuardadoIncremental#COMPACTAR_CADA} deltas se
+ * reescribe la base completa.
+ * -
+ * Los fallos de escritura se avisan por System.err, para no ensuciar el panel de la partida.
+ *
+ * @version 1.0
+ */
+public class AutoGuardado implements AutoCloseable {
+
+    /**
+     * Turnos entre guardados periódicos.
+     */
+    public static final int TURNOS_ENTRE_GUARDADOS = 10;
+
+    /**
+     * Instantánea pendiente con los campos que cambiaron desde el último guardado escrito.
+     */
+    private static final class Pendiente {
+        final InstantaneaPartida instantanea;
+        final long cambios;
+
+        Pendiente(InstantaneaPartida instantanea, long cambios) {
+            this.instantanea = instantanea;
+            this.cambios = cambios;
+        }
+    }
+
+    private final Path directorio;
+    /**
+     * Última instantánea pendiente de cada sesión.
+     */
+    private final ConcurrentHashMap<String, Pendiente> pendientes = new ConcurrentHashMap<>();
+    /**
+     * Base escrita de cada sesión: deltas añadidos desde entonces y momento de la base.
+     * Solo lo usa el hilo escritor.
+     */
+    private static final class Base {
+        int deltas;
+        final long momento;
+
+        Base(long momento) {
+            this.momento = momento;
+        }
+    }
+
+    /**
+     * Última base escrita de cada sesión.
+     */
+    private final Map<String, Base> bases = new HashMap<>();
+    /**
+     * Sesiones con una instantánea pendiente, en orden de llegada (cada una aparece como mucho una vez).
+     */
+    private final LinkedBlockingQueue<String> cola = new LinkedBlockingQueue<>();
+    private final Thread escritor;
+    private volatile boolean cerrado;
+
+    /** Protege {@link #escribiendo}; {@link #vaciar} espera en {@link #sinPendientes}. */
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition sinPendientes = cerrojo.newCondition();
+    /** El escritor tiene una instantánea retirada de la cola y aún no escrita. */
+    private boolean escribiendo;
+
+    private final AtomicLong programados = new AtomicLong();
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private final AtomicLong bytesEscritos = new AtomicLong();
+
+    private AutoGuardado(Path directorio) {
+        this.directorio = directorio;
+        this.escritor = new Thread(this::escribirPendientes, "autoguardado");
+        this.escritor.setDaemon(true);
+    }
+
+    /**
+     * Crea un autoguardado y arranca su escritor en segundo plano.
+     *
+     * @param directorio Carpeta de los guardados (se crea si no existe).
+     * @return El autoguardado, ya en marcha.
+     * @throws IllegalArgumentException si la carpeta no se puede crear.
+     */
+    public static AutoGuardado iniciar(Path directorio) {
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se puede usar la carpeta de guardado " + directorio, e);
+        }
+        AutoGuardado autoGuardado = new AutoGuardado(directorio);
+        autoGuardado.escritor.start();
+        return autoGuardado;
+    }
+
+    /**
+     * Entrega una instantánea para guardarla. No bloquea ni hace E/S.
+     * Si la sesión ya tenía una pendiente, se sustituye por esta.
+     *
+     * @param sesion     Identificador de la partida (nombre del fichero).
+     * @param instantanea Estado a guardar.
+     */
+    public void programar(String sesion, InstantaneaPartida instantanea) {
+        programar(sesion, instantanea, CampoPartida.TODOS);
+    }
+
+    /**
+     * Entrega una instantánea indicando qué campos han cambiado desde la anterior de la sesión.
+     * No bloquea ni hace E/S. Si la sesión ya tenía una pendiente, se sustituye por esta y se
+     * suman los campos cambiados de ambas.
+     *
+     * @param sesion      Identificador de la partida (nombre del fichero).
+     * @param instantanea Estado a guardar.
+     * @param cambios     Máscara de bits de CampoPartida.
+     */
+    public void programar(String sesion, InstantaneaPartida instantanea, long cambios) {
+        if (cerrado) throw new IllegalStateException("El autoguardado está cerrado");
+        programados.incrementAndGet();
+        Pendiente nueva = new Pendiente(instantanea, cambios);
+        Pendiente resultado = pendientes.merge(sesion, nueva,
+                (vieja, n) -> new Pendiente(n.instantanea, vieja.cambios | n.cambios));
+        if (resultado == nueva) { // No había otra pendiente: hay que encolar la sesión
+            cola.offer(sesion);
+        }
+    }
+
+    /**
+     * Ruta del guardado de una sesión.
+     *
+     * @param sesion Identificador de la partida.
+     * @return Fichero de guardado.
+     */
+    public Path getFichero(String sesion) {
+        return directorio.resolve(sesion + ".sav");
+    }
+
+    public long getProgramados() {
+        return programados.get();
+    }
+    public long getEscritos() {
+        return escritos.get();
+    }
+    public long getFallidos() {
+        return fallidos.get();
+    }
+    public long getBytesEscritos() {
+        return bytesEscritos.get();
+    }
+
+    /**
+     * Espera a que se hayan escrito todas las instantáneas entregadas hasta ahora.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void vaciar() throws InterruptedException {
+        cerrojo.lock();
+        try {
+            // La última sesión retirada puede estar aún escribiéndose
+            while (!pendientes.isEmpty() || escribiendo) sinPendientes.await();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Escribe lo pendiente y detiene el escritor.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            vaciar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        escritor.interrupt();
+    }
+
+    private void escribirPendientes() {
+        while (true) {
+            String sesion;
+            try {
+                sesion = cola.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                if (cerrado && pendientes.isEmpty()) return;
+                continue;
+            }
+            if (sesion == null) continue;
+            marcarEscritura(true);
+            try {
+                // Se retira antes de escribir: si llega otra mientras tanto, vuelve a la cola
+                Pendiente pendiente = pendientes.remove(sesion);
+                if (pendiente == null) continue;
+                guardar(sesion, pendiente);
+                escritos.incrementAndGet();
+            } catch (IOException e) {
+                fallidos.incrementAndGet();
+                bases.remove(sesion); // Los cambios no escritos se recuperan con una base completa
+                System.err.println("(!) No se pudo autoguardar la partida '" + sesion + "': " + e.getMessage());
+            } finally {
+                marcarEscritura(false);
+            }
+        }
+    }
+
+    /**
+     * Anota si el escritor está escribiendo y, al terminar, despierta a quien espere en vaciar.
+     */
+    private void marcarEscritura(boolean activa) {
+        cerrojo.lock();
+        try {
+            escribiendo = activa;
+            if (!activa) sinPendientes.signalAll();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Escribe un delta o, si toca, una base completa nueva.
+     */
+    private void guardar(String sesion, Pendiente pendiente) throws IOException {
+        Path fichero = getFichero(sesion);
+        Base base = bases.get(sesion);
+        if (pendiente.cambios == CampoPartida.TODOS || base == null
+                || base.deltas >= GuardadoIncremental.COMPACTAR_CADA || !Files.exists(fichero)) {
+            bytesEscritos.addAndGet(escribir(fichero, pendiente.instantanea.aTexto()));
+            bases.put(sesion, new Base(pendiente.instantanea.getMomento()));
+        } else {
+            bytesEscritos.addAndGet(GuardadoIncremental.anadirDelta(
+                    fichero, pendiente.instantanea, pendiente.cambios, base.momento));
+            base.deltas++;
+        }
+    }
+
+    /**
+     * Escritura segura: fichero temporal, volcado a disco y renombrado atómico.
+     *
+     * @param destino Fichero final.
+     * @param texto   Contenido.
+     * @return Bytes escritos.
+     * @throws IOException si falla la escritura.
+     */
+    static int escribir(Path destino, String texto) throws IOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        ByteBuffer datos = ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (datos.hasRemaining()) canal.write(datos);
+            canal.force(true);
+        }
+        try {
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return datos.capacity();
+    }
+}
@@ -0,0 +1,310 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flujo de eventos del juego con contrapresión (java.util.concurrent.Flow).
+ * -
+ * Quien produce llama a {@link #publicar}; cada suscriptor tiene su propia cola acotada y su propio
+ * hilo virtual de entrega, así que un suscriptor lento (por ejemplo, el que escribe el diario en
+ * disco) solo se retrasa a sí mismo. Qué pasa cuando su cola se llena lo decide su política:
+ * - DESCARTAR: el evento nuevo se descarta (y se cuenta). Quien publica nunca espera.
+ * - MUESTREAR: el evento nuevo sustituye al último de la cola, así que el suscriptor siempre acaba
+ *   viendo el estado más reciente aunque se pierda el intermedio (paneles, indicadores).
+ * - BLOQUEAR: quien publica espera a que haya hueco. Solo para suscriptores que no pueden perder
+ *   nada y son más rápidos que el juego; uno lento frenaría la partida.
+ * -
+ * La entrega va por lotes: el hilo de entrega saca de una vez hasta {@code lote} eventos (sin pasar
+ * de lo pedido con request) y los entrega fuera del cerrojo. Cada suscriptor recibe los eventos en
+ * el orden en que se publicaron.
+ *
+ * @param <T> Tipo de evento.
+ * @version 1.0
+ */
+public class BusEventos<T> implements Flow.Publisher<T>, AutoCloseable {
+
+    /**
+     * Qué hacer cuando la cola de un suscriptor está llena.
+     */
+    public enum Desbordamiento {
+        DESCARTAR,
+        MUESTREAR,
+        BLOQUEAR
+    }
+
+    /**
+     * Capacidad de la cola de los suscriptores añadidos con {@link #subscribe}.
+     */
+    public static final int CAPACIDAD = 1024;
+
+    /**
+     * Eventos entregados como máximo en cada vuelta del hilo de entrega.
+     */
+    public static final int LOTE = 64;
+
+    private final List<Suscripcion> suscripciones = new CopyOnWriteArrayList<>();
+    private volatile boolean cerrado;
+
+    /**
+     * Suscribe con la cola por defecto ({@link #CAPACIDAD} eventos, DESCARTAR).
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> suscriptor) {
+        suscribir(suscriptor, CAPACIDAD, Desbordamiento.DESCARTAR, LOTE);
+    }
+
+    /**
+     * Suscribe con una cola y una política propias. onSubscribe se llama en el hilo de entrega.
+     *
+     * @param suscriptor Suscriptor.
+     * @param capacidad  Eventos que caben en su cola.
+     * @param politica   Qué hacer con la cola llena.
+     * @param lote       Eventos entregados como máximo por vuelta.
+     * @return La suscripción (para consultar lo entregado y lo descartado).
+     * @throws IllegalArgumentException si la capacidad o el lote no son positivos.
+     */
+    public Suscripcion suscribir(Flow.Subscriber<? super T> suscriptor, int capacidad, Desbordamiento politica, int lote) {
+        if (capacidad < 1 || lote < 1) throw new IllegalArgumentException("La capacidad y el lote deben ser positivos");
+        Suscripcion s = new Suscripcion(suscriptor, capacidad, politica, lote);
+        suscripciones.add(s);
+        if (cerrado) s.completar(); // Se suscribe tarde: recibe onSubscribe y onComplete
+        Thread.ofVirtual().name("bus-" + suscriptor.getClass().getSimpleName()).start(s::entregar);
+        return s;
+    }
+
+    /**
+     * Reparte un evento a todos los suscriptores. Solo espera si alguno tiene la política BLOQUEAR
+     * y la cola llena.
+     *
+     * @param evento Evento.
+     * @throws IllegalStateException si el bus está cerrado.
+     */
+    public void publicar(T evento) {
+        if (cerrado) throw new IllegalStateException("El bus de eventos está cerrado");
+        for (Suscripcion s : suscripciones) s.ofrecer(evento);
+    }
+
+    /**
+     * @return Suscripciones activas.
+     */
+    public int getSuscriptores() {
+        return suscripciones.size();
+    }
+
+    /**
+     * Cierra el bus: cada suscriptor recibe lo que le quede en la cola y después onComplete.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        for (Suscripcion s : suscripciones) s.completar();
+    }
+
+    /**
+     * Suscripción de un suscriptor: su cola, lo que ha pedido y su hilo de entrega.
+     */
+    public final class Suscripcion implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> suscriptor;
+        private final Desbordamiento politica;
+        private final int lote;
+
+        private final ReentrantLock cerrojo = new ReentrantLock();
+        private final Condition hayTrabajo = cerrojo.newCondition();
+        private final Condition hayHueco = cerrojo.newCondition();
+        /** Cola circular. */
+        private final Object[] cola;
+        private int cabeza;
+        private int tamanio;
+        /** Eventos pedidos con request y aún no entregados. */
+        private long demanda;
+        private boolean cancelada;
+        private boolean completada;
+        private boolean entregaEsperando;
+        private Throwable error;
+
+        private long entregados;
+        private long descartados;
+        private long sustituidos;
+
+        private Suscripcion(Flow.Subscriber<? super T> suscriptor, int capacidad, Desbordamiento politica, int lote) {
+            this.suscriptor = suscriptor;
+            this.cola = new Object[capacidad];
+            this.politica = politica;
+            this.lote = lote;
+        }
+
+        @Override
+        public void request(long n) {
+            cerrojo.lock();
+            try {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("request(" + n + "): hay que pedir al menos un evento");
+                } else {
+                    demanda = demanda + n < 0 ? Long.MAX_VALUE : demanda + n;
+                }
+                hayTrabajo.signal();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cerrojo.lock();
+            try {
+                cancelada = true;
+                vaciar();
+                hayTrabajo.signal();
+                hayHueco.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+            suscripciones.remove(this);
+        }
+
+        // Getters (valores aproximados si hay eventos en vuelo)
+        public long getEntregados() {
+            cerrojo.lock();
+            try {
+                return entregados;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+        /**
+         * @return Eventos descartados con la cola llena (DESCARTAR).
+         */
+        public long getDescartados() {
+            cerrojo.lock();
+            try {
+                return descartados;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+        /**
+         * @return Eventos sustituidos por otro más reciente con la cola llena (MUESTREAR).
+         */
+        public long getSustituidos() {
+            cerrojo.lock();
+            try {
+                return sustituidos;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+        public int getPendientes() {
+            cerrojo.lock();
+            try {
+                return tamanio;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        private void ofrecer(T evento) {
+            cerrojo.lock();
+            try {
+                if (cancelada) return;
+                if (tamanio == cola.length) {
+                    switch (politica) {
+                        case DESCARTAR:
+                            descartados++;
+                            return;
+                        case MUESTREAR:
+                            cola[(cabeza + tamanio - 1) % cola.length] = evento;
+                            sustituidos++;
+                            return;
+                        default:
+                            while (tamanio == cola.length && !cancelada) hayHueco.awaitUninterruptibly();
+                            if (cancelada) return;
+                    }
+                }
+                cola[(cabeza + tamanio) % cola.length] = evento;
+                tamanio++;
+                if (entregaEsperando) hayTrabajo.signal();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        private void completar() {
+            cerrojo.lock();
+            try {
+                completada = true;
+                hayTrabajo.signal();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        /**
+         * Bucle del hilo de entrega.
+         */
+        @SuppressWarnings("unchecked")
+        private void entregar() {
+            try {
+                suscriptor.onSubscribe(this);
+            } catch (Throwable t) {
+                cancel();
+                suscriptor.onError(t);
+                return;
+            }
+            Object[] salida = new Object[lote];
+            while (true) {
+                int n;
+                Throwable fallo;
+                cerrojo.lock();
+                try {
+                    entregaEsperando = true;
+                    while (!cancelada && error == null && (tamanio == 0 || demanda == 0) && !(completada && tamanio == 0)) {
+                        hayTrabajo.awaitUninterruptibly();
+                    }
+                    entregaEsperando = false;
+                    if (cancelada) return;
+                    fallo = error;
+                    n = fallo != null ? 0 : (int) Math.min(Math.min(lote, tamanio), demanda);
+                    for (int i = 0; i < n; i++) {
+                        salida[i] = cola[cabeza];
+                        cola[cabeza] = null;
+                        cabeza = (cabeza + 1) % cola.length;
+                    }
+                    tamanio -= n;
+                    demanda -= n;
+                    entregados += n;
+                    if (n > 0 && politica == Desbordamiento.BLOQUEAR) hayHueco.signalAll();
+                } finally {
+                    cerrojo.unlock();
+                }
+
+                if (fallo != null) {
+                    cancel();
+                    suscriptor.onError(fallo);
+                    return;
+                }
+                if (n == 0) { // Completada y sin nada pendiente
+                    suscripciones.remove(this);
+                    suscriptor.onComplete();
+                    return;
+                }
+                try {
+                    for (int i = 0; i < n; i++) {
+                        suscriptor.onNext((T) salida[i]);
+                        salida[i] = null;
+                    }
+                } catch (Throwable t) {
+                    cancel();
+                    suscriptor.onError(t);
+                    return;
+                }
+            }
+        }
+
+        private void vaciar() {
+            for (int i = 0; i < tamanio; i++) cola[(cabeza + i) % cola.length] = null;
+            tamanio = 0;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.Arrays;
+
+/**
+ * Búsqueda de caminos A* sobre un {@link Mapa}.
+ * Todo el estado de la búsqueda vive en arrays de enteros reservados una sola vez;
+ * cada búsqueda usa un sello de generación en lugar de limpiar los arrays,
+ * así que buscar muchas rutas seguidas no reserva memoria.
+ * -
+ * Una instancia no es segura entre hilos: usar un buscador por hilo.
+ *
+ * @version 1.0
+ */
+public class BuscadorRutas {
+
+    /**
+     * Mapa sobre el que se busca.
+     */
+    private final Mapa mapa;
+    /**
+     * Lista abierta de A*, ordenada por f = g + h.
+     */
+    private final MonticuloBinario abiertos;
+    /**
+     * Coste acumulado (g) desde el origen.
+     */
+    private final int[] coste;
+    /**
+     * Casilla desde la que se llegó a cada casilla.
+     */
+    private final int[] padre;
+    /**
+     * Generación en la que se tocó cada casilla (si no coincide, su coste no es válido).
+     */
+    private final int[] visitada;
+    /**
+     * Generación en la que se cerró cada casilla.
+     */
+    private final int[] cerrada;
+    /**
+     * Vecinos de la casilla en expansión.
+     */
+    private final int[] vecinos = new int[4];
+    /**
+     * Generación de la búsqueda actual.
+     */
+    private int generacion;
+
+    /**
+     * Crea un buscador asociado a un mapa.
+     *
+     * @param mapa Mapa sobre el que se buscarán rutas.
+     */
+    public BuscadorRutas(Mapa mapa) {
+        this.mapa = mapa;
+        int n = mapa.getNumeroCasillas();
+        this.abiertos = new MonticuloBinario(n);
+        this.coste = new int[n];
+        this.padre = new int[n];
+        this.visitada = new int[n];
+        this.cerrada = new int[n];
+    }
+
+    public Mapa getMapa() {
+        return mapa;
+    }
+
+    /**
+     * Busca el camino más corto entre dos casillas.
+     * La ruta se escribe en {@code ruta} desde la casilla siguiente al origen hasta el destino.
+     *
+     * @param origen  Casilla de partida.
+     * @param destino Casilla objetivo.
+     * @param ruta    Array de salida (con capacidad para el número de casillas del mapa), o null
+     *                si solo interesa la longitud.
+     * @return Número de pasos del camino, o -1 si el destino es inalcanzable.
+     */
+    public int buscar(int origen, int destino, int[] ruta) {
+        if (!mapa.esTransitable(origen) || !mapa.esTransitable(destino)) return -1;
+        if (origen == destino) return 0;
+
+        int sello = nuevaGeneracion();
+        abiertos.limpiar();
+        coste[origen] = 0;
+        padre[origen] = -1;
+        visitada[origen] = sello;
+        abiertos.insertarOActualizar(origen, mapa.distanciaManhattan(origen, destino));
+
+        while (!abiertos.estaVacio()) {
+            int actual = abiertos.extraer();
+            if (actual == destino) {
+                return reconstruir(destino, ruta);
+            }
+            cerrada[actual] = sello;
+
+            int nuevoCoste = coste[actual] + 1;
+            int n = mapa.vecinos(actual, vecinos);
+            for (int i = 0; i < n; i++) {
+                int vecino = vecinos[i];
+                if (cerrada[vecino] == sello) continue;
+                if (visitada[vecino] != sello || nuevoCoste < coste[vecino]) {
+                    visitada[vecino] = sello;
+                    coste[vecino] = nuevoCoste;
+                    padre[vecino] = actual;
+                    abiertos.insertarOActualizar(vecino, nuevoCoste + mapa.distanciaManhattan(vecino, destino));
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Comprueba si existe algún camino entre dos casillas.
+     *
+     * @param origen  Casilla de partida.
+     * @param destino Casilla objetivo.
+     * @return true si el destino es alcanzable.
+     */
+    public boolean esAlcanzable(int origen, int destino) {
+        return buscar(origen, destino, null) >= 0;
+    }
+
+    /**
+     * Devuelve solo el primer paso del camino más corto (lo que necesita un perseguidor en cada turno).
+     *
+     * @param origen  Casilla de partida.
+     * @param destino Casilla objetivo.
+     * @return Casilla a la que moverse, el propio origen si ya está en destino, o -1 si no hay camino.
+     */
+    public int siguientePaso(int origen, int destino) {
+        int pasos = buscar(origen, destino, null);
+        if (pasos <= 0) return pasos == 0 ? origen : -1;
+        int casilla = destino;
+        while (padre[casilla] != origen) {
+            casilla = padre[casilla];
+        }
+        return casilla;
+    }
+
+    // ------- Métodos auxiliares -------
+
+    private int reconstruir(int destino, int[] ruta) {
+        int pasos = coste[destino];
+        if (ruta != null) {
+            int casilla = destino;
+            for (int i = pasos - 1; i >= 0; i--) {
+                ruta[i] = casilla;
+                casilla = padre[casilla];
+            }
+        }
+        return pasos;
+    }
+
+    private int nuevaGeneracion() {
+        generacion++;
+        if (generacion == 0) {
+            // Desbordamiento tras 2^32 búsquedas: se limpian los sellos una vez
+            Arrays.fill(visitada, 0);
+            Arrays.fill(cerrada, 0);
+            generacion = 1;
+        }
+        return generacion;
+    }
+}
@@ -0,0 +1,145 @@
+import java.util.Arrays;
+
+/**
+ * Campo de flujo sobre un {@link Mapa}: distancia de cada casilla al objetivo más cercano.
+ * Se calcula una sola vez por turno (búsqueda en anchura desde los objetivos) y después
+ * cualquier número de perseguidores consulta su siguiente paso en O(1), en lugar de lanzar
+ * un A* por enemigo.
+ *
+ * @version 1.0
+ */
+public class CampoFlujo {
+
+    /**
+     * Valor de distancia para casillas que no alcanzan ningún objetivo.
+     */
+    public static final int INALCANZABLE = Integer.MAX_VALUE;
+
+    /**
+     * Mapa sobre el que se calcula el campo.
+     */
+    private final Mapa mapa;
+    /**
+     * Distancia en pasos de cada casilla al objetivo más cercano.
+     */
+    private final int[] distancias;
+    /**
+     * Cola de la búsqueda en anchura (reutilizada entre cálculos).
+     */
+    private final int[] cola;
+    /**
+     * Vecinos de la casilla en expansión.
+     */
+    private final int[] vecinos = new int[4];
+
+    /**
+     * Crea un campo de flujo vacío para el mapa dado.
+     *
+     * @param mapa Mapa de la sala.
+     */
+    public CampoFlujo(Mapa mapa) {
+        this.mapa = mapa;
+        this.distancias = new int[mapa.getNumeroCasillas()];
+        this.cola = new int[mapa.getNumeroCasillas()];
+        Arrays.fill(distancias, INALCANZABLE);
+    }
+
+    public Mapa getMapa() {
+        return mapa;
+    }
+
+    /**
+     * Recalcula el campo hacia un único objetivo.
+     *
+     * @param objetivo Casilla objetivo (normalmente la del jugador).
+     */
+    public void calcular(int objetivo) {
+        vecinos[0] = objetivo;
+        calcular(vecinos, 1);
+    }
+
+    /**
+     * Recalcula el campo hacia varios objetivos (por ejemplo, todos los jugadores de la sala).
+     *
+     * @param objetivos Casillas objetivo.
+     * @param cantidad  Número de objetivos válidos en el array.
+     */
+    public void calcular(int[] objetivos, int cantidad) {
+        Arrays.fill(distancias, INALCANZABLE);
+        int cabeza = 0;
+        int fin = 0;
+        for (int i = 0; i < cantidad; i++) {
+            int objetivo = objetivos[i];
+            if (mapa.esTransitable(objetivo) && distancias[objetivo] != 0) {
+                distancias[objetivo] = 0;
+                cola[fin++] = objetivo;
+            }
+        }
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            int siguiente = distancias[actual] + 1;
+            int n = mapa.vecinos(actual, vecinos);
+            for (int i = 0; i < n; i++) {
+                int vecino = vecinos[i];
+                if (distancias[vecino] == INALCANZABLE) {
+                    distancias[vecino] = siguiente;
+                    cola[fin++] = vecino;
+                }
+            }
+        }
+    }
+
+    /**
+     * Distancia de una casilla al objetivo más cercano.
+     *
+     * @param casilla Casilla a consultar.
+     * @return Pasos hasta el objetivo, o {@link #INALCANZABLE}.
+     */
+    public int getDistancia(int casilla) {
+        return distancias[casilla];
+    }
+
+    /**
+     * Indica si desde la casilla se puede llegar a algún objetivo.
+     *
+     * @param casilla Casilla a consultar.
+     * @return true si existe camino.
+     */
+    public boolean esAlcanzable(int casilla) {
+        return distancias[casilla] != INALCANZABLE;
+    }
+
+    /**
+     * Casilla vecina que acerca más al objetivo.
+     *
+     * @param casilla Casilla actual del perseguidor.
+     * @return Casilla a la que moverse; la misma si ya está en el objetivo o no hay camino.
+     */
+    public int siguientePaso(int casilla) {
+        int mejor = casilla;
+        int mejorDistancia = distancias[casilla];
+        int n = mapa.vecinos(casilla, vecinos);
+        for (int i = 0; i < n; i++) {
+            int vecino = vecinos[i];
+            if (distancias[vecino] < mejorDistancia) {
+                mejor = vecino;
+                mejorDistancia = distancias[vecino];
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Casilla alcanzable más alejada de los objetivos (calculado desde la entrada de una sala,
+     * es el fondo de la sala).
+     *
+     * @return La casilla, o -1 si ninguna es alcanzable.
+     */
+    public int getMasLejana() {
+        int mejor = -1;
+        for (int i = 0; i < distancias.length; i++) {
+            if (distancias[i] != INALCANZABLE && (mejor < 0 || distancias[i] > distancias[mejor])) mejor = i;
+        }
+        return mejor;
+    }
+}
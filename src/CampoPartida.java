@@ -0,0 +1,63 @@
+/**
+ * Campos de una partida que se guardan por separado en los guardados incrementales.
+ * Cada campo es un bit: los setters marcan lo que cambian y el guardado solo escribe esos campos.
+ * -
+ * Cada campo se corresponde con una o varias claves de {@link InstantaneaPartida#aMapa()}
+ * (las que terminan en '.' son prefijos de listas, como "objeto.0", "objeto.1"...).
+ */
+public enum CampoPartida {
+    CLASE("clase"),
+    NOMBRE("nombre"),
+    NIVEL("nivel"),
+    EXPERIENCIA("experiencia", "experienciaTotal"),
+    PUNTOS_VIDA("puntosVida"),
+    PUNTOS_VIDA_MAX("puntosVidaMax"),
+    DEFENSA("defensa"),
+    VELOCIDAD("velocidad"),
+    POSICION("posX", "posY"),
+    RECURSO("recurso"),
+    RECURSO_MAX("recursoMax"),
+    EQUIPO("equipo", "equipo."),
+    MOCHILA("objetos", "objeto."),
+    MISION("mision", "progresoMision", "objetivoMision", "estadoMision"),
+    SALA("sala");
+
+    /**
+     * Máscara con todos los campos (guardado completo).
+     */
+    public static final long TODOS = -1L;
+
+    private static final CampoPartida[] VALORES = values();
+
+    private final String[] claves;
+
+    CampoPartida(String... claves) {
+        this.claves = claves;
+    }
+
+    /**
+     * Bit del campo en una máscara de cambios.
+     *
+     * @return La máscara con solo este campo.
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Indica si una clave del guardado pertenece a alguno de los campos de la máscara.
+     *
+     * @param cambios Máscara de campos.
+     * @param clave   Clave de InstantaneaPartida.aMapa().
+     * @return true si hay que escribir la clave.
+     */
+    public static boolean incluye(long cambios, String clave) {
+        for (CampoPartida campo : VALORES) {
+            if ((cambios & campo.bit()) == 0) continue;
+            for (String c : campo.claves) {
+                if (c.endsWith(".") ? clave.startsWith(c) : clave.equals(c)) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Contenido de cada nivel de la mazmorra: la misión de caza que hay que completar en su sala.
+ * Lo usan tanto la partida interactiva como las simulaciones, para que ambas jueguen lo mismo.
+ *
+ * @version 1.0
+ */
+public final class CatalogoNiveles {
+
+    /**
+     * Número de niveles normales antes del Jefe Final.
+     */
+    public static final int NUM_NIVELES = 3;
+
+    private CatalogoNiveles() {
+    }
+
+    /**
+     * Crea la misión de caza de un nivel.
+     *
+     * @param nivel Número de nivel (1 a NUM_NIVELES).
+     * @param sala  Sala del nivel.
+     * @return La misión del nivel.
+     * @throws IllegalArgumentException si el nivel no existe.
+     */
+    public static MisionCaza crearMision(int nivel, Sala sala) {
+        switch (nivel) {
+            case 1:
+                return new MisionCaza("Limpieza de Túneles", "Acaba con la plaga de 2 Orcos.",
+                        2, TipoEnemigo.ORCO_RASO, 50, new Pocion("Poción Vital", 50, TipoPocion.VIDA), sala);
+            case 2:
+                return new MisionCaza("Exorcismo", "Libera las almas de 2 Espectros.",
+                        2, TipoEnemigo.ESPECTRO_ACECHADOR, 100, new Pocion("Elixir Mayor", 100, TipoPocion.VIDA), sala);
+            case 3:
+                return new MisionCaza("La Guardia Real", "Derrota a 3 Caballeros Corruptos.",
+                        3, TipoEnemigo.CABALLERO_CORRUPTO, 200, new Arma("Hoja de Luz", 15), sala);
+            default:
+                throw new IllegalArgumentException("No existe el nivel " + nivel);
+        }
+    }
+}
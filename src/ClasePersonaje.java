@@ -0,0 +1,49 @@
+/**
+ * Clases jugables y su equipo inicial.
+ * Centraliza la creación del héroe para la partida interactiva y las simulaciones.
+ */
+public enum ClasePersonaje {
+    GUERRERO,
+    MAGO,
+    PICARO;
+
+    /**
+     * Clase de cada subclase de Personaje, calculada una vez por subclase.
+     */
+    private static final ClassValue<ClasePersonaje> POR_CLASE = new ClassValue<>() {
+        @Override
+        protected ClasePersonaje computeValue(Class<?> tipo) {
+            if (Guerrero.class.isAssignableFrom(tipo)) return GUERRERO;
+            if (Mago.class.isAssignableFrom(tipo)) return MAGO;
+            if (Picaro.class.isAssignableFrom(tipo)) return PICARO;
+            return null;
+        }
+    };
+
+    /**
+     * Clase jugable de un personaje.
+     *
+     * @param p Personaje.
+     * @return Su clase, o null si no es un héroe jugable (por ejemplo, un enemigo).
+     */
+    public static ClasePersonaje de(Personaje p) {
+        return POR_CLASE.get(p.getClass());
+    }
+
+    /**
+     * Crea un personaje de nivel 1 de esta clase con su equipo inicial.
+     *
+     * @param nombre Nombre del héroe.
+     * @return El personaje creado.
+     */
+    public Personaje crear(String nombre) {
+        switch (this) {
+            case GUERRERO:
+                return new Guerrero(nombre, new Arma("Espada de Madera", 8));
+            case MAGO:
+                return new Mago(nombre);
+            default:
+                return new Picaro(nombre, new Arma("Daga Lamentable", 4), new Arma("Daga Oxidada", 4));
+        }
+    }
+}
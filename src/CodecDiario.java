@@ -0,0 +1,613 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato compacto para guardar diarios de combate (y repeticiones) y recorrerlos rápido.
+ * -
+ * Fichero: cabecera (MARCA, VERSION), bloques de hasta {@link #EVENTOS_POR_BLOQUE} entradas,
+ * pie con los diccionarios y el índice de bloques, y cola con la posición del pie.
+ * -
+ * Cada bloque se puede leer por separado: empieza con su turno, el enemigo en curso y las vidas
+ * de partida, y las entradas guardan solo diferencias. Por entrada:
+ * - Un byte de cabecera: tipo (bits 0-2), turno +1 (bit 3), salto de turno (bit 4),
+ *   cambia la vida del héroe (bit 5) o del enemigo (bit 6), cambia el enemigo (bit 7).
+ *   Los tipos a partir de {@link #TIPO_EXTENDIDO} (los raros) llevan ese valor en la cabecera
+ *   y el resto en un varint justo detrás (desde la versión 2; en la 1 solo había 8 tipos).
+ * - Lo que indique la cabecera, en varint: salto de turno, enemigo, y las diferencias de
+ *   vida en zigzag (las curaciones son diferencias positivas).
+ * - Las entradas OBJETO llevan además el código del objeto.
+ * Enemigos y objetos se guardan con un código del fichero (diccionario en el pie), no con su
+ * nombre ni con el número del TipoEnemigo, que puede cambiar entre ejecuciones.
+ * -
+ * Opcionalmente cada bloque se comprime con Deflater. El índice del pie guarda el primer turno
+ * de cada bloque, así que {@link Lector#desdeTurno} solo descodifica el bloque que hace falta.
+ * -
+ * Prueba de tamaño y velocidad: {@code java CodecDiario [combates]}
+ *
+ * @version 1.0
+ */
+public final class CodecDiario {
+
+    /**
+     * Marca de los ficheros de diario ("DCMB").
+     */
+    public static final int MARCA = 0x44434D42;
+
+    /**
+     * Versión del formato.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Valor de la cabecera a partir del cual el tipo sigue en un varint.
+     */
+    public static final int TIPO_EXTENDIDO = 7;
+
+    /**
+     * Entradas por bloque.
+     */
+    public static final int EVENTOS_POR_BLOQUE = 4096;
+
+    /**
+     * Bytes de la misma entrada en un registro de tamaño fijo: turno (int), tipo (byte),
+     * enemigo y objeto (short) y daño, vida del héroe y vida del enemigo (double).
+     */
+    public static final int TAMANIO_CRUDO = 4 + 1 + 2 + 2 + 3 * 8;
+
+    private static final int TURNO_MAS_UNO = 1 << 3;
+    private static final int TURNO_SALTO = 1 << 4;
+    private static final int VIDA_JUGADOR = 1 << 5;
+    private static final int VIDA_ENEMIGO = 1 << 6;
+    private static final int ENEMIGO = 1 << 7;
+
+    private static final int SIN_COMPRIMIR = 0;
+    private static final int DEFLATE = 1;
+
+    private CodecDiario() {
+    }
+
+    /**
+     * Codifica un diario entero.
+     *
+     * @param diario    Diario de combate.
+     * @param comprimir true para comprimir cada bloque con Deflater.
+     * @return Bytes del fichero.
+     */
+    public static byte[] codificar(DiarioCombate diario, boolean comprimir) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeInt(MARCA);
+            salida.writeByte(VERSION);
+
+            int[] codigoEnemigo = new int[TipoEnemigo.MAX_TIPOS];
+            Arrays.fill(codigoEnemigo, -1);
+            List<String> enemigos = new ArrayList<>();
+            List<long[]> indice = new ArrayList<>();
+            Bufer bloque = new Bufer();
+            Deflater deflater = comprimir ? new Deflater(Deflater.BEST_COMPRESSION) : null;
+            byte[] comprimido = new byte[0];
+
+            int n = diario.getTamanio();
+            int enemigo = -1;
+            int vidaJugador = 0;
+            int vidaEnemigo = 0;
+            for (int inicio = 0; inicio < n; inicio += EVENTOS_POR_BLOQUE) {
+                int fin = Math.min(n, inicio + EVENTOS_POR_BLOQUE);
+                int turno = diario.turnoCrudo(inicio);
+                bloque.limpiar();
+                bloque.varint(turno);
+                bloque.varint(enemigo + 1);
+                bloque.zigzag(vidaJugador);
+                bloque.zigzag(vidaEnemigo);
+                for (int i = inicio; i < fin; i++) {
+                    int id = diario.enemigoCrudo(i);
+                    if (codigoEnemigo[id] < 0) {
+                        codigoEnemigo[id] = enemigos.size();
+                        enemigos.add(TipoEnemigo.porId(id).getNombre());
+                    }
+                    int tipo = diario.tipoCrudo(i);
+                    int salto = diario.turnoCrudo(i) - turno;
+                    if (salto < 0) throw new IllegalArgumentException("Los turnos del diario no pueden retroceder (entrada " + i + ")");
+                    int dJugador = diario.vidaJugadorCruda(i) - vidaJugador;
+                    int dEnemigo = diario.vidaEnemigoCruda(i) - vidaEnemigo;
+                    int cabecera = Math.min(tipo, TIPO_EXTENDIDO)
+                            | (salto == 1 ? TURNO_MAS_UNO : salto > 1 ? TURNO_SALTO : 0)
+                            | (dJugador != 0 ? VIDA_JUGADOR : 0)
+                            | (dEnemigo != 0 ? VIDA_ENEMIGO : 0)
+                            | (codigoEnemigo[id] != enemigo ? ENEMIGO : 0);
+                    bloque.byte_(cabecera);
+                    if (tipo >= TIPO_EXTENDIDO) bloque.varint(tipo - TIPO_EXTENDIDO);
+                    if (salto > 1) bloque.varint(salto);
+                    if (codigoEnemigo[id] != enemigo) bloque.varint(codigoEnemigo[id]);
+                    if (dJugador != 0) bloque.zigzag(dJugador);
+                    if (dEnemigo != 0) bloque.zigzag(dEnemigo);
+                    if (tipo == DiarioCombate.Tipo.OBJETO.ordinal()) bloque.varint(diario.objetoCrudo(i) + 1);
+                    turno += salto;
+                    enemigo = codigoEnemigo[id];
+                    vidaJugador += dJugador;
+                    vidaEnemigo += dEnemigo;
+                }
+
+                indice.add(new long[] {salida.size(), diario.turnoCrudo(inicio), inicio, fin - inicio});
+                if (deflater != null) {
+                    deflater.reset();
+                    deflater.setInput(bloque.datos, 0, bloque.tamanio);
+                    deflater.finish();
+                    if (comprimido.length < bloque.tamanio + 64) comprimido = new byte[bloque.tamanio + 64];
+                    int longitud = 0;
+                    while (!deflater.finished()) {
+                        if (longitud == comprimido.length) comprimido = Arrays.copyOf(comprimido, longitud * 2);
+                        longitud += deflater.deflate(comprimido, longitud, comprimido.length - longitud);
+                    }
+                    salida.writeByte(DEFLATE);
+                    salida.writeInt(longitud);
+                    salida.writeInt(bloque.tamanio);
+                    salida.write(comprimido, 0, longitud);
+                } else {
+                    salida.writeByte(SIN_COMPRIMIR);
+                    salida.writeInt(bloque.tamanio);
+                    salida.writeInt(bloque.tamanio);
+                    salida.write(bloque.datos, 0, bloque.tamanio);
+                }
+            }
+            if (deflater != null) deflater.end();
+
+            // Pie: diccionarios e índice
+            long pie = salida.size();
+            salida.writeInt(enemigos.size());
+            for (String nombre : enemigos) salida.writeUTF(nombre);
+            int objetos = 0;
+            for (int i = 0; i < n; i++) objetos = Math.max(objetos, diario.objetoCrudo(i) + 1);
+            salida.writeInt(objetos);
+            for (int i = 0; i < objetos; i++) salida.writeUTF(diario.nombreObjeto(i));
+            salida.writeInt(indice.size());
+            for (long[] b : indice) {
+                salida.writeLong(b[0]);
+                salida.writeInt((int) b[1]);
+                salida.writeLong(b[2]);
+                salida.writeInt((int) b[3]);
+            }
+            salida.writeLong(pie);
+            salida.writeInt(MARCA);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // No ocurre al escribir en memoria
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Codifica un diario y lo guarda en un fichero.
+     *
+     * @param diario    Diario de combate.
+     * @param fichero   Fichero de destino (se reemplaza).
+     * @param comprimir true para comprimir cada bloque con Deflater.
+     * @throws IOException si no se puede escribir.
+     */
+    public static void escribir(DiarioCombate diario, Path fichero, boolean comprimir) throws IOException {
+        Files.write(fichero, codificar(diario, comprimir));
+    }
+
+    /**
+     * Abre un diario guardado con {@link #escribir}.
+     *
+     * @param fichero Fichero del diario.
+     * @return Lector del diario.
+     * @throws IOException si no se puede leer o no es un diario válido.
+     */
+    public static Lector leer(Path fichero) throws IOException {
+        try {
+            return new Lector(Files.readAllBytes(fichero));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(fichero + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Diario codificado, listo para recorrerlo desde el principio o desde un turno.
+     */
+    public static final class Lector {
+        private final byte[] datos;
+        private final ByteBuffer vista;
+        private final String[] enemigos;
+        private final String[] objetos;
+        private final long[] posiciones;
+        private final int[] primerosTurnos;
+        private final long[] primerosEventos;
+        private final int[] eventosBloque;
+        private final boolean tiposExtendidos;
+
+        /**
+         * @param datos Bytes de un diario codificado.
+         * @throws IllegalArgumentException si no es un diario válido.
+         */
+        public Lector(byte[] datos) {
+            this.datos = datos;
+            this.vista = ByteBuffer.wrap(datos);
+            if (datos.length < 17 || vista.getInt(0) != MARCA || vista.getInt(datos.length - 4) != MARCA) {
+                throw new IllegalArgumentException("No es un diario de combate");
+            }
+            if (datos[4] < 1 || datos[4] > VERSION) throw new IllegalArgumentException("Versión de diario desconocida: " + datos[4]);
+            tiposExtendidos = datos[4] >= 2;
+            long pie = vista.getLong(datos.length - 12);
+            if (pie < 5 || pie > datos.length - 12) throw new IllegalArgumentException("Pie del diario dañado");
+            try (DataInputStream entrada = new DataInputStream(
+                    new ByteArrayInputStream(datos, (int) pie, datos.length - 12 - (int) pie))) {
+                enemigos = new String[entrada.readInt()];
+                for (int i = 0; i < enemigos.length; i++) enemigos[i] = entrada.readUTF();
+                objetos = new String[entrada.readInt()];
+                for (int i = 0; i < objetos.length; i++) objetos[i] = entrada.readUTF();
+                int bloques = entrada.readInt();
+                posiciones = new long[bloques];
+                primerosTurnos = new int[bloques];
+                primerosEventos = new long[bloques];
+                eventosBloque = new int[bloques];
+                for (int i = 0; i < bloques; i++) {
+                    posiciones[i] = entrada.readLong();
+                    primerosTurnos[i] = entrada.readInt();
+                    primerosEventos[i] = entrada.readLong();
+                    eventosBloque[i] = entrada.readInt();
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Pie del diario dañado", e);
+            }
+        }
+
+        /**
+         * @return Entradas del diario.
+         */
+        public long getEventos() {
+            return posiciones.length == 0 ? 0 : primerosEventos[posiciones.length - 1] + eventosBloque[posiciones.length - 1];
+        }
+        public int getBloques() {
+            return posiciones.length;
+        }
+        /**
+         * @return Tamaño codificado en bytes.
+         */
+        public int getTamanio() {
+            return datos.length;
+        }
+        /**
+         * @return Tipos de enemigo distintos del diario (los códigos van de 0 a este número).
+         */
+        public int getNumEnemigos() {
+            return enemigos.length;
+        }
+        /**
+         * @param codigo Código de enemigo del fichero.
+         * @return Nombre del enemigo.
+         */
+        public String getEnemigo(int codigo) {
+            return enemigos[codigo];
+        }
+        /**
+         * @param codigo Código de objeto del fichero.
+         * @return Nombre del objeto.
+         */
+        public String getObjeto(int codigo) {
+            return objetos[codigo];
+        }
+
+        /**
+         * @return Cursor al principio del diario.
+         */
+        public Cursor cursor() {
+            return new Cursor(0, Integer.MIN_VALUE);
+        }
+
+        /**
+         * Cursor en la primera entrada de un turno (o la siguiente, si ese turno no tiene entradas).
+         * Solo se descodifica desde el bloque que contiene el turno.
+         *
+         * @param turno Turno buscado.
+         * @return Cursor; su primer {@link Cursor#siguiente()} da esa entrada.
+         */
+        public Cursor desdeTurno(int turno) {
+            // Último bloque que empieza antes del turno: el turno puede empezar al final de ese bloque
+            int bajo = 0, alto = primerosTurnos.length - 1, bloque = 0;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (primerosTurnos[medio] < turno) {
+                    bloque = medio;
+                    bajo = medio + 1;
+                } else {
+                    alto = medio - 1;
+                }
+            }
+            return new Cursor(bloque, turno);
+        }
+
+        /**
+         * Descodifica el diario entero a memoria. Los enemigos se registran en TipoEnemigo por su nombre.
+         *
+         * @return Diario con las mismas entradas.
+         */
+        public DiarioCombate aDiario() {
+            DiarioCombate diario = new DiarioCombate();
+            int[] ids = new int[enemigos.length];
+            for (int i = 0; i < ids.length; i++) ids[i] = TipoEnemigo.registrar(enemigos[i]).getId();
+            int[] codigos = new int[objetos.length];
+            for (int i = 0; i < codigos.length; i++) codigos[i] = diario.codigoObjeto(objetos[i]);
+            Cursor c = cursor();
+            while (c.siguiente()) {
+                diario.anadir(c.turno, DiarioCombate.Tipo.de(c.tipo), ids[c.enemigo],
+                        c.objeto < 0 ? -1 : codigos[c.objeto], c.vidaJugador, c.vidaEnemigo);
+            }
+            return diario;
+        }
+
+        /**
+         * Recorrido de las entradas en orden. Los valores son los de la última entrada leída;
+         * las vidas van en centésimas.
+         */
+        public final class Cursor {
+            private final Inflater inflater = new Inflater();
+            private byte[] bufer = new byte[0];
+            private int pos;
+            private int fin;
+            private int restantes;
+            private int siguienteBloque;
+            private final int desdeTurno;
+
+            private int turno;
+            private int tipo;
+            private int enemigo;
+            private int objeto;
+            private int vidaJugador;
+            private int vidaEnemigo;
+            private int dJugador;
+            private int dEnemigo;
+
+            private Cursor(int bloque, int desdeTurno) {
+                this.siguienteBloque = bloque;
+                this.desdeTurno = desdeTurno;
+            }
+
+            /**
+             * Avanza a la siguiente entrada.
+             *
+             * @return false si no quedan.
+             */
+            public boolean siguiente() {
+                do {
+                    if (restantes == 0 && !cargar()) return false;
+                    leerEvento();
+                } while (turno < desdeTurno);
+                return true;
+            }
+
+            private void leerEvento() {
+                restantes--;
+                int cabecera = bufer[pos++] & 0xFF;
+                tipo = cabecera & 7;
+                if (tipo == TIPO_EXTENDIDO && tiposExtendidos) tipo += varint();
+                if ((cabecera & TURNO_MAS_UNO) != 0) turno++;
+                else if ((cabecera & TURNO_SALTO) != 0) turno += varint();
+                if ((cabecera & ENEMIGO) != 0) enemigo = varint();
+                dJugador = (cabecera & VIDA_JUGADOR) != 0 ? zigzag() : 0;
+                dEnemigo = (cabecera & VIDA_ENEMIGO) != 0 ? zigzag() : 0;
+                vidaJugador += dJugador;
+                vidaEnemigo += dEnemigo;
+                objeto = tipo == DiarioCombate.Tipo.OBJETO.ordinal() ? varint() - 1 : -1;
+            }
+
+            private boolean cargar() {
+                if (siguienteBloque >= posiciones.length) return false;
+                int p = (int) posiciones[siguienteBloque];
+                restantes = eventosBloque[siguienteBloque];
+                siguienteBloque++;
+                int compresion = datos[p];
+                int longitud = vista.getInt(p + 1);
+                int original = vista.getInt(p + 5);
+                if (compresion == DEFLATE) {
+                    if (bufer.length < original || bufer == datos) bufer = new byte[original];
+                    inflater.reset();
+                    inflater.setInput(datos, p + 9, longitud);
+                    try {
+                        if (inflater.inflate(bufer, 0, original) != original) {
+                            throw new IllegalStateException("Bloque comprimido incompleto");
+                        }
+                    } catch (DataFormatException e) {
+                        throw new IllegalStateException("Bloque comprimido dañado", e);
+                    }
+                    pos = 0;
+                    fin = original;
+                } else {
+                    bufer = datos;
+                    pos = p + 9;
+                    fin = pos + longitud;
+                }
+                turno = varint();
+                enemigo = varint() - 1;
+                vidaJugador = zigzag();
+                vidaEnemigo = zigzag();
+                return true;
+            }
+
+            private int varint() {
+                int b = bufer[pos++];
+                if (b >= 0) return b;
+                int valor = b & 0x7F;
+                int desplazamiento = 7;
+                do {
+                    b = bufer[pos++];
+                    valor |= (b & 0x7F) << desplazamiento;
+                    desplazamiento += 7;
+                } while (b < 0);
+                return valor;
+            }
+
+            private int zigzag() {
+                int z = varint();
+                return (z >>> 1) ^ -(z & 1);
+            }
+
+            // Getters de la entrada actual
+            public int getTurno() {
+                return turno;
+            }
+            public DiarioCombate.Tipo getTipo() {
+                return DiarioCombate.Tipo.de(tipo);
+            }
+            public int getTipoOrdinal() {
+                return tipo;
+            }
+            /**
+             * @return Código de enemigo del fichero (ver {@link Lector#getEnemigo}).
+             */
+            public int getEnemigo() {
+                return enemigo;
+            }
+            /**
+             * @return Código de objeto del fichero, o -1 si la entrada no es de tipo OBJETO.
+             */
+            public int getObjeto() {
+                return objeto;
+            }
+            public int getVidaJugador() {
+                return vidaJugador;
+            }
+            public int getVidaEnemigo() {
+                return vidaEnemigo;
+            }
+            /**
+             * @return Daño de la entrada en centésimas (negativo si curó), como DiarioCombate.getDanio.
+             */
+            public int getDanio() {
+                // Ataques, habilidades y la victoria dañan al enemigo; el resto, al héroe
+                switch (DiarioCombate.Tipo.de(tipo)) {
+                    case INICIO: case OBJETIVO: case HUECO: return 0;
+                    case ATAQUE: case HABILIDAD: case VICTORIA: return -dEnemigo;
+                    default: return -dJugador;
+                }
+            }
+        }
+    }
+
+    /**
+     * Prueba: simula combates anotándolos, mide el tamaño codificado frente al registro de tamaño
+     * fijo, la velocidad de lectura y comprueba que se recupera el mismo diario.
+     */
+    public static void main(String[] args) {
+        int combates = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        DiarioCombate diario = SalidaSilenciada.ejecutar(() -> simular(combates, new SplittableRandom(42)));
+        int n = diario.getTamanio();
+        long crudo = (long) n * TAMANIO_CRUDO;
+        System.out.printf("Entradas: %,d en %,d combates (%,d bytes en registros de %d bytes)%n", n, combates, crudo, TAMANIO_CRUDO);
+
+        for (boolean comprimir : new boolean[] {false, true}) {
+            long t0 = System.nanoTime();
+            byte[] datos = codificar(diario, comprimir);
+            long tCodificar = System.nanoTime() - t0;
+            Lector lector = new Lector(datos);
+
+            long[] danioPorEnemigo = new long[lector.getNumEnemigos()];
+            long mejor = Long.MAX_VALUE;
+            for (int r = 0; r < 10; r++) {
+                Arrays.fill(danioPorEnemigo, 0);
+                t0 = System.nanoTime();
+                Lector.Cursor c = lector.cursor();
+                while (c.siguiente()) {
+                    if (c.getTipoOrdinal() == DiarioCombate.Tipo.GOLPE.ordinal()) danioPorEnemigo[c.getEnemigo()] += c.getDanio();
+                }
+                mejor = Math.min(mejor, System.nanoTime() - t0);
+            }
+            System.out.printf("%-10s %,11d bytes (x%.1f)  codificar %6.1f M/s  leer %6.1f M entradas/s%n",
+                    comprimir ? "Deflate:" : "Varint:", datos.length, (double) crudo / datos.length,
+                    n / (tCodificar / 1e3), n / (mejor / 1e3));
+            System.out.println("   Iguales al releer: " + iguales(diario, lector.aDiario())
+                    + "  Por turno: " + comprobarTurnos(diario, lector, new SplittableRandom(7)));
+            if (comprimir) {
+                for (int e = 0; e < danioPorEnemigo.length; e++) {
+                    System.out.printf("   Daño recibido de %s: %,.0f%n", lector.getEnemigo(e), danioPorEnemigo[e] / 100.0);
+                }
+            }
+        }
+    }
+
+    private static DiarioCombate simular(int combates, SplittableRandom azar) {
+        DiarioCombate diario = new DiarioCombate();
+        Sala[] salas = new Sala[CatalogoNiveles.NUM_NIVELES];
+        for (int i = 0; i < salas.length; i++) salas[i] = new Sala(i + 1, 4 * (i + 1));
+        Personaje heroe = null;
+        for (int c = 0; c < combates; c++) {
+            if (heroe == null || !heroe.estaVivo()) heroe = new Guerrero("Prueba", new Arma("Daga", 1));
+            if (c % 4 == 0) heroe.recogerItem(new Pocion("Poción Vital", 50, TipoPocion.VIDA));
+            Enemigo enemigo = salas[c % salas.length].generarEnemigo(azar.nextDouble());
+            CombateAutomatico.resolver(heroe, enemigo, null, diario);
+            if (heroe.estaVivo() && c % 3 == 0) heroe.descansar();
+        }
+        return diario;
+    }
+
+    private static boolean iguales(DiarioCombate a, DiarioCombate b) {
+        if (a.getTamanio() != b.getTamanio()) return false;
+        for (int i = 0; i < a.getTamanio(); i++) {
+            if (a.turnoCrudo(i) != b.turnoCrudo(i) || a.tipoCrudo(i) != b.tipoCrudo(i)
+                    || a.getEnemigo(i) != b.getEnemigo(i) || !Objects.equals(a.getObjeto(i), b.getObjeto(i))
+                    || a.vidaJugadorCruda(i) != b.vidaJugadorCruda(i) || a.vidaEnemigoCruda(i) != b.vidaEnemigoCruda(i)
+                    || a.getDanio(i) != b.getDanio(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean comprobarTurnos(DiarioCombate diario, Lector lector, SplittableRandom azar) {
+        int ultimo = diario.getTurno(diario.getTamanio() - 1);
+        for (int k = 0; k < 1000; k++) {
+            int turno = azar.nextInt(ultimo + 1);
+            int i = 0;
+            while (diario.getTurno(i) < turno) i++;
+            Lector.Cursor c = lector.desdeTurno(turno);
+            if (!c.siguiente() || c.getTurno() != diario.getTurno(i) || c.getVidaJugador() != diario.vidaJugadorCruda(i)
+                    || c.getDanio() != DiarioCombate.centesimas(diario.getDanio(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bytes de un bloque mientras se codifica.
+     */
+    private static final class Bufer {
+        byte[] datos = new byte[EVENTOS_POR_BLOQUE * 8];
+        int tamanio;
+
+        void limpiar() {
+            tamanio = 0;
+        }
+
+        void byte_(int b) {
+            if (tamanio == datos.length) datos = Arrays.copyOf(datos, tamanio * 2);
+            datos[tamanio++] = (byte) b;
+        }
+
+        void varint(int valor) {
+            while ((valor & ~0x7F) != 0) {
+                byte_((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            byte_(valor);
+        }
+
+        void zigzag(int valor) {
+            varint((valor << 1) ^ (valor >> 31));
+        }
+    }
+}
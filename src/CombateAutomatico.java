@@ -0,0 +1,130 @@
+import java.util.List;
+
+/**
+ * Reglas de combate sin interacción: resuelve un duelo jugador contra enemigo tomando
+ * las decisiones del jugador con una política sencilla. Lo usan las simulaciones
+ * (estimadores, pruebas masivas) para jugar exactamente con las reglas de la partida.
+ *
+ * @version 1.0
+ */
+public final class CombateAutomatico {
+
+    /**
+     * Límite de rondas para que un combate sin salida (nadie hace daño) termine.
+     */
+    private static final int MAX_RONDAS = 500;
+
+    private CombateAutomatico() {
+    }
+
+    /**
+     * Resuelve un combate completo.
+     * Política del jugador: si tiene poca vida bebe una poción de vida (o descansa si no tiene),
+     * si es un Pícaro sin energía descansa, y en cualquier otro caso ataca.
+     *
+     * @param jugador Personaje del jugador.
+     * @param enemigo Enemigo al que se enfrenta.
+     * @param gestor  Gestor de misiones al que notificar la victoria (puede ser null).
+     * @return true si el jugador gana.
+     */
+    public static boolean resolver(Personaje jugador, Enemigo enemigo, GestorMisiones gestor) {
+        return resolver(jugador, enemigo, gestor, null);
+    }
+
+    /**
+     * Resuelve un combate completo anotando cada acción en un diario de combate.
+     *
+     * @param jugador Personaje del jugador.
+     * @param enemigo Enemigo al que se enfrenta.
+     * @param gestor  Gestor de misiones al que notificar la victoria (puede ser null).
+     * @param diario  Diario de combate (puede ser null).
+     * @return true si el jugador gana.
+     */
+    public static boolean resolver(Personaje jugador, Enemigo enemigo, GestorMisiones gestor, DiarioCombate diario) {
+        if (diario != null) diario.anotar(DiarioCombate.Tipo.INICIO, jugador, enemigo);
+        for (int ronda = 0; ronda < MAX_RONDAS && jugador.estaVivo() && enemigo.estaVivo(); ronda++) {
+            if (diario != null) diario.avanzarTurno();
+            jugador.avanzarEnfriamientos();
+            turnoJugador(jugador, enemigo, diario);
+            if (!enemigo.estaVivo()) {
+                if (diario != null) diario.anotar(DiarioCombate.Tipo.VICTORIA, jugador, enemigo);
+                recompensar(jugador, enemigo, gestor);
+                return true;
+            }
+            enemigo.realizarTurno(jugador);
+            if (diario != null) {
+                diario.anotar(DiarioCombate.Tipo.GOLPE, jugador, enemigo);
+                if (!jugador.estaVivo()) diario.anotar(DiarioCombate.Tipo.DERROTA, jugador, enemigo);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resuelve un encuentro de {@link Evento#explorar}. Si el enemigo viene solo es un duelo; si es
+     * una emboscada, se resuelve con {@link CombateGrupal} como en la partida (ver Juego): mismo
+     * reparto de objetivos y, si el jugador está en la sala, los refuerzos aparecen algo lejos y se
+     * acercan por el campo de flujo. El jugador sigue la misma política que en los duelos.
+     *
+     * @param jugador  Personaje del jugador.
+     * @param enemigos Enemigos del encuentro (al menos uno).
+     * @param gestor   Gestor de misiones al que notificar las victorias (puede ser null).
+     * @param sala     Sala en cuya rejilla está el jugador (o null para luchar sin posiciones).
+     * @return true si el jugador gana.
+     */
+    public static boolean resolver(Personaje jugador, List<Enemigo> enemigos, GestorMisiones gestor, Sala sala) {
+        if (enemigos.size() == 1) return resolver(jugador, enemigos.get(0), gestor);
+        CombateGrupal combate = new CombateGrupal(List.of(jugador), enemigos, PoliticaDecision.MAS_DEBIL,
+                PoliticaDecision.PRIMERO_VIVO, gestor);
+        combate.controlar(jugador, (heroe, objetivo) -> turnoJugador(heroe, objetivo, null));
+        if (sala == null) return combate.resolver();
+        combate.setPersecucion(sala.colocarEmboscada(enemigos, jugador));
+        try {
+            return combate.resolver();
+        } finally {
+            for (Enemigo e : enemigos) sala.getRejilla().eliminar(e);
+        }
+    }
+
+    /**
+     * Entrega al jugador la recompensa de un enemigo derrotado: experiencia,
+     * aviso a la misión y botín.
+     *
+     * @param jugador Personaje que ha ganado.
+     * @param enemigo Enemigo derrotado.
+     * @param gestor  Gestor de misiones a notificar (puede ser null).
+     */
+    public static void recompensar(Personaje jugador, Enemigo enemigo, GestorMisiones gestor) {
+        jugador.ganarExperiencia((int) enemigo.getExperienciaRecompensa());
+        if (gestor != null) gestor.notificarEvento(enemigo);
+
+        Item botin = enemigo.soltarBotin(jugador);
+        if (botin != null) {
+            System.out.println("🎁 ¡Has encontrado: " + botin.getNombre() + "!");
+            jugador.recogerItem(botin);
+        }
+    }
+
+    // ------- Métodos auxiliares -------
+
+    private static void turnoJugador(Personaje jugador, Enemigo enemigo, DiarioCombate diario) {
+        DiarioCombate.Tipo accion;
+        if (jugador.getPuntosVida() < jugador.getPuntosVidaMax() * 0.35) {
+            int pocion = jugador.getInventario().buscarPocion(TipoPocion.VIDA);
+            if (pocion >= 0) {
+                String nombre = jugador.getInventario().getItem(pocion).getNombre();
+                if (jugador.usarObjetoDeMochila(pocion) && diario != null) diario.anotarObjeto(nombre, jugador, enemigo);
+                return;
+            }
+            jugador.descansar();
+            accion = DiarioCombate.Tipo.DESCANSO;
+        } else if (jugador instanceof Picaro && ((Picaro) jugador).getEnergia() < 10) {
+            jugador.descansar();
+            accion = DiarioCombate.Tipo.DESCANSO;
+        } else {
+            jugador.atacar(enemigo);
+            accion = DiarioCombate.Tipo.ATAQUE;
+        }
+        if (diario != null) diario.anotar(accion, jugador, enemigo);
+    }
+}
@@ -0,0 +1,344 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combate de un grupo de personajes contra un grupo de enemigos.
+ * El orden de turnos lo marca la velocidad de cada actor: cada uno tiene un instante de su próxima
+ * acción guardado en un montículo de mínimos, así que elegir quién actúa cuesta O(log n) y no hace
+ * falta reordenar la lista entera en cada turno. Los actores más rápidos actúan más a menudo.
+ * -
+ * Al terminar, la experiencia y el botín de los enemigos derrotados se reparten de una vez entre
+ * los miembros del grupo que sigan vivos.
+ * -
+ * Si los enemigos están en la rejilla de una sala, los miembros del grupo lanzan sus habilidades
+ * de área cuando alcanzarían a más de uno; una sola acción puede entonces abatir a varios.
+ * -
+ * Un héroe puede tener un {@link TurnoHeroe} propio (por ejemplo, el jugador humano leyendo sus
+ * órdenes): cuando le llega el turno se le pasa el objetivo elegido por la política del grupo y
+ * actúa él. Un {@link Observador} recibe cada acción de los enemigos y cada baja, para narrarlas
+ * o anotarlas.
+ * -
+ * Con un campo de persecución ({@link #setPersecucion}), un enemigo que no está junto a su objetivo
+ * gasta su turno en acercarse un paso por el campo en lugar de atacar. El campo se calcula una vez
+ * y lo siguen todos los enemigos.
+ *
+ * @version 1.0
+ */
+public class CombateGrupal {
+
+    /**
+     * Turno de un héroe que no decide este combate (lo juega una persona o una estrategia propia).
+     */
+    public interface TurnoHeroe {
+        /**
+         * Juega el turno del héroe.
+         *
+         * @param heroe    Héroe al que le toca.
+         * @param objetivo Enemigo vivo elegido por la política del grupo.
+         */
+        void jugar(Personaje heroe, Enemigo objetivo);
+    }
+
+    /**
+     * Avisos de lo que ocurre en el combate. Todos los métodos son opcionales.
+     */
+    public interface Observador {
+        /**
+         * Un enemigo va a actuar contra un héroe.
+         *
+         * @param enemigo  Enemigo al que le toca.
+         * @param objetivo Héroe elegido.
+         */
+        default void antesDeActuar(Enemigo enemigo, Personaje objetivo) {
+        }
+
+        /**
+         * Un enemigo acaba de actuar contra un héroe.
+         *
+         * @param enemigo  Enemigo que ha actuado.
+         * @param objetivo Héroe elegido (puede haber caído).
+         */
+        default void despuesDeActuar(Enemigo enemigo, Personaje objetivo) {
+        }
+
+        /**
+         * Un enemigo ha caído (se avisa una vez por enemigo, tras la acción que lo abatió).
+         *
+         * @param enemigo Enemigo abatido.
+         */
+        default void baja(Enemigo enemigo) {
+        }
+    }
+
+    /**
+     * Tiempo que tarda en volver a actuar un actor de velocidad 1.
+     */
+    private static final int INTERVALO = 1000;
+    /**
+     * Límite de acciones para evitar combates infinitos.
+     */
+    private static final int MAX_ACCIONES = 100_000;
+    /**
+     * Observador que no hace nada.
+     */
+    private static final Observador SIN_OBSERVADOR = new Observador() {
+    };
+
+    /**
+     * Personajes del jugador (o jugadores).
+     */
+    private final List<Personaje> grupo;
+    /**
+     * Enemigos a los que se enfrentan.
+     */
+    private final List<Enemigo> enemigos;
+    /**
+     * Política de elección de objetivo del grupo.
+     */
+    private final PoliticaDecision politicaGrupo;
+    /**
+     * Política de elección de objetivo de los enemigos.
+     */
+    private final PoliticaDecision politicaEnemigos;
+    /**
+     * Gestor al que se notifican las bajas enemigas (puede ser null).
+     */
+    private final GestorMisiones gestorMisiones;
+    /**
+     * Cola de turnos: actor (índice) ordenado por el instante de su próxima acción.
+     */
+    private final MonticuloBinario turnos;
+    /**
+     * Enemigos ya contados como bajas (por posición en la lista de enemigos).
+     */
+    private final boolean[] abatidos;
+    /**
+     * Héroes con turno propio.
+     */
+    private final Map<Personaje, TurnoHeroe> controlados = new IdentityHashMap<>();
+    /**
+     * Quien recibe los avisos del combate.
+     */
+    private Observador observador = SIN_OBSERVADOR;
+    /**
+     * Campo hacia el grupo que siguen los enemigos que aún no han llegado (null = todos atacan desde donde estén).
+     */
+    private CampoFlujo persecucion;
+    /**
+     * Número de acciones realizadas.
+     */
+    private int acciones;
+
+    /**
+     * Prepara un combate de grupo.
+     *
+     * @param grupo            Personajes del bando del jugador.
+     * @param enemigos         Enemigos rivales.
+     * @param politicaGrupo    Cómo elige objetivo el grupo.
+     * @param politicaEnemigos Cómo eligen objetivo los enemigos.
+     * @param gestorMisiones   Gestor de misiones al que notificar las bajas (o null).
+     */
+    public CombateGrupal(List<Personaje> grupo, List<Enemigo> enemigos, PoliticaDecision politicaGrupo,
+                         PoliticaDecision politicaEnemigos, GestorMisiones gestorMisiones) {
+        this.grupo = grupo;
+        this.enemigos = enemigos;
+        this.politicaGrupo = politicaGrupo;
+        this.politicaEnemigos = politicaEnemigos;
+        this.gestorMisiones = gestorMisiones;
+        this.turnos = new MonticuloBinario(grupo.size() + enemigos.size());
+        this.abatidos = new boolean[enemigos.size()];
+    }
+
+    // Getters
+    public int getAcciones() {
+        return acciones;
+    }
+
+    /**
+     * Da a un héroe del grupo su propio turno en lugar de la acción automática.
+     *
+     * @param heroe Héroe del grupo.
+     * @param turno Quién juega sus turnos.
+     */
+    public void controlar(Personaje heroe, TurnoHeroe turno) {
+        controlados.put(heroe, turno);
+    }
+
+    /**
+     * @param observador Quien recibe los avisos del combate (null para ninguno).
+     */
+    public void setObservador(Observador observador) {
+        this.observador = observador != null ? observador : SIN_OBSERVADOR;
+    }
+
+    /**
+     * @param persecucion Campo de flujo de la sala hacia el grupo (ver Sala.campoHacia), o null.
+     */
+    public void setPersecucion(CampoFlujo persecucion) {
+        this.persecucion = persecucion;
+    }
+
+    /**
+     * Resuelve el combate hasta que uno de los bandos cae.
+     *
+     * @return true si el grupo gana; false si cae el grupo o se alcanza el límite de acciones.
+     */
+    public boolean resolver() {
+        System.out.println("\n⚔️ ¡COMBATE DE GRUPO! " + grupo.size() + " héroes contra " + enemigos.size() + " enemigos.");
+
+        int vivosGrupo = 0;
+        int vivosEnemigos = 0;
+        for (int i = 0; i < grupo.size() + enemigos.size(); i++) {
+            Personaje actor = actor(i);
+            if (actor.estaVivo()) {
+                turnos.insertarOActualizar(i, INTERVALO / actor.getVelocidad());
+                if (i < grupo.size()) vivosGrupo++;
+                else vivosEnemigos++;
+            }
+            if (i >= grupo.size()) abatidos[i - grupo.size()] = !actor.estaVivo();
+        }
+
+        while (vivosGrupo > 0 && vivosEnemigos > 0 && acciones < MAX_ACCIONES) {
+            int ahora = turnos.getPrioridad(turnos.cima());
+            int indice = turnos.extraer();
+            Personaje actor = actor(indice);
+            if (!actor.estaVivo()) continue; // Los caídos salen de la cola al llegarles el turno
+
+            acciones++;
+            boolean esDelGrupo = indice < grupo.size();
+            Personaje objetivo = esDelGrupo
+                    ? politicaGrupo.elegirObjetivo(actor, enemigos)
+                    : politicaEnemigos.elegirObjetivo(actor, grupo);
+            if (objetivo != null) {
+                if (esDelGrupo) {
+                    actor.avanzarEnfriamientos();
+                    TurnoHeroe turno = controlados.get(actor);
+                    if (turno != null) turno.jugar(actor, (Enemigo) objetivo);
+                    else actuarGrupo(actor, objetivo);
+                    vivosEnemigos -= contarBajas();
+                } else if (persecucion != null && !alAlcance(actor, objetivo) && ((Enemigo) actor).perseguir(persecucion)) {
+                    System.out.println(actor.getNombre() + " se acerca a " + objetivo.getNombre() + ".");
+                } else {
+                    Enemigo enemigo = (Enemigo) actor;
+                    observador.antesDeActuar(enemigo, objetivo);
+                    enemigo.realizarTurno(objetivo);
+                    observador.despuesDeActuar(enemigo, objetivo);
+                    if (!objetivo.estaVivo()) {
+                        vivosGrupo--;
+                        System.out.println("💀 " + objetivo.getNombre() + " ha caído.");
+                    }
+                }
+            }
+            turnos.insertarOActualizar(indice, ahora + Math.max(1, INTERVALO / actor.getVelocidad()));
+        }
+        turnos.limpiar();
+
+        boolean victoria = vivosEnemigos == 0 && vivosGrupo > 0;
+        if (victoria) {
+            System.out.println("\n⭐⭐⭐ ¡VICTORIA DEL GRUPO! ⭐⭐⭐");
+            repartirRecompensas();
+        }
+        return victoria;
+    }
+
+    /**
+     * Reparte en un solo paso la experiencia total y el botín de los enemigos derrotados
+     * entre los supervivientes del grupo. El botín se asigna por turnos rotatorios
+     * y se genera según la clase de quien lo recibe.
+     */
+    public void repartirRecompensas() {
+        List<Personaje> supervivientes = new ArrayList<>();
+        for (Personaje p : grupo) {
+            if (p.estaVivo()) supervivientes.add(p);
+        }
+        if (supervivientes.isEmpty()) return;
+
+        double xpTotal = 0;
+        int turnoBotin = 0;
+        for (Enemigo e : enemigos) {
+            if (e.estaVivo()) continue;
+            xpTotal += e.getExperienciaRecompensa();
+            Personaje receptor = supervivientes.get(turnoBotin++ % supervivientes.size());
+            Item botin = e.soltarBotin(receptor);
+            if (botin != null) {
+                System.out.println("🎁 " + receptor.getNombre() + " encuentra: " + botin.getNombre() + "!");
+                receptor.recogerItem(botin);
+            }
+        }
+
+        int xpPorCabeza = (int) (xpTotal / supervivientes.size());
+        for (Personaje p : supervivientes) {
+            p.ganarExperiencia(xpPorCabeza);
+        }
+    }
+
+    // ------- Métodos auxiliares -------
+
+    private Personaje actor(int indice) {
+        return indice < grupo.size() ? grupo.get(indice) : enemigos.get(indice - grupo.size());
+    }
+
+    /**
+     * Indica si dos personajes están en casillas contiguas (también en diagonal) o en la misma.
+     */
+    private static boolean alAlcance(Personaje a, Personaje b) {
+        return Math.max(Math.abs(a.getPosX() - b.getPosX()), Math.abs(a.getPosY() - b.getPosY())) <= 1;
+    }
+
+    /**
+     * Acción automática de un miembro del grupo: lanza una habilidad de área si alcanzaría a más
+     * de un enemigo y, si no, ataca al objetivo, salvo que un Pícaro esté sin energía, en cuyo
+     * caso descansa para recuperarla.
+     */
+    private void actuarGrupo(Personaje actor, Personaje objetivo) {
+        int area = habilidadDeArea(actor, objetivo);
+        if (area >= 0) {
+            actor.usarHabilidad(area, objetivo);
+        } else if (actor instanceof Picaro && ((Picaro) actor).getEnergia() < 10) {
+            actor.descansar();
+        } else {
+            actor.atacar(objetivo);
+        }
+    }
+
+    /**
+     * Habilidad de área lista que alcanzaría, alrededor del objetivo, a más de un enemigo
+     * de su rejilla.
+     *
+     * @return Su posición en las habilidades del actor, o -1 si no hay ninguna que merezca la pena.
+     */
+    private static int habilidadDeArea(Personaje actor, Personaje objetivo) {
+        RejillaEspacial zona = objetivo.getRejilla();
+        if (zona == null) return -1;
+        Habilidad[] habilidades = actor.getHabilidades();
+        for (int i = 0; i < habilidades.length; i++) {
+            Habilidad h = habilidades[i];
+            if (h.getObjetivo() == ObjetivoHabilidad.AREA && actor.puedeUsarHabilidad(i)
+                    && zona.contarEnRadio(objetivo.getPosX(), objetivo.getPosY(), h.getRadio(), Enemigo.class) > 1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Anota los enemigos caídos desde la última comprobación y avisa de cada uno a las misiones.
+     *
+     * @return Número de bajas nuevas.
+     */
+    private int contarBajas() {
+        int bajas = 0;
+        for (int i = 0; i < enemigos.size(); i++) {
+            Enemigo e = enemigos.get(i);
+            if (!abatidos[i] && !e.estaVivo()) {
+                abatidos[i] = true;
+                bajas++;
+                observador.baja(e);
+                if (gestorMisiones != null) gestorMisiones.notificarEvento(e);
+            }
+        }
+        return bajas;
+    }
+}
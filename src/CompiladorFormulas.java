@@ -0,0 +1,225 @@
+import java.util.function.Function;
+
+/**
+ * Traduce fórmulas escritas como texto (por ejemplo {@code "40 + 25 * nivel"}) a objetos
+ * {@link Formula} listos para evaluar en el bucle de combate.
+ * -
+ * El texto se analiza una sola vez con un analizador descendente recursivo. Las subexpresiones
+ * constantes se pliegan y las fórmulas lineales en el nivel (la inmensa mayoría: {@code a + b * nivel})
+ * se reducen a una única lambda especializada, así que evaluarlas cuesta lo mismo que el código escrito a mano.
+ * El resto se compone como un árbol de lambdas.
+ * -
+ * Gramática: números, la variable {@code nivel} (o {@code level}), paréntesis, {@code + - * /} y menos unario.
+ * Con {@link #compilar(String, Function)} también se puede nombrar otra fórmula por su clave
+ * (ej: {@code 2 * enemigo.vida}); su texto se analiza en ese punto como si fuera un paréntesis,
+ * así que el resultado se sigue plegando.
+ *
+ * @version 1.0
+ */
+public final class CompiladorFormulas {
+
+    /**
+     * Texto de la fórmula que se está analizando.
+     */
+    private final String texto;
+    /**
+     * Texto de las fórmulas que se pueden nombrar por su clave (null si no hay ninguna).
+     */
+    private final Function<String, String> referencias;
+    /**
+     * Referencias anidadas hasta llegar a esta fórmula.
+     */
+    private final int profundidad;
+    /**
+     * Posición de lectura.
+     */
+    private int pos;
+
+    /**
+     * Referencias anidadas como máximo (corta los ciclos entre fórmulas).
+     */
+    private static final int MAX_PROFUNDIDAD = 16;
+
+    private CompiladorFormulas(String texto, Function<String, String> referencias, int profundidad) {
+        this.texto = texto;
+        this.referencias = referencias;
+        this.profundidad = profundidad;
+    }
+
+    /**
+     * Compila una fórmula.
+     *
+     * @param texto Expresión a compilar.
+     * @return La fórmula compilada.
+     * @throws IllegalArgumentException si la expresión no es válida.
+     */
+    public static Formula compilar(String texto) {
+        return compilar(texto, null);
+    }
+
+    /**
+     * Compila una fórmula que puede nombrar otras por su clave.
+     *
+     * @param texto       Expresión a compilar.
+     * @param referencias Devuelve el texto de la fórmula de una clave, o null si no existe.
+     * @return La fórmula compilada.
+     * @throws IllegalArgumentException si la expresión (o una a la que nombra) no es válida.
+     */
+    public static Formula compilar(String texto, Function<String, String> referencias) {
+        return new CompiladorFormulas(texto, referencias, 0).analizar().generar();
+    }
+
+    // ------- Análisis -------
+
+    /**
+     * Analiza el texto completo.
+     */
+    private Nodo analizar() {
+        Nodo raiz = expresion();
+        saltarEspacios();
+        if (pos < texto.length()) {
+            throw error("símbolo inesperado '" + texto.charAt(pos) + "'");
+        }
+        return raiz;
+    }
+
+    private Nodo expresion() {
+        Nodo izquierda = termino();
+        while (true) {
+            saltarEspacios();
+            if (aceptar('+')) izquierda = Nodo.operar('+', izquierda, termino());
+            else if (aceptar('-')) izquierda = Nodo.operar('-', izquierda, termino());
+            else return izquierda;
+        }
+    }
+
+    private Nodo termino() {
+        Nodo izquierda = factor();
+        while (true) {
+            saltarEspacios();
+            if (aceptar('*')) izquierda = Nodo.operar('*', izquierda, factor());
+            else if (aceptar('/')) izquierda = Nodo.operar('/', izquierda, factor());
+            else return izquierda;
+        }
+    }
+
+    private Nodo factor() {
+        saltarEspacios();
+        if (aceptar('-')) return Nodo.operar('-', Nodo.constante(0), factor());
+        if (aceptar('+')) return factor();
+        if (aceptar('(')) {
+            Nodo dentro = expresion();
+            saltarEspacios();
+            if (!aceptar(')')) throw error("falta ')'");
+            return dentro;
+        }
+        int inicio = pos;
+        if (pos < texto.length() && (Character.isDigit(texto.charAt(pos)) || texto.charAt(pos) == '.')) {
+            while (pos < texto.length() && (Character.isDigit(texto.charAt(pos)) || texto.charAt(pos) == '.')) pos++;
+            try {
+                return Nodo.constante(Double.parseDouble(texto.substring(inicio, pos)));
+            } catch (NumberFormatException e) {
+                throw error("número mal escrito");
+            }
+        }
+        while (pos < texto.length() && (Character.isLetter(texto.charAt(pos))
+                || (pos > inicio && texto.charAt(pos) == '.'))) pos++;
+        String nombre = texto.substring(inicio, pos);
+        if (nombre.equalsIgnoreCase("nivel") || nombre.equalsIgnoreCase("level")) return Nodo.NIVEL;
+        String referida = nombre.isEmpty() || referencias == null ? null : referencias.apply(nombre);
+        if (referida == null) {
+            throw error(nombre.isEmpty() ? "se esperaba un valor" : "variable desconocida '" + nombre + "'");
+        }
+        if (profundidad >= MAX_PROFUNDIDAD) throw error("demasiadas fórmulas anidadas en '" + nombre + "'");
+        return new CompiladorFormulas(referida, referencias, profundidad + 1).analizar();
+    }
+
+    private boolean aceptar(char c) {
+        if (pos < texto.length() && texto.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void saltarEspacios() {
+        while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String motivo) {
+        return new IllegalArgumentException("Fórmula inválida \"" + texto + "\" (posición " + pos + "): " + motivo);
+    }
+
+    // ------- Árbol de la expresión -------
+
+    /**
+     * Nodo del árbol. Si es lineal en el nivel guarda los coeficientes a + b * nivel;
+     * si no, guarda la fórmula ya compuesta.
+     */
+    private static final class Nodo {
+
+        static final Nodo NIVEL = new Nodo(0, 1, null);
+
+        final double a;
+        final double b;
+        final Formula general;
+
+        private Nodo(double a, double b, Formula general) {
+            this.a = a;
+            this.b = b;
+            this.general = general;
+        }
+
+        static Nodo constante(double valor) {
+            return new Nodo(valor, 0, null);
+        }
+
+        boolean esLineal() {
+            return general == null;
+        }
+
+        boolean esConstante() {
+            return general == null && b == 0;
+        }
+
+        /**
+         * Combina dos nodos, plegando el resultado mientras siga siendo lineal.
+         */
+        static Nodo operar(char op, Nodo x, Nodo y) {
+            if (x.esLineal() && y.esLineal()) {
+                switch (op) {
+                    case '+': return new Nodo(x.a + y.a, x.b + y.b, null);
+                    case '-': return new Nodo(x.a - y.a, x.b - y.b, null);
+                    case '*':
+                        if (y.esConstante()) return new Nodo(x.a * y.a, x.b * y.a, null);
+                        if (x.esConstante()) return new Nodo(x.a * y.a, x.a * y.b, null);
+                        break;
+                    case '/':
+                        if (y.esConstante()) return new Nodo(x.a / y.a, x.b / y.a, null);
+                        break;
+                }
+            }
+            Formula f = x.generar();
+            Formula g = y.generar();
+            switch (op) {
+                case '+': return new Nodo(0, 0, n -> f.evaluar(n) + g.evaluar(n));
+                case '-': return new Nodo(0, 0, n -> f.evaluar(n) - g.evaluar(n));
+                case '*': return new Nodo(0, 0, n -> f.evaluar(n) * g.evaluar(n));
+                default:  return new Nodo(0, 0, n -> f.evaluar(n) / g.evaluar(n));
+            }
+        }
+
+        /**
+         * Genera la lambda más especializada posible para este nodo.
+         */
+        Formula generar() {
+            if (!esLineal()) return general;
+            final double a = this.a;
+            final double b = this.b;
+            if (b == 0) return n -> a;
+            if (a == 0 && b == 1) return n -> n;
+            if (a == 0) return n -> b * n;
+            return n -> a + b * n;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Componentes de datos que puede tener una entidad de MundoEntidades.
+ * Cada uno es un bit de la máscara que define el arquetipo de la entidad.
+ */
+public enum Componente {
+    /** Vida actual y máxima. */
+    VIDA,
+    /** Defensa (mitigación de daño). */
+    DEFENSA,
+    /** Daño base de sus golpes. */
+    ATAQUE,
+    /** Maná o energía, con su máximo y lo que recupera por turno. */
+    RECURSO,
+    /** Columna de la clase en la tabla de EfectoSala. */
+    CLASE,
+    /** Probabilidad de soltar botín al morir y nivel del botín. */
+    BOTIN;
+
+    /**
+     * @return Máscara con solo este componente.
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Máscara de varios componentes.
+     *
+     * @param componentes Componentes.
+     * @return Sus bits unidos.
+     */
+    public static long mascara(Componente... componentes) {
+        long m = 0;
+        for (Componente c : componentes) m |= c.bit();
+        return m;
+    }
+}
@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diario de combate de una partida: lo que pasó en cada turno, en orden.
+ * -
+ * Cada entrada guarda el turno, el tipo de acción, el tipo de enemigo, el objeto usado (si lo hay)
+ * y la vida de los dos combatientes después de la acción. El daño de una acción no se guarda: es
+ * la vida que perdió su objetivo respecto a la entrada anterior.
+ * En una emboscada hay varios enemigos: cuando las entradas pasan a hablar de otro, va antes una
+ * entrada OBJETIVO con su vida de ese momento, para que la diferencia se mida siempre sobre el mismo.
+ * -
+ * Las vidas se guardan en centésimas (enteros), que es la precisión del diario. Los datos van en
+ * arrays por columna para que el códec (ver CodecDiario) y los recorridos no creen objetos.
+ * Un diario lo escribe un solo hilo (el de su partida).
+ *
+ * @version 1.0
+ */
+public class DiarioCombate {
+
+    /**
+     * Tipo de entrada.
+     */
+    public enum Tipo {
+        /** Aparece un enemigo. */
+        INICIO,
+        /** El héroe ataca. */
+        ATAQUE,
+        /** El héroe lanza una habilidad. */
+        HABILIDAD,
+        /** El héroe usa un objeto de la mochila. */
+        OBJETO,
+        /** El héroe se defiende y descansa. */
+        DESCANSO,
+        /** El enemigo actúa. */
+        GOLPE,
+        /** El enemigo cae. */
+        VICTORIA,
+        /** El héroe cae. */
+        DERROTA,
+        /** Las entradas siguientes son de otro enemigo del combate (no es una acción, no hace daño). */
+        OBJETIVO,
+        /**
+         * Se perdieron eventos justo antes (ver SuscriptorDiario). Trae la vida de la entrada que
+         * le sigue, así que el daño de esa entrada se da por desconocido (0) en vez de inventarlo.
+         */
+        HUECO;
+
+        private static final Tipo[] VALORES = values();
+
+        static Tipo de(int ordinal) {
+            return VALORES[ordinal];
+        }
+    }
+
+    private int tamanio;
+    private int turno;
+    private int[] turnos = new int[64];
+    private byte[] tipos = new byte[64];
+    private int[] enemigos = new int[64];
+    private int[] objetos = new int[64];
+    private int[] vidasJugador = new int[64];
+    private int[] vidasEnemigo = new int[64];
+
+    /** Nombres de los objetos usados, por código (el código es la posición). */
+    private final List<String> nombresObjetos = new ArrayList<>();
+    private final Map<String, Integer> codigosObjetos = new HashMap<>();
+
+    /**
+     * Pasa al siguiente turno (las entradas nuevas llevan este número).
+     */
+    public void avanzarTurno() {
+        turno++;
+    }
+
+    /**
+     * @return Turno actual.
+     */
+    public int getTurno() {
+        return turno;
+    }
+
+    /**
+     * Anota una acción con la vida actual de los dos combatientes.
+     *
+     * @param tipo    Tipo de entrada.
+     * @param jugador Héroe.
+     * @param enemigo Enemigo del combate.
+     */
+    public void anotar(Tipo tipo, Personaje jugador, Enemigo enemigo) {
+        anadir(turno, tipo, enemigo.getTipoId(), -1, centesimas(jugador.getPuntosVida()), centesimas(enemigo.getPuntosVida()));
+    }
+
+    /**
+     * Anota el uso de un objeto (después de usarlo).
+     *
+     * @param objeto  Nombre del objeto usado.
+     * @param jugador Héroe.
+     * @param enemigo Enemigo del combate.
+     */
+    public void anotarObjeto(String objeto, Personaje jugador, Enemigo enemigo) {
+        anadir(turno, Tipo.OBJETO, enemigo.getTipoId(), codigoObjeto(objeto),
+                centesimas(jugador.getPuntosVida()), centesimas(enemigo.getPuntosVida()));
+    }
+
+    /**
+     * Añade una entrada ya en centésimas (lo usa el códec al leer).
+     */
+    void anadir(int turno, Tipo tipo, int enemigo, int objeto, int vidaJugador, int vidaEnemigo) {
+        if (tamanio == turnos.length) crecer();
+        turnos[tamanio] = turno;
+        tipos[tamanio] = (byte) tipo.ordinal();
+        enemigos[tamanio] = enemigo;
+        objetos[tamanio] = objeto;
+        vidasJugador[tamanio] = vidaJugador;
+        vidasEnemigo[tamanio] = vidaEnemigo;
+        tamanio++;
+        if (turno > this.turno) this.turno = turno;
+    }
+
+    /**
+     * Código de un objeto en este diario (se da uno nuevo la primera vez que aparece).
+     */
+    int codigoObjeto(String nombre) {
+        Integer codigo = codigosObjetos.get(nombre);
+        if (codigo == null) {
+            codigo = nombresObjetos.size();
+            nombresObjetos.add(nombre);
+            codigosObjetos.put(nombre, codigo);
+        }
+        return codigo;
+    }
+
+    // Getters
+    public int getTamanio() {
+        return tamanio;
+    }
+    public int getTurno(int i) {
+        return turnos[i];
+    }
+    public Tipo getTipo(int i) {
+        return Tipo.de(tipos[i]);
+    }
+    public TipoEnemigo getEnemigo(int i) {
+        return TipoEnemigo.porId(enemigos[i]);
+    }
+    /**
+     * @param i Entrada.
+     * @return Nombre del objeto usado, o null si la entrada no es de tipo OBJETO.
+     */
+    public String getObjeto(int i) {
+        return objetos[i] < 0 ? null : nombresObjetos.get(objetos[i]);
+    }
+    public double getVidaJugador(int i) {
+        return vidasJugador[i] / 100.0;
+    }
+    public double getVidaEnemigo(int i) {
+        return vidasEnemigo[i] / 100.0;
+    }
+
+    /**
+     * Daño que hizo una entrada: vida que perdió el enemigo (ataques, habilidades y la victoria)
+     * o el héroe (el resto) respecto a la entrada anterior. Negativo si la acción curó.
+     *
+     * @param i Entrada.
+     * @return Daño, o 0 en las entradas de INICIO, OBJETIVO y HUECO.
+     */
+    public double getDanio(int i) {
+        Tipo tipo = getTipo(i);
+        if (tipo == Tipo.INICIO || tipo == Tipo.OBJETIVO || tipo == Tipo.HUECO) return 0;
+        if (tipo == Tipo.ATAQUE || tipo == Tipo.HABILIDAD || tipo == Tipo.VICTORIA) {
+            return ((i == 0 ? 0 : vidasEnemigo[i - 1]) - vidasEnemigo[i]) / 100.0;
+        }
+        return ((i == 0 ? 0 : vidasJugador[i - 1]) - vidasJugador[i]) / 100.0;
+    }
+
+    // Acceso por columnas para el códec
+    int turnoCrudo(int i) {
+        return turnos[i];
+    }
+    int tipoCrudo(int i) {
+        return tipos[i];
+    }
+    int enemigoCrudo(int i) {
+        return enemigos[i];
+    }
+    int objetoCrudo(int i) {
+        return objetos[i];
+    }
+    int vidaJugadorCruda(int i) {
+        return vidasJugador[i];
+    }
+    int vidaEnemigoCruda(int i) {
+        return vidasEnemigo[i];
+    }
+    String nombreObjeto(int codigo) {
+        return nombresObjetos.get(codigo);
+    }
+
+    /**
+     * Convierte una vida a centésimas (la precisión del diario).
+     */
+    static int centesimas(double vida) {
+        return (int) Math.round(vida * 100);
+    }
+
+    private void crecer() {
+        int n = turnos.length * 2;
+        turnos = Arrays.copyOf(turnos, n);
+        tipos = Arrays.copyOf(tipos, n);
+        enemigos = Arrays.copyOf(enemigos, n);
+        objetos = Arrays.copyOf(objetos, n);
+        vidasJugador = Arrays.copyOf(vidasJugador, n);
+        vidasEnemigo = Arrays.copyOf(vidasEnemigo, n);
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Efectos ambientales que puede tener una sala. Una sala puede combinar varios.
+ * -
+ * La reacción de cada clase a cada efecto se resuelve con una tabla [efecto][clase] que se
+ * construye una sola vez al cargar la clase; aplicar los efectos de una sala es recorrer su lista
+ * y llamar a la entrada de la tabla, sin switch ni instanceof por efecto.
+ * Para añadir un efecto basta con una constante nueva; para añadir una clase jugable, una
+ * constante en ClasePersonaje y su caso en {@link #reaccion}.
+ * -
+ * Las cantidades de cada efecto (daño, curación, drenaje de recurso) son datos de la constante,
+ * así que los sistemas de MundoEntidades pueden aplicarlos sobre arrays sin pasar por la tabla.
+ */
+public enum EfectoSala {
+    ESCARCHA(0, 0, 15) {
+        @Override
+        Reaccion reaccion(ClasePersonaje clase) {
+            if (clase == ClasePersonaje.MAGO) return p -> {
+                Mago m = (Mago) p;
+                m.setPuntosMana(m.getPuntosMana() - getDrenaje());
+                System.out.println("   * El frío drena " + getDrenaje() + " de Maná.");
+            };
+            if (clase == ClasePersonaje.PICARO) return p -> {
+                Picaro pi = (Picaro) p;
+                pi.setEnergia(pi.getEnergia() - getDrenaje());
+                System.out.println("   * El frío drena " + getDrenaje() + " de Energía.");
+            };
+            return NADA;
+        }
+    },
+    NIEBLA(10, 0, 0) {
+        @Override
+        Reaccion reaccion(ClasePersonaje clase) {
+            return p -> p.recibirDanio(getDanio());
+        }
+    },
+    BENDICION(0, 15, 0) {
+        @Override
+        Reaccion reaccion(ClasePersonaje clase) {
+            return p -> {
+                p.setPuntosVida(p.getPuntosVida() + getCuracion());
+                System.out.println("   * La luz restaura " + getCuracion() + " PV.");
+            };
+        }
+    };
+
+    private final int danio;
+    private final int curacion;
+    private final int drenaje;
+
+    EfectoSala(int danio, int curacion, int drenaje) {
+        this.danio = danio;
+        this.curacion = curacion;
+        this.drenaje = drenaje;
+    }
+
+    /**
+     * @return Daño bruto (antes de la defensa) que hace a quien entra.
+     */
+    public int getDanio() {
+        return danio;
+    }
+    /**
+     * @return Vida que restaura a quien entra.
+     */
+    public int getCuracion() {
+        return curacion;
+    }
+    /**
+     * @return Maná o energía que quita a quien los tenga.
+     */
+    public int getDrenaje() {
+        return drenaje;
+    }
+
+    /**
+     * Lo que le hace un efecto a un personaje de una clase concreta.
+     */
+    @FunctionalInterface
+    interface Reaccion {
+        void aplicar(Personaje p);
+    }
+
+    private static final Reaccion NADA = p -> { };
+
+    /**
+     * Columna de la tabla para personajes que no son una clase jugable (enemigos).
+     */
+    private static final int OTROS = ClasePersonaje.values().length;
+
+    /**
+     * Tabla de reacciones: TABLA[efecto.ordinal()][clase.ordinal()], con una última columna para OTROS.
+     */
+    private static final Reaccion[][] TABLA;
+
+    static {
+        EfectoSala[] efectos = values();
+        ClasePersonaje[] clases = ClasePersonaje.values();
+        TABLA = new Reaccion[efectos.length][clases.length + 1];
+        for (EfectoSala e : efectos) {
+            for (ClasePersonaje c : clases) TABLA[e.ordinal()][c.ordinal()] = e.reaccion(c);
+            TABLA[e.ordinal()][OTROS] = e.reaccion(null);
+        }
+    }
+
+    /**
+     * Reacción de una clase a este efecto. Solo se usa al construir la tabla.
+     *
+     * @param clase Clase del personaje (null para los que no son jugables).
+     * @return La reacción (nunca null).
+     */
+    abstract Reaccion reaccion(ClasePersonaje clase);
+
+    /**
+     * Columna de la tabla que corresponde a un personaje.
+     * Conviene calcularla una vez y reutilizarla para todos los efectos de la sala.
+     *
+     * @param p Personaje.
+     * @return Índice de columna.
+     */
+    static int columna(Personaje p) {
+        ClasePersonaje clase = ClasePersonaje.de(p);
+        return clase == null ? OTROS : clase.ordinal();
+    }
+
+    /**
+     * Aplica este efecto a un personaje.
+     *
+     * @param p       Personaje que lo recibe.
+     * @param columna Su columna, de {@link #columna(Personaje)}.
+     */
+    void aplicar(Personaje p, int columna) {
+        TABLA[ordinal()][columna].aplicar(p);
+    }
+}
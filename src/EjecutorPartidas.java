@@ -0,0 +1,390 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta muchas partidas guionizadas a la vez, cada una con su propio {@link Juego}.
+ * Sirve para pruebas de regresión (el mismo guion debe seguir llegando al mismo sitio)
+ * y para medir cuántas partidas por segundo aguanta el motor. La partida N del lote usa la
+ * semilla N, así que repetir un lote con el mismo guion da exactamente los mismos resultados.
+ * -
+ * Los hilos del lote descartan su salida por consola con {@link SalidaSilenciada}.
+ * -
+ * Uso: {@code java EjecutorPartidas guion.txt [copias] [hilos] [directorioDiarios]}
+ *
+ * @version 1.0
+ */
+public class EjecutorPartidas {
+
+    /**
+     * Órdenes máximas por partida, para cortar guiones o generadores que nunca terminan.
+     */
+    public static final int MAX_ORDENES = 100_000;
+
+    /**
+     * Resultado de una partida del lote.
+     */
+    public static class Resultado {
+        private final int indice;
+        private final String clase;
+        private final int nivel;
+        private final boolean vivo;
+        private final boolean entradaAgotada;
+        private final int ordenes;
+        private final long nanos;
+        private final long eventos;
+        private final long danioInfligido;
+        private final long danioRecibido;
+        private final Throwable error;
+
+        private Resultado(int indice, Juego juego, boolean entradaAgotada, int ordenes, long nanos, Throwable error) {
+            Personaje jugador = juego.getJugador();
+            this.indice = indice;
+            this.clase = jugador == null ? "-" : jugador.getClass().getSimpleName();
+            this.nivel = juego.getNivelActual();
+            this.vivo = jugador != null && jugador.estaVivo();
+            this.entradaAgotada = entradaAgotada;
+            this.ordenes = ordenes;
+            this.nanos = nanos;
+            this.eventos = juego.getEventosPublicados();
+            this.danioInfligido = juego.getDanioInfligido();
+            this.danioRecibido = juego.getDanioRecibido();
+            this.error = error;
+        }
+
+        // Getters
+        public int getIndice() {
+            return indice;
+        }
+        public String getClase() {
+            return clase;
+        }
+        public int getNivel() {
+            return nivel;
+        }
+        public boolean isVivo() {
+            return vivo;
+        }
+        /**
+         * Indica si el guion se acabó antes de que terminara la partida.
+         * @return true si la partida se cortó por falta de órdenes.
+         */
+        public boolean isEntradaAgotada() {
+            return entradaAgotada;
+        }
+        public int getOrdenes() {
+            return ordenes;
+        }
+        public long getNanos() {
+            return nanos;
+        }
+        /**
+         * @return Eventos de combate que publicó la partida.
+         */
+        public long getEventos() {
+            return eventos;
+        }
+        /**
+         * @return Vida que perdieron los enemigos en los turnos del héroe, en centésimas (ver Juego).
+         */
+        public long getDanioInfligido() {
+            return danioInfligido;
+        }
+        /**
+         * @return Vida que perdió el héroe en los turnos de los enemigos, en centésimas (ver Juego).
+         */
+        public long getDanioRecibido() {
+            return danioRecibido;
+        }
+        /**
+         * Excepción inesperada que detuvo la partida.
+         * @return La excepción, o null si la partida terminó con normalidad o por falta de órdenes.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            String fin = error != null ? "ERROR " + error : entradaAgotada ? "guion agotado" : vivo ? "terminada" : "muerto";
+            return "#" + indice + " " + clase + " nivel " + nivel + " (" + ordenes + " órdenes): " + fin;
+        }
+    }
+
+    /**
+     * Fuente que cuenta las órdenes leídas y corta al pasar del máximo.
+     */
+    private static class FuenteContada implements FuenteEntrada {
+        private final FuenteEntrada origen;
+        private int leidas;
+
+        FuenteContada(FuenteEntrada origen) {
+            this.origen = origen;
+        }
+
+        @Override
+        public String leerLinea() {
+            if (leidas >= MAX_ORDENES) throw new NoSuchElementException("Máximo de órdenes alcanzado");
+            String linea = origen.leerLinea();
+            leidas++;
+            return linea;
+        }
+    }
+
+    private EjecutorPartidas() {
+    }
+
+    /**
+     * Juega todas las partidas en paralelo y espera a que terminen.
+     *
+     * @param guiones Una fábrica de entrada por partida (se invoca dentro del hilo de la partida).
+     * @param hilos   Número de hilos del lote.
+     * @return Un resultado por partida, en el mismo orden que los guiones.
+     */
+    public static List<Resultado> ejecutar(List<Supplier<FuenteEntrada>> guiones, int hilos) {
+        return ejecutar(guiones, hilos, null);
+    }
+
+    /**
+     * Juega todas las partidas en paralelo publicando sus misiones en un registro compartido.
+     *
+     * @param guiones  Una fábrica de entrada por partida (se invoca dentro del hilo de la partida).
+     * @param hilos    Número de hilos del lote.
+     * @param registro Registro de misiones (o null); cada partida usa la sesión "partida-N".
+     * @return Un resultado por partida, en el mismo orden que los guiones.
+     */
+    public static List<Resultado> ejecutar(List<Supplier<FuenteEntrada>> guiones, int hilos, RegistroMisiones registro) {
+        return ejecutar(guiones, hilos, registro, null);
+    }
+
+    /**
+     * Juega todas las partidas en paralelo publicando sus misiones y sus combates.
+     *
+     * @param guiones  Una fábrica de entrada por partida (se invoca dentro del hilo de la partida).
+     * @param hilos    Número de hilos del lote.
+     * @param registro Registro de misiones (o null); cada partida usa la sesión "partida-N".
+     * @param bus      Bus donde se publican las acciones de los combates (o null). No se cierra.
+     * @return Un resultado por partida, en el mismo orden que los guiones.
+     */
+    public static List<Resultado> ejecutar(List<Supplier<FuenteEntrada>> guiones, int hilos, RegistroMisiones registro,
+                                           BusEventos<EventoJuego> bus) {
+        if (hilos < 1) throw new IllegalArgumentException("Hace falta al menos un hilo");
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<Resultado>> pendientes = new ArrayList<>(guiones.size());
+            for (int i = 0; i < guiones.size(); i++) {
+                int indice = i;
+                Supplier<FuenteEntrada> guion = guiones.get(i);
+                pendientes.add(pool.submit(() -> SalidaSilenciada.ejecutar(() -> jugar(indice, guion.get(), registro, bus))));
+            }
+            List<Resultado> resultados = new ArrayList<>(pendientes.size());
+            for (Future<Resultado> f : pendientes) {
+                resultados.add(f.get());
+            }
+            return resultados;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Lote de partidas interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo al ejecutar una partida", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Juega una partida completa en el hilo actual.
+     *
+     * @param indice Número de la partida dentro del lote.
+     * @param fuente Órdenes del jugador.
+     * @return Cómo terminó la partida.
+     */
+    public static Resultado jugar(int indice, FuenteEntrada fuente) {
+        return jugar(indice, fuente, null);
+    }
+
+    /**
+     * Juega una partida completa en el hilo actual publicando sus misiones.
+     *
+     * @param indice   Número de la partida dentro del lote.
+     * @param fuente   Órdenes del jugador.
+     * @param registro Registro de misiones (o null).
+     * @return Cómo terminó la partida.
+     */
+    public static Resultado jugar(int indice, FuenteEntrada fuente, RegistroMisiones registro) {
+        return jugar(indice, fuente, registro, null);
+    }
+
+    /**
+     * Juega una partida completa en el hilo actual publicando sus misiones y sus combates.
+     *
+     * @param indice   Número de la partida dentro del lote.
+     * @param fuente   Órdenes del jugador.
+     * @param registro Registro de misiones (o null).
+     * @param bus      Bus de eventos (o null); la partida publica como "partida-N".
+     * @return Cómo terminó la partida.
+     */
+    public static Resultado jugar(int indice, FuenteEntrada fuente, RegistroMisiones registro, BusEventos<EventoJuego> bus) {
+        FuenteContada contada = new FuenteContada(fuente);
+        Juego juego = Juego.crear(contada, indice); // La partida N usa la semilla N: el lote se puede repetir
+        if (registro != null) juego.activarRegistroMisiones(registro, "partida-" + indice);
+        if (bus != null) juego.activarEventos(bus, "partida-" + indice);
+        long inicio = System.nanoTime();
+        boolean agotada = false;
+        Throwable error = null;
+        try {
+            juego.iniciarJuego();
+        } catch (NoSuchElementException e) {
+            agotada = true;
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        return new Resultado(indice, juego, agotada, contada.leidas, System.nanoTime() - inicio, error);
+    }
+
+    /**
+     * Repite un guion de fichero en paralelo e imprime un resumen.
+     *
+     * Los combates se publican en un bus con dos suscriptores: métricas y diarios en disco
+     * (si se indica un directorio). Ninguno frena las partidas: si se quedan atrás, pierden eventos
+     * y lo cuentan, y el diario de una partida que pierde eventos lleva un HUECO donde faltan.
+     * Al final se comprueba que el daño de cada diario sin huecos es el que hubo en su partida.
+     *
+     * @param args Ruta del guion, copias (1000), hilos (núcleos disponibles) y directorio de diarios.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Uso: java EjecutorPartidas guion.txt [copias] [hilos] [directorioDiarios]");
+            return;
+        }
+        Path fichero = Path.of(args[0]);
+        int copias = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int hilos = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        List<Supplier<FuenteEntrada>> guiones = new ArrayList<>(copias);
+        List<String> lineas;
+        try {
+            lineas = Files.readAllLines(fichero, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("(!) No se pudo leer el guion " + fichero + ": " + e.getMessage());
+            return;
+        }
+        for (int i = 0; i < copias; i++) guiones.add(() -> FuenteEntrada.guion(lineas));
+
+        RegistroMisiones registro = new RegistroMisiones();
+        VistasMisiones vistas = new VistasMisiones(registro);
+
+        BusEventos<EventoJuego> bus = new BusEventos<>();
+        MetricasEventos metricas = new MetricasEventos();
+        BusEventos<EventoJuego>.Suscripcion deMetricas =
+                bus.suscribir(metricas, 1 << 16, BusEventos.Desbordamiento.DESCARTAR, BusEventos.LOTE);
+        SuscriptorDiario diarios = null;
+        BusEventos<EventoJuego>.Suscripcion deDiarios = null;
+        if (args.length > 3) {
+            diarios = new SuscriptorDiario(Path.of(args[3]), true);
+            deDiarios = bus.suscribir(diarios, 1 << 16, BusEventos.Desbordamiento.DESCARTAR, BusEventos.LOTE);
+        }
+
+        long t0 = System.nanoTime();
+        List<Resultado> resultados = ejecutar(guiones, hilos, registro, bus);
+        double segundos = (System.nanoTime() - t0) / 1e9;
+        bus.close();
+
+        int vivos = 0, agotadas = 0, errores = 0, nivelMax = 0;
+        long ordenes = 0;
+        for (Resultado r : resultados) {
+            if (r.isVivo()) vivos++;
+            if (r.isEntradaAgotada()) agotadas++;
+            if (r.getError() != null) {
+                errores++;
+                if (errores <= 5) System.out.println(r);
+            }
+            nivelMax = Math.max(nivelMax, r.getNivel());
+            ordenes += r.getOrdenes();
+        }
+        System.out.println("Partidas: " + copias + " en " + hilos + " hilos, " + String.format("%.2f s", segundos)
+                + String.format(" (%.0f partidas/s, %.0f órdenes/s)", copias / segundos, ordenes / segundos));
+        System.out.println("Héroe vivo al final: " + vivos + "  Guion agotado: " + agotadas
+                + "  Errores: " + errores + "  Nivel máximo: " + nivelMax);
+
+        try {
+            registro.esperar();
+            metricas.esperar();
+            if (diarios != null) diarios.esperar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        System.out.println("Misiones completadas: " + vistas.getCompletadas().getTotal()
+                + " (" + registro.getTamanio() + " hechos registrados)");
+        for (String mision : vistas.getEmbudos().getMisiones()) {
+            System.out.println("   " + vistas.getEmbudos().describir(mision));
+        }
+        System.out.println("Eventos de combate: " + deMetricas.getEntregados() + " contados, "
+                + deMetricas.getDescartados() + " descartados");
+        System.out.println(metricas.describir());
+        if (diarios != null) {
+            System.out.println("Diarios escritos: " + diarios.getEscritos() + " tramos en " + args[3]
+                    + " (" + deDiarios.getEntregados() + " eventos, " + deDiarios.getDescartados() + " descartados, "
+                    + diarios.getHuecos() + " huecos)");
+            int cuadran = 0, incompletos = 0;
+            for (Resultado r : resultados) {
+                Boolean cuadra = cuadra(Path.of(args[3]), "partida-" + r.getIndice(), r);
+                if (cuadra == null) incompletos++;
+                else if (cuadra) cuadran++;
+            }
+            System.out.println("Diarios que cuadran con el daño real: " + cuadran + " de " + (resultados.size() - incompletos)
+                    + " (" + incompletos + " con huecos, sin comprobar)");
+        }
+    }
+
+    /**
+     * Comprueba que el daño que se lee en el diario de una partida (todos sus tramos, ver
+     * SuscriptorDiario) es el que hubo de verdad: lo que perdieron los enemigos en ataques y
+     * habilidades, y el héroe en los golpes.
+     *
+     * @param directorio Directorio de los diarios.
+     * @param sesion     Sesión de la partida.
+     * @param resultado  Resultado de la misma partida.
+     * @return true si los dos totales coinciden (una partida sin combates no tiene diario), o null
+     *         si al diario le faltan eventos (huecos, o los últimos de la partida) y no se puede comprobar.
+     */
+    static Boolean cuadra(Path directorio, String sesion, Resultado resultado) {
+        long infligido = 0, recibido = 0, eventos = 0;
+        Path fichero;
+        for (int tramo = 0; Files.exists(fichero = SuscriptorDiario.fichero(directorio, sesion, tramo)); tramo++) {
+            try {
+                CodecDiario.Lector.Cursor c = CodecDiario.leer(fichero).cursor();
+                if (tramo > 0) c.siguiente(); // El OBJETIVO que enlaza con el tramo anterior
+                while (c.siguiente()) {
+                    eventos++;
+                    switch (c.getTipo()) {
+                        case ATAQUE: case HABILIDAD: case VICTORIA: infligido += c.getDanio(); break;
+                        case GOLPE: case DERROTA: recibido += c.getDanio(); break;
+                        case HUECO: return null;
+                        default: break;
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("(!) No se pudo leer el diario " + fichero + ": " + e.getMessage());
+                return false;
+            }
+        }
+        if (eventos != resultado.getEventos()) return null;
+        boolean cuadra = infligido == resultado.getDanioInfligido() && recibido == resultado.getDanioRecibido();
+        if (!cuadra) {
+            System.out.println("(!) " + sesion + ": el diario da " + infligido + "/" + recibido
+                    + " centésimas de daño hecho/recibido y hubo " + resultado.getDanioInfligido() + "/" + resultado.getDanioRecibido());
+        }
+        return cuadra;
+    }
+}
@@ -1,3 +1,6 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Representa a los oponentes controlados por el juego.
  * Tienen estadísticas basadas en el nivel y pueden soltar botín al ser derrotados.
@@ -12,15 +15,68 @@ public class Enemigo extends Personaje {
     /** Daño base del enemigo. */
     private double danioBase;
 
+    /** Tipo del enemigo (las misiones y estadísticas usan su número). */
+    private final TipoEnemigo tipo;
+
+    /** Generador de sus tiradas de combate y botín (null = el del hilo actual). */
+    private SplittableRandom azar;
+
+    /**
+     * Crea un enemigo de un tipo, escalado según el nivel proporcionado.
+     * @param tipo Tipo de enemigo (da el nombre).
+     * @param nivel Nivel de dificultad (afecta vida, defensa y daño).
+     */
+    public Enemigo(TipoEnemigo tipo, int nivel) {
+        super(tipo.getNombre(), nivel, Formulas.ENEMIGO_VIDA.evaluar(nivel), (int) Formulas.ENEMIGO_DEFENSA.evaluar(nivel),
+                8 + nivel, new RanuraEquipo[0]);
+        this.tipo = tipo;
+        this.danioBase = Formulas.ENEMIGO_DANIO.evaluar(nivel);
+        this.experienciaRecompensa = Formulas.ENEMIGO_EXPERIENCIA.evaluar(nivel);
+    }
+
     /**
-     * Crea un enemigo escalado según el nivel proporcionado.
-     * @param nombre Nombre del enemigo.
+     * Crea un enemigo escalado según el nivel, con el tipo que corresponde a su nombre.
+     * @param nombre Nombre del tipo de enemigo (sin distinguir mayúsculas).
      * @param nivel Nivel de dificultad (afecta vida, defensa y daño).
+     * @throws IllegalArgumentException si no hay ningún tipo con ese nombre.
      */
     public Enemigo(String nombre, int nivel) {
-        super(nombre, nivel, 40 + (25 * nivel), 2 + (1 * nivel));
-        this.danioBase = 6 + (4 * nivel);
-        this.experienciaRecompensa = 20 * nivel;
+        this(TipoEnemigo.buscar(nombre), nivel);
+    }
+
+    /**
+     * Hace que el enemigo saque sus tiradas de un generador concreto (el de su partida), para
+     * que la partida se pueda repetir con la misma semilla. Solo debe usarlo el hilo de la partida.
+     *
+     * @param azar Generador aleatorio (null para usar el del hilo actual).
+     */
+    public void setAzar(SplittableRandom azar) {
+        this.azar = azar;
+    }
+
+    /**
+     * Tirada entre 0 (incluido) y 1 (excluido).
+     *
+     * @return La tirada.
+     */
+    protected final double tirada() {
+        return azar != null ? azar.nextDouble() : ThreadLocalRandom.current().nextDouble();
+    }
+
+    /**
+     * Obtiene el tipo del enemigo.
+     * @return El tipo.
+     */
+    public TipoEnemigo getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Número del tipo del enemigo.
+     * @return El número denso del tipo.
+     */
+    public int getTipoId() {
+        return tipo.getId();
     }
 
     /**
@@ -31,32 +87,54 @@ public class Enemigo extends Personaje {
         return experienciaRecompensa;
     }
 
+    /**
+     * Obtiene el daño base del enemigo (antes de la variación aleatoria).
+     * @return El daño base.
+     */
+    public double getDanioBase() {
+        return danioBase;
+    }
+
+    /**
+     * Avanza una casilla siguiendo el campo de flujo de la sala (normalmente hacia el jugador).
+     * Pensado para mover muchos enemigos por turno con un único cálculo del campo.
+     *
+     * @param campo Campo de flujo ya calculado para este turno.
+     * @return true si el enemigo se movió.
+     */
+    public boolean perseguir(CampoFlujo campo) {
+        Mapa mapa = campo.getMapa();
+        int actual = mapa.indice(getPosX(), getPosY());
+        int paso = campo.siguientePaso(actual);
+        if (paso == actual) return false;
+        moverse(mapa.columna(paso), mapa.fila(paso));
+        return true;
+    }
+
     /**
      * Calcula si el enemigo suelta un objeto al ser derrotado.
-     * Existe un 40% de probabilidad de soltar botín.
-     * El botín se adapta a la clase del jugador (Pociones de maná para Magos, etc.).
-     * * @param jugador El personaje que derrotó al enemigo.
+     * El botín y su probabilidad salen de la tabla de su tipo (ver TablaBotin).
+     * @param jugador El personaje que derrotó al enemigo.
      * @return Un objeto Item si hay suerte, o null si no suelta nada.
      */
     public Item soltarBotin(Personaje jugador) {
-        double probabilidad = Math.random();
-
-        if (probabilidad < 0.40) {
-            if (jugador instanceof Mago) {
-                double cura = 30 + (10 * getNivel());
-                return new Pocion("Poción de Maná", cura, TipoPocion.MANA);
-            } else {
-                if (Math.random() < 0.5) {
-                    double danioArma = 6 + (3 * getNivel());
-                    String nombreArma = (jugador instanceof Guerrero) ? "Espada Bastarda" : "Daga Envenenada";
-                    return new Arma(nombreArma, danioArma);
-                } else {
-
-                    return new Pocion("Poción de Salud", 40, TipoPocion.VIDA);
-                }
-            }
+        return TablaBotin.de(tipo).soltar(tirada(), getNivel());
+    }
+
+    /**
+     * Decide y ejecuta el turno del enemigo.
+     * Si está malherido (30% de vida o menos) hay un 15% de probabilidad de que descanse;
+     * en caso contrario ataca al objetivo.
+     *
+     * @param objetivo El personaje al que se enfrenta.
+     */
+    public void realizarTurno(Personaje objetivo) {
+        if (getPuntosVida() <= (getPuntosVidaMax() * 0.3) && tirada() < 0.15) {
+            System.out.println(getNombre() + " jadea y trata de curarse sus heridas.");
+            descansar();
+        } else {
+            atacar(objetivo);
         }
-        return null;
     }
 
     /**
@@ -67,8 +145,8 @@ public class Enemigo extends Personaje {
      */
     @Override
     public void atacar(Personaje objetivo) {
-        if (Math.random() < 0.85) {
-            double factor = 0.9 + (Math.random() * 0.2); // Variación de daño +/- 10%
+        if (tirada() < 0.85) {
+            double factor = 0.9 + (tirada() * 0.2); // Variación de daño +/- 10%
             double danioFinal = danioBase * factor;
             System.out.println(getNombre() + " ataca ferozmente a " + objetivo.getNombre() + "!");
             objetivo.recibirDanio((int) danioFinal);
@@ -0,0 +1,122 @@
+/**
+ * Equipo que lleva puesto un personaje, con un hueco por cada RanuraEquipo que declare su clase.
+ * -
+ * Los totales de ataque y defensa se recalculan solo al poner o quitar una pieza, así que
+ * consultarlos durante el combate es leer dos campos, da igual cuántos tipos de pieza haya.
+ *
+ * @version 1.0
+ */
+public class Equipamiento {
+
+    private static final RanuraEquipo[] RANURAS = RanuraEquipo.values();
+
+    /**
+     * Huecos que puede usar el personaje, en orden de preferencia al equipar.
+     */
+    private final RanuraEquipo[] ranuras;
+    /**
+     * Pieza de cada hueco, por ordinal de RanuraEquipo (null si está vacío).
+     */
+    private final Equipo[] piezas = new Equipo[RANURAS.length];
+
+    private double ataque;
+    private int defensa;
+
+    /**
+     * Crea un equipamiento vacío.
+     *
+     * @param ranuras Huecos que puede usar el personaje (ninguno para quien no lleva equipo).
+     */
+    public Equipamiento(RanuraEquipo... ranuras) {
+        this.ranuras = ranuras.clone();
+    }
+
+    /**
+     * @return Copia de los huecos que puede usar el personaje.
+     */
+    public RanuraEquipo[] getRanuras() {
+        return ranuras.clone();
+    }
+
+    /**
+     * @param ranura Hueco.
+     * @return true si el personaje puede usar ese hueco.
+     */
+    public boolean tiene(RanuraEquipo ranura) {
+        for (RanuraEquipo r : ranuras) {
+            if (r == ranura) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param ranura Hueco.
+     * @return La pieza puesta en ese hueco, o null si está vacío.
+     */
+    public Equipo get(RanuraEquipo ranura) {
+        return piezas[ranura.ordinal()];
+    }
+
+    /**
+     * Elige dónde poner una pieza: el primer hueco libre que la admita o, si están todos
+     * ocupados, el primero que la admita (cuya pieza habrá que guardar).
+     *
+     * @param pieza Pieza a equipar.
+     * @return El hueco elegido, o null si el personaje no tiene ninguno para ella.
+     */
+    public RanuraEquipo ranuraPara(Equipo pieza) {
+        RanuraEquipo ocupada = null;
+        for (RanuraEquipo r : ranuras) {
+            if (!r.admite(pieza)) continue;
+            if (piezas[r.ordinal()] == null) return r;
+            if (ocupada == null) ocupada = r;
+        }
+        return ocupada;
+    }
+
+    /**
+     * Pone una pieza en un hueco (o lo vacía con null) y actualiza los totales.
+     * Se usa a través de Personaje.equipar, que además marca el cambio para el guardado.
+     *
+     * @param ranura Hueco.
+     * @param pieza  Pieza a poner, o null para quitar la que haya.
+     * @return La pieza que había antes, o null.
+     * @throws IllegalArgumentException si el personaje no tiene ese hueco o la pieza no cabe en él.
+     */
+    Equipo poner(RanuraEquipo ranura, Equipo pieza) {
+        if (!tiene(ranura)) throw new IllegalArgumentException("Este personaje no tiene hueco de " + ranura.getDescripcion());
+        if (pieza != null && !ranura.admite(pieza)) {
+            throw new IllegalArgumentException(pieza.getNombre() + " no cabe en el hueco de " + ranura.getDescripcion());
+        }
+        Equipo anterior = piezas[ranura.ordinal()];
+        piezas[ranura.ordinal()] = pieza;
+        recalcular();
+        return anterior;
+    }
+
+    /**
+     * @return Daño extra de todo el equipo puesto.
+     */
+    public double getAtaque() {
+        return ataque;
+    }
+
+    /**
+     * @return Defensa extra de todo el equipo puesto.
+     */
+    public int getDefensa() {
+        return defensa;
+    }
+
+    private void recalcular() {
+        double a = 0;
+        int d = 0;
+        for (Equipo pieza : piezas) {
+            if (pieza == null) continue;
+            a += pieza.getAtaque();
+            d += pieza.getDefensa();
+        }
+        this.ataque = a;
+        this.defensa = d;
+    }
+}
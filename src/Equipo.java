@@ -0,0 +1,41 @@
+/**
+ * Objeto que se lleva puesto en un hueco de equipo (arma, armadura, abalorio...).
+ * Aporta ataque y defensa mientras está equipado; el personaje guarda los totales
+ * en su {@link Equipamiento}, así que atacar no recorre las piezas.
+ *
+ * @version 1.0
+ */
+public abstract class Equipo extends Item {
+
+    /**
+     * Crea una pieza de equipo.
+     *
+     * @param nombre Nombre de la pieza.
+     */
+    public Equipo(String nombre) {
+        super(nombre);
+    }
+
+    /**
+     * Ataque que suma la pieza.
+     * @return Puntos de daño extra.
+     */
+    public abstract double getAtaque();
+
+    /**
+     * Defensa que suma la pieza.
+     * @return Puntos de defensa extra.
+     */
+    public abstract int getDefensa();
+
+    /**
+     * Equipa la pieza en el primer hueco libre que la admita (o sustituye la del primero que la admita).
+     *
+     * @param objetivo El personaje que se la pone.
+     * @return true si se equipó; false si su clase no tiene hueco para ella.
+     */
+    @Override
+    public boolean usarItem(Personaje objetivo) {
+        return objetivo.equipar(this);
+    }
+}
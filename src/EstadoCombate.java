@@ -0,0 +1,346 @@
+import java.util.SplittableRandom;
+
+/**
+ * Copia ligera del estado de un combate jugador contra enemigo, pensada para que una IA
+ * pruebe "¿y si bebo la poción en lugar de atacar?" miles de veces por decisión.
+ * -
+ * Todo lo que no cambia durante el combate (clase, nivel, defensas, daños, máximos) vive en un
+ * objeto {@link Reglas} compartido por todas las copias. Lo que cambia son unos pocos primitivos
+ * (vida, maná/energía, progreso de la misión) y referencias inmutables (armas e
+ * {@link InventarioPersistente}), así que {@link #bifurcar()} es O(1) y la memoria solo crece con
+ * lo que cada rama modifica.
+ * -
+ * Las reglas reproducen las de Personaje, Guerrero, Mago, Picaro, Enemigo y Jefe sin imprimir nada
+ * y tomando el azar de un {@link SplittableRandom} en lugar de Math.random. Las habilidades de clase
+ * no se modelan.
+ *
+ * @version 1.0
+ */
+public final class EstadoCombate {
+
+    /** Acción: atacar al enemigo. */
+    public static final int ATACAR = 0;
+    /** Acción: defender y descansar. */
+    public static final int DESCANSAR = 1;
+    /** Acción: usar el objeto de la mochila en la posición (accion - USAR_OBJETO). */
+    public static final int USAR_OBJETO = 2;
+
+    /**
+     * Datos fijos del combate, compartidos por todas las copias.
+     */
+    static final class Reglas {
+        final ClasePersonaje clase;
+        final int nivelJugador;
+        final int defensaJugador;
+        final double vidaMaxJugador;
+        final double recursoMax;
+        final double ataqueBase;
+        final double ataqueSinRecurso;
+        /** Daño extra del equipo que no cambia durante el combate (todo salvo las armas). */
+        final double ataqueEquipo;
+
+        final int tipoEnemigo;
+        final int nivelEnemigo;
+        final int defensaEnemigo;
+        final double vidaMaxEnemigo;
+        final double danioEnemigo;
+        final double danioCritico;
+        final boolean esJefe;
+
+        /** Tipo de enemigo que cuenta para la misión (-1 si no hay misión de caza). */
+        final int objetivoMision;
+
+        Reglas(Personaje jugador, double recursoMax, Enemigo enemigo, Mision mision) {
+            this.clase = jugador instanceof Guerrero ? ClasePersonaje.GUERRERO
+                    : jugador instanceof Mago ? ClasePersonaje.MAGO : ClasePersonaje.PICARO;
+            this.nivelJugador = jugador.getNivel();
+            this.defensaJugador = jugador.getDefensaTotal();
+            this.vidaMaxJugador = jugador.getPuntosVidaMax();
+            this.recursoMax = recursoMax;
+            switch (clase) {
+                case GUERRERO:
+                    this.ataqueBase = (int) Formulas.GUERRERO_FUERZA.evaluar(nivelJugador);
+                    this.ataqueSinRecurso = ataqueBase;
+                    break;
+                case MAGO:
+                    this.ataqueBase = (int) Formulas.MAGO_INTELIGENCIA.evaluar(nivelJugador);
+                    this.ataqueSinRecurso = (int) Formulas.MAGO_BASTON.evaluar(nivelJugador);
+                    break;
+                default:
+                    this.ataqueBase = Formulas.PICARO_DANIO.evaluar(nivelJugador);
+                    this.ataqueSinRecurso = 0;
+            }
+
+            double fijo = 0;
+            for (RanuraEquipo r : RanuraEquipo.values()) {
+                Equipo pieza = jugador.getEquipamiento().get(r);
+                if (pieza != null && !(pieza instanceof Arma)) fijo += pieza.getAtaque();
+            }
+            this.ataqueEquipo = fijo;
+
+            this.tipoEnemigo = enemigo.getTipoId();
+            this.nivelEnemigo = enemigo.getNivel();
+            this.defensaEnemigo = enemigo.getDefensa();
+            this.vidaMaxEnemigo = enemigo.getPuntosVidaMax();
+            this.danioEnemigo = enemigo.getDanioBase();
+            this.danioCritico = Formulas.JEFE_CRITICO.evaluar(enemigo.getNivel());
+            this.esJefe = enemigo instanceof Jefe;
+
+            this.objetivoMision = (mision instanceof MisionCaza && ((MisionCaza) mision).getObjetivo() != null)
+                    ? ((MisionCaza) mision).getObjetivo().getId() : -1;
+        }
+    }
+
+    private final Reglas reglas;
+    private double vidaJugador;
+    private double recurso;
+    private double vidaEnemigo;
+    private Arma arma1;
+    private Arma arma2;
+    private InventarioPersistente inventario;
+    private int progresoMision;
+    private int turnos;
+
+    private EstadoCombate(Reglas reglas) {
+        this.reglas = reglas;
+    }
+
+    /**
+     * Captura el estado actual de un combate real.
+     *
+     * @param jugador Personaje del jugador.
+     * @param enemigo Enemigo al que se enfrenta.
+     * @param mision  Misión en curso (puede ser null).
+     * @return Estado inicial desde el que bifurcar.
+     */
+    public static EstadoCombate desde(Personaje jugador, Enemigo enemigo, Mision mision) {
+        double recurso = 0;
+        double recursoMax = 0;
+        Arma a1 = null;
+        Arma a2 = null;
+        if (jugador instanceof Mago) {
+            recurso = ((Mago) jugador).getPuntosMana();
+            recursoMax = ((Mago) jugador).getPuntosManaMax();
+        } else if (jugador instanceof Picaro) {
+            Picaro p = (Picaro) jugador;
+            recurso = p.getEnergia();
+            recursoMax = p.getEnergiaMaxima();
+        }
+        Equipamiento equipo = jugador.getEquipamiento();
+        if (equipo.tiene(RanuraEquipo.MANO_PRINCIPAL)) a1 = (Arma) equipo.get(RanuraEquipo.MANO_PRINCIPAL);
+        if (equipo.tiene(RanuraEquipo.MANO_SECUNDARIA)) a2 = (Arma) equipo.get(RanuraEquipo.MANO_SECUNDARIA);
+
+        EstadoCombate e = new EstadoCombate(new Reglas(jugador, recursoMax, enemigo, mision));
+        e.vidaJugador = jugador.getPuntosVida();
+        e.recurso = recurso;
+        e.vidaEnemigo = enemigo.getPuntosVida();
+        e.arma1 = a1;
+        e.arma2 = a2;
+        e.inventario = InventarioPersistente.desde(jugador.getInventario());
+        e.progresoMision = mision != null ? mision.getProgresoActual() : 0;
+        return e;
+    }
+
+    /**
+     * Crea una copia independiente del estado. O(1): comparte las reglas y el inventario.
+     *
+     * @return La copia.
+     */
+    public EstadoCombate bifurcar() {
+        EstadoCombate copia = new EstadoCombate(reglas);
+        copia.vidaJugador = vidaJugador;
+        copia.recurso = recurso;
+        copia.vidaEnemigo = vidaEnemigo;
+        copia.arma1 = arma1;
+        copia.arma2 = arma2;
+        copia.inventario = inventario;
+        copia.progresoMision = progresoMision;
+        copia.turnos = turnos;
+        return copia;
+    }
+
+    // Getters
+    public double getVidaJugador() {
+        return vidaJugador;
+    }
+    public double getVidaEnemigo() {
+        return vidaEnemigo;
+    }
+    public double getRecurso() {
+        return recurso;
+    }
+    public InventarioPersistente getInventario() {
+        return inventario;
+    }
+    public int getProgresoMision() {
+        return progresoMision;
+    }
+    public int getTurnos() {
+        return turnos;
+    }
+    public double getVidaMaxJugador() {
+        return reglas.vidaMaxJugador;
+    }
+
+    /**
+     * Indica si el combate ha terminado.
+     * @return true si alguno de los dos ha caído.
+     */
+    public boolean terminado() {
+        return vidaJugador <= 0 || vidaEnemigo <= 0;
+    }
+
+    /**
+     * Indica si el jugador ha ganado.
+     * @return true si el enemigo ha caído y el jugador sigue vivo.
+     */
+    public boolean jugadorGana() {
+        return vidaEnemigo <= 0 && vidaJugador > 0;
+    }
+
+    /**
+     * Escribe las acciones que tienen efecto en este estado.
+     *
+     * @param salida Array con capacidad para 2 + tamaño del inventario.
+     * @return Número de acciones escritas.
+     */
+    public int accionesValidas(int[] salida) {
+        int n = 0;
+        salida[n++] = ATACAR;
+        salida[n++] = DESCANSAR;
+        for (int i = 0; i < inventario.getTamanio(); i++) {
+            if (objetoTieneEfecto(inventario.get(i))) salida[n++] = USAR_OBJETO + i;
+        }
+        return n;
+    }
+
+    /**
+     * Ejecuta el turno completo: acción del jugador y, si el enemigo sigue vivo, su respuesta.
+     *
+     * @param accion Acción del jugador.
+     * @param azar   Generador para las tiradas del enemigo.
+     */
+    public void jugarTurno(int accion, SplittableRandom azar) {
+        accionJugador(accion);
+        if (vidaEnemigo <= 0) {
+            if (reglas.tipoEnemigo == reglas.objetivoMision) progresoMision++;
+        } else {
+            turnoEnemigo(azar);
+        }
+        turnos++;
+    }
+
+    /**
+     * Aplica la acción del jugador.
+     *
+     * @param accion ATACAR, DESCANSAR o USAR_OBJETO + índice.
+     */
+    public void accionJugador(int accion) {
+        if (accion == ATACAR) {
+            atacar();
+        } else if (accion == DESCANSAR) {
+            vidaJugador = limitar(vidaJugador + reglas.vidaMaxJugador * 0.30, reglas.vidaMaxJugador);
+            recurso = reglas.recursoMax;
+        } else {
+            usarObjeto(accion - USAR_OBJETO);
+        }
+    }
+
+    /**
+     * Turno del enemigo: mismo orden de tiradas que Enemigo.realizarTurno y Jefe.atacar.
+     *
+     * @param azar Generador de números aleatorios.
+     */
+    public void turnoEnemigo(SplittableRandom azar) {
+        if (vidaEnemigo <= reglas.vidaMaxEnemigo * 0.3 && azar.nextDouble() < 0.15) {
+            vidaEnemigo = limitar(vidaEnemigo + reglas.vidaMaxEnemigo * 0.30, reglas.vidaMaxEnemigo);
+            return;
+        }
+        if (reglas.esJefe && azar.nextDouble() < 0.20) {
+            vidaJugador = danio(vidaJugador, reglas.vidaMaxJugador, reglas.defensaJugador, reglas.danioCritico);
+        } else if (azar.nextDouble() < 0.85) {
+            double factor = 0.9 + (azar.nextDouble() * 0.2);
+            vidaJugador = danio(vidaJugador, reglas.vidaMaxJugador, reglas.defensaJugador, (int) (reglas.danioEnemigo * factor));
+        }
+    }
+
+    // ------- Reglas del jugador -------
+
+    private void atacar() {
+        switch (reglas.clase) {
+            case GUERRERO:
+                int total = (int) reglas.ataqueBase;
+                // Como en Guerrero.atacar, el "+=" de int y double trunca la suma
+                total = (int) (total + ((arma1 != null ? arma1.getDanioExtra() : 0) + reglas.ataqueEquipo));
+                golpearEnemigo(total);
+                break;
+            case MAGO:
+                if (recurso >= 10) {
+                    recurso -= 10;
+                    golpearEnemigo(reglas.ataqueBase);
+                } else {
+                    golpearEnemigo(reglas.ataqueSinRecurso);
+                }
+                break;
+            default:
+                if (recurso >= 10) {
+                    double d1 = arma1 != null ? arma1.getDanioExtra() : 0;
+                    double d2 = arma2 != null ? arma2.getDanioExtra() : 0;
+                    golpearEnemigo(d1 + d2 + reglas.ataqueEquipo + reglas.ataqueBase);
+                    recurso = Math.max(0, Math.min(reglas.recursoMax, recurso - 10));
+                }
+        }
+    }
+
+    private boolean objetoTieneEfecto(Item item) {
+        if (item instanceof Pocion) {
+            return ((Pocion) item).getTipo() == TipoPocion.VIDA || reglas.clase == ClasePersonaje.MAGO;
+        }
+        return item instanceof Arma && reglas.clase != ClasePersonaje.MAGO;
+    }
+
+    private void usarObjeto(int indice) {
+        Item item = inventario.get(indice);
+        if (!objetoTieneEfecto(item)) return; // Como en Inventario: si no tiene efecto, no se gasta
+        InventarioPersistente sinObjeto = inventario.sin(indice);
+
+        if (item instanceof Pocion) {
+            Pocion p = (Pocion) item;
+            if (p.getTipo() == TipoPocion.VIDA) vidaJugador = limitar(vidaJugador + p.getCantidad(), reglas.vidaMaxJugador);
+            else recurso = Math.min(recurso + p.getCantidad(), reglas.recursoMax);
+            inventario = sinObjeto;
+            return;
+        }
+
+        Arma arma = (Arma) item;
+        if (reglas.clase == ClasePersonaje.GUERRERO) {
+            if (arma1 != null) sinObjeto = sinObjeto.con(arma1);
+            arma1 = arma;
+        } else if (arma1 == null) {
+            arma1 = arma;
+        } else if (arma2 == null) {
+            arma2 = arma;
+        } else {
+            sinObjeto = sinObjeto.con(arma1);
+            arma1 = arma;
+        }
+        inventario = sinObjeto;
+    }
+
+    private void golpearEnemigo(double cantidad) {
+        vidaEnemigo = danio(vidaEnemigo, reglas.vidaMaxEnemigo, reglas.defensaEnemigo, cantidad);
+    }
+
+    /**
+     * Misma cuenta que Personaje.recibirDanio: resta la defensa, nunca negativo, y limita la vida.
+     */
+    private static double danio(double vida, double vidaMax, int defensa, double cantidad) {
+        double real = cantidad - defensa;
+        if (real < 0) real = 0;
+        return limitar(vida - real, vidaMax);
+    }
+
+    private static double limitar(double vida, double vidaMax) {
+        return Math.max(0, Math.min(vidaMax, vida));
+    }
+}
@@ -0,0 +1,231 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Estimador Monte Carlo de la dificultad de las misiones.
+ * -
+ * Simula muchas partidas completas en paralelo (todos los núcleos) con las reglas reales:
+ * efecto de la sala, Evento.explorar (con sus emboscadas) y combate automático hasta que GestorMisiones.finalizarMision
+ * da la misión por terminada o el héroe muere. Para cada pareja clase/misión informa de cuántas
+ * exploraciones hacen falta, cuántas veces muere el héroe antes de terminar y cuánta XP se gana.
+ * -
+ * Cada partida saca sus tiradas de su propio SplittableRandom (repartidos antes de empezar desde
+ * uno raíz), así que los hilos no comparten generador y la misma semilla da el mismo informe.
+ * -
+ * Uso: {@code java EstimadorMisiones [partidasPorClase]}
+ *
+ * @version 1.0
+ */
+public class EstimadorMisiones {
+
+    /**
+     * Exploraciones máximas por misión antes de darla por imposible.
+     */
+    public static final int MAX_EXPLORACIONES = 1000;
+
+    // Resultado de una misión dentro de una partida simulada
+    private static final int NO_ALCANZADA = 0;
+    private static final int COMPLETADA = 1;
+    private static final int MUERTE = 2;
+    private static final int ABANDONADA = 3;
+
+    /**
+     * Estadísticas acumuladas de una pareja clase/misión.
+     */
+    public static class Estadisticas {
+        private final ClasePersonaje clase;
+        private final String mision;
+        private int intentos;
+        private int completadas;
+        private int muertes;
+        private int[] exploraciones = new int[64];
+        private long xpTotal;
+
+        private Estadisticas(ClasePersonaje clase, String mision) {
+            this.clase = clase;
+            this.mision = mision;
+        }
+
+        private void registrar(int resultado, int numExploraciones, int xp) {
+            if (resultado == NO_ALCANZADA) return;
+            intentos++;
+            xpTotal += xp;
+            if (resultado == MUERTE) muertes++;
+            if (resultado == COMPLETADA) {
+                if (completadas == exploraciones.length) exploraciones = Arrays.copyOf(exploraciones, completadas * 2);
+                exploraciones[completadas++] = numExploraciones;
+            }
+        }
+
+        // Getters
+        public ClasePersonaje getClase() {
+            return clase;
+        }
+        public String getMision() {
+            return mision;
+        }
+        public int getIntentos() {
+            return intentos;
+        }
+        public int getCompletadas() {
+            return completadas;
+        }
+        public int getMuertes() {
+            return muertes;
+        }
+
+        /**
+         * Proporción de intentos en los que el héroe muere antes de completar la misión.
+         * @return Valor entre 0 y 1.
+         */
+        public double getTasaMuerte() {
+            return intentos == 0 ? 0 : (double) muertes / intentos;
+        }
+
+        /**
+         * XP media ganada durante la misión (incluida la recompensa si se completa).
+         * @return XP media por intento.
+         */
+        public double getXpMedia() {
+            return intentos == 0 ? 0 : (double) xpTotal / intentos;
+        }
+
+        /**
+         * Media de exploraciones de las misiones completadas.
+         * @return Exploraciones medias.
+         */
+        public double getExploracionesMedia() {
+            long suma = 0;
+            for (int i = 0; i < completadas; i++) suma += exploraciones[i];
+            return completadas == 0 ? 0 : (double) suma / completadas;
+        }
+
+        /**
+         * Percentil del número de exploraciones de las misiones completadas.
+         * @param p Percentil entre 0 y 100.
+         * @return Exploraciones en ese percentil.
+         */
+        public int getPercentilExploraciones(double p) {
+            if (completadas == 0) return 0;
+            int[] ordenadas = Arrays.copyOf(exploraciones, completadas);
+            Arrays.sort(ordenadas);
+            int idx = (int) Math.ceil(p / 100.0 * completadas) - 1;
+            return ordenadas[Math.max(0, Math.min(completadas - 1, idx))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %-22s intentos=%6d  completadas=%5.1f%%  muertes=%5.1f%%  "
+                            + "exploraciones media=%6.1f p50=%4d p90=%4d  XP media=%6.1f",
+                    clase, mision, intentos, intentos == 0 ? 0 : 100.0 * completadas / intentos,
+                    100 * getTasaMuerte(), getExploracionesMedia(), getPercentilExploraciones(50),
+                    getPercentilExploraciones(90), getXpMedia());
+        }
+    }
+
+    /**
+     * Estima todas las misiones para una clase.
+     *
+     * @param clase    Clase del héroe.
+     * @param partidas Número de partidas a simular.
+     * @return Estadísticas de cada misión, en orden de nivel.
+     */
+    public static Estadisticas[] estimar(ClasePersonaje clase, int partidas) {
+        return estimar(clase, partidas, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Estima todas las misiones para una clase con una semilla fija.
+     *
+     * @param clase    Clase del héroe.
+     * @param partidas Número de partidas a simular.
+     * @param semilla  Semilla de la que salen las de todas las partidas.
+     * @return Estadísticas de cada misión, en orden de nivel.
+     */
+    public static Estadisticas[] estimar(ClasePersonaje clase, int partidas, long semilla) {
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        SplittableRandom[] azares = new SplittableRandom[partidas];
+        for (int i = 0; i < partidas; i++) azares[i] = raiz.split();
+        int[][][] resultados = IntStream.range(0, partidas)
+                .parallel()
+                .mapToObj(i -> SalidaSilenciada.ejecutar(() -> simularPartida(clase, azares[i])))
+                .toArray(int[][][]::new);
+
+        Estadisticas[] estadisticas = new Estadisticas[CatalogoNiveles.NUM_NIVELES];
+        for (int nivel = 1; nivel <= CatalogoNiveles.NUM_NIVELES; nivel++) {
+            String titulo = CatalogoNiveles.crearMision(nivel, null).getTitulo();
+            estadisticas[nivel - 1] = new Estadisticas(clase, titulo);
+        }
+        for (int[][] partida : resultados) {
+            for (int n = 0; n < partida.length; n++) {
+                estadisticas[n].registrar(partida[n][2], partida[n][0], partida[n][1]);
+            }
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Simula una partida completa de los niveles normales.
+     *
+     * @param clase Clase del héroe.
+     * @param azar  Generador de las tiradas de la partida.
+     * @return Por cada nivel: {exploraciones, xp ganada, resultado}.
+     */
+    static int[][] simularPartida(ClasePersonaje clase, SplittableRandom azar) {
+        int[][] resultado = new int[CatalogoNiveles.NUM_NIVELES][3];
+        Personaje jugador = clase.crear("Simulado");
+        GestorMisiones gestor = new GestorMisiones(jugador);
+
+        for (int nivel = 1; nivel <= CatalogoNiveles.NUM_NIVELES; nivel++) {
+            Sala sala = new Sala(nivel, jugador.getNivel(), azar.split());
+            jugador.setPosicion(1, 1); // Entrada de la sala, como en Juego.cargarNivel
+            sala.getRejilla().insertar(jugador);
+            MisionCaza mision = CatalogoNiveles.crearMision(nivel, sala);
+            gestor.asignarMision(mision);
+            Evento evento = new Evento(sala, mision, jugador, azar);
+            int xpInicial = jugador.getExperienciaTotal();
+
+            int exploraciones = 0;
+            boolean completada = false;
+            while (jugador.estaVivo() && exploraciones < MAX_EXPLORACIONES) {
+                exploraciones++;
+                sala.aplicarEfecto(jugador);
+                if (jugador.estaVivo()) {
+                    List<Enemigo> encuentro = evento.explorar(gestor);
+                    if (!encuentro.isEmpty()) CombateAutomatico.resolver(jugador, encuentro, gestor, sala);
+                }
+                if (gestor.finalizarMision()) {
+                    completada = true;
+                    break;
+                }
+            }
+
+            int[] r = resultado[nivel - 1];
+            r[0] = exploraciones;
+            r[1] = jugador.getExperienciaTotal() - xpInicial;
+            r[2] = completada ? COMPLETADA : (jugador.estaVivo() ? ABANDONADA : MUERTE);
+            if (!completada) break;
+        }
+        return resultado;
+    }
+
+    /**
+     * Lanza la estimación para todas las clases y muestra el informe.
+     *
+     * @param args Opcional: número de partidas por clase (por defecto 10000).
+     */
+    public static void main(String[] args) {
+        int partidas = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        System.out.println("Simulando " + partidas + " partidas por clase en "
+                + Runtime.getRuntime().availableProcessors() + " núcleos...");
+        long inicio = System.nanoTime();
+        for (ClasePersonaje clase : ClasePersonaje.values()) {
+            for (Estadisticas e : estimar(clase, partidas)) {
+                System.out.println(e);
+            }
+        }
+        System.out.printf("Tiempo total: %.1f s%n", (System.nanoTime() - inicio) / 1e9);
+    }
+}
@@ -1,3 +1,7 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
 /**
  * Clase Evento que permite al jugador avanzar en la sala para completar la misión.
  * Solo es necesario crear un evento por Partida. Es posible crear múltiples si se
@@ -10,6 +14,15 @@
  */
 public class Evento {
 
+    /**
+     * Probabilidad de que un encuentro sea una emboscada (el enemigo llega acompañado).
+     */
+    public static final double PROB_EMBOSCADA = 0.15;
+    /**
+     * Enemigos que pueden acompañar al primero en una emboscada, como máximo.
+     */
+    public static final int MAX_REFUERZOS = 2;
+
     // Atributos
     /**
      * Sala en la que se encuentra el jugador.
@@ -27,6 +40,14 @@ public class Evento {
      * Contador de veces que se ha avanzado.
      */
     int movimientos;
+    /**
+     * Encuentros preparados en segundo plano (null = se generan en el momento).
+     */
+    private PrecargadorEncuentros encuentros;
+    /**
+     * Generador de las tiradas de exploración y de los enemigos que aparecen.
+     */
+    private final SplittableRandom azar;
 
     // Constructores
     /**
@@ -37,6 +58,19 @@ public class Evento {
      * @param jugador   Personaje del Jugador.
      */
     public Evento(Sala sala, Mision mision, Personaje jugador) {
+        this(sala, mision, jugador, new SplittableRandom());
+    }
+
+    /**
+     * Crear evento con las tiradas sacadas del generador de la partida.
+     *
+     * @param sala      Sala en la que ocurren eventos.
+     * @param mision    Mision a completar.
+     * @param jugador   Personaje del Jugador.
+     * @param azar      Generador aleatorio de la partida (lo usan también los enemigos que aparecen).
+     */
+    public Evento(Sala sala, Mision mision, Personaje jugador, SplittableRandom azar) {
+        this.azar = azar;
         this.sala = sala;
         this.mision = mision;
         this.jugador = jugador;
@@ -70,6 +104,9 @@ public class Evento {
     public void setMovimientos(int movimientos) {
         this.movimientos = movimientos;
     }
+    public void setEncuentros(PrecargadorEncuentros encuentros) {
+        this.encuentros = encuentros;
+    }
 
     // Métodos
 
@@ -87,14 +124,14 @@ public class Evento {
         // sala.aplicarEfecto(jugador); // Descomenta si Sala tiene este método
 
         // Encuentro aleatorio (60% de probabilidad)
-        if (Math.random() < .6) {
+        if (azar.nextDouble() < .6) {
             // Aquí devolvemos el enemigo que crea iniciarEncuentro
             return iniciarEncuentro();
         }
-        else if (Math.random() < .8) {
+        else if (azar.nextDouble() < .8) {
             System.out.println("Exploras los alrededores pero no encuentras enemigos...");
         }
-        else if (Math.random() < .9) {
+        else if (azar.nextDouble() < .9) {
             encontrarAlgo(gestor);
         }
         else {
@@ -111,11 +148,46 @@ public class Evento {
      * Devuelve el enemigo al Main para que el jugador pueda pelear interactivamente.
      */
     public Enemigo iniciarEncuentro() {
-        Enemigo enemigoActual = sala.generarEnemigo();
+        Enemigo enemigoActual = encuentros != null ? encuentros.siguiente() : sala.generarEnemigo(azar.nextDouble());
+        enemigoActual.setAzar(azar);
         System.out.println("¡Súbitamente aparece un " + enemigoActual.getNombre() + "!");
         return enemigoActual;
     }
 
+    /**
+     * Avanza y, si hay encuentro, decide si el enemigo llega acompañado (una emboscada).
+     * La partida y las simulaciones exploran con este método, así que las emboscadas salen
+     * igual de a menudo en las dos.
+     *
+     * @param gestor Gestor de misiones del Jugador
+     * @return Los enemigos del encuentro, el que aparece primero en cabeza (vacía si no hay combate).
+     */
+    public List<Enemigo> explorar(GestorMisiones gestor) {
+        Enemigo enemigo = avanzar(gestor);
+        if (enemigo == null) return new ArrayList<>();
+        List<Enemigo> encuentro = refuerzos();
+        encuentro.add(0, enemigo);
+        return encuentro;
+    }
+
+    /**
+     * Decide si el enemigo de un encuentro llega acompañado y, si es así, genera a sus compañeros.
+     *
+     * @return Los enemigos que se suman al encuentro (vacía si el enemigo viene solo).
+     */
+    private List<Enemigo> refuerzos() {
+        List<Enemigo> refuerzos = new ArrayList<>();
+        if (azar.nextDouble() >= PROB_EMBOSCADA) return refuerzos;
+        int cantidad = 1 + azar.nextInt(MAX_REFUERZOS);
+        for (int i = 0; i < cantidad; i++) {
+            Enemigo enemigo = sala.generarEnemigo(azar.nextDouble());
+            enemigo.setAzar(azar);
+            refuerzos.add(enemigo);
+        }
+        System.out.println("¡Es una emboscada! " + cantidad + " enemigos más salen de entre las sombras.");
+        return refuerzos;
+    }
+
     /**
      * Gambling
      *
@@ -123,12 +195,12 @@ public class Evento {
      */
     private void encontrarAlgo(GestorMisiones gestor) {
         System.out.println("\n[EXPLORACIÓN] Te detienes a observar el entorno...");
-        if (Math.random() < .4) {
+        if (azar.nextDouble() < .4) {
             // 40% Texto que no hace nada
             System.out.println("   > ¡Has encontrado rastros frescos de tu objetivo!");
             System.out.println("   > Tu conocimiento de la zona aumenta.");
         }
-        else if (Math.random() < .7) {
+        else if (azar.nextDouble() < .7) {
             // 30% - Suministros
             System.out.println("   > Entre la maleza encuentras un pequeño suministro abandonado.");
             // Generar una poción básica (Se puede crear un Pool de Items)
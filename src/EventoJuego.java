@@ -0,0 +1,72 @@
+/**
+ * Acción de un combate publicada en el {@link BusEventos} de las partidas.
+ * -
+ * Es inmutable: un mismo evento se entrega a todos los suscriptores, cada uno en su hilo.
+ *
+ * @version 1.0
+ */
+public final class EventoJuego {
+    private final String sesion;
+    private final long secuencia;
+    private final long turno;
+    private final DiarioCombate.Tipo accion;
+    private final int tipoEnemigo;
+    private final String objeto;
+    private final double vidaJugador;
+    private final double vidaEnemigo;
+
+    /**
+     * @param sesion      Partida que publica el evento.
+     * @param secuencia   Número del evento en su partida (1, 2, 3...): un salto indica eventos perdidos.
+     * @param turno       Turno de la partida.
+     * @param accion      Qué ha pasado.
+     * @param tipoEnemigo Número del tipo de enemigo del combate (ver TipoEnemigo).
+     * @param objeto      Objeto usado (solo en OBJETO; null en el resto).
+     * @param vidaJugador Vida del héroe después de la acción.
+     * @param vidaEnemigo Vida del enemigo después de la acción.
+     */
+    public EventoJuego(String sesion, long secuencia, long turno, DiarioCombate.Tipo accion, int tipoEnemigo,
+                       String objeto, double vidaJugador, double vidaEnemigo) {
+        this.sesion = sesion;
+        this.secuencia = secuencia;
+        this.turno = turno;
+        this.accion = accion;
+        this.tipoEnemigo = tipoEnemigo;
+        this.objeto = objeto;
+        this.vidaJugador = vidaJugador;
+        this.vidaEnemigo = vidaEnemigo;
+    }
+
+    // Getters
+    public String getSesion() {
+        return sesion;
+    }
+    public long getSecuencia() {
+        return secuencia;
+    }
+    public long getTurno() {
+        return turno;
+    }
+    public DiarioCombate.Tipo getAccion() {
+        return accion;
+    }
+    public int getTipoEnemigo() {
+        return tipoEnemigo;
+    }
+    public String getObjeto() {
+        return objeto;
+    }
+    public double getVidaJugador() {
+        return vidaJugador;
+    }
+    public double getVidaEnemigo() {
+        return vidaEnemigo;
+    }
+
+    @Override
+    public String toString() {
+        return sesion + " t" + turno + " " + accion + " vs " + TipoEnemigo.porId(tipoEnemigo).getNombre()
+                + (objeto != null ? " (" + objeto + ")" : "")
+                + String.format(" PV %.1f / %.1f", vidaJugador, vidaEnemigo);
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Hecho inmutable del registro de misiones: algo que le ha pasado a la misión de una partida.
+ * El estado de las misiones puede reconstruirse aplicando estos hechos en orden.
+ *
+ * @version 1.0
+ */
+public final class EventoMision {
+
+    /**
+     * Tipo de hecho, en el orden natural de una misión.
+     */
+    public enum Tipo {
+        ACEPTADA,
+        PROGRESO,
+        COMPLETADA,
+        ENTREGADA
+    }
+
+    private final long secuencia;
+    private final String sesion;
+    private final Tipo tipo;
+    private final String mision;
+    private final int progreso;
+    private final int objetivo;
+    private final long momento;
+
+    EventoMision(long secuencia, String sesion, Tipo tipo, String mision, int progreso, int objetivo) {
+        this.secuencia = secuencia;
+        this.sesion = sesion;
+        this.tipo = tipo;
+        this.mision = mision;
+        this.progreso = progreso;
+        this.objetivo = objetivo;
+        this.momento = System.currentTimeMillis();
+    }
+
+    // Getters
+    /**
+     * Posición del hecho en el registro (empieza en 0).
+     * @return Número de secuencia.
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+    public String getSesion() {
+        return sesion;
+    }
+    public Tipo getTipo() {
+        return tipo;
+    }
+    public String getMision() {
+        return mision;
+    }
+    public int getProgreso() {
+        return progreso;
+    }
+    public int getObjetivo() {
+        return objetivo;
+    }
+    public long getMomento() {
+        return momento;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + secuencia + " " + sesion + " " + tipo + " '" + mision + "' " + progreso + "/" + objetivo;
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Fórmula de juego ya compilada que depende del nivel (vida, daño, escalado...).
+ * Las instancias las genera {@link CompiladorFormulas} a partir del texto de los ficheros de contenido.
+ *
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface Formula {
+
+    /**
+     * Evalúa la fórmula.
+     *
+     * @param nivel Nivel del personaje o enemigo.
+     * @return Resultado de la fórmula.
+     */
+    double evaluar(double nivel);
+}
@@ -0,0 +1,145 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Catálogo de las fórmulas de daño y escalado del juego.
+ * -
+ * Los valores por defecto son los originales del código. Se pueden ajustar sin recompilar
+ * editando {@code formulas.properties} (primero se busca en el directorio de trabajo y después
+ * junto a las clases). Cada fórmula se compila una única vez al cargar la clase.
+ * Una fórmula puede usar otra definida antes por su clave (ej: {@code jefe.vida = 2 * enemigo.vida}).
+ *
+ * @version 1.0
+ */
+public final class Formulas {
+
+    /**
+     * Nombre del fichero de contenido con las fórmulas.
+     */
+    public static final String FICHERO = "formulas.properties";
+
+    /**
+     * Fórmulas cargadas (valores por defecto + fichero).
+     */
+    private static final Properties TEXTOS = cargar();
+
+    /**
+     * Texto con el que se compiló cada fórmula ya definida (para que otras puedan nombrarla).
+     */
+    private static final Map<String, String> DEFINIDAS = new HashMap<>();
+
+    // --- Enemigos ---
+    /** Vida máxima de un enemigo. */
+    public static final Formula ENEMIGO_VIDA = obtener("enemigo.vida", "40 + 25 * nivel");
+    /** Defensa de un enemigo. */
+    public static final Formula ENEMIGO_DEFENSA = obtener("enemigo.defensa", "2 + 1 * nivel");
+    /** Daño base de un enemigo. */
+    public static final Formula ENEMIGO_DANIO = obtener("enemigo.danio", "6 + 4 * nivel");
+    /** Experiencia que otorga un enemigo al morir. */
+    public static final Formula ENEMIGO_EXPERIENCIA = obtener("enemigo.experiencia", "20 * nivel");
+
+    // --- Jefe ---
+    /** Vida máxima del jefe (el doble que un enemigo de su nivel). */
+    public static final Formula JEFE_VIDA = obtener("jefe.vida", "2 * enemigo.vida");
+    /** Daño del ataque potente del jefe. */
+    public static final Formula JEFE_CRITICO = obtener("jefe.critico", "nivel * 4 * 1.5");
+
+    // --- Botín (ver TablaBotin) ---
+    /** Daño extra de un arma soltada por un enemigo. */
+    public static final Formula BOTIN_ARMA = obtener("botin.arma", "6 + 3 * nivel");
+    /** Vida que cura una poción de salud soltada por un enemigo. */
+    public static final Formula BOTIN_POCION_SALUD = obtener("botin.pocionSalud", "40");
+    /** Maná que recupera una poción de maná soltada por un enemigo. */
+    public static final Formula BOTIN_POCION_MANA = obtener("botin.pocionMana", "30 + 10 * nivel");
+
+    // --- Guerrero ---
+    /** Fuerza (daño sin arma) del guerrero. */
+    public static final Formula GUERRERO_FUERZA = obtener("guerrero.fuerza", "15 + 3 * nivel");
+    /** Vida máxima ganada al subir de nivel. */
+    public static final Formula GUERRERO_VIDA_NIVEL = obtener("guerrero.vidaPorNivel", "25");
+    /** Defensa ganada al subir de nivel. */
+    public static final Formula GUERRERO_DEFENSA_NIVEL = obtener("guerrero.defensaPorNivel", "2");
+
+    // --- Mago ---
+    /** Daño de la bola de fuego. */
+    public static final Formula MAGO_INTELIGENCIA = obtener("mago.inteligencia", "35 + 5 * nivel");
+    /** Daño del golpe de bastón sin maná. */
+    public static final Formula MAGO_BASTON = obtener("mago.baston", "2 + nivel");
+    /** Vida máxima ganada al subir de nivel. */
+    public static final Formula MAGO_VIDA_NIVEL = obtener("mago.vidaPorNivel", "10");
+    /** Maná máximo ganado al subir de nivel. */
+    public static final Formula MAGO_MANA_NIVEL = obtener("mago.manaPorNivel", "25");
+
+    // --- Pícaro ---
+    /** Daño base (sin armas) del pícaro. */
+    public static final Formula PICARO_DANIO = obtener("picaro.danio", "5 * nivel");
+    /** Vida máxima ganada al subir de nivel. */
+    public static final Formula PICARO_VIDA_NIVEL = obtener("picaro.vidaPorNivel", "15");
+    /** Energía máxima ganada al subir de nivel. */
+    public static final Formula PICARO_ENERGIA_NIVEL = obtener("picaro.energiaPorNivel", "15");
+
+    private Formulas() {
+    }
+
+    /**
+     * Texto de la fórmula asociada a una clave, tal y como se cargó.
+     *
+     * @param clave Clave de la fórmula (ej: "enemigo.vida").
+     * @return El texto, o null si no está definida en el fichero.
+     */
+    public static String getTexto(String clave) {
+        return TEXTOS.getProperty(clave);
+    }
+
+    /**
+     * Compila la fórmula de una clave, usando el valor por defecto si no está en el fichero
+     * o si está mal escrita. Puede nombrar las fórmulas compiladas antes que ella.
+     *
+     * @param clave      Clave de la fórmula.
+     * @param porDefecto Texto a usar si la clave falta o es inválida.
+     * @return La fórmula compilada.
+     */
+    static Formula obtener(String clave, String porDefecto) {
+        String texto = TEXTOS.getProperty(clave, porDefecto);
+        Formula formula;
+        try {
+            formula = CompiladorFormulas.compilar(texto, DEFINIDAS::get);
+        } catch (IllegalArgumentException e) {
+            System.out.println("(!) " + e.getMessage() + ". Se usa el valor por defecto de " + clave + ".");
+            texto = porDefecto;
+            formula = CompiladorFormulas.compilar(texto, DEFINIDAS::get);
+        }
+        DEFINIDAS.put(clave, texto);
+        return formula;
+    }
+
+    // ------- Métodos auxiliares -------
+
+    private static Properties cargar() {
+        Properties p = new Properties();
+        Path local = Paths.get(FICHERO);
+        try {
+            if (Files.isRegularFile(local)) {
+                try (Reader r = Files.newBufferedReader(local, StandardCharsets.UTF_8)) {
+                    p.load(r);
+                }
+            } else {
+                try (InputStream in = Formulas.class.getResourceAsStream("/" + FICHERO)) {
+                    if (in != null) p.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("(!) No se pudo leer " + FICHERO + ": " + e.getMessage() + ". Se usan las fórmulas por defecto.");
+        }
+        return p;
+    }
+}
@@ -0,0 +1,94 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.function.Supplier;
+
+/**
+ * Origen de las órdenes del jugador (una línea por orden).
+ * El Juego lee siempre a través de esta interfaz, así que una partida puede jugarse desde
+ * el teclado, desde un guion en memoria, desde un fichero o desde un generador.
+ * -
+ * Igual que Scanner.nextLine, cuando no quedan más líneas se lanza NoSuchElementException.
+ *
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface FuenteEntrada {
+
+    /**
+     * Lee la siguiente orden.
+     *
+     * @return La línea leída (sin salto de línea).
+     * @throws NoSuchElementException si la entrada se ha agotado.
+     */
+    String leerLinea();
+
+    /**
+     * Entrada por teclado (System.in).
+     *
+     * @return Fuente de consola.
+     */
+    static FuenteEntrada consola() {
+        Scanner sc = new Scanner(System.in);
+        return sc::nextLine;
+    }
+
+    /**
+     * Guion en memoria.
+     *
+     * @param lineas Órdenes en el orden en que se leerán.
+     * @return Fuente que devuelve las líneas y después se agota.
+     */
+    static FuenteEntrada guion(String... lineas) {
+        return guion(Arrays.asList(lineas));
+    }
+
+    /**
+     * Guion en memoria.
+     *
+     * @param lineas Órdenes en el orden en que se leerán.
+     * @return Fuente que devuelve las líneas y después se agota.
+     */
+    static FuenteEntrada guion(List<String> lineas) {
+        Iterator<String> it = lineas.iterator();
+        return it::next;
+    }
+
+    /**
+     * Guion leído de un fichero de texto (UTF-8). El fichero se lee entero al crear la fuente y se
+     * cierra en el acto, así que no queda nada abierto aunque la partida acabe antes que el guion.
+     * Para jugar el mismo guion muchas veces, mejor leerlo una vez y usar {@link #guion(List)}.
+     *
+     * @param fichero Ruta del guion.
+     * @return Fuente que devuelve las líneas del fichero y después se agota.
+     * @throws UncheckedIOException si el fichero no se puede leer.
+     */
+    static FuenteEntrada archivo(Path fichero) {
+        try {
+            return guion(Files.readAllLines(fichero, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el guion " + fichero, e);
+        }
+    }
+
+    /**
+     * Órdenes generadas bajo demanda (bots, fuzzing...).
+     *
+     * @param generador Devuelve la siguiente orden, o null para terminar.
+     * @return Fuente que pide las órdenes al generador.
+     */
+    static FuenteEntrada generador(Supplier<String> generador) {
+        return () -> {
+            String linea = generador.get();
+            if (linea == null) throw new NoSuchElementException("El generador no tiene más órdenes");
+            return linea;
+        };
+    }
+}
@@ -16,6 +16,14 @@ public class GestorMisiones {
      * Misión actualmente asignada al personaje.
      */
     private Mision misionActual;
+    /**
+     * Registro donde se publican los hechos de las misiones (null si no se registran).
+     */
+    private RegistroMisiones registro;
+    /**
+     * Identificador de la partida en el registro.
+     */
+    private String sesion;
 
     // Constructores
     /**
@@ -42,6 +50,16 @@ public class GestorMisiones {
     public void setMisionActual(Mision misionActual) {
         this.misionActual = misionActual;
     }
+    /**
+     * Publica a partir de ahora los hechos de las misiones en un registro.
+     *
+     * @param registro Registro de misiones (null para dejar de publicar).
+     * @param sesion   Identificador de la partida.
+     */
+    public void setRegistro(RegistroMisiones registro, String sesion) {
+        this.registro = registro;
+        this.sesion = sesion;
+    }
 
     // Métodos
     //
@@ -53,6 +71,12 @@ public class GestorMisiones {
     private boolean comprobarSiMisionEsNula() {
         return this.misionActual == null;
     }
+    /**
+     * Publica un hecho de la misión actual si hay registro.
+     */
+    private void publicar(EventoMision.Tipo tipo) {
+        if (registro != null) registro.publicar(sesion, tipo, misionActual);
+    }
 
     // ------- Métodos de uso -------
     /**
@@ -67,6 +91,7 @@ public class GestorMisiones {
         if (comprobarSiMisionEsNula()) {
             this.misionActual = nuevaMision;
             this.misionActual.aceptar(jugador);
+            publicar(EventoMision.Tipo.ACEPTADA);
         }
         else
             res = false;
@@ -84,8 +109,15 @@ public class GestorMisiones {
      */
     public boolean notificarEvento(Object evento) {
         boolean res = true;
-        if (!comprobarSiMisionEsNula())
+        if (!comprobarSiMisionEsNula()) {
+            int progresoAntes = misionActual.getProgresoActual();
+            boolean completaAntes = misionActual.estaListaParaEntregar();
             misionActual.procesarEvento(evento);
+            if (misionActual.getProgresoActual() != progresoAntes)
+                publicar(EventoMision.Tipo.PROGRESO);
+            if (!completaAntes && misionActual.estaListaParaEntregar())
+                publicar(EventoMision.Tipo.COMPLETADA);
+        }
         else
             res = false;
         return res;
@@ -105,6 +137,7 @@ public class GestorMisiones {
         // Solo si existe y está lista para entregar, la cobramos y borramos
         if (!comprobarSiMisionEsNula() && misionActual.estaListaParaEntregar()) {
             misionActual.entregarRecompensa(jugador);
+            publicar(EventoMision.Tipo.ENTREGADA);
             misionActual = null;
             res = true;
         }
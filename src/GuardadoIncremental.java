@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formato de los ficheros de guardado incremental.
+ * -
+ * El fichero empieza con una instantánea completa (la base) y le siguen registros delta con solo
+ * los campos que cambiaron desde el guardado anterior. Cada registro empieza con una línea
+ * "-- N turno ms" (ms = milisegundos desde el momento de la base) seguida de N líneas "clave=valor".
+ * Al leer, los registros se aplican en orden sobre la base; un registro incompleto al final
+ * (corte durante la escritura) se descarta.
+ * -
+ * Cada cierto número de deltas el fichero se compacta reescribiendo solo una base nueva.
+ *
+ * @version 1.0
+ */
+public final class GuardadoIncremental {
+
+    /**
+     * Registros delta tras los que se vuelve a escribir una base completa.
+     */
+    public static final int COMPACTAR_CADA = 100;
+
+    private static final String CABECERA_DELTA = "-- ";
+
+    private GuardadoIncremental() {
+    }
+
+    /**
+     * Añade un registro delta al final del fichero y fuerza los datos a disco.
+     *
+     * @param fichero     Fichero de la sesión (debe tener ya una base).
+     * @param instantanea Estado actual.
+     * @param cambios     Campos que han cambiado (máscara de bits de CampoPartida).
+     * @param momentoBase Momento de la instantánea base del fichero.
+     * @return Bytes escritos.
+     * @throws IOException si falla la escritura.
+     */
+    public static int anadirDelta(Path fichero, InstantaneaPartida instantanea, long cambios, long momentoBase)
+            throws IOException {
+        String delta = instantanea.aTexto(cambios);
+        int lineas = 0;
+        for (int i = 0; i < delta.length(); i++) {
+            if (delta.charAt(i) == '\n') lineas++;
+        }
+        String cabecera = CABECERA_DELTA + lineas + " " + instantanea.getTurno() + " " + (instantanea.getMomento() - momentoBase) + "\n";
+        byte[] bytes = (cabecera + delta).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer datos = ByteBuffer.wrap(bytes);
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (datos.hasRemaining()) canal.write(datos);
+            canal.force(false);
+        }
+        return bytes.length;
+    }
+
+    /**
+     * Lee un guardado aplicando todos sus registros delta sobre la base.
+     *
+     * @param fichero Fichero de la sesión.
+     * @return El estado más reciente guardado.
+     * @throws IOException              si no se puede leer el fichero.
+     * @throws IllegalArgumentException si la base está dañada.
+     */
+    public static InstantaneaPartida leer(Path fichero) throws IOException {
+        String texto = Files.readString(fichero, StandardCharsets.UTF_8);
+        // Una última línea sin salto es una escritura cortada: se ignora
+        int fin = texto.lastIndexOf('\n') + 1;
+        String[] lineas = texto.substring(0, fin).split("\n");
+
+        Map<String, String> valores = new LinkedHashMap<>();
+        int i = 0;
+        while (i < lineas.length && !lineas[i].startsWith(CABECERA_DELTA)) {
+            poner(valores, lineas[i++]);
+        }
+        long momentoBase;
+        try {
+            momentoBase = Long.parseLong(valores.get("momento"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Guardado sin base válida: " + fichero, e);
+        }
+        while (i < lineas.length) {
+            String[] cabecera = lineas[i].substring(CABECERA_DELTA.length()).split(" ");
+            int n;
+            try {
+                n = Integer.parseInt(cabecera[0]);
+            } catch (NumberFormatException e) {
+                break; // Registro dañado: nos quedamos con lo anterior
+            }
+            if (cabecera.length != 3 || i + 1 + n > lineas.length) break; // Registro incompleto
+            valores.put("turno", cabecera[1]);
+            valores.put("momento", String.valueOf(momentoBase + Long.parseLong(cabecera[2])));
+            for (int k = i + 1; k <= i + n; k++) poner(valores, lineas[k]);
+            i += 1 + n;
+        }
+        return InstantaneaPartida.desdeMapa(valores);
+    }
+
+    private static void poner(Map<String, String> valores, String linea) {
+        int igual = linea.indexOf('=');
+        if (igual > 0) valores.put(linea.substring(0, igual), linea.substring(igual + 1));
+    }
+}
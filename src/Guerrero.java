@@ -1,15 +1,11 @@
 /**
  * Clase especializada en fuerza y defensa física.
- * Utiliza un arma principal para maximizar su daño.
+ * Utiliza un arma principal para maximizar su daño; también puede llevar armadura y abalorio.
  *
  * @author Javier Fernández Gavino
  * @version 1.0
  */
 public class Guerrero extends Personaje {
-    /**
-     * Arma principal del guerrero.
-     */
-    private Arma arma;
 
     /**
      * Crea un guerrero. Comienza siempre a nivel 1.
@@ -17,8 +13,8 @@ public class Guerrero extends Personaje {
      * @param arma Arma inicial.
      */
     public Guerrero(String nombre, Arma arma) {
-        super(nombre, 1, 100, 5);
-        this.arma = arma;
+        super(nombre, 1, 100, 5, 10,
+                new RanuraEquipo[] {RanuraEquipo.MANO_PRINCIPAL, RanuraEquipo.ARMADURA, RanuraEquipo.ABALORIO}, arma);
     }
 
     /**
@@ -26,7 +22,7 @@ public class Guerrero extends Personaje {
      * @return El arma del guerrero.
      */
     public Arma getArma() {
-        return arma;
+        return (Arma) getEquipamiento().get(RanuraEquipo.MANO_PRINCIPAL);
     }
 
     /**
@@ -34,22 +30,23 @@ public class Guerrero extends Personaje {
      * @param arma El arma a equipar.
      */
     public void setArma(Arma arma) {
-        this.arma = arma;
+        equipar(RanuraEquipo.MANO_PRINCIPAL, arma);
     }
 
     /**
-     * Ataca a otro personaje, infligiendo daño basado en su fuerza y el arma equipada.
+     * Ataca a otro personaje, infligiendo daño basado en su fuerza y el equipo puesto.
      * @param objetivo El personaje que recibirá el ataque.
      */
     @Override
     public void atacar(Personaje objetivo) {
         if (!this.estaVivo()) return;
 
-        int fuerza = 15 + (3 * getNivel());
+        int fuerza = (int) Formulas.GUERRERO_FUERZA.evaluar(getNivel());
         int danioTotal = fuerza;
 
-        if (this.arma != null) {
-            danioTotal += this.arma.getDanioExtra();
+        danioTotal += getDanioArmas();
+        Arma arma = getArma();
+        if (arma != null) {
             System.out.println(getNombre() + " ataca con " + arma.getNombre() + ".");
         } else {
             System.out.println(getNombre() + " golpea con los puños.");
@@ -57,6 +54,15 @@ public class Guerrero extends Personaje {
         objetivo.recibirDanio(danioTotal);
     }
 
+    /**
+     * Habilidades del guerrero.
+     * @return La tabla de habilidades del guerrero.
+     */
+    @Override
+    public Habilidad[] getHabilidades() {
+        return Habilidades.GUERRERO;
+    }
+
     /**
      * Sube de nivel, mejorando las estadísticas del guerrero.
      * Gana más vida y defensa que otras clases.
@@ -65,9 +71,9 @@ public class Guerrero extends Personaje {
     public void subirNivel() {
         super.subirNivel();
         // El guerrero escala mejor en vida (+25) y defensa (+2)
-        setPuntosVidaMax(getPuntosVidaMax() + 25);
+        setPuntosVidaMax(getPuntosVidaMax() + Formulas.GUERRERO_VIDA_NIVEL.evaluar(getNivel()));
         setPuntosVida(getPuntosVidaMax());
-        setDefensa(getDefensa() + 2);
+        setDefensa(getDefensa() + (int) Formulas.GUERRERO_DEFENSA_NIVEL.evaluar(getNivel()));
         System.out.println("¡" + getNombre() + " se siente más resistente! (+Vida, +Defensa)");
     }
 }
\ No newline at end of file
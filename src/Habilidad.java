@@ -0,0 +1,104 @@
+/**
+ * Definición inmutable de una habilidad de clase: coste, enfriamiento, objetivo y potencia.
+ * Las habilidades se crean una sola vez en las tablas de {@link Habilidades} y se comparten entre
+ * todos los personajes; el estado de cada personaje (enfriamientos) vive en el propio Personaje.
+ *
+ * @version 1.0
+ */
+public final class Habilidad {
+
+    /**
+     * Nombre visible de la habilidad.
+     */
+    private final String nombre;
+    /**
+     * Recurso que consume.
+     */
+    private final TipoRecurso recurso;
+    /**
+     * Cantidad de recurso que consume.
+     */
+    private final double coste;
+    /**
+     * Turnos que hay que esperar para volver a usarla (0 = siempre disponible).
+     */
+    private final int enfriamiento;
+    /**
+     * A quién afecta.
+     */
+    private final ObjetivoHabilidad objetivo;
+    /**
+     * Radio de la explosión en casillas (solo para habilidades de área).
+     */
+    private final double radio;
+    /**
+     * Daño o curación en función del nivel del lanzador.
+     */
+    private final Formula potencia;
+    /**
+     * Si se suma el daño de las armas equipadas.
+     */
+    private final boolean usaArmas;
+
+    /**
+     * Crea una habilidad.
+     *
+     * @param nombre       Nombre visible.
+     * @param recurso      Recurso que consume.
+     * @param coste        Cantidad de recurso por uso.
+     * @param enfriamiento Turnos de espera entre usos.
+     * @param objetivo     A quién afecta.
+     * @param radio        Radio en casillas (solo para AREA).
+     * @param potencia     Daño o curación según el nivel.
+     * @param usaArmas     true si suma el daño de las armas equipadas.
+     */
+    public Habilidad(String nombre, TipoRecurso recurso, double coste, int enfriamiento,
+                     ObjetivoHabilidad objetivo, double radio, Formula potencia, boolean usaArmas) {
+        this.nombre = nombre;
+        this.recurso = recurso;
+        this.coste = coste;
+        this.enfriamiento = enfriamiento;
+        this.objetivo = objetivo;
+        this.radio = radio;
+        this.potencia = potencia;
+        this.usaArmas = usaArmas;
+    }
+
+    // Getters
+    public String getNombre() {
+        return nombre;
+    }
+    public TipoRecurso getRecurso() {
+        return recurso;
+    }
+    public double getCoste() {
+        return coste;
+    }
+    public int getEnfriamiento() {
+        return enfriamiento;
+    }
+    public ObjetivoHabilidad getObjetivo() {
+        return objetivo;
+    }
+    public double getRadio() {
+        return radio;
+    }
+    public Formula getPotencia() {
+        return potencia;
+    }
+    public boolean usaArmas() {
+        return usaArmas;
+    }
+
+    /**
+     * Representación en cadena de la habilidad.
+     * @return Nombre, coste y enfriamiento.
+     */
+    @Override
+    public String toString() {
+        String texto = nombre;
+        if (recurso != TipoRecurso.NINGUNO) texto += " (" + (int) coste + " " + recurso + ")";
+        if (enfriamiento > 0) texto += " [Recarga: " + enfriamiento + " turnos]";
+        return texto;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Tablas precalculadas con las habilidades de cada clase.
+ * El índice de cada habilidad dentro de su tabla es el que usa el Personaje para sus enfriamientos.
+ * La potencia de cada habilidad se lee de {@code formulas.properties} (claves {@code habilidad.*}).
+ *
+ * @version 1.0
+ */
+public final class Habilidades {
+
+    /**
+     * Tabla vacía para personajes sin habilidades (enemigos).
+     */
+    public static final Habilidad[] NINGUNA = new Habilidad[0];
+
+    /**
+     * Habilidades del Guerrero.
+     */
+    public static final Habilidad[] GUERRERO = {
+            new Habilidad("Golpe de arma", TipoRecurso.NINGUNO, 0, 0, ObjetivoHabilidad.ENEMIGO, 0,
+                    Formulas.GUERRERO_FUERZA, true),
+            new Habilidad("Embestida", TipoRecurso.NINGUNO, 0, 3, ObjetivoHabilidad.ENEMIGO, 0,
+                    Formulas.obtener("habilidad.embestida", "1.5 * (15 + 3 * nivel)"), true),
+            new Habilidad("Segundo aliento", TipoRecurso.NINGUNO, 0, 5, ObjetivoHabilidad.PROPIO, 0,
+                    Formulas.obtener("habilidad.segundoAliento", "20 + 5 * nivel"), false)
+    };
+
+    /**
+     * Habilidades del Mago.
+     */
+    public static final Habilidad[] MAGO = {
+            new Habilidad("Bola de fuego", TipoRecurso.MANA, 10, 0, ObjetivoHabilidad.ENEMIGO, 0,
+                    Formulas.MAGO_INTELIGENCIA, false),
+            new Habilidad("Lluvia de fuego", TipoRecurso.MANA, 20, 3, ObjetivoHabilidad.AREA, 2,
+                    Formulas.obtener("habilidad.lluviaDeFuego", "0.6 * (35 + 5 * nivel)"), false),
+            new Habilidad("Curación arcana", TipoRecurso.MANA, 15, 4, ObjetivoHabilidad.PROPIO, 0,
+                    Formulas.obtener("habilidad.curacionArcana", "15 + 5 * nivel"), false)
+    };
+
+    /**
+     * Habilidades del Pícaro.
+     */
+    public static final Habilidad[] PICARO = {
+            new Habilidad("Doble tajo", TipoRecurso.ENERGIA, 10, 0, ObjetivoHabilidad.ENEMIGO, 0,
+                    Formulas.PICARO_DANIO, true),
+            new Habilidad("Puñalada trapera", TipoRecurso.ENERGIA, 20, 3, ObjetivoHabilidad.ENEMIGO, 0,
+                    Formulas.obtener("habilidad.punaladaTrapera", "10 * nivel"), true),
+            new Habilidad("Abanico de dagas", TipoRecurso.ENERGIA, 25, 4, ObjetivoHabilidad.AREA, 1.5,
+                    Formulas.obtener("habilidad.abanicoDeDagas", "4 * nivel"), true)
+    };
+
+    private Habilidades() {
+    }
+}
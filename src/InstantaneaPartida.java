@@ -0,0 +1,292 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia inmutable del estado de una partida en un instante dado.
+ * -
+ * Se captura en el hilo del juego copiando solo valores primitivos y cadenas (unos pocos
+ * microsegundos), y después puede serializarse en cualquier otro hilo sin que los cambios
+ * posteriores de la partida la afecten.
+ * -
+ * Formato de texto: una línea "clave=valor" por campo, en orden fijo. Los objetos de la mochila
+ * se describen como "Tipo|nombre|valores..." y el equipo puesto como "RANURA|Tipo|nombre|valores...",
+ * precedidos de su número ("objetos", "equipo"). Sin misión activa, la clave "mision" queda vacía.
+ * Los guardados de la versión 1 (solo armas, claves "armas"/"arma.") se siguen pudiendo leer.
+ *
+ * @version 2.0
+ */
+public final class InstantaneaPartida {
+
+    /**
+     * Versión del formato de guardado.
+     */
+    public static final int VERSION = 2;
+
+    private final long momento;
+    private final long turno;
+    private final int sala;
+    private final String clase;
+    private final String nombre;
+    private final int nivel;
+    private final int experiencia;
+    private final int experienciaTotal;
+    private final double puntosVida;
+    private final double puntosVidaMax;
+    private final int defensa;
+    private final int velocidad;
+    private final int posX;
+    private final int posY;
+    private final double recurso;
+    private final double recursoMax;
+    private final List<String> equipo;
+    private final List<String> mochila;
+    private final String mision;
+    private final int progresoMision;
+    private final int objetivoMision;
+    private final EstadoMision estadoMision;
+
+    private InstantaneaPartida(Map<String, String> valores) {
+        this.momento = Long.parseLong(valores.get("momento"));
+        this.turno = Long.parseLong(valores.get("turno"));
+        this.sala = Integer.parseInt(valores.get("sala"));
+        this.clase = valores.get("clase");
+        this.nombre = valores.get("nombre");
+        this.nivel = Integer.parseInt(valores.get("nivel"));
+        this.experiencia = Integer.parseInt(valores.get("experiencia"));
+        this.experienciaTotal = Integer.parseInt(valores.get("experienciaTotal"));
+        this.puntosVida = Double.parseDouble(valores.get("puntosVida"));
+        this.puntosVidaMax = Double.parseDouble(valores.get("puntosVidaMax"));
+        this.defensa = Integer.parseInt(valores.get("defensa"));
+        this.velocidad = Integer.parseInt(valores.get("velocidad"));
+        this.posX = Integer.parseInt(valores.get("posX"));
+        this.posY = Integer.parseInt(valores.get("posY"));
+        this.recurso = Double.parseDouble(valores.get("recurso"));
+        this.recursoMax = Double.parseDouble(valores.get("recursoMax"));
+        this.equipo = "1".equals(valores.get("version"))
+                ? lista(valores, "armas", "arma.") : lista(valores, "equipo", "equipo.");
+        this.mochila = lista(valores, "objetos", "objeto.");
+        String m = valores.get("mision");
+        this.mision = m == null || m.isEmpty() ? null : m;
+        this.progresoMision = this.mision == null ? 0 : Integer.parseInt(valores.get("progresoMision"));
+        this.objetivoMision = this.mision == null ? 0 : Integer.parseInt(valores.get("objetivoMision"));
+        this.estadoMision = this.mision == null ? null : EstadoMision.valueOf(valores.get("estadoMision"));
+    }
+
+    private InstantaneaPartida(Personaje jugador, Mision m, int sala, long turno) {
+        this.momento = System.currentTimeMillis();
+        this.turno = turno;
+        this.sala = sala;
+        this.clase = jugador.getClass().getSimpleName();
+        this.nombre = jugador.getNombre();
+        this.nivel = jugador.getNivel();
+        this.experiencia = jugador.getExperiencia();
+        this.experienciaTotal = jugador.getExperienciaTotal();
+        this.puntosVida = jugador.getPuntosVida();
+        this.puntosVidaMax = jugador.getPuntosVidaMax();
+        this.defensa = jugador.getDefensa();
+        this.velocidad = jugador.getVelocidad();
+        this.posX = jugador.getPosX();
+        this.posY = jugador.getPosY();
+
+        if (jugador instanceof Mago mago) {
+            this.recurso = mago.getPuntosMana();
+            this.recursoMax = mago.getPuntosManaMax();
+        } else if (jugador instanceof Picaro picaro) {
+            this.recurso = picaro.getEnergia();
+            this.recursoMax = picaro.getEnergiaMaxima();
+        } else {
+            this.recurso = 0;
+            this.recursoMax = 0;
+        }
+
+        Equipamiento equipamiento = jugador.getEquipamiento();
+        List<String> puestas = new ArrayList<>(4);
+        for (RanuraEquipo ranura : equipamiento.getRanuras()) {
+            Equipo pieza = equipamiento.get(ranura);
+            if (pieza != null) puestas.add(ranura.name() + "|" + describir(pieza));
+        }
+        this.equipo = List.copyOf(puestas);
+
+        Inventario inventario = jugador.getInventario();
+        String[] objetos = new String[inventario.getCantidad()];
+        for (int i = 0; i < objetos.length; i++) objetos[i] = describir(inventario.getItem(i));
+        this.mochila = List.of(objetos);
+
+        this.mision = m == null ? null : m.getTitulo();
+        this.progresoMision = m == null ? 0 : m.getProgresoActual();
+        this.objetivoMision = m == null ? 0 : m.getObjetivoCantidad();
+        this.estadoMision = m == null ? null : m.getEstado();
+    }
+
+    /**
+     * Copia el estado de la partida. Debe llamarse desde el hilo del juego.
+     *
+     * @param jugador Héroe.
+     * @param mision  Misión activa (o null).
+     * @param sala    Número de sala actual.
+     * @param turno   Turnos jugados.
+     * @return La instantánea.
+     */
+    public static InstantaneaPartida capturar(Personaje jugador, Mision mision, int sala, long turno) {
+        return new InstantaneaPartida(jugador, mision, sala, turno);
+    }
+
+    /**
+     * Descripción de un objeto para guardarlo.
+     *
+     * @param item Objeto.
+     * @return "Tipo|nombre|valores...".
+     */
+    static String describir(Item item) {
+        if (item instanceof Arma arma) return "Arma|" + arma.getNombre() + "|" + arma.getDanioExtra();
+        if (item instanceof Armadura a) return "Armadura|" + a.getNombre() + "|" + a.getDefensa();
+        if (item instanceof Abalorio a) return "Abalorio|" + a.getNombre() + "|" + a.getAtaque() + "|" + a.getDefensa();
+        if (item instanceof Pocion p) return "Pocion|" + p.getNombre() + "|" + p.getCantidad() + "|" + p.getTipo();
+        return item.getClass().getSimpleName() + "|" + item.getNombre();
+    }
+
+    // Getters
+    public long getMomento() {
+        return momento;
+    }
+    public long getTurno() {
+        return turno;
+    }
+    public int getSala() {
+        return sala;
+    }
+    public String getClase() {
+        return clase;
+    }
+    public String getNombre() {
+        return nombre;
+    }
+    public int getNivel() {
+        return nivel;
+    }
+    public double getPuntosVida() {
+        return puntosVida;
+    }
+    public List<String> getMochila() {
+        return mochila;
+    }
+    /**
+     * Equipo puesto, una pieza por elemento ("RANURA|Tipo|nombre|valores...").
+     * @return Lista inmutable.
+     */
+    public List<String> getEquipo() {
+        return equipo;
+    }
+    public String getMision() {
+        return mision;
+    }
+    public int getProgresoMision() {
+        return progresoMision;
+    }
+
+    /**
+     * Campos de la instantánea en el orden del fichero.
+     *
+     * @return Mapa clave → valor.
+     */
+    public Map<String, String> aMapa() {
+        Map<String, String> v = new LinkedHashMap<>();
+        v.put("version", String.valueOf(VERSION));
+        v.put("momento", String.valueOf(momento));
+        v.put("turno", String.valueOf(turno));
+        v.put("sala", String.valueOf(sala));
+        v.put("clase", clase);
+        v.put("nombre", nombre);
+        v.put("nivel", String.valueOf(nivel));
+        v.put("experiencia", String.valueOf(experiencia));
+        v.put("experienciaTotal", String.valueOf(experienciaTotal));
+        v.put("puntosVida", String.valueOf(puntosVida));
+        v.put("puntosVidaMax", String.valueOf(puntosVidaMax));
+        v.put("defensa", String.valueOf(defensa));
+        v.put("velocidad", String.valueOf(velocidad));
+        v.put("posX", String.valueOf(posX));
+        v.put("posY", String.valueOf(posY));
+        v.put("recurso", String.valueOf(recurso));
+        v.put("recursoMax", String.valueOf(recursoMax));
+        v.put("equipo", String.valueOf(equipo.size()));
+        for (int i = 0; i < equipo.size(); i++) v.put("equipo." + i, equipo.get(i));
+        v.put("objetos", String.valueOf(mochila.size()));
+        for (int i = 0; i < mochila.size(); i++) v.put("objeto." + i, mochila.get(i));
+        v.put("mision", mision == null ? "" : mision);
+        if (mision != null) {
+            v.put("progresoMision", String.valueOf(progresoMision));
+            v.put("objetivoMision", String.valueOf(objetivoMision));
+            v.put("estadoMision", estadoMision.name());
+        }
+        return v;
+    }
+
+    /**
+     * Texto de guardado ("clave=valor" por línea).
+     *
+     * @return El texto.
+     */
+    public String aTexto() {
+        return aTexto(CampoPartida.TODOS);
+    }
+
+    /**
+     * Texto de guardado con solo los campos indicados.
+     *
+     * @param cambios Máscara de bits de CampoPartida.
+     * @return El texto.
+     */
+    public String aTexto(long cambios) {
+        StringBuilder sb = new StringBuilder(cambios == CampoPartida.TODOS ? 512 : 64);
+        for (Map.Entry<String, String> e : aMapa().entrySet()) {
+            if (cambios == CampoPartida.TODOS || CampoPartida.incluye(cambios, e.getKey())) {
+                sb.append(e.getKey()).append('=').append(e.getValue()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reconstruye una instantánea a partir de su texto de guardado.
+     *
+     * @param texto Texto generado por aTexto().
+     * @return La instantánea.
+     * @throws IllegalArgumentException si el texto no es un guardado válido.
+     */
+    public static InstantaneaPartida desdeTexto(String texto) {
+        Map<String, String> valores = new LinkedHashMap<>();
+        for (String linea : texto.split("\n")) {
+            int igual = linea.indexOf('=');
+            if (igual > 0) valores.put(linea.substring(0, igual), linea.substring(igual + 1));
+        }
+        return desdeMapa(valores);
+    }
+
+    /**
+     * Reconstruye una instantánea a partir de sus campos.
+     *
+     * @param valores Campos como los de aMapa().
+     * @return La instantánea.
+     * @throws IllegalArgumentException si faltan campos o tienen valores inválidos.
+     */
+    public static InstantaneaPartida desdeMapa(Map<String, String> valores) {
+        String version = valores.get("version");
+        if (!String.valueOf(VERSION).equals(version) && !"1".equals(version)) {
+            throw new IllegalArgumentException("Versión de guardado no soportada: " + valores.get("version"));
+        }
+        try {
+            return new InstantaneaPartida(valores);
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IllegalArgumentException("Guardado incompleto o dañado", e);
+        }
+    }
+
+    private static List<String> lista(Map<String, String> valores, String clave, String prefijo) {
+        int n = Integer.parseInt(valores.get(clave));
+        String[] l = new String[n];
+        for (int i = 0; i < n; i++) l[i] = valores.get(prefijo + i);
+        return List.of(l);
+    }
+}
@@ -11,6 +11,11 @@ public class Inventario {
      */
     private ArrayList<Item> listaItems;
 
+    /**
+     * Indica si el contenido ha cambiado desde el último guardado.
+     */
+    private boolean modificado = true;
+
     /**
      * Crea un inventario vacío.
      */
@@ -24,6 +29,48 @@ public class Inventario {
      */
     public void anadirItem(Item item) {
         listaItems.add(item);
+        modificado = true;
+    }
+
+    /**
+     * Indica si el contenido ha cambiado desde la última llamada y lo da por guardado.
+     * @return true si se añadió o quitó algún objeto.
+     */
+    boolean tomarCambio() {
+        boolean c = modificado;
+        modificado = false;
+        return c;
+    }
+
+    /**
+     * Número de objetos guardados.
+     * @return Cantidad de objetos.
+     */
+    public int getCantidad() {
+        return listaItems.size();
+    }
+
+    /**
+     * Objeto en una posición de la mochila.
+     * @param indice Posición del objeto.
+     * @return El objeto.
+     */
+    public Item getItem(int indice) {
+        return listaItems.get(indice);
+    }
+
+    /**
+     * Busca la primera poción de un tipo en la mochila.
+     * @param tipo Tipo de poción buscado.
+     * @return Posición de la poción, o -1 si no hay ninguna.
+     */
+    public int buscarPocion(TipoPocion tipo) {
+        for (int i = 0; i < listaItems.size(); i++) {
+            if (listaItems.get(i) instanceof Pocion && ((Pocion) listaItems.get(i)).getTipo() == tipo) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -47,17 +94,21 @@ public class Inventario {
      * Si falla, permanece en el inventario.
      * * @param indice Posición del objeto en la lista.
      * @param objetivo Personaje que usa el objeto.
+     * @return true si el objeto se usó (y se consumió).
      */
-    public void usarYConsumir(int indice, Personaje objetivo) {
+    public boolean usarYConsumir(int indice, Personaje objetivo) {
         if (indice >= 0 && indice < listaItems.size()) {
             Item item = listaItems.get(indice);
             boolean exito = item.usarItem(objetivo);
 
             if (exito) {
                 listaItems.remove(indice);
+                modificado = true;
             }
+            return exito;
         } else {
             System.out.println("   [!] No existe ningún objeto en la posición " + indice);
+            return false;
         }
     }
 }
\ No newline at end of file
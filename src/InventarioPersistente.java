@@ -0,0 +1,92 @@
+/**
+ * Versión inmutable del inventario para las copias de estado de combate.
+ * Es una lista enlazada persistente: añadir o quitar un objeto devuelve una lista nueva que
+ * comparte con la anterior todos los nodos que no cambian, así que bifurcar un estado de combate
+ * no copia la mochila y cada modificación solo copia los nodos posteriores al objeto tocado.
+ * -
+ * Los índices coinciden con los del {@link Inventario} original (0 = objeto más antiguo).
+ * Internamente la lista se guarda al revés: el último objeto añadido está en la cabeza.
+ *
+ * @version 1.0
+ */
+public final class InventarioPersistente {
+
+    /**
+     * Inventario vacío compartido.
+     */
+    public static final InventarioPersistente VACIO = new InventarioPersistente(null, null, 0);
+
+    /**
+     * Objeto añadido más recientemente.
+     */
+    private final Item item;
+    /**
+     * Resto de la lista (objetos más antiguos).
+     */
+    private final InventarioPersistente resto;
+    /**
+     * Número de objetos.
+     */
+    private final int tamanio;
+
+    private InventarioPersistente(Item item, InventarioPersistente resto, int tamanio) {
+        this.item = item;
+        this.resto = resto;
+        this.tamanio = tamanio;
+    }
+
+    /**
+     * Crea la versión persistente de un inventario.
+     *
+     * @param inventario Inventario original.
+     * @return Lista persistente con los mismos objetos en el mismo orden.
+     */
+    public static InventarioPersistente desde(Inventario inventario) {
+        InventarioPersistente lista = VACIO;
+        for (int i = 0; i < inventario.getCantidad(); i++) {
+            lista = lista.con(inventario.getItem(i));
+        }
+        return lista;
+    }
+
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Objeto en una posición.
+     *
+     * @param indice Posición (0 = más antiguo).
+     * @return El objeto.
+     */
+    public Item get(int indice) {
+        if (indice < 0 || indice >= tamanio) throw new IndexOutOfBoundsException("Posición " + indice);
+        InventarioPersistente nodo = this;
+        for (int pasos = tamanio - 1 - indice; pasos > 0; pasos--) {
+            nodo = nodo.resto;
+        }
+        return nodo.item;
+    }
+
+    /**
+     * Añade un objeto al final. O(1).
+     *
+     * @param nuevo Objeto a añadir.
+     * @return Lista nueva (la actual no cambia).
+     */
+    public InventarioPersistente con(Item nuevo) {
+        return new InventarioPersistente(nuevo, this, tamanio + 1);
+    }
+
+    /**
+     * Quita el objeto de una posición. Solo copia los objetos añadidos después de él.
+     *
+     * @param indice Posición a quitar.
+     * @return Lista nueva (la actual no cambia).
+     */
+    public InventarioPersistente sin(int indice) {
+        if (indice < 0 || indice >= tamanio) throw new IndexOutOfBoundsException("Posición " + indice);
+        if (indice == tamanio - 1) return resto;
+        return new InventarioPersistente(item, resto.sin(indice), tamanio - 1);
+    }
+}
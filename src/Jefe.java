@@ -19,12 +19,22 @@ public class Jefe extends Enemigo {
      * @param nivel  Nivel de dificultad, que determinará su daño base.
      */
     public Jefe(String nombre, int nivel) {
+        this(TipoEnemigo.buscar(nombre), nivel);
+    }
+
+    /**
+     * Constructor del Jefe a partir de su tipo.
+     *
+     * @param tipo  Tipo del jefe (ej: TipoEnemigo.LORD_MALACOR).
+     * @param nivel Nivel de dificultad, que determinará su daño base.
+     */
+    public Jefe(TipoEnemigo tipo, int nivel) {
         // Llamada al constructor de la clase padre
-        super(nombre, nivel);
+        super(tipo, nivel);
 
         // Lógica exclusiva del Jefe:
-        // Obtenemos la vida base calculada por la clase Enemigo y la duplicamos.
-        double vidaBoss = this.getPuntosVidaMax() * 2;
+        // Sustituimos la vida base de Enemigo por la del jefe (por defecto, el doble).
+        double vidaBoss = Formulas.JEFE_VIDA.evaluar(nivel);
         this.setPuntosVidaMax(vidaBoss);
         this.setPuntosVida(vidaBoss); // Rellenamos la vida al máximo
     }
@@ -40,12 +50,11 @@ public class Jefe extends Enemigo {
     @Override
     public void atacar(Personaje objetivo) {
         // Probabilidad del 20% de ataque crítico
-        if (Math.random() < 0.20) {
+        if (tirada() < 0.20) {
             System.out.println("\n>>> ¡" + this.getNombre() + " realiza un ATAQUE POTENTE! <<<");
 
             // Cálculo del daño crítico
-            double danioBase = this.getNivel() * 4;
-            double danioFuerte = danioBase * 1.5;
+            double danioFuerte = Formulas.JEFE_CRITICO.evaluar(this.getNivel());
 
             objetivo.recibirDanio(danioFuerte);
         } else {
@@ -0,0 +1,137 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lo justo de JSON para la API de ServidorJuego, sin dependencias.
+ * -
+ * Escribe cadenas escapadas y lee objetos planos ({"clave": valor, ...}) cuyos valores son
+ * cadenas, números, true, false o null. Las peticiones de la API no necesitan más.
+ *
+ * @version 1.0
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Añade una cadena entre comillas, escapada.
+     *
+     * @param sb    Destino.
+     * @param texto Cadena (null se escribe como null).
+     * @return El mismo destino.
+     */
+    static StringBuilder cadena(StringBuilder sb, String texto) {
+        if (texto == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+
+    /**
+     * Lee un objeto plano.
+     *
+     * @param texto JSON del objeto (vacío equivale a {}).
+     * @return Valores por clave: las cadenas sin comillas, el resto tal cual (null como null).
+     * @throws IllegalArgumentException si no es un objeto plano válido.
+     */
+    static Map<String, String> leerObjeto(String texto) {
+        Map<String, String> valores = new HashMap<>();
+        if (texto.isBlank()) return valores;
+        int[] pos = {saltarEspacios(texto, 0)};
+        esperar(texto, pos, '{');
+        if (siguiente(texto, pos) == '}') {
+            pos[0]++;
+        } else {
+            while (true) {
+                String clave = leerCadena(texto, pos);
+                esperar(texto, pos, ':');
+                char c = siguiente(texto, pos);
+                String valor;
+                if (c == '"') {
+                    valor = leerCadena(texto, pos);
+                } else {
+                    int inicio = pos[0];
+                    while (pos[0] < texto.length() && ",} \t\r\n".indexOf(texto.charAt(pos[0])) < 0) pos[0]++;
+                    valor = texto.substring(inicio, pos[0]);
+                    if (valor.isEmpty() || valor.charAt(0) == '{' || valor.charAt(0) == '[') {
+                        throw new IllegalArgumentException("Valor no admitido para '" + clave + "'");
+                    }
+                    if (valor.equals("null")) valor = null;
+                }
+                valores.put(clave, valor);
+                c = siguiente(texto, pos);
+                pos[0]++;
+                if (c == '}') break;
+                if (c != ',') throw new IllegalArgumentException("Se esperaba ',' o '}' en la posición " + (pos[0] - 1));
+            }
+        }
+        if (saltarEspacios(texto, pos[0]) != texto.length()) throw new IllegalArgumentException("Sobra texto tras el objeto");
+        return valores;
+    }
+
+    private static String leerCadena(String texto, int[] pos) {
+        esperar(texto, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos[0] >= texto.length()) throw new IllegalArgumentException("Cadena sin cerrar");
+            char c = texto.charAt(pos[0]++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos[0] >= texto.length()) throw new IllegalArgumentException("Cadena sin cerrar");
+            char e = texto.charAt(pos[0]++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > texto.length()) throw new IllegalArgumentException("Escape \\u incompleto");
+                    try {
+                        sb.append((char) Integer.parseInt(texto.substring(pos[0], pos[0] + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("Escape \\u no válido");
+                    }
+                    pos[0] += 4;
+                    break;
+                default: sb.append(e); // \" \\ \/
+            }
+        }
+    }
+
+    private static void esperar(String texto, int[] pos, char esperado) {
+        if (siguiente(texto, pos) != esperado) {
+            throw new IllegalArgumentException("Se esperaba '" + esperado + "' en la posición " + pos[0]);
+        }
+        pos[0]++;
+    }
+
+    /**
+     * Salta espacios y devuelve el siguiente carácter sin consumirlo (0 si se acabó el texto).
+     */
+    private static char siguiente(String texto, int[] pos) {
+        pos[0] = saltarEspacios(texto, pos[0]);
+        return pos[0] < texto.length() ? texto.charAt(pos[0]) : 0;
+    }
+
+    private static int saltarEspacios(String texto, int i) {
+        while (i < texto.length() && Character.isWhitespace(texto.charAt(i))) i++;
+        return i;
+    }
+}
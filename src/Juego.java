@@ -1,4 +1,6 @@
-import java.util.Scanner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Clase principal que actúa como motor del videojuego.
@@ -28,8 +30,8 @@ public class Juego {
     /** Jugador principal controlado por el usuario. */
     private Personaje jugador;
 
-    /** Scanner para leer la entrada del teclado. */
-    private Scanner sc;
+    /** Origen de las órdenes del jugador (teclado, guion, fichero...). */
+    private final FuenteEntrada entrada;
 
     /** Gestor que controla las misiones y objetivos. */
     private GestorMisiones gestorMisiones;
@@ -40,13 +42,93 @@ public class Juego {
     /** Sala en la que se encuentra el jugador actualmente. */
     private Sala salaActual;
 
+    /** Rutas por el mapa de la sala actual. */
+    private BuscadorRutas rutas;
+
+    /** Casillas entre las que el jugador va y viene al explorar: la entrada y el fondo de la sala. */
+    private int origenExploracion;
+    private int destinoExploracion;
+
+    /** Nivel (sala) en el que va la partida. */
+    private int nivelActual;
+
+    /** Generador aleatorio de la partida para los encuentros (con semilla fija, la partida es repetible). */
+    private final SplittableRandom azar;
+
+    /** Encuentros de la sala actual preparados en segundo plano. */
+    private PrecargadorEncuentros encuentros;
+
+    /** Siguiente nivel preparado en segundo plano durante la misión actual. */
+    private final PrecargadorNivel precargaNivel = new PrecargadorNivel();
+
+    /**
+     * Panel fijo de estado en la parte superior del terminal (null = menús de texto clásicos).
+     * Se dibuja directamente y no desde el bus de eventos: tiene que estar pintado antes de pedir
+     * la siguiente orden, y un suscriptor del bus lo pintaría más tarde, desde otro hilo.
+     */
+    private PanelEstado panel;
+
+    /** Guardado automático en segundo plano (null = desactivado). */
+    private AutoGuardado autoGuardado;
+
+    /** Nombre de la partida en el autoguardado. */
+    private String sesion;
+
+    /** Registro donde se publican los hechos de las misiones (null = no se registran). */
+    private RegistroMisiones registroMisiones;
+
+    /** Nombre de la partida en el registro de misiones. */
+    private String sesionMisiones;
+
+    /** Enemigo del combate en curso (null fuera de combate). */
+    private Enemigo enemigoActual;
+
+    /** Bus donde se publican las acciones de los combates (null = no se publican). */
+    private BusEventos<EventoJuego> busEventos;
+
+    /** Nombre de la partida en los eventos publicados. */
+    private String sesionEventos;
+
+    /** Eventos publicados en el bus (el número del siguiente es este más uno). */
+    private long eventosPublicados;
+
+    /** Enemigo de la última acción publicada; si la siguiente es de otro, va antes un OBJETIVO. */
+    private Enemigo enemigoAnotado;
+
+    /**
+     * Vida que han perdido los enemigos en los turnos del héroe y el héroe en los de los enemigos,
+     * en centésimas como en el diario, para comprobar que los diarios cuadran con lo que pasó.
+     */
+    private long danioInfligido;
+    private long danioRecibido;
+
+    /** Turnos jugados (acciones del menú y rondas de combate), para el guardado periódico. */
+    private long turnos;
+
+    /** Misión y sala del último autoguardado, para saber si han cambiado. */
+    private Mision misionGuardada;
+    private int salaGuardada;
+
+    /** Opciones del menú principal en una línea, para el panel. */
+    private static final String OPCIONES_MENU = "1.Explorar  2.Estado  3.Inventario  4.Salir";
+
+    /** Opciones de combate en una línea, para el panel. */
+    private static final String OPCIONES_COMBATE = "1.Atacar 2.Objeto 3.Descansar 4.Habilidad 5.Oráculo";
+
+    /** Casillas que avanza el jugador por la sala en cada exploración. */
+    private static final int PASOS_POR_EXPLORACION = 3;
+
     /**
      * Constructor PRIVADO.
      * Es privado para evitar que se pueda instanciar la clase con 'new Juego()' desde fuera.
-     * Inicializa el escáner para la entrada de datos.
+     * Recibe la fuente de la que se leerán las órdenes del jugador.
+     *
+     * @param entrada Fuente de entrada de la partida.
+     * @param azar    Generador aleatorio de la partida.
      */
-    private Juego() {
-        this.sc = new Scanner(System.in);
+    private Juego(FuenteEntrada entrada, SplittableRandom azar) {
+        this.entrada = entrada;
+        this.azar = azar;
     }
 
     /**
@@ -57,11 +139,130 @@ public class Juego {
      */
     public static Juego getInstancia() {
         if (instancia == null) {
-            instancia = new Juego();
+            instancia = new Juego(FuenteEntrada.consola(), new SplittableRandom());
         }
         return instancia;
     }
 
+    /**
+     * Crea una partida independiente que lee sus órdenes de la fuente indicada.
+     * No afecta a la instancia de consola: sirve para partidas guionizadas y pruebas automáticas,
+     * y cada partida creada así puede ejecutarse en su propio hilo.
+     * Si la fuente se agota, iniciarJuego termina con NoSuchElementException.
+     *
+     * @param entrada Fuente de las órdenes del jugador.
+     * @return Una partida nueva.
+     */
+    public static Juego crear(FuenteEntrada entrada) {
+        return crear(entrada, new SplittableRandom());
+    }
+
+    /**
+     * Crea una partida independiente cuyo azar sale de una semilla fija: salas, mapas, exploración,
+     * encuentros, combates y botín. Con la misma semilla y las mismas órdenes la partida se repite
+     * igual (salvo el Oráculo, que simula durante un tiempo fijo).
+     *
+     * @param entrada Fuente de las órdenes del jugador.
+     * @param semilla Semilla de la partida.
+     * @return Una partida nueva.
+     */
+    public static Juego crear(FuenteEntrada entrada, long semilla) {
+        return crear(entrada, new SplittableRandom(semilla));
+    }
+
+    private static Juego crear(FuenteEntrada entrada, SplittableRandom azar) {
+        if (entrada == null) throw new IllegalArgumentException("La fuente de entrada no puede ser nula");
+        return new Juego(entrada, azar);
+    }
+
+    /**
+     * Activa el panel de estado: el estado del héroe y las opciones se muestran en la parte
+     * superior del terminal y solo se redibuja lo que cambia, en lugar de reimprimir los menús.
+     * Requiere un terminal compatible con ANSI. Debe llamarse antes de iniciarJuego.
+     */
+    public void activarPanel() {
+        this.panel = new PanelEstado(System.out);
+    }
+
+    /**
+     * Activa el guardado automático al cargar cada nivel, al completar cada misión y cada
+     * {@link AutoGuardado#TURNOS_ENTRE_GUARDADOS} turnos. La escritura se hace en segundo plano.
+     *
+     * @param autoGuardado Escritor de guardados (puede compartirse entre partidas).
+     * @param sesion       Nombre de esta partida.
+     */
+    public void activarAutoguardado(AutoGuardado autoGuardado, String sesion) {
+        this.autoGuardado = autoGuardado;
+        this.sesion = sesion;
+    }
+
+    /**
+     * Publica los hechos de las misiones de esta partida (aceptada, progreso, completada,
+     * entregada) en un registro compartido. Debe llamarse antes de iniciarJuego.
+     *
+     * @param registro Registro de misiones (puede compartirse entre partidas).
+     * @param sesion   Nombre de esta partida.
+     */
+    public void activarRegistroMisiones(RegistroMisiones registro, String sesion) {
+        this.registroMisiones = registro;
+        this.sesionMisiones = sesion;
+    }
+
+    /**
+     * Publica las acciones de los combates de esta partida en un bus de eventos.
+     * Publicar no espera a los suscriptores salvo que alguno use la política BLOQUEAR.
+     *
+     * @param bus    Bus de eventos (null para dejar de publicar).
+     * @param sesion Nombre de esta partida en los eventos.
+     */
+    public void activarEventos(BusEventos<EventoJuego> bus, String sesion) {
+        this.busEventos = bus;
+        this.sesionEventos = sesion;
+    }
+
+    public Personaje getJugador() {
+        return jugador;
+    }
+
+    /**
+     * @return Enemigo del combate en curso, o null si no se está combatiendo.
+     */
+    public Enemigo getEnemigoActual() {
+        return enemigoActual;
+    }
+
+    /**
+     * @return Misión en curso, o null si todavía no hay ninguna.
+     */
+    public Mision getMisionActual() {
+        return gestorMisiones == null ? null : gestorMisiones.getMisionActual();
+    }
+
+    public int getNivelActual() {
+        return nivelActual;
+    }
+
+    /**
+     * @return Eventos publicados en el bus de la partida.
+     */
+    public long getEventosPublicados() {
+        return eventosPublicados;
+    }
+
+    /**
+     * @return Vida que han perdido los enemigos en los turnos del héroe, en centésimas.
+     */
+    public long getDanioInfligido() {
+        return danioInfligido;
+    }
+
+    /**
+     * @return Vida que ha perdido el héroe en los turnos de los enemigos, en centésimas.
+     */
+    public long getDanioRecibido() {
+        return danioRecibido;
+    }
+
     // --- LÓGICA DEL JUEGO ---
 
     /**
@@ -90,10 +291,12 @@ public class Juego {
 
         // Inicializamos componentes lógicos
         this.gestorMisiones = new GestorMisiones(jugador);
-        int nivelActual = 1;
+        if (registroMisiones != null) gestorMisiones.setRegistro(registroMisiones, sesionMisiones);
+        this.nivelActual = 1;
 
         // Cargamos el primer nivel
         cargarNivel(nivelActual);
+        if (panel != null) panel.abrir();
 
         boolean jugando = true;
 
@@ -101,9 +304,12 @@ public class Juego {
         while (jugando && jugador.estaVivo()) {
             // Mostramos el menú y guardamos si el jugador quiere seguir jugando
             jugando = mostrarMenuPrincipal();
+            contarTurno();
+            precargaNivel.comprobar(nivelActual + 1, jugador, gestorMisiones.getMisionActual(), azar);
 
             // Verificamos si la misión actual se ha completado
             if (gestorMisiones.finalizarMision()) {
+                autoguardar();
                 System.out.println("\n#################################################");
                 System.out.println("#      ✨ ¡SALA " + nivelActual + " COMPLETADA CON ÉXITO! ✨      #");
                 System.out.println("#################################################");
@@ -112,7 +318,7 @@ public class Juego {
                 nivelActual++; // Avanzamos de nivel
 
                 // Control de progreso: Niveles normales vs Jefe Final
-                if (nivelActual <= 3) {
+                if (nivelActual <= CatalogoNiveles.NUM_NIVELES) {
                     cargarNivel(nivelActual);
                 } else {
                     jefeFinal();     // Evento especial de fin de juego
@@ -120,6 +326,7 @@ public class Juego {
                 }
             }
         }
+        if (panel != null) panel.cerrar();
         System.out.println("\n>>> FIN DE LA PARTIDA <<<");
     }
 
@@ -133,7 +340,7 @@ public class Juego {
         do{
             System.out.println("¿Cuál es tu nombre, viajero?");
             System.out.print("> ");
-            nombre = sc.nextLine();
+            nombre = entrada.leerLinea();
 
         }while(nombre.isEmpty());
 
@@ -148,23 +355,13 @@ public class Juego {
             System.out.print("Elige tu clase [1-3]: ");
 
             try {
-                int opcion = Integer.parseInt(sc.nextLine());
+                int opcion = Integer.parseInt(entrada.leerLinea());
 
-                switch (opcion) {
-                    case 1:
-                        this.jugador = new Guerrero(nombre, new Arma("Espada de Madera", 8));
-                        opcionValida = true;
-                        break;
-                    case 2:
-                        this.jugador = new Mago(nombre);
-                        opcionValida = true;
-                        break;
-                    case 3:
-                        this.jugador = new Picaro(nombre, new Arma("Daga Lamentable", 4), new Arma("Daga Oxidada", 4));
-                        opcionValida = true;
-                        break;
-                    default:
-                        System.out.println("(!) Esa clase no existe en este reino.");
+                if (opcion >= 1 && opcion <= ClasePersonaje.values().length) {
+                    this.jugador = ClasePersonaje.values()[opcion - 1].crear(nombre);
+                    opcionValida = true;
+                } else {
+                    System.out.println("(!) Esa clase no existe en este reino.");
                 }
             } catch (NumberFormatException e) {
                 System.out.println("(!) Por favor, introduce un número válido.");
@@ -178,6 +375,11 @@ public class Juego {
      * @return true si el jugador decide continuar jugando; false si elige salir.
      */
     private boolean mostrarMenuPrincipal() {
+        if (panel != null) {
+            panel.dibujar(jugador, gestorMisiones, nivelActual, OPCIONES_MENU, null);
+            System.out.print("\n¿Qué deseas hacer?: ");
+            return procesarMenuPrincipal();
+        }
         System.out.println("\n┌──────────────────────────────────────────┐");
         System.out.println("│              MENÚ PRINCIPAL              │");
         System.out.println("├──────────────────────────────────────────┤");
@@ -187,9 +389,17 @@ public class Juego {
         System.out.println("│  4. 🚪  Salir del juego                  │");
         System.out.println("└──────────────────────────────────────────┘");
         System.out.print("¿Qué deseas hacer?: ");
+        return procesarMenuPrincipal();
+    }
 
+    /**
+     * Lee y ejecuta la opción elegida en el menú principal.
+     *
+     * @return true si el jugador decide continuar jugando; false si elige salir.
+     */
+    private boolean procesarMenuPrincipal() {
         try {
-            String input = sc.nextLine();
+            String input = entrada.leerLinea();
             if (input.isEmpty()) return true;
             int opcion = Integer.parseInt(input);
 
@@ -227,7 +437,7 @@ public class Juego {
         System.out.println("(Escribe el número del objeto o pulsa ENTER para cerrar la mochila)");
         System.out.print("> ");
 
-        String entrada = sc.nextLine();
+        String entrada = this.entrada.leerLinea();
 
         if (entrada.isEmpty()) {
             System.out.println("Cierras la mochila.");
@@ -243,121 +453,337 @@ public class Juego {
 
     /**
      * Lógica de exploración de una sala.
-     * Aplica los efectos pasivos de la sala y determina aleatoriamente si aparece un enemigo.
+     * Aplica los efectos pasivos de la sala y determina aleatoriamente si aparece un enemigo
+     * (o varios, en una emboscada).
      */
     private void explorar() {
         System.out.println("\n🌑 Te adentras en las sombras, antorcha en mano...");
 
         salaActual.aplicarEfecto(jugador);
+        recorrerSala();
 
         if (jugador.estaVivo()) {
-            Enemigo enemigo = eventoActual.avanzar(gestorMisiones);
+            List<Enemigo> encuentro = eventoActual.explorar(gestorMisiones);
 
-            if (enemigo != null) {
-                combatir(enemigo);
+            if (encuentro.size() == 1) {
+                combatir(encuentro.get(0));
+            } else if (!encuentro.isEmpty()) {
+                combatirEnGrupo(encuentro);
             } else {
                 System.out.println("No hay enemigos a la vista... por ahora.");
             }
         }
     }
 
+    /**
+     * El jugador avanza unos pasos por el camino más corto hacia el fondo de la sala y, al llegar,
+     * da la vuelta hacia la entrada. Los encuentros le salen allí donde esté.
+     */
+    private void recorrerSala() {
+        jugador.moverse();
+        for (int paso = 0; paso < PASOS_POR_EXPLORACION; paso++) {
+            if (!jugador.avanzarHacia(rutas, destinoExploracion)) {
+                int llegada = destinoExploracion;
+                destinoExploracion = origenExploracion;
+                origenExploracion = llegada;
+                break;
+            }
+        }
+    }
+
     /**
      * Sistema de combate por turnos entre el jugador y un enemigo.
      * El combate continúa hasta que uno de los dos personajes se queda sin vida.
      * Incluye opciones para atacar, usar objetos o descansar.
      *
-     * @param enemigo El objeto Personaje contra el que se va a luchar.
+     * El enemigo ocupa una casilla junto al jugador en la rejilla de la sala mientras dura el combate,
+     * así que las habilidades de área lo encuentran.
+     *
+     * @param enemigo El enemigo contra el que se va a luchar.
+     */
+    private void combatir(Enemigo enemigo) {
+        salaActual.colocarJunto(enemigo, jugador);
+        try {
+            lucharContra(enemigo);
+        } finally {
+            salaActual.getRejilla().eliminar(enemigo); // Caído o no, deja la sala al acabar el combate
+        }
+    }
+
+    /**
+     * Emboscada: varios enemigos rodean al jugador y el orden de turnos lo lleva {@link CombateGrupal}
+     * según la velocidad de cada uno. Cuando le toca al jugador, elige su acción como en un combate
+     * normal contra el enemigo más herido, que pasa a ser el enemigo actual; cada acción y cada
+     * golpe se publican igual que en {@link #lucharContra}.
+     * Los enemigos ocupan casillas de la rejilla de la sala mientras dura: el primero junto al jugador
+     * y los refuerzos algo más lejos, desde donde se acercan por el campo de flujo de la sala antes
+     * de poder golpear.
+     *
+     * @param enemigos Enemigos de la emboscada.
+     */
+    private void combatirEnGrupo(List<Enemigo> enemigos) {
+        System.out.println("\n⚔️ ¡EMBOSCADA! " + enemigos.size() + " enemigos te rodean. ⚔️");
+        System.out.println("    >>> COMIENZA EL COMBATE <<<");
+        CampoFlujo persecucion = salaActual.colocarEmboscada(enemigos, jugador);
+        for (Enemigo e : enemigos) anotar(DiarioCombate.Tipo.INICIO, e, null);
+        try {
+            List<Personaje> grupo = new ArrayList<>();
+            grupo.add(jugador);
+            CombateGrupal combate = new CombateGrupal(grupo, enemigos, PoliticaDecision.MAS_DEBIL,
+                    PoliticaDecision.PRIMERO_VIVO, gestorMisiones);
+            combate.controlar(jugador, (heroe, objetivo) -> turnoEnEmboscada(enemigos, objetivo));
+            combate.setPersecucion(persecucion);
+            combate.setObservador(new CombateGrupal.Observador() {
+                private double vidaAntesDelGolpe;
+
+                @Override
+                public void antesDeActuar(Enemigo enemigo, Personaje objetivo) {
+                    System.out.println("\n🔻 Turno de " + enemigo.getNombre() + "...");
+                    apuntar(enemigo, enemigo.getPuntosVida());
+                    vidaAntesDelGolpe = jugador.getPuntosVida();
+                }
+
+                @Override
+                public void despuesDeActuar(Enemigo enemigo, Personaje objetivo) {
+                    danioRecibido += DiarioCombate.centesimas(vidaAntesDelGolpe) - DiarioCombate.centesimas(jugador.getPuntosVida());
+                    anotar(DiarioCombate.Tipo.GOLPE, enemigo, null);
+                    if (!jugador.estaVivo()) {
+                        anotar(DiarioCombate.Tipo.DERROTA, enemigo, null);
+                        System.out.println("\n💀💀💀 -------------------------- 💀💀💀");
+                        System.out.println("      HAS MUERTO. Tu alma se desvanece.");
+                        System.out.println("💀💀💀 -------------------------- 💀💀💀");
+                    }
+                }
+
+                @Override
+                public void baja(Enemigo enemigo) {
+                    System.out.println("⭐ " + enemigo.getNombre() + " ha caído.");
+                    anotar(DiarioCombate.Tipo.VICTORIA, enemigo, null);
+                }
+            });
+            combate.resolver();
+        } finally {
+            enemigoActual = null;
+            for (Enemigo e : enemigos) salaActual.getRejilla().eliminar(e);
+        }
+    }
+
+    /**
+     * Turno del jugador en una emboscada. Si una habilidad de área alcanza a otros enemigos además
+     * del objetivo, cada uno se publica como un HABILIDAD más, precedido de su OBJETIVO con la vida
+     * que tenía antes, para que el diario recoja todo el daño.
+     *
+     * @param enemigos Enemigos de la emboscada.
+     * @param objetivo Enemigo al que se dirige el jugador.
+     */
+    private void turnoEnEmboscada(List<Enemigo> enemigos, Enemigo objetivo) {
+        enemigoActual = objetivo;
+        contarTurno();
+        apuntar(objetivo, objetivo.getPuntosVida());
+        double[] vidas = new double[enemigos.size()];
+        for (int i = 0; i < vidas.length; i++) vidas[i] = enemigos.get(i).getPuntosVida();
+
+        turnoJugador(objetivo);
+
+        for (int i = 0; i < vidas.length; i++) {
+            Enemigo e = enemigos.get(i);
+            danioInfligido += DiarioCombate.centesimas(vidas[i]) - DiarioCombate.centesimas(e.getPuntosVida());
+            if (e != objetivo && e.getPuntosVida() != vidas[i]) {
+                apuntar(e, vidas[i]);
+                anotar(DiarioCombate.Tipo.HABILIDAD, e, null);
+            }
+        }
+    }
+
+    /**
+     * Turnos del combate contra un enemigo ya colocado en la sala.
      */
-    private void combatir(Personaje enemigo) {
+    private void lucharContra(Enemigo enemigo) {
         System.out.println("\n⚔️ ¡ALERTA! Un " + enemigo.getNombre().toUpperCase() + " bloquea tu camino. ⚔️");
         System.out.println("    >>> COMIENZA EL COMBATE <<<");
+        enemigoActual = enemigo;
+        anotar(DiarioCombate.Tipo.INICIO, enemigo, null);
 
         while (jugador.estaVivo() && enemigo.estaVivo()) {
-            boolean turnoTerminado = false;
+            jugador.avanzarEnfriamientos();
+            contarTurno();
 
             // --- TURNO DEL JUGADOR ---
-            while (!turnoTerminado) {
-                System.out.println("\n--- TU TURNO (PV: " + (int)jugador.getPuntosVida() + ") ---");
-                System.out.println(" [1] ⚔️ Atacar");
-                System.out.println(" [2] 🧪 Usar Objeto");
-                System.out.println(" [3] 💤 Defender y Descansar");
-                System.out.print("Orden: ");
-
-                try {
-                    String input = sc.nextLine();
-                    if(input.isEmpty()) continue;
-                    int opcion = Integer.parseInt(input);
-
-                    switch (opcion) {
-                        case 1:
-                            System.out.println("¡Te lanzas al ataque!");
-                            jugador.atacar(enemigo);
-                            turnoTerminado = true;
-                            break;
-                        case 2:
-                            jugador.mostrarInventario();
-                            System.out.println("Elige objeto (ENTER para cancelar):");
-                            String entradaCombate = sc.nextLine();
-
-                            if (entradaCombate.isEmpty()) {
-                                System.out.println("Vuelves a empuñar tu arma.");
-                            } else {
-                                try {
-                                    int idx = Integer.parseInt(entradaCombate);
-                                    jugador.usarObjetoDeMochila(idx);
-                                    turnoTerminado = true;
-                                } catch (NumberFormatException e) {
-                                    System.out.println("(!) Opción inválida.");
-                                }
-                            }
-                            break;
-                        case 3:
-                            System.out.println(jugador.getNombre() + " toma una posición defensiva para recuperar aliento.");
-                            jugador.descansar();
-                            turnoTerminado = true;
-                            break;
-                        default:
-                            System.out.println("(!) No puedes hacer eso en combate.");
-                    }
-                } catch (NumberFormatException e) {
-                    System.out.println("(!) Elige una opción válida.");
-                }
-            }
+            double vidaEnemigo = enemigo.getPuntosVida();
+            turnoJugador(enemigo);
+            danioInfligido += DiarioCombate.centesimas(vidaEnemigo) - DiarioCombate.centesimas(enemigo.getPuntosVida());
 
             // --- COMPROBACIÓN POST-ATAQUE JUGADOR ---
             if (!enemigo.estaVivo()) {
                 System.out.println("\n⭐⭐⭐ ¡VICTORIA! El enemigo ha caído. ⭐⭐⭐");
+                anotar(DiarioCombate.Tipo.VICTORIA, enemigo, null);
+                enemigoActual = null;
 
-                if (enemigo instanceof Enemigo) {
-                    Enemigo e = (Enemigo) enemigo;
-                    jugador.ganarExperiencia((int) e.getExperienciaRecompensa());
-                    gestorMisiones.notificarEvento(enemigo);
-
-                    Item botin = e.soltarBotin(jugador);
-                    if (botin != null) {
-                        System.out.println("🎁 ¡Has encontrado: " + botin.getNombre() + "!");
-                        jugador.recogerItem(botin);
-                    }
-                }
+                CombateAutomatico.recompensar(jugador, enemigo, gestorMisiones);
                 return;
             }
 
             // --- TURNO DEL ENEMIGO ---
             System.out.println("\n🔻 Turno de " + enemigo.getNombre() + "...");
 
-            if (enemigo.getPuntosVida() <= (enemigo.getPuntosVidaMax() * 0.3) && Math.random() < 0.15) {
-                System.out.println(enemigo.getNombre() + " jadea y trata de curarse sus heridas.");
-                enemigo.descansar();
-            } else {
-                enemigo.atacar(jugador);
-            }
+            double vidaJugador = jugador.getPuntosVida();
+            enemigo.realizarTurno(jugador);
+            danioRecibido += DiarioCombate.centesimas(vidaJugador) - DiarioCombate.centesimas(jugador.getPuntosVida());
+            anotar(DiarioCombate.Tipo.GOLPE, enemigo, null);
 
             if (!jugador.estaVivo()) {
+                anotar(DiarioCombate.Tipo.DERROTA, enemigo, null);
                 System.out.println("\n💀💀💀 -------------------------- 💀💀💀");
                 System.out.println("      HAS MUERTO. Tu alma se desvanece.");
                 System.out.println("💀💀💀 -------------------------- 💀💀💀");
             }
         }
+        enemigoActual = null;
+    }
+
+    /**
+     * Lee órdenes del jugador hasta que realiza una acción de combate que gasta el turno
+     * (consultar al oráculo o cancelar no lo gastan) y la publica.
+     *
+     * @param enemigo Enemigo al que se dirigen los ataques.
+     */
+    private void turnoJugador(Enemigo enemigo) {
+        boolean turnoTerminado = false;
+        while (!turnoTerminado) {
+            if (panel != null) {
+                panel.dibujar(jugador, gestorMisiones, nivelActual, OPCIONES_COMBATE, enemigo);
+                System.out.print("\nOrden: ");
+            } else {
+                System.out.println("\n--- TU TURNO (PV: " + (int)jugador.getPuntosVida() + ") ---");
+                System.out.println(" [1] ⚔️ Atacar");
+                System.out.println(" [2] 🧪 Usar Objeto");
+                System.out.println(" [3] 💤 Defender y Descansar");
+                System.out.println(" [4] ✨ Habilidades");
+                System.out.println(" [5] 🔮 Consultar al Oráculo");
+                System.out.print("Orden: ");
+            }
+
+            try {
+                String input = entrada.leerLinea();
+                if(input.isEmpty()) continue;
+                int opcion = Integer.parseInt(input);
+
+                switch (opcion) {
+                    case 1:
+                        System.out.println("¡Te lanzas al ataque!");
+                        jugador.atacar(enemigo);
+                        anotar(DiarioCombate.Tipo.ATAQUE, enemigo, null);
+                        turnoTerminado = true;
+                        break;
+                    case 2:
+                        jugador.mostrarInventario();
+                        System.out.println("Elige objeto (ENTER para cancelar):");
+                        String entradaCombate = entrada.leerLinea();
+
+                        if (entradaCombate.isEmpty()) {
+                            System.out.println("Vuelves a empuñar tu arma.");
+                        } else {
+                            try {
+                                int idx = Integer.parseInt(entradaCombate);
+                                String objeto = (idx >= 0 && idx < jugador.getInventario().getCantidad())
+                                        ? jugador.getInventario().getItem(idx).getNombre() : null;
+                                if (jugador.usarObjetoDeMochila(idx)) anotar(DiarioCombate.Tipo.OBJETO, enemigo, objeto);
+                                turnoTerminado = true;
+                            } catch (NumberFormatException e) {
+                                System.out.println("(!) Opción inválida.");
+                            }
+                        }
+                        break;
+                    case 3:
+                        System.out.println(jugador.getNombre() + " toma una posición defensiva para recuperar aliento.");
+                        jugador.descansar();
+                        anotar(DiarioCombate.Tipo.DESCANSO, enemigo, null);
+                        turnoTerminado = true;
+                        break;
+                    case 4:
+                        turnoTerminado = elegirHabilidad(enemigo);
+                        if (turnoTerminado) anotar(DiarioCombate.Tipo.HABILIDAD, enemigo, null);
+                        break;
+                    case 5:
+                        consultarOraculo(enemigo);
+                        break;
+                    default:
+                        System.out.println("(!) No puedes hacer eso en combate.");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("(!) Elige una opción válida.");
+            }
+        }
+    }
+
+    /**
+     * Publica una acción del combate en el bus, si la partida tiene uno. Los diarios de combate
+     * se montan desde el bus (ver SuscriptorDiario).
+     *
+     * @param objeto Objeto usado (solo en OBJETO; null en el resto).
+     */
+    private void anotar(DiarioCombate.Tipo tipo, Enemigo enemigo, String objeto) {
+        if (busEventos == null) return;
+        if (tipo == DiarioCombate.Tipo.INICIO) enemigoAnotado = enemigo;
+        else apuntar(enemigo, enemigo.getPuntosVida());
+        publicar(tipo, enemigo, objeto, enemigo.getPuntosVida());
+    }
+
+    /**
+     * Publica un OBJETIVO si la próxima acción es de un enemigo distinto al de la última publicada.
+     *
+     * @param vidaEnemigo Vida del enemigo antes de la acción.
+     */
+    private void apuntar(Enemigo enemigo, double vidaEnemigo) {
+        if (busEventos == null || enemigo == enemigoAnotado) return;
+        enemigoAnotado = enemigo;
+        publicar(DiarioCombate.Tipo.OBJETIVO, enemigo, null, vidaEnemigo);
+    }
+
+    private void publicar(DiarioCombate.Tipo tipo, Enemigo enemigo, String objeto, double vidaEnemigo) {
+        busEventos.publicar(new EventoJuego(sesionEventos, ++eventosPublicados, turnos, tipo, enemigo.getTipoId(),
+                objeto, jugador.getPuntosVida(), vidaEnemigo));
+    }
+
+    /**
+     * Muestra las habilidades del jugador en combate y lanza la elegida.
+     *
+     * @param enemigo Enemigo contra el que se lanza la habilidad.
+     * @return true si se usó una habilidad (el turno termina); false si se canceló.
+     */
+    private boolean elegirHabilidad(Enemigo enemigo) {
+        Habilidad[] habilidades = jugador.getHabilidades();
+        System.out.println("   --- Habilidades ---");
+        for (int i = 0; i < habilidades.length; i++) {
+            int recarga = jugador.getEnfriamiento(i);
+            System.out.println("   " + i + ". " + habilidades[i] + (recarga > 0 ? "  <recargando: " + recarga + ">" : ""));
+        }
+        System.out.println("Elige habilidad (ENTER para cancelar):");
+        String entrada = this.entrada.leerLinea();
+        if (entrada.isEmpty()) {
+            System.out.println("Vuelves a empuñar tu arma.");
+            return false;
+        }
+        try {
+            return jugador.usarHabilidad(Integer.parseInt(entrada), enemigo);
+        } catch (NumberFormatException e) {
+            System.out.println("(!) Opción inválida.");
+            return false;
+        }
+    }
+
+    /**
+     * Pide consejo al asesor de combate (no consume el turno).
+     * Simula el combate durante 50 ms y muestra la acción recomendada.
+     *
+     * @param enemigo Enemigo al que se enfrenta el jugador.
+     */
+    private void consultarOraculo(Enemigo enemigo) {
+        EstadoCombate estado = EstadoCombate.desde(jugador, enemigo, gestorMisiones.getMisionActual());
+        AsesorCombate.Consejo consejo = AsesorCombate.aconsejar(estado, 50);
+        System.out.println("🔮 El Oráculo contempla " + consejo.getSimulaciones() + " destinos posibles...");
+        System.out.println("   Aconseja: " + consejo.describir(estado)
+                + " (probabilidad de victoria: " + Math.round(consejo.getProbabilidadVictoria() * 100) + "%)");
     }
 
     /**
@@ -370,38 +796,49 @@ public class Juego {
         System.out.println("      ENTRANDO EN EL NIVEL " + nivel);
         System.out.println("🌀 ------------------------------------------- 🌀");
 
-        this.salaActual = new Sala(nivel, jugador.getNivel());
+        // Si el nivel ya se preparó en segundo plano, se usa tal cual
+        PrecargadorNivel.NivelPreparado preparado = precargaNivel.tomar(nivel, jugador.getNivel());
+        this.salaActual = preparado != null ? preparado.getSala() : new Sala(nivel, jugador.getNivel(), azar.split());
         this.eventoActual = null;
+        jugador.setPosicion(1, 1); // Entrada de la sala
+        salaActual.getRejilla().insertar(jugador); // Se da de baja de la sala anterior
+        rutas = new BuscadorRutas(salaActual.getMapa());
+        origenExploracion = salaActual.getMapa().indice(1, 1);
+        destinoExploracion = salaActual.campoHacia(jugador).getMasLejana();
+
+        System.out.println(salaActual.getDescripcion());
+        MisionCaza mision = preparado != null ? preparado.getMision() : CatalogoNiveles.crearMision(nivel, salaActual);
+        gestorMisiones.asignarMision(mision);
+        eventoActual = new Evento(salaActual, mision, jugador, azar);
+        if (encuentros != null) encuentros.cancelar();
+        encuentros = new PrecargadorEncuentros(salaActual, azar.split());
+        eventoActual.setEncuentros(encuentros);
+        System.out.println("📜 Nueva Misión Inscrita: " + gestorMisiones.getMisionActual().getTitulo());
+        autoguardar();
+    }
 
-        switch (nivel) {
-            case 1:
-                System.out.println(salaActual.getDescripcion());
-                Enemigo obj1 = new Enemigo("Orco Raso", 1);
-                MisionCaza m1 = new MisionCaza("Limpieza de Túneles", "Acaba con la plaga de 2 Orcos.",
-                        2, obj1, 50, new Pocion("Poción Vital", 50, TipoPocion.VIDA), salaActual);
-                gestorMisiones.asignarMision(m1);
-                eventoActual = new Evento(salaActual, m1, jugador);
-                break;
-
-            case 2:
-                System.out.println(salaActual.getDescripcion());
-                Enemigo obj2 = new Enemigo("Espectro Acechador", 2);
-                MisionCaza m2 = new MisionCaza("Exorcismo", "Libera las almas de 2 Espectros.",
-                        2, obj2, 100, new Pocion("Elixir Mayor", 100, TipoPocion.VIDA), salaActual);
-                gestorMisiones.asignarMision(m2);
-                eventoActual = new Evento(salaActual, m2, jugador);
-                break;
+    /**
+     * Cuenta un turno y programa el guardado periódico.
+     */
+    private void contarTurno() {
+        turnos++;
+        if (turnos % AutoGuardado.TURNOS_ENTRE_GUARDADOS == 0) autoguardar();
+    }
 
-            case 3:
-                System.out.println(salaActual.getDescripcion());
-                Enemigo obj3 = new Enemigo("Caballero Corrupto", 3);
-                MisionCaza m3 = new MisionCaza("La Guardia Real", "Derrota a 3 Caballeros Corruptos.",
-                        3, obj3, 200, new Arma("Hoja de Luz", 15), salaActual);
-                gestorMisiones.asignarMision(m3);
-                eventoActual = new Evento(salaActual, m3, jugador);
-                break;
-        }
-        System.out.println("📜 Nueva Misión Inscrita: " + gestorMisiones.getMisionActual().getTitulo());
+    /**
+     * Captura el estado de la partida y lo entrega al autoguardado (no espera a que se escriba).
+     * Solo se guardan los campos que han cambiado desde el guardado anterior.
+     */
+    private void autoguardar() {
+        if (autoGuardado == null || !jugador.estaVivo()) return;
+        Mision mision = gestorMisiones.getMisionActual();
+        long cambios = jugador.tomarCambios();
+        if (mision != null && mision.tomarCambio() || mision != misionGuardada) cambios |= CampoPartida.MISION.bit();
+        if (nivelActual != salaGuardada) cambios |= CampoPartida.SALA.bit();
+        misionGuardada = mision;
+        salaGuardada = nivelActual;
+        if (cambios == 0) return; // Nada nuevo que guardar
+        autoGuardado.programar(sesion, InstantaneaPartida.capturar(jugador, mision, nivelActual, turnos), cambios);
     }
 
     /**
@@ -419,7 +856,8 @@ public class Juego {
         System.out.println("🔥⚡🔥 --------------------------------------------------- 🔥⚡🔥");
 
         // Instanciamos al JEFE
-        Jefe boss = new Jefe("Lord Malacor", 8);
+        Jefe boss = new Jefe(TipoEnemigo.LORD_MALACOR, 8);
+        boss.setAzar(azar);
 
         combatir(boss);
 
@@ -1,6 +1,7 @@
 /**
  * Subclase de Personaje especializada en el uso de magia.
  * Utiliza 'Maná' como recurso para realizar ataques potentes.
+ * No puede empuñar armas, pero sí llevar armadura y abalorio.
  *
  * @author Javier Fernández Gavino
  * @version 1.0
@@ -21,7 +22,7 @@ public class Mago extends Personaje {
      * @param nombre Nombre del mago.
      */
     public Mago(String nombre) {
-        super(nombre, 1, 80, 1); // Vida baja, defensa baja
+        super(nombre, 1, 80, 1, 9, new RanuraEquipo[] {RanuraEquipo.ARMADURA, RanuraEquipo.ABALORIO}); // Vida baja, defensa baja
         this.puntosManaMax = 100;
         this.puntosMana = 100;
     }
@@ -32,12 +33,19 @@ public class Mago extends Personaje {
      */
     public double getPuntosMana() { return puntosMana; }
 
+    /**
+     * Obtiene los puntos de maná máximos.
+     * @return Maná máximo.
+     */
+    public double getPuntosManaMax() { return puntosManaMax; }
+
     /**
      * Establece los puntos de maná actuales, asegurando que no excedan el máximo ni sean negativos.
      * @param puntosMana Nuevos puntos de maná.
      */
     public void setPuntosMana(double puntosMana) {
         this.puntosMana = Math.max(0, Math.min(puntosManaMax, puntosMana));
+        marcarCambio(CampoPartida.RECURSO);
     }
 
     /**
@@ -48,6 +56,7 @@ public class Mago extends Personaje {
         double manaAntes = this.puntosMana;
         this.puntosMana += cantidad;
         if (this.puntosMana > this.puntosManaMax) this.puntosMana = this.puntosManaMax;
+        marcarCambio(CampoPartida.RECURSO);
 
         System.out.println(getNombre() + " recupera " + (int)(this.puntosMana - manaAntes) + " maná.");
     }
@@ -62,26 +71,56 @@ public class Mago extends Personaje {
         if (!this.estaVivo()) return;
 
         if (puntosMana >= 10) {
-            int inteligencia = 35 + (5 * getNivel());
-            puntosMana -= 10;
+            int inteligencia = (int) Formulas.MAGO_INTELIGENCIA.evaluar(getNivel());
+            setPuntosMana(puntosMana - 10);
             System.out.println(getNombre() + " lanza una bola de fuego! (Maná restante: " + (int)puntosMana + ")");
             objetivo.recibirDanio(inteligencia);
         } else {
             System.out.println(getNombre() + " no tiene maná y golpea torpemente con su bastón.");
-            objetivo.recibirDanio(2 + getNivel());
+            objetivo.recibirDanio((int) Formulas.MAGO_BASTON.evaluar(getNivel()));
         }
     }
 
+    /**
+     * Habilidades del mago.
+     * @return La tabla de habilidades del mago.
+     */
+    @Override
+    public Habilidad[] getHabilidades() {
+        return Habilidades.MAGO;
+    }
+
+    /**
+     * Maná disponible para las habilidades.
+     * @param recurso Recurso consultado.
+     * @return Maná actual si se pide MANA.
+     */
+    @Override
+    protected double getRecurso(TipoRecurso recurso) {
+        return recurso == TipoRecurso.MANA ? puntosMana : super.getRecurso(recurso);
+    }
+
+    /**
+     * Gasta maná al lanzar una habilidad.
+     * @param recurso Recurso a gastar.
+     * @param coste Cantidad a gastar.
+     */
+    @Override
+    protected void gastarRecurso(TipoRecurso recurso, double coste) {
+        if (recurso == TipoRecurso.MANA) setPuntosMana(puntosMana - coste);
+    }
+
     /**
      * Sube de nivel al mago, aumentando su vida y maná máximos.
      */
     @Override
     public void subirNivel() {
         super.subirNivel();
-        setPuntosVidaMax(getPuntosVidaMax() + 10);
+        setPuntosVidaMax(getPuntosVidaMax() + Formulas.MAGO_VIDA_NIVEL.evaluar(getNivel()));
         setPuntosVida(getPuntosVidaMax());
-        this.puntosManaMax += 25;
-        this.puntosMana = this.puntosManaMax;
+        this.puntosManaMax += Formulas.MAGO_MANA_NIVEL.evaluar(getNivel());
+        marcarCambio(CampoPartida.RECURSO_MAX);
+        setPuntosMana(this.puntosManaMax);
         System.out.println("¡" + getNombre() + " aumenta su poder arcano! (+Maná)");
     }
 
@@ -91,7 +130,7 @@ public class Mago extends Personaje {
     @Override
     public void descansar() {
         super.descansar(); // Recupera vida
-        this.puntosMana = this.puntosManaMax; // Recupera maná completamente
+        setPuntosMana(this.puntosManaMax); // Recupera maná completamente
         System.out.println("   [Mago]: Maná restaurado.");
     }
 }
\ No newline at end of file
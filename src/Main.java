@@ -1,15 +1,29 @@
+import java.nio.file.Path;
+
 /**
  * Punto de entrada de la aplicación "Leyendas Olvidadas".
  * Su única responsabilidad es invocar la instancia única del Juego.
- *
+ * -
+ * Opciones: --hud (panel de estado fijo) y --autoguardado (guarda la partida en la carpeta "partidas").
  */
 public class Main {
     public static void main(String[] args) {
         // 1. Obtenemos la única instancia del juego
         Juego partida = Juego.getInstancia();
 
+        AutoGuardado autoGuardado = null;
+        for (String arg : args) {
+            if (arg.equals("--hud")) partida.activarPanel();
+            if (arg.equals("--autoguardado") && autoGuardado == null) {
+                autoGuardado = AutoGuardado.iniciar(Path.of("partidas"));
+                partida.activarAutoguardado(autoGuardado, "partida");
+            }
+        }
+
         // 2. Iniciamos el juego
         partida.iniciarJuego();
 
+        // 3. Esperamos a que se escriba el último guardado
+        if (autoGuardado != null) autoGuardado.close();
     }
-}
\ No newline at end of file
+}
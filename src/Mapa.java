@@ -0,0 +1,195 @@
+import java.util.SplittableRandom;
+
+/**
+ * Mapa de casillas de una sala de la mazmorra.
+ * Cada casilla se identifica por un índice entero (fila * ancho + columna)
+ * y guarda si es transitable o un muro.
+ *
+ * @version 1.0
+ */
+public class Mapa {
+
+    /**
+     * Ancho del mapa en casillas.
+     */
+    private final int ancho;
+    /**
+     * Alto del mapa en casillas.
+     */
+    private final int alto;
+    /**
+     * Marca de muro por casilla (true = bloqueada).
+     */
+    private final boolean[] muros;
+
+    /**
+     * Crea un mapa vacío (todas las casillas transitables).
+     *
+     * @param ancho Número de columnas.
+     * @param alto  Número de filas.
+     */
+    public Mapa(int ancho, int alto) {
+        if (ancho <= 0 || alto <= 0) {
+            throw new IllegalArgumentException("El mapa debe tener al menos una casilla.");
+        }
+        this.ancho = ancho;
+        this.alto = alto;
+        this.muros = new boolean[ancho * alto];
+    }
+
+    /**
+     * Genera una sala rodeada de muros con columnas de piedra aleatorias en su interior.
+     *
+     * @param ancho     Número de columnas.
+     * @param alto      Número de filas.
+     * @param densidad  Probabilidad (0-1) de que una casilla interior sea una columna.
+     * @return El mapa generado.
+     */
+    public static Mapa generarSala(int ancho, int alto, double densidad) {
+        return generarSala(ancho, alto, densidad, new SplittableRandom());
+    }
+
+    /**
+     * Genera una sala con las columnas sacadas de un generador concreto (mismo generador, mismo mapa).
+     *
+     * @param ancho     Número de columnas.
+     * @param alto      Número de filas.
+     * @param densidad  Probabilidad (0-1) de que una casilla interior sea una columna.
+     * @param azar      Generador aleatorio.
+     * @return El mapa generado.
+     */
+    public static Mapa generarSala(int ancho, int alto, double densidad, SplittableRandom azar) {
+        Mapa mapa = new Mapa(ancho, alto);
+        for (int y = 0; y < alto; y++) {
+            for (int x = 0; x < ancho; x++) {
+                boolean borde = x == 0 || y == 0 || x == ancho - 1 || y == alto - 1;
+                if (borde || azar.nextDouble() < densidad) {
+                    mapa.setMuro(x, y, true);
+                }
+            }
+        }
+        // La entrada (esquina superior izquierda interior) siempre queda libre
+        if (ancho > 2 && alto > 2) mapa.setMuro(1, 1, false);
+        return mapa;
+    }
+
+    // Getters
+    public int getAncho() {
+        return ancho;
+    }
+    public int getAlto() {
+        return alto;
+    }
+
+    /**
+     * Número total de casillas del mapa.
+     *
+     * @return ancho * alto.
+     */
+    public int getNumeroCasillas() {
+        return muros.length;
+    }
+
+    /**
+     * Convierte coordenadas en índice de casilla.
+     *
+     * @param x Columna.
+     * @param y Fila.
+     * @return Índice de la casilla.
+     */
+    public int indice(int x, int y) {
+        return y * ancho + x;
+    }
+
+    /**
+     * Columna de una casilla.
+     *
+     * @param indice Índice de la casilla.
+     * @return Columna.
+     */
+    public int columna(int indice) {
+        return indice % ancho;
+    }
+
+    /**
+     * Fila de una casilla.
+     *
+     * @param indice Índice de la casilla.
+     * @return Fila.
+     */
+    public int fila(int indice) {
+        return indice / ancho;
+    }
+
+    /**
+     * Comprueba si unas coordenadas caen dentro del mapa.
+     *
+     * @param x Columna.
+     * @param y Fila.
+     * @return true si están dentro de los límites.
+     */
+    public boolean dentro(int x, int y) {
+        return x >= 0 && y >= 0 && x < ancho && y < alto;
+    }
+
+    /**
+     * Indica si se puede pisar la casilla.
+     *
+     * @param indice Índice de la casilla.
+     * @return true si no es un muro.
+     */
+    public boolean esTransitable(int indice) {
+        return !muros[indice];
+    }
+
+    /**
+     * Indica si se puede pisar la casilla en las coordenadas dadas.
+     *
+     * @param x Columna.
+     * @param y Fila.
+     * @return true si está dentro del mapa y no es un muro.
+     */
+    public boolean esTransitable(int x, int y) {
+        return dentro(x, y) && !muros[indice(x, y)];
+    }
+
+    /**
+     * Coloca o quita un muro.
+     *
+     * @param x    Columna.
+     * @param y    Fila.
+     * @param muro true para bloquear la casilla.
+     */
+    public void setMuro(int x, int y, boolean muro) {
+        muros[indice(x, y)] = muro;
+    }
+
+    /**
+     * Escribe en el array los vecinos transitables (4 direcciones) de una casilla.
+     * No reserva memoria: el llamador aporta un array de al menos 4 posiciones.
+     *
+     * @param indice  Casilla de origen.
+     * @param salida  Array donde se escriben los índices vecinos.
+     * @return Número de vecinos escritos.
+     */
+    public int vecinos(int indice, int[] salida) {
+        int x = indice % ancho;
+        int n = 0;
+        if (x > 0 && !muros[indice - 1]) salida[n++] = indice - 1;
+        if (x < ancho - 1 && !muros[indice + 1]) salida[n++] = indice + 1;
+        if (indice >= ancho && !muros[indice - ancho]) salida[n++] = indice - ancho;
+        if (indice + ancho < muros.length && !muros[indice + ancho]) salida[n++] = indice + ancho;
+        return n;
+    }
+
+    /**
+     * Distancia Manhattan entre dos casillas (heurística admisible con 4 direcciones).
+     *
+     * @param a Primera casilla.
+     * @param b Segunda casilla.
+     * @return Distancia en pasos sin obstáculos.
+     */
+    public int distanciaManhattan(int a, int b) {
+        return Math.abs(a % ancho - b % ancho) + Math.abs(a / ancho - b / ancho);
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Suscriptor del {@link BusEventos} que cuenta las acciones de los combates.
+ * -
+ * Pide todos los eventos (la cola del bus ya pone el límite) y solo suma contadores, así que
+ * normalmente va por delante de las partidas. Los contadores se pueden leer en cualquier momento
+ * desde otro hilo; son exactos cuando {@link #esperar} ha vuelto.
+ *
+ * @version 1.0
+ */
+public class MetricasEventos implements Flow.Subscriber<EventoJuego> {
+
+    private static final DiarioCombate.Tipo[] ACCIONES = DiarioCombate.Tipo.values();
+
+    private final AtomicLongArray porAccion = new AtomicLongArray(ACCIONES.length);
+    private final AtomicLongArray abatidosPorTipo = new AtomicLongArray(TipoEnemigo.MAX_TIPOS);
+    private final CountDownLatch terminado = new CountDownLatch(1);
+    private volatile Throwable error;
+
+    @Override
+    public void onSubscribe(Flow.Subscription suscripcion) {
+        suscripcion.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(EventoJuego evento) {
+        porAccion.incrementAndGet(evento.getAccion().ordinal());
+        if (evento.getAccion() == DiarioCombate.Tipo.VICTORIA) abatidosPorTipo.incrementAndGet(evento.getTipoEnemigo());
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        this.error = error;
+        terminado.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        terminado.countDown();
+    }
+
+    /**
+     * Espera a que el bus se cierre y se hayan contado todos los eventos entregados.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void esperar() throws InterruptedException {
+        terminado.await();
+    }
+
+    /**
+     * @param accion Tipo de acción.
+     * @return Veces que se ha visto.
+     */
+    public long getAcciones(DiarioCombate.Tipo accion) {
+        return porAccion.get(accion.ordinal());
+    }
+
+    /**
+     * @param tipo Tipo de enemigo.
+     * @return Enemigos de ese tipo abatidos.
+     */
+    public long getAbatidos(TipoEnemigo tipo) {
+        return abatidosPorTipo.get(tipo.getId());
+    }
+
+    /**
+     * @return El error que cortó la suscripción, o null.
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return Acciones por tipo y bajas por tipo de enemigo, en una línea cada cosa.
+     */
+    public String describir() {
+        StringBuilder sb = new StringBuilder("Acciones:");
+        for (DiarioCombate.Tipo accion : ACCIONES) sb.append(' ').append(accion).append('=').append(getAcciones(accion));
+        sb.append("\nAbatidos:");
+        for (int id = 0; id < TipoEnemigo.getCantidad(); id++) {
+            long n = abatidosPorTipo.get(id);
+            if (n > 0) sb.append(' ').append(TipoEnemigo.porId(id).getNombre()).append('=').append(n);
+        }
+        return sb.toString();
+    }
+}
@@ -40,6 +40,10 @@ public abstract class Mision {
      * Sala asociada a la misión.
      */
     private Sala sala;
+    /**
+     * Indica si el título, el progreso, el objetivo o el estado han cambiado desde el último guardado.
+     */
+    private boolean modificada = true;
 
     // Constructores
     /**
@@ -91,15 +95,18 @@ public abstract class Mision {
     // Setters
     public void setTitulo(String titulo) {
         this.titulo = titulo;
+        this.modificada = true;
     }
     public void setDescripcion(String descripcion) {
         this.descripcion = descripcion;
     }
     public void setProgresoActual(int progreso) {
         this.progresoActual = progreso;
+        this.modificada = true;
     }
     public void setObjetivoCantidad(int objetivoCantidad) {
         this.objetivoCantidad = objetivoCantidad;
+        this.modificada = true;
     }
     public void setXpRecompensa(int xpRecompensa) {
         this.xpRecompensa = xpRecompensa;
@@ -109,11 +116,23 @@ public abstract class Mision {
     }
     public void setEstado(EstadoMision estado) {
         this.estado = estado;
+        this.modificada = true;
     }
     public  void setSala(Sala sala) {
         this.sala = sala;
     }
 
+    /**
+     * Indica si la misión ha cambiado desde la última llamada y la da por guardada.
+     *
+     * @return true si hay cambios que guardar.
+     */
+    public boolean tomarCambio() {
+        boolean c = modificada;
+        modificada = false;
+        return c;
+    }
+
     // Métodos
     //
     /**
@@ -155,7 +174,7 @@ public abstract class Mision {
                 jugador.recogerItem(itemRecompensa);
                 System.out.println("   [+] Has recibido: " + itemRecompensa.getNombre());
             }
-            this.estado = EstadoMision.RECOMPENSA_ENTREGADA;
+            setEstado(EstadoMision.RECOMPENSA_ENTREGADA);
         }
     }
     /**
@@ -167,7 +186,7 @@ public abstract class Mision {
      */
     protected void aceptar(Personaje jugador) {
         if (this.estado == EstadoMision.DISPONIBLE) {
-            this.estado = EstadoMision.EN_CURSO;
+            setEstado(EstadoMision.EN_CURSO);
             System.out.println("\n[!] Has aceptado la misión: " + titulo);
         }
     }
@@ -182,7 +201,7 @@ public abstract class Mision {
         if (this.estado == EstadoMision.EN_CURSO) {
             actualizarProgreso(evento);
             if (progresoActual >= objetivoCantidad)
-                this.estado = EstadoMision.COMPLETADA;
+                setEstado(EstadoMision.COMPLETADA);
         }
     }
 }
@@ -9,9 +9,9 @@ public class MisionCaza extends Mision {
 
     // Atributos
     /**
-     * Nombre del enemigo que debe ser cazado para completar la misión.
+     * Tipo de enemigo que debe ser cazado para completar la misión.
      */
-    private Enemigo enemigo;
+    private TipoEnemigo objetivo;
     // Constructores
     /**
      * Crea una misión de caza con los detalles proporcionados.
@@ -19,39 +19,37 @@ public class MisionCaza extends Mision {
      * @param titulo    Título de la misión.
      * @param desc      Descripción de la misión.
      * @param cantidad  Cantidad de enemigos a cazar.
-     * @param enemigo   Nombre del enemigo a cazar.
+     * @param objetivo  Tipo de enemigo a cazar.
      * @param xp        Experiencia otorgada al completar la misión.
      * @param item      Objeto otorgado como recompensa al completar la misión.
      */
-    public MisionCaza(String titulo, String desc, int cantidad, Enemigo enemigo, int xp, Item item, Sala sala) {
+    public MisionCaza(String titulo, String desc, int cantidad, TipoEnemigo objetivo, int xp, Item item, Sala sala) {
         super(titulo, desc, cantidad, xp, item, sala);
-        this.enemigo = enemigo;
+        this.objetivo = objetivo;
     }
 
     // Getters
-    public Enemigo getEnemigo() {
-        return this.enemigo;
+    public TipoEnemigo getObjetivo() {
+        return this.objetivo;
     }
 
     // Setters
-    public void setEnemigo(Enemigo enemigo) {
-        this.enemigo = enemigo;
+    public void setObjetivo(TipoEnemigo objetivo) {
+        this.objetivo = objetivo;
     }
 
     // Métodos
     /**
      * Actualiza el progreso de la misión al cazar un enemigo.
      *
-     * @param datos Nombre del enemigo cazado o instancia de Enemigo.
+     * @param datos Instancia de Enemigo cazado.
      */
     @Override
     public void actualizarProgreso(Object datos) {
-        // Verificamos si es un Enemigo y si se llama igual que el objetivo
-        if (datos instanceof Enemigo) {
-            Enemigo enemigoCazado = (Enemigo) datos;
-            if (enemigoCazado.getNombre().equalsIgnoreCase(this.enemigo.getNombre())) {
-                setProgresoActual(getProgresoActual() + 1);
-            }
+        // Verificamos si es un Enemigo y si es del tipo objetivo
+        if (datos instanceof Enemigo enemigoCazado && objetivo != null
+                && enemigoCazado.getTipoId() == objetivo.getId()) {
+            setProgresoActual(getProgresoActual() + 1);
         }
     }
 }
@@ -0,0 +1,175 @@
+import java.util.Arrays;
+
+/**
+ * Montículo binario de mínimos sobre elementos enteros (0 .. capacidad-1) con prioridad entera.
+ * Permite disminuir la prioridad de un elemento ya insertado y se reutiliza entre búsquedas
+ * sin volver a reservar memoria.
+ *
+ * @version 1.0
+ */
+public class MonticuloBinario {
+
+    /**
+     * Elementos ordenados como árbol binario implícito.
+     */
+    private final int[] elementos;
+    /**
+     * Prioridad de cada elemento, indexada por elemento.
+     */
+    private final int[] prioridades;
+    /**
+     * Posición de cada elemento dentro del montículo (-1 si no está).
+     */
+    private final int[] posiciones;
+    /**
+     * Número de elementos actualmente en el montículo.
+     */
+    private int tamanio;
+
+    /**
+     * Crea un montículo para elementos entre 0 y capacidad-1.
+     *
+     * @param capacidad Número máximo de elementos distintos.
+     */
+    public MonticuloBinario(int capacidad) {
+        this.elementos = new int[capacidad];
+        this.prioridades = new int[capacidad];
+        this.posiciones = new int[capacidad];
+        Arrays.fill(posiciones, -1);
+    }
+
+    // Getters
+    public int getTamanio() {
+        return tamanio;
+    }
+    public int getCapacidad() {
+        return elementos.length;
+    }
+
+    /**
+     * Indica si no quedan elementos.
+     *
+     * @return true si el montículo está vacío.
+     */
+    public boolean estaVacio() {
+        return tamanio == 0;
+    }
+
+    /**
+     * Indica si el elemento está dentro del montículo.
+     *
+     * @param elemento Elemento a consultar.
+     * @return true si está insertado.
+     */
+    public boolean contiene(int elemento) {
+        return posiciones[elemento] >= 0;
+    }
+
+    /**
+     * Prioridad actual de un elemento insertado.
+     *
+     * @param elemento Elemento a consultar.
+     * @return Su prioridad.
+     */
+    public int getPrioridad(int elemento) {
+        return prioridades[elemento];
+    }
+
+    /**
+     * Inserta un elemento o actualiza su prioridad si ya estaba.
+     *
+     * @param elemento  Elemento a insertar.
+     * @param prioridad Prioridad (menor sale antes).
+     */
+    public void insertarOActualizar(int elemento, int prioridad) {
+        int pos = posiciones[elemento];
+        if (pos < 0) {
+            pos = tamanio++;
+            elementos[pos] = elemento;
+            posiciones[elemento] = pos;
+            prioridades[elemento] = prioridad;
+            subir(pos);
+        } else {
+            int anterior = prioridades[elemento];
+            prioridades[elemento] = prioridad;
+            if (prioridad < anterior) subir(pos);
+            else bajar(pos);
+        }
+    }
+
+    /**
+     * Devuelve el elemento de menor prioridad sin extraerlo.
+     *
+     * @return Elemento en la cima.
+     */
+    public int cima() {
+        if (tamanio == 0) throw new IllegalStateException("El montículo está vacío.");
+        return elementos[0];
+    }
+
+    /**
+     * Extrae el elemento de menor prioridad.
+     *
+     * @return Elemento extraído.
+     */
+    public int extraer() {
+        if (tamanio == 0) throw new IllegalStateException("El montículo está vacío.");
+        int minimo = elementos[0];
+        posiciones[minimo] = -1;
+        tamanio--;
+        if (tamanio > 0) {
+            int ultimo = elementos[tamanio];
+            elementos[0] = ultimo;
+            posiciones[ultimo] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Vacía el montículo. Solo recorre los elementos presentes, no toda la capacidad.
+     */
+    public void limpiar() {
+        for (int i = 0; i < tamanio; i++) {
+            posiciones[elementos[i]] = -1;
+        }
+        tamanio = 0;
+    }
+
+    // ------- Métodos auxiliares -------
+
+    private void subir(int pos) {
+        int elemento = elementos[pos];
+        int prioridad = prioridades[elemento];
+        while (pos > 0) {
+            int padre = (pos - 1) >>> 1;
+            int elementoPadre = elementos[padre];
+            if (prioridades[elementoPadre] <= prioridad) break;
+            elementos[pos] = elementoPadre;
+            posiciones[elementoPadre] = pos;
+            pos = padre;
+        }
+        elementos[pos] = elemento;
+        posiciones[elemento] = pos;
+    }
+
+    private void bajar(int pos) {
+        int elemento = elementos[pos];
+        int prioridad = prioridades[elemento];
+        int mitad = tamanio >>> 1;
+        while (pos < mitad) {
+            int hijo = 2 * pos + 1;
+            int derecho = hijo + 1;
+            if (derecho < tamanio && prioridades[elementos[derecho]] < prioridades[elementos[hijo]]) {
+                hijo = derecho;
+            }
+            int elementoHijo = elementos[hijo];
+            if (prioridad <= prioridades[elementoHijo]) break;
+            elementos[pos] = elementoHijo;
+            posiciones[elementoHijo] = pos;
+            pos = hijo;
+        }
+        elementos[pos] = elemento;
+        posiciones[elemento] = pos;
+    }
+}
@@ -0,0 +1,447 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mundo compartido por muchos jugadores a la vez (modo multijugador).
+ * -
+ * Las salas se reparten entre un número fijo de franjas, cada una con su propio cerrojo, así que
+ * los jugadores de salas distintas casi nunca se esperan entre sí. Lo que protege el cerrojo de una
+ * sala es su {@link RejillaEspacial} (quién está dentro y dónde) y la vida de sus enemigos.
+ * -
+ * Sin cerrojo:
+ * - El presupuesto de enemigos vivos de cada sala se reserva y libera con CAS (VarHandle).
+ * - Los contadores de enemigos aparecidos y abatidos son LongAdder (las bajas, también por tipo
+ *   de enemigo, en un array indexado por el número del tipo).
+ * - Los efectos de la sala se reemplazan enteros al añadir uno, así que Sala.aplicarEfecto no
+ *   necesita cerrojo: solo modifica al jugador que lo recibe.
+ * -
+ * Orden de cerrojos (para evitar interbloqueos):
+ * 1. Una operación que toque dos salas toma sus cerrojos en orden creciente de franja
+ *    (si las dos salas comparten franja, se toma una sola vez).
+ * 2. Con un cerrojo de sala tomado no se toma ningún otro cerrojo del juego ni se llama a
+ *    GestorMisiones: la misión se notifica después, con el resultado de la operación.
+ * -
+ * Prueba de carga: {@code java MundoCompartido [jugadores] [salas] [segundosPorPrueba]}
+ *
+ * @version 1.0
+ */
+public class MundoCompartido {
+
+    /**
+     * Enemigos vivos a la vez como máximo en cada sala.
+     */
+    public static final int MAX_ENEMIGOS_POR_SALA = 32;
+
+    /**
+     * Estado compartido de una sala.
+     */
+    private static final class EstadoSala {
+        private static final VarHandle RESERVADOS;
+
+        static {
+            try {
+                RESERVADOS = MethodHandles.lookup().findVarHandle(EstadoSala.class, "reservados", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final Sala sala;
+        final LongAdder aparecidos = new LongAdder();
+        final LongAdder abatidos = new LongAdder();
+        /**
+         * Enemigos vivos más los que se están generando (presupuesto consumido).
+         */
+        volatile int reservados;
+
+        EstadoSala(Sala sala) {
+            this.sala = sala;
+        }
+
+        /**
+         * Reserva hueco para un enemigo si queda presupuesto.
+         */
+        boolean reservar() {
+            int actual;
+            do {
+                actual = reservados;
+                if (actual >= MAX_ENEMIGOS_POR_SALA) return false;
+            } while (!RESERVADOS.compareAndSet(this, actual, actual + 1));
+            return true;
+        }
+
+        void liberar() {
+            RESERVADOS.getAndAdd(this, -1);
+        }
+    }
+
+    /**
+     * Lista reutilizable por hilo para las búsquedas en la rejilla.
+     */
+    private static final ThreadLocal<ArrayList<Enemigo>> CERCANOS = ThreadLocal.withInitial(ArrayList::new);
+
+    private final EstadoSala[] salas;
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+    /**
+     * Bajas por tipo de enemigo, indexadas por TipoEnemigo.getId().
+     */
+    private final LongAdder[] abatidosPorTipo = new LongAdder[TipoEnemigo.MAX_TIPOS];
+
+    /**
+     * Crea un mundo con salas nuevas.
+     *
+     * @param numSalas     Número de salas.
+     * @param nivelJugador Nivel de referencia para la dificultad de las salas.
+     * @param numFranjas   Número de cerrojos (se redondea a potencia de 2).
+     */
+    public MundoCompartido(int numSalas, int nivelJugador, int numFranjas) {
+        if (numSalas < 1 || numFranjas < 1) throw new IllegalArgumentException("Hace falta al menos una sala y una franja");
+        this.salas = new EstadoSala[numSalas];
+        for (int i = 0; i < numSalas; i++) {
+            salas[i] = new EstadoSala(new Sala(1 + i % CatalogoNiveles.NUM_NIVELES, nivelJugador));
+        }
+        int n = Integer.highestOneBit(numFranjas);
+        if (n < numFranjas) n <<= 1;
+        this.franjas = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) franjas[i] = new ReentrantLock();
+        this.mascara = n - 1;
+        for (int i = 0; i < abatidosPorTipo.length; i++) abatidosPorTipo[i] = new LongAdder();
+    }
+
+    /**
+     * Crea un mundo con cuatro franjas por núcleo.
+     *
+     * @param numSalas     Número de salas.
+     * @param nivelJugador Nivel de referencia para la dificultad de las salas.
+     */
+    public MundoCompartido(int numSalas, int nivelJugador) {
+        this(numSalas, nivelJugador, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getNumSalas() {
+        return salas.length;
+    }
+
+    /**
+     * Sala compartida (su efecto y su mapa no cambian; la rejilla solo debe tocarse a través del mundo).
+     *
+     * @param sala Índice de la sala.
+     * @return La sala.
+     */
+    public Sala getSala(int sala) {
+        return salas[sala].sala;
+    }
+
+    private ReentrantLock cerrojo(int sala) {
+        return franjas[sala & mascara];
+    }
+
+    /**
+     * Coloca a un jugador en una sala por primera vez.
+     *
+     * @param jugador Jugador (no debe estar en ninguna sala del mundo).
+     * @param sala    Sala de entrada.
+     * @param x       Columna.
+     * @param y       Fila.
+     */
+    public void entrar(Personaje jugador, int sala, int x, int y) {
+        ReentrantLock c = cerrojo(sala);
+        c.lock();
+        try {
+            jugador.setPosicion(x, y);
+            salas[sala].sala.getRejilla().insertar(jugador);
+        } finally {
+            c.unlock();
+        }
+    }
+
+    /**
+     * Mueve a un jugador dentro de su sala.
+     *
+     * @param jugador Jugador.
+     * @param sala    Sala en la que está.
+     * @param x       Columna destino.
+     * @param y       Fila destino.
+     */
+    public void mover(Personaje jugador, int sala, int x, int y) {
+        ReentrantLock c = cerrojo(sala);
+        c.lock();
+        try {
+            jugador.setPosicion(x, y);
+        } finally {
+            c.unlock();
+        }
+    }
+
+    /**
+     * Pasa a un jugador de una sala a otra. Toma los dos cerrojos en orden de franja.
+     *
+     * @param jugador Jugador.
+     * @param origen  Sala en la que está.
+     * @param destino Sala a la que entra.
+     * @param x       Columna de entrada.
+     * @param y       Fila de entrada.
+     */
+    public void cambiarDeSala(Personaje jugador, int origen, int destino, int x, int y) {
+        int fa = origen & mascara;
+        int fb = destino & mascara;
+        ReentrantLock primero = franjas[Math.min(fa, fb)];
+        ReentrantLock segundo = fa == fb ? null : franjas[Math.max(fa, fb)];
+        primero.lock();
+        try {
+            if (segundo != null) segundo.lock();
+            try {
+                // insertar da de baja al jugador de la rejilla de origen
+                jugador.setPosicion(x, y);
+                salas[destino].sala.getRejilla().insertar(jugador);
+            } finally {
+                if (segundo != null) segundo.unlock();
+            }
+        } finally {
+            primero.unlock();
+        }
+    }
+
+    /**
+     * Hace aparecer un enemigo en una casilla libre de la sala, si queda presupuesto.
+     * El enemigo se construye fuera del cerrojo.
+     *
+     * @param sala Índice de la sala.
+     * @return El enemigo, o null si la sala ya tiene el máximo de enemigos vivos.
+     */
+    public Enemigo generarEnemigo(int sala) {
+        EstadoSala estado = salas[sala];
+        if (!estado.reservar()) return null;
+        Enemigo enemigo;
+        try {
+            ThreadLocalRandom azar = ThreadLocalRandom.current();
+            enemigo = estado.sala.generarEnemigo(azar.nextDouble());
+            Mapa mapa = estado.sala.getMapa();
+            int x, y;
+            do {
+                x = azar.nextInt(mapa.getAncho());
+                y = azar.nextInt(mapa.getAlto());
+            } while (!mapa.esTransitable(x, y));
+            enemigo.setPosicion(x, y);
+        } catch (RuntimeException e) {
+            estado.liberar();
+            throw e;
+        }
+
+        ReentrantLock c = cerrojo(sala);
+        c.lock();
+        try {
+            estado.sala.getRejilla().insertar(enemigo);
+        } finally {
+            c.unlock();
+        }
+        estado.aparecidos.increment();
+        return enemigo;
+    }
+
+    /**
+     * Busca el enemigo vivo más cercano a un jugador.
+     *
+     * @param jugador Jugador.
+     * @param sala    Sala en la que está.
+     * @param radio   Distancia máxima.
+     * @return El enemigo, o null si no hay ninguno al alcance.
+     */
+    public Enemigo buscarObjetivo(Personaje jugador, int sala, double radio) {
+        ArrayList<Enemigo> cercanos = CERCANOS.get();
+        cercanos.clear();
+        ReentrantLock c = cerrojo(sala);
+        c.lock();
+        try {
+            salas[sala].sala.getRejilla().buscarEnRadio(jugador.getPosX(), jugador.getPosY(), radio, Enemigo.class, cercanos);
+            Enemigo mejor = null;
+            int mejorDistancia = Integer.MAX_VALUE;
+            for (int i = 0; i < cercanos.size(); i++) {
+                Enemigo e = cercanos.get(i);
+                int d = Math.abs(e.getPosX() - jugador.getPosX()) + Math.abs(e.getPosY() - jugador.getPosY());
+                if (d < mejorDistancia) {
+                    mejorDistancia = d;
+                    mejor = e;
+                }
+            }
+            return mejor;
+        } finally {
+            cercanos.clear();
+            c.unlock();
+        }
+    }
+
+    /**
+     * Golpea a un enemigo compartido (la misma cuenta que Personaje.recibirDanio, sin narración).
+     * Si varios jugadores golpean al mismo enemigo, solo uno se lleva la baja.
+     *
+     * @param sala    Sala del enemigo.
+     * @param enemigo Enemigo golpeado.
+     * @param danio   Daño bruto.
+     * @return true si este golpe lo ha abatido (el llamante notifica su misión).
+     */
+    public boolean golpear(int sala, Enemigo enemigo, double danio) {
+        EstadoSala estado = salas[sala];
+        RejillaEspacial rejilla = estado.sala.getRejilla();
+        ReentrantLock c = cerrojo(sala);
+        c.lock();
+        try {
+            if (enemigo.getRejilla() != rejilla) return false; // Ya lo abatió otro jugador
+            enemigo.setPuntosVida(ResolutorDanio.aplicarUno(danio, enemigo.getPuntosVida(),
+                    enemigo.getPuntosVidaMax(), enemigo.getDefensa()));
+            if (enemigo.estaVivo()) return false;
+            rejilla.eliminar(enemigo);
+        } finally {
+            c.unlock();
+        }
+        estado.liberar();
+        estado.abatidos.increment();
+        abatidosPorTipo[enemigo.getTipoId()].increment();
+        return true;
+    }
+
+    /**
+     * Enemigos aparecidos en todo el mundo.
+     *
+     * @return Total aproximado si hay operaciones en curso.
+     */
+    public long getAparecidos() {
+        long total = 0;
+        for (EstadoSala s : salas) total += s.aparecidos.sum();
+        return total;
+    }
+
+    /**
+     * Enemigos abatidos en todo el mundo.
+     *
+     * @return Total aproximado si hay operaciones en curso.
+     */
+    public long getAbatidos() {
+        long total = 0;
+        for (EstadoSala s : salas) total += s.abatidos.sum();
+        return total;
+    }
+
+    /**
+     * Enemigos de un tipo abatidos en todo el mundo.
+     *
+     * @param tipo Tipo de enemigo.
+     * @return Total aproximado si hay operaciones en curso.
+     */
+    public long getAbatidos(TipoEnemigo tipo) {
+        return abatidosPorTipo[tipo.getId()].sum();
+    }
+
+    /**
+     * Enemigos vivos ahora mismo en una sala (según el presupuesto reservado).
+     *
+     * @param sala Índice de la sala.
+     * @return Enemigos vivos o generándose.
+     */
+    public int getEnemigosVivos(int sala) {
+        return salas[sala].reservados;
+    }
+
+    // ------- Prueba de carga -------
+
+    /**
+     * Prueba de carga sintética: muchos jugadores explorando, luchando y cambiando de sala.
+     * Mide operaciones por segundo con 1, 2, 4... hilos hasta el número de núcleos.
+     *
+     * @param args Jugadores (1000), salas (64) y segundos por prueba (2).
+     * @throws Exception si falla algún hilo.
+     */
+    public static void main(String[] args) throws Exception {
+        int numJugadores = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int numSalas = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        double segundos = args.length > 2 ? Double.parseDouble(args[2]) : 2;
+        int nucleos = Runtime.getRuntime().availableProcessors();
+
+        MundoCompartido mundo = new MundoCompartido(numSalas, 3);
+        Personaje[] jugadores = new Personaje[numJugadores];
+        int[] salaDe = new int[numJugadores];
+        SalidaSilenciada.ejecutar(() -> {
+            for (int i = 0; i < numJugadores; i++) {
+                jugadores[i] = ClasePersonaje.values()[i % 3].crear("Jugador" + i);
+                salaDe[i] = i % numSalas;
+                mundo.entrar(jugadores[i], salaDe[i], 1, 1);
+            }
+            return null;
+        });
+
+        double base = 0;
+        for (int hilos = 1; hilos <= nucleos; hilos *= 2) {
+            double ops = medir(mundo, jugadores, salaDe, hilos, (long) (segundos * 1e9));
+            if (hilos == 1) base = ops;
+            System.out.printf("%2d hilos: %,12.0f ops/s  (x%.2f)%n", hilos, ops, ops / base);
+        }
+        System.out.println("Aparecidos: " + mundo.getAparecidos() + "  Abatidos: " + mundo.getAbatidos());
+        for (int t = 0; t < TipoEnemigo.getCantidad(); t++) {
+            long n = mundo.getAbatidos(TipoEnemigo.porId(t));
+            if (n > 0) System.out.println("  " + TipoEnemigo.porId(t) + ": " + n);
+        }
+    }
+
+    private static double medir(MundoCompartido mundo, Personaje[] jugadores, int[] salaDe, int hilos, long nanos)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<Long>> trabajos = new ArrayList<>();
+            long fin = System.nanoTime() + nanos;
+            for (int h = 0; h < hilos; h++) {
+                int desde = h * jugadores.length / hilos;
+                int hasta = (h + 1) * jugadores.length / hilos;
+                trabajos.add(pool.submit(() -> simular(mundo, jugadores, salaDe, desde, hasta, fin)));
+            }
+            long total = 0;
+            for (Future<Long> f : trabajos) total += f.get();
+            return total / (nanos / 1e9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Cada hilo controla su propio grupo de jugadores.
+     */
+    private static long simular(MundoCompartido mundo, Personaje[] jugadores, int[] salaDe,
+                                int desde, int hasta, long fin) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        long ops = 0;
+        int i = desde;
+        while ((ops & 255) != 0 || System.nanoTime() < fin) {
+            Personaje jugador = jugadores[i];
+            int sala = salaDe[i];
+            int accion = azar.nextInt(100);
+            if (accion < 60) {
+                Enemigo objetivo = mundo.buscarObjetivo(jugador, sala, 6);
+                if (objetivo == null) {
+                    mundo.generarEnemigo(sala);
+                } else {
+                    mundo.golpear(sala, objetivo, 10 + azar.nextInt(30));
+                }
+            } else if (accion < 95) {
+                Mapa mapa = mundo.getSala(sala).getMapa();
+                int x = jugador.getPosX() + azar.nextInt(3) - 1;
+                int y = jugador.getPosY() + azar.nextInt(3) - 1;
+                if (mapa.esTransitable(x, y)) mundo.mover(jugador, sala, x, y);
+            } else {
+                int destino = azar.nextInt(mundo.getNumSalas());
+                mundo.cambiarDeSala(jugador, sala, destino, 1, 1);
+                salaDe[i] = destino;
+            }
+            ops++;
+            if (++i == hasta) i = desde;
+        }
+        return ops;
+    }
+}
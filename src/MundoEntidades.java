@@ -0,0 +1,315 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Núcleo entidad-componente-sistema para simulaciones con muchas entidades.
+ * -
+ * Una entidad es solo un número. Sus datos se guardan en el arquetipo que corresponde a su
+ * combinación de componentes, y cada arquetipo guarda cada campo en su propio array (estructura
+ * de arrays): todas las vidas juntas, todas las defensas juntas... Los sistemas (ver
+ * SistemasEntidades) eligen los arquetipos por máscara y recorren esos arrays de principio a fin,
+ * sin instanceof ni saltos entre objetos. Un enemigo no reserva sitio para inventario ni
+ * experiencia porque su arquetipo no tiene esos componentes.
+ * -
+ * Al destruir una entidad, la última de su arquetipo ocupa su fila, así que los arrays no tienen huecos.
+ * Los números de entidad destruidos se reutilizan.
+ * -
+ * No es seguro para varios hilos: cada simulación usa su propio mundo.
+ *
+ * @version 1.0
+ */
+public class MundoEntidades {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /**
+     * Entidades con la misma combinación de componentes, con un array por campo.
+     * Solo existen los arrays de sus componentes; los demás son null.
+     */
+    static final class Arquetipo {
+        final long mascara;
+        int tamanio;
+        int[] entidades;
+
+        double[] vida;
+        double[] vidaMax;
+        int[] defensa;
+        double[] ataque;
+        double[] recurso;
+        double[] recursoMax;
+        double[] regeneracion;
+        int[] clase;
+        double[] probabilidadBotin;
+        int[] nivelBotin;
+
+        Arquetipo(long mascara) {
+            this.mascara = mascara;
+            int n = CAPACIDAD_INICIAL;
+            entidades = new int[n];
+            if (tiene(Componente.VIDA)) {
+                vida = new double[n];
+                vidaMax = new double[n];
+            }
+            if (tiene(Componente.DEFENSA)) defensa = new int[n];
+            if (tiene(Componente.ATAQUE)) ataque = new double[n];
+            if (tiene(Componente.RECURSO)) {
+                recurso = new double[n];
+                recursoMax = new double[n];
+                regeneracion = new double[n];
+            }
+            if (tiene(Componente.CLASE)) clase = new int[n];
+            if (tiene(Componente.BOTIN)) {
+                probabilidadBotin = new double[n];
+                nivelBotin = new int[n];
+            }
+        }
+
+        boolean tiene(Componente c) {
+            return (mascara & c.bit()) != 0;
+        }
+
+        /**
+         * @param requeridos Máscara de componentes.
+         * @return true si el arquetipo tiene todos esos componentes.
+         */
+        boolean cumple(long requeridos) {
+            return (mascara & requeridos) == requeridos;
+        }
+
+        int anadir(int entidad) {
+            if (tamanio == entidades.length) crecer(tamanio * 2);
+            entidades[tamanio] = entidad;
+            return tamanio++;
+        }
+
+        /**
+         * Quita una fila moviendo a ella la última.
+         *
+         * @return La entidad que ha pasado a ocupar la fila, o -1 si era la última.
+         */
+        int quitar(int fila) {
+            int ultima = --tamanio;
+            if (fila == ultima) return -1;
+            entidades[fila] = entidades[ultima];
+            if (vida != null) {
+                vida[fila] = vida[ultima];
+                vidaMax[fila] = vidaMax[ultima];
+            }
+            if (defensa != null) defensa[fila] = defensa[ultima];
+            if (ataque != null) ataque[fila] = ataque[ultima];
+            if (recurso != null) {
+                recurso[fila] = recurso[ultima];
+                recursoMax[fila] = recursoMax[ultima];
+                regeneracion[fila] = regeneracion[ultima];
+            }
+            if (clase != null) clase[fila] = clase[ultima];
+            if (probabilidadBotin != null) {
+                probabilidadBotin[fila] = probabilidadBotin[ultima];
+                nivelBotin[fila] = nivelBotin[ultima];
+            }
+            return entidades[fila];
+        }
+
+        private void crecer(int n) {
+            entidades = Arrays.copyOf(entidades, n);
+            if (vida != null) {
+                vida = Arrays.copyOf(vida, n);
+                vidaMax = Arrays.copyOf(vidaMax, n);
+            }
+            if (defensa != null) defensa = Arrays.copyOf(defensa, n);
+            if (ataque != null) ataque = Arrays.copyOf(ataque, n);
+            if (recurso != null) {
+                recurso = Arrays.copyOf(recurso, n);
+                recursoMax = Arrays.copyOf(recursoMax, n);
+                regeneracion = Arrays.copyOf(regeneracion, n);
+            }
+            if (clase != null) clase = Arrays.copyOf(clase, n);
+            if (probabilidadBotin != null) {
+                probabilidadBotin = Arrays.copyOf(probabilidadBotin, n);
+                nivelBotin = Arrays.copyOf(nivelBotin, n);
+            }
+        }
+    }
+
+    private final List<Arquetipo> arquetipos = new ArrayList<>();
+    private final Map<Long, Arquetipo> porMascara = new HashMap<>();
+
+    /**
+     * Arquetipo y fila de cada entidad (null / -1 si el número está libre).
+     */
+    private Arquetipo[] arquetipoDe = new Arquetipo[CAPACIDAD_INICIAL];
+    private int[] filaDe = new int[CAPACIDAD_INICIAL];
+    private int[] libres = new int[CAPACIDAD_INICIAL];
+    private int numLibres;
+    private int siguiente;
+    private int vivas;
+
+    /**
+     * Crea una entidad con los componentes indicados (todos a 0).
+     *
+     * @param componentes Componentes de la entidad.
+     * @return Número de la entidad.
+     */
+    public int crear(Componente... componentes) {
+        long mascara = Componente.mascara(componentes);
+        Arquetipo a = porMascara.get(mascara);
+        if (a == null) {
+            a = new Arquetipo(mascara);
+            porMascara.put(mascara, a);
+            arquetipos.add(a);
+        }
+        int id;
+        if (numLibres > 0) {
+            id = libres[--numLibres];
+        } else {
+            id = siguiente++;
+            if (id == arquetipoDe.length) {
+                arquetipoDe = Arrays.copyOf(arquetipoDe, id * 2);
+                filaDe = Arrays.copyOf(filaDe, id * 2);
+            }
+        }
+        arquetipoDe[id] = a;
+        filaDe[id] = a.anadir(id);
+        vivas++;
+        return id;
+    }
+
+    /**
+     * Destruye una entidad. Su número queda libre para reutilizarse.
+     *
+     * @param id Número de la entidad.
+     * @throws IllegalArgumentException si la entidad no existe.
+     */
+    public void destruir(int id) {
+        Arquetipo a = arquetipo(id);
+        int movida = a.quitar(filaDe[id]);
+        if (movida >= 0) filaDe[movida] = filaDe[id];
+        arquetipoDe[id] = null;
+        filaDe[id] = -1;
+        if (numLibres == libres.length) libres = Arrays.copyOf(libres, numLibres * 2);
+        libres[numLibres++] = id;
+        vivas--;
+    }
+
+    /**
+     * @param id Número de entidad.
+     * @return true si existe.
+     */
+    public boolean existe(int id) {
+        return id >= 0 && id < siguiente && arquetipoDe[id] != null;
+    }
+
+    /**
+     * @return Entidades que existen.
+     */
+    public int getTamanio() {
+        return vivas;
+    }
+
+    /**
+     * @param id        Número de entidad.
+     * @param componente Componente.
+     * @return true si la entidad tiene ese componente.
+     */
+    public boolean tiene(int id, Componente componente) {
+        return arquetipo(id).tiene(componente);
+    }
+
+    public double getVida(int id) {
+        return arquetipo(id, Componente.VIDA).vida[filaDe[id]];
+    }
+    public double getVidaMax(int id) {
+        return arquetipo(id, Componente.VIDA).vidaMax[filaDe[id]];
+    }
+    /**
+     * Fija la vida máxima y la actual (limitada entre 0 y el máximo).
+     *
+     * @param id      Número de entidad.
+     * @param vida    Vida actual.
+     * @param vidaMax Vida máxima.
+     */
+    public void setVida(int id, double vida, double vidaMax) {
+        Arquetipo a = arquetipo(id, Componente.VIDA);
+        a.vidaMax[filaDe[id]] = vidaMax;
+        a.vida[filaDe[id]] = Math.max(0, Math.min(vidaMax, vida));
+    }
+    public int getDefensa(int id) {
+        return arquetipo(id, Componente.DEFENSA).defensa[filaDe[id]];
+    }
+    public void setDefensa(int id, int defensa) {
+        arquetipo(id, Componente.DEFENSA).defensa[filaDe[id]] = defensa;
+    }
+    public double getAtaque(int id) {
+        return arquetipo(id, Componente.ATAQUE).ataque[filaDe[id]];
+    }
+    public void setAtaque(int id, double ataque) {
+        arquetipo(id, Componente.ATAQUE).ataque[filaDe[id]] = ataque;
+    }
+    public double getRecurso(int id) {
+        return arquetipo(id, Componente.RECURSO).recurso[filaDe[id]];
+    }
+    /**
+     * Fija el recurso (maná o energía), su máximo y lo que recupera por turno.
+     *
+     * @param id           Número de entidad.
+     * @param recurso      Cantidad actual (limitada entre 0 y el máximo).
+     * @param recursoMax   Máximo.
+     * @param regeneracion Recuperación por turno.
+     */
+    public void setRecurso(int id, double recurso, double recursoMax, double regeneracion) {
+        Arquetipo a = arquetipo(id, Componente.RECURSO);
+        int f = filaDe[id];
+        a.recursoMax[f] = recursoMax;
+        a.recurso[f] = Math.max(0, Math.min(recursoMax, recurso));
+        a.regeneracion[f] = regeneracion;
+    }
+    public int getClase(int id) {
+        return arquetipo(id, Componente.CLASE).clase[filaDe[id]];
+    }
+    public void setClase(int id, int columna) {
+        arquetipo(id, Componente.CLASE).clase[filaDe[id]] = columna;
+    }
+    /**
+     * Fija el botín de la entidad.
+     *
+     * @param id           Número de entidad.
+     * @param probabilidad Probabilidad de soltarlo al morir (0 a 1).
+     * @param nivel        Nivel del botín.
+     */
+    public void setBotin(int id, double probabilidad, int nivel) {
+        Arquetipo a = arquetipo(id, Componente.BOTIN);
+        a.probabilidadBotin[filaDe[id]] = probabilidad;
+        a.nivelBotin[filaDe[id]] = nivel;
+    }
+    public int getNivelBotin(int id) {
+        return arquetipo(id, Componente.BOTIN).nivelBotin[filaDe[id]];
+    }
+
+    /**
+     * Arquetipos que tienen al menos los componentes indicados. Es la consulta de los sistemas.
+     *
+     * @param requeridos Máscara de componentes.
+     * @return Los arquetipos (pueden estar vacíos).
+     */
+    List<Arquetipo> consultar(long requeridos) {
+        List<Arquetipo> res = new ArrayList<>(arquetipos.size());
+        for (Arquetipo a : arquetipos) {
+            if (a.cumple(requeridos)) res.add(a);
+        }
+        return res;
+    }
+
+    private Arquetipo arquetipo(int id) {
+        if (!existe(id)) throw new IllegalArgumentException("La entidad " + id + " no existe");
+        return arquetipoDe[id];
+    }
+
+    private Arquetipo arquetipo(int id, Componente componente) {
+        Arquetipo a = arquetipo(id);
+        if (!a.tiene(componente)) throw new IllegalArgumentException("La entidad " + id + " no tiene " + componente);
+        return a;
+    }
+}
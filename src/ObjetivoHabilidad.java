@@ -0,0 +1,11 @@
+/**
+ * A quién afecta una habilidad.
+ */
+public enum ObjetivoHabilidad {
+    /** Daña a un único enemigo. */
+    ENEMIGO,
+    /** Daña al enemigo elegido y a los que estén a su alrededor. */
+    AREA,
+    /** Cura al propio lanzador. */
+    PROPIO
+}
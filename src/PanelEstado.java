@@ -0,0 +1,105 @@
+import java.io.PrintStream;
+
+/**
+ * Panel fijo en la parte superior del terminal con el estado de la partida:
+ * vida, nivel, recurso de clase, misión, mochila y las opciones disponibles.
+ * -
+ * Se redibuja cada turno sobre un {@link RenderizadorTerminal}, que solo envía lo que cambia,
+ * así que los menús ya no se reimprimen enteros en cada vuelta del bucle.
+ *
+ * @version 1.0
+ */
+public class PanelEstado {
+
+    public static final int ANCHO = 64;
+    public static final int ALTO = 9;
+
+    private final RenderizadorTerminal pantalla;
+
+    /**
+     * Crea el panel sobre el flujo del terminal.
+     *
+     * @param salida Flujo del terminal (normalmente System.out).
+     */
+    public PanelEstado(PrintStream salida) {
+        this.pantalla = new RenderizadorTerminal(ANCHO, ALTO, salida);
+    }
+
+    public RenderizadorTerminal getPantalla() {
+        return pantalla;
+    }
+
+    /**
+     * Reserva la parte superior del terminal para el panel.
+     */
+    public void abrir() {
+        pantalla.activar();
+    }
+
+    /**
+     * Libera la parte superior del terminal.
+     */
+    public void cerrar() {
+        pantalla.desactivar();
+    }
+
+    /**
+     * Dibuja el estado actual y envía los cambios.
+     *
+     * @param jugador  Héroe.
+     * @param gestor   Gestor de misiones (puede ser null antes de empezar).
+     * @param sala     Número de sala actual.
+     * @param opciones Línea de opciones disponibles.
+     * @param enemigo  Enemigo en combate (o null fuera de combate).
+     * @return Bytes enviados al terminal.
+     */
+    public int dibujar(Personaje jugador, GestorMisiones gestor, int sala, String opciones, Enemigo enemigo) {
+        pantalla.limpiar();
+        pantalla.caja(0, 0, ANCHO, ALTO, "LEYENDAS OLVIDADAS - Sala " + sala);
+
+        pantalla.escribir(2, 1, recortar(jugador.getNombre() + " (" + jugador.getClass().getSimpleName() + ")"
+                + "  Nivel " + jugador.getNivel() + "  XP " + jugador.getExperiencia(), ANCHO - 4));
+
+        pantalla.escribir(2, 2, "PV  " + barra(jugador.getPuntosVida(), jugador.getPuntosVidaMax(), 20)
+                + " " + (int) jugador.getPuntosVida() + "/" + (int) jugador.getPuntosVidaMax());
+        if (jugador instanceof Mago mago) {
+            pantalla.escribir(38, 2, "Maná " + (int) mago.getPuntosMana() + "/" + (int) mago.getPuntosManaMax());
+        } else if (jugador instanceof Picaro picaro) {
+            pantalla.escribir(38, 2, "Energía " + picaro.getEnergia() + "/" + picaro.getEnergiaMaxima());
+        }
+
+        Mision mision = gestor == null ? null : gestor.getMisionActual();
+        String textoMision = mision == null ? "Sin misión"
+                : mision.getTitulo() + "  " + mision.getProgresoActual() + "/" + mision.getObjetivoCantidad();
+        pantalla.escribir(2, 3, recortar("Misión: " + textoMision, ANCHO - 4));
+
+        Inventario mochila = jugador.getInventario();
+        StringBuilder objetos = new StringBuilder("Mochila (" + mochila.getCantidad() + "):");
+        for (int i = 0; i < mochila.getCantidad(); i++) {
+            objetos.append(i == 0 ? " " : ", ").append(mochila.getItem(i).getNombre());
+        }
+        pantalla.escribir(2, 4, recortar(objetos.toString(), ANCHO - 4));
+
+        if (enemigo != null) {
+            pantalla.escribir(2, 5, recortar("Enemigo: " + enemigo.getNombre() + "  PV "
+                    + barra(enemigo.getPuntosVida(), enemigo.getPuntosVidaMax(), 12)
+                    + " " + (int) enemigo.getPuntosVida() + "/" + (int) enemigo.getPuntosVidaMax(), ANCHO - 4));
+        }
+
+        pantalla.rellenar(1, 6, ANCHO - 2, '─');
+        pantalla.escribir(0, 6, "├");
+        pantalla.escribir(ANCHO - 1, 6, "┤");
+        pantalla.escribir(2, 7, recortar(opciones, ANCHO - 4));
+
+        return pantalla.volcar();
+    }
+
+    private static String barra(double valor, double maximo, int celdas) {
+        int llenas = maximo <= 0 ? 0 : (int) Math.round(Math.max(0, Math.min(1, valor / maximo)) * celdas);
+        return "[" + "#".repeat(llenas) + ".".repeat(celdas - llenas) + "]";
+    }
+
+    private static String recortar(String texto, int maximo) {
+        return texto.length() <= maximo ? texto : texto.substring(0, maximo - 3) + "...";
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.ArrayList;
+
     /**
      * Clase base abstracta que representa a cualquier entidad viva del juego.
      * Gestiona estadísticas comunes (vida, nivel, experiencia) e inventario.
@@ -34,6 +36,11 @@
          */
         private Inventario inventario;
 
+        /**
+         * Equipo puesto (vacío y sin huecos salvo que la subclase los declare).
+         */
+        private Equipamiento equipamiento = new Equipamiento();
+
         /**
          * Experiencia acumulada.
          */
@@ -44,6 +51,51 @@
          */
         private int experienciaNecesaria;
 
+        /**
+         * Experiencia total ganada desde que se creó el personaje (no se reinicia al subir de nivel).
+         */
+        private int experienciaTotal;
+
+        /**
+         * Velocidad (iniciativa): cuanto mayor, más a menudo actúa en combate.
+         */
+        private int velocidad;
+
+        /**
+         * Columna de la casilla que ocupa en el mapa de la sala.
+         */
+        private int posX;
+
+        /**
+         * Fila de la casilla que ocupa en el mapa de la sala.
+         */
+        private int posY;
+
+        /**
+         * Índice espacial en el que está registrado (null si no está en ninguno).
+         */
+        private RejillaEspacial rejilla;
+
+        /**
+         * Hueco que ocupa dentro de su rejilla espacial.
+         */
+        private int idRejilla = -1;
+
+        /**
+         * Turnos restantes de recarga de cada habilidad (mismo orden que getHabilidades()).
+         */
+        private int[] enfriamientos;
+
+        /**
+         * Campos modificados desde el último guardado (bits de CampoPartida).
+         */
+        private long cambios = CampoPartida.TODOS;
+
+        /**
+         * Lista reutilizable para las habilidades de área (evita reservar memoria en cada uso).
+         */
+        private static final ThreadLocal<ArrayList<Enemigo>> ALCANZADOS = ThreadLocal.withInitial(ArrayList::new);
+
         /**
          * Constructor base para inicializar un personaje.
          *
@@ -61,6 +113,30 @@
             this.inventario = new Inventario();
             this.experiencia = 0;
             this.experienciaNecesaria = nivel * 100;
+            this.velocidad = 10;
+        }
+
+        /**
+         * Constructor para las subclases: además fija la velocidad, los huecos de equipo de la clase
+         * y el equipo inicial (sin llamar a métodos que las subclases puedan sobrescribir).
+         *
+         * @param nombre        Nombre del personaje.
+         * @param nivel         Nivel inicial.
+         * @param puntosVidaMax Vida máxima inicial.
+         * @param defensa       Puntos de defensa (mitigación de daño).
+         * @param velocidad     Velocidad inicial (se limita entre 1 y 100).
+         * @param ranuras       Huecos de equipo, en orden de preferencia al equipar.
+         * @param piezas        Pieza inicial de cada hueco, en el mismo orden (null o ausente = vacío).
+         * @throws IllegalArgumentException si una pieza no cabe en su hueco.
+         */
+        protected Personaje(String nombre, int nivel, double puntosVidaMax, int defensa, int velocidad,
+                            RanuraEquipo[] ranuras, Equipo... piezas) {
+            this(nombre, nivel, puntosVidaMax, defensa);
+            this.velocidad = Math.max(1, Math.min(100, velocidad));
+            this.equipamiento = new Equipamiento(ranuras);
+            for (int i = 0; i < piezas.length; i++) {
+                if (piezas[i] != null) equipamiento.poner(ranuras[i], piezas[i]);
+            }
         }
 
         // --- Getters y Setters ---
@@ -81,6 +157,7 @@
          */
         public void setNombre(String nombre) {
             this.nombre = nombre;
+            marcarCambio(CampoPartida.NOMBRE);
         }
 
         /**
@@ -102,6 +179,7 @@
         public void setNivel(int nivel) {
             this.nivel = Math.max(1, Math.min(80, nivel));
             this.experienciaNecesaria = this.nivel * 100;
+            marcarCambio(CampoPartida.NIVEL);
         }
 
         /**
@@ -121,6 +199,7 @@
          */
         public void setPuntosVida(double puntosVida) {
             this.puntosVida = Math.max(0, Math.min(puntosVidaMax, puntosVida));
+            marcarCambio(CampoPartida.PUNTOS_VIDA);
         }
 
         /**
@@ -142,6 +221,8 @@
         public void setPuntosVidaMax(double puntosVidaMax) {
             this.puntosVidaMax = Math.max(1, Math.min(10000, puntosVidaMax));
             if (this.puntosVida > this.puntosVidaMax) this.puntosVida = this.puntosVidaMax;
+            marcarCambio(CampoPartida.PUNTOS_VIDA_MAX);
+            marcarCambio(CampoPartida.PUNTOS_VIDA);
         }
 
         /**
@@ -161,6 +242,16 @@
          */
         public void setDefensa(int defensa) {
             this.defensa = defensa;
+            marcarCambio(CampoPartida.DEFENSA);
+        }
+
+        /**
+         * Defensa con la que se mitiga el daño: la propia más la del equipo puesto.
+         *
+         * @return Defensa total.
+         */
+        public int getDefensaTotal() {
+            return defensa + equipamiento.getDefensa();
         }
 
         /**
@@ -172,6 +263,117 @@
             return experiencia;
         }
 
+        /**
+         * Obtiene la experiencia total ganada desde la creación del personaje.
+         *
+         * @return Experiencia total acumulada.
+         */
+        public int getExperienciaTotal() {
+            return experienciaTotal;
+        }
+
+        /**
+         * Obtiene la velocidad (iniciativa) del personaje.
+         *
+         * @return Velocidad actual.
+         */
+        public int getVelocidad() {
+            return velocidad;
+        }
+
+        /**
+         * Establece la velocidad del personaje.
+         * Limita la velocidad entre 1 y 100.
+         *
+         * @param velocidad Nueva velocidad.
+         */
+        public void setVelocidad(int velocidad) {
+            this.velocidad = Math.max(1, Math.min(100, velocidad));
+            marcarCambio(CampoPartida.VELOCIDAD);
+        }
+
+        /**
+         * Obtiene la columna que ocupa en el mapa.
+         *
+         * @return Columna actual.
+         */
+        public int getPosX() {
+            return posX;
+        }
+
+        /**
+         * Obtiene la fila que ocupa en el mapa.
+         *
+         * @return Fila actual.
+         */
+        public int getPosY() {
+            return posY;
+        }
+
+        /**
+         * Coloca al personaje en una casilla sin anunciar el movimiento.
+         *
+         * @param x Columna.
+         * @param y Fila.
+         */
+        public void setPosicion(int x, int y) {
+            this.posX = x;
+            this.posY = y;
+            marcarCambio(CampoPartida.POSICION);
+            if (rejilla != null) rejilla.actualizar(this);
+        }
+
+        /**
+         * Anota que un campo ha cambiado desde el último guardado.
+         *
+         * @param campo Campo modificado.
+         */
+        protected void marcarCambio(CampoPartida campo) {
+            cambios |= campo.bit();
+        }
+
+        /**
+         * Devuelve los campos modificados desde la última llamada (incluida la mochila) y los da por guardados.
+         * Un personaje recién creado devuelve todos los campos.
+         *
+         * @return Máscara de bits de CampoPartida.
+         */
+        public long tomarCambios() {
+            long c = cambios;
+            if (inventario.tomarCambio()) c |= CampoPartida.MOCHILA.bit();
+            cambios = 0;
+            return c;
+        }
+
+        /**
+         * Obtiene la rejilla espacial en la que está registrado.
+         *
+         * @return La rejilla, o null si no está registrado.
+         */
+        public RejillaEspacial getRejilla() {
+            return rejilla;
+        }
+
+        /**
+         * Hueco que ocupa dentro de su rejilla. Uso interno de RejillaEspacial.
+         *
+         * @return Identificador dentro de la rejilla, o -1.
+         */
+        int getIdRejilla() {
+            return idRejilla;
+        }
+
+        /**
+         * Registra la rejilla a la que pertenece. Uso interno de RejillaEspacial.
+         *
+         * @param rejilla   Rejilla (o null al darse de baja).
+         * @param idRejilla Hueco asignado.
+         */
+        void setRejilla(RejillaEspacial rejilla, int idRejilla) {
+            this.rejilla = rejilla;
+            this.idRejilla = idRejilla;
+        }
+
 
         /**
          * Realiza una acción de ataque contra otro personaje.
@@ -190,6 +392,8 @@
          */
         public void ganarExperiencia(int cantidad) {
             this.experiencia += cantidad;
+            this.experienciaTotal += cantidad;
+            marcarCambio(CampoPartida.EXPERIENCIA);
             System.out.println(this.nombre + " obtiene " + cantidad + " XP.");
             while (this.experiencia >= this.experienciaNecesaria) {
                 this.experiencia -= this.experienciaNecesaria;
@@ -197,6 +401,36 @@
             }
         }
 
+        /**
+         * Restaura la experiencia de un personaje guardado (no sube de nivel ni muestra mensajes).
+         *
+         * @param experiencia      Experiencia acumulada en el nivel actual.
+         * @param experienciaTotal Experiencia total ganada.
+         */
+        public void restaurarExperiencia(int experiencia, int experienciaTotal) {
+            this.experiencia = Math.max(0, experiencia);
+            this.experienciaTotal = Math.max(0, experienciaTotal);
+            marcarCambio(CampoPartida.EXPERIENCIA);
+        }
+
+        /**
+         * Calcula qué nivel tendría el personaje tras ganar cierta experiencia, sin modificarlo.
+         *
+         * @param cantidad Cantidad de XP que ganaría.
+         * @return El nivel resultante.
+         */
+        public int nivelTrasGanar(int cantidad) {
+            int n = this.nivel;
+            int necesaria = this.experienciaNecesaria;
+            long xp = (long) this.experiencia + cantidad;
+            while (xp >= necesaria) {
+                xp -= necesaria;
+                n = Math.max(1, Math.min(80, n + 1));
+                necesaria = n * 100;
+            }
+            return n;
+        }
+
         /**
          * Aumenta el nivel del personaje y recalcula la experiencia necesaria.
          * Las subclases deben sobrescribir esto para mejorar sus estadísticas.
@@ -220,6 +454,32 @@
             System.out.println(nombre + " avanza hacia la siguiente zona...");
         }
 
+        /**
+         * Desplaza al personaje a otra casilla del mapa.
+         *
+         * @param x Columna de destino.
+         * @param y Fila de destino.
+         */
+        public void moverse(int x, int y) {
+            setPosicion(x, y);
+        }
+
+        /**
+         * Avanza un paso por el camino más corto hacia una casilla del mapa.
+         *
+         * @param buscador Buscador de rutas del mapa de la sala.
+         * @param destino  Índice de la casilla objetivo.
+         * @return true si se movió; false si ya estaba allí o no hay camino.
+         */
+        public boolean avanzarHacia(BuscadorRutas buscador, int destino) {
+            Mapa mapa = buscador.getMapa();
+            int origen = mapa.indice(posX, posY);
+            int paso = buscador.siguientePaso(origen, destino);
+            if (paso < 0 || paso == origen) return false;
+            moverse(mapa.columna(paso), mapa.fila(paso));
+            return true;
+        }
+
         /**
          * Verifica si el personaje sigue vivo.
          *
@@ -235,11 +495,182 @@
          * @param danio Cantidad de daño bruto recibido.
          */
         public void recibirDanio(double danio) {
-            double danioReal = danio - defensa;
+            int mitigado = getDefensaTotal();
+            double danioReal = danio - mitigado;
             if (danioReal < 0) danioReal = 0;
 
             setPuntosVida(puntosVida - danioReal);
-            System.out.println(nombre + " recibe " + (int) danioReal + " de daño (Mitigado: " + defensa + "). [Vida: " + (int) puntosVida + "/" + (int) puntosVidaMax + "]");
+            System.out.println(nombre + " recibe " + (int) danioReal + " de daño (Mitigado: " + mitigado + "). [Vida: " + (int) puntosVida + "/" + (int) puntosVidaMax + "]");
+        }
+
+        // --- Habilidades ---
+
+        /**
+         * Habilidades disponibles para la clase del personaje.
+         * Las subclases devuelven su tabla de {@link Habilidades}.
+         *
+         * @return Tabla de habilidades (vacía por defecto).
+         */
+        public Habilidad[] getHabilidades() {
+            return Habilidades.NINGUNA;
+        }
+
+        /**
+         * Turnos que faltan para poder volver a usar una habilidad.
+         *
+         * @param indice Posición de la habilidad en getHabilidades().
+         * @return Turnos de recarga restantes (0 = disponible).
+         */
+        public int getEnfriamiento(int indice) {
+            return enfriamientos == null ? 0 : enfriamientos[indice];
+        }
+
+        /**
+         * Comprueba si una habilidad está recargada y hay recurso suficiente para lanzarla.
+         *
+         * @param indice Posición de la habilidad en getHabilidades().
+         * @return true si se puede usar ahora.
+         */
+        public boolean puedeUsarHabilidad(int indice) {
+            Habilidad[] tabla = getHabilidades();
+            if (indice < 0 || indice >= tabla.length) return false;
+            Habilidad h = tabla[indice];
+            return getEnfriamiento(indice) == 0 && getRecurso(h.getRecurso()) >= h.getCoste();
+        }
+
+        /**
+         * Usa una habilidad: cobra el recurso, inicia la recarga y aplica el efecto.
+         *
+         * @param indice   Posición de la habilidad en getHabilidades().
+         * @param objetivo Enemigo elegido (se ignora en las habilidades sobre uno mismo).
+         * @return true si se lanzó; false si no estaba disponible.
+         */
+        public boolean usarHabilidad(int indice, Personaje objetivo) {
+            if (!estaVivo()) return false;
+            if (!puedeUsarHabilidad(indice)) {
+                System.out.println("(!) " + nombre + " no puede usar esa habilidad ahora.");
+                return false;
+            }
+            Habilidad h = getHabilidades()[indice];
+            gastarRecurso(h.getRecurso(), h.getCoste());
+            if (h.getEnfriamiento() > 0) {
+                if (enfriamientos == null) enfriamientos = new int[getHabilidades().length];
+                enfriamientos[indice] = h.getEnfriamiento();
+            }
+
+            double potencia = h.getPotencia().evaluar(nivel);
+            if (h.usaArmas()) potencia += getDanioArmas();
+            System.out.println(nombre + " usa " + h.getNombre() + "!");
+
+            switch (h.getObjetivo()) {
+                case PROPIO:
+                    double vidaAntes = puntosVida;
+                    setPuntosVida(puntosVida + potencia);
+                    System.out.println(nombre + " recupera " + (int) (puntosVida - vidaAntes) + " PV.");
+                    break;
+                case AREA:
+                    RejillaEspacial zona = objetivo.getRejilla();
+                    if (zona == null) {
+                        objetivo.recibirDanio(potencia);
+                        break;
+                    }
+                    ArrayList<Enemigo> alcanzados = ALCANZADOS.get();
+                    alcanzados.clear();
+                    zona.buscarEnRadio(objetivo.getPosX(), objetivo.getPosY(), h.getRadio(), Enemigo.class, alcanzados);
+                    for (int i = 0; i < alcanzados.size(); i++) {
+                        alcanzados.get(i).recibirDanio(potencia);
+                    }
+                    alcanzados.clear();
+                    break;
+                default:
+                    objetivo.recibirDanio(potencia);
+            }
+            return true;
+        }
+
+        /**
+         * Reduce en un turno la recarga de todas las habilidades.
+         * Se llama al comienzo de cada turno del personaje.
+         */
+        public void avanzarEnfriamientos() {
+            if (enfriamientos == null) return;
+            for (int i = 0; i < enfriamientos.length; i++) {
+                if (enfriamientos[i] > 0) enfriamientos[i]--;
+            }
+        }
+
+        /**
+         * Cantidad disponible de un recurso. Las clases con maná o energía lo sobrescriben.
+         *
+         * @param recurso Recurso consultado.
+         * @return Cantidad disponible (ilimitada para NINGUNO).
+         */
+        protected double getRecurso(TipoRecurso recurso) {
+            return recurso == TipoRecurso.NINGUNO ? Double.POSITIVE_INFINITY : 0;
+        }
+
+        /**
+         * Descuenta el coste de una habilidad. Las clases con maná o energía lo sobrescriben.
+         *
+         * @param recurso Recurso a gastar.
+         * @param coste   Cantidad a gastar.
+         */
+        protected void gastarRecurso(TipoRecurso recurso, double coste) {
+        }
+
+        /**
+         * Daño extra que aporta el equipo puesto (total ya calculado al equipar).
+         *
+         * @return Suma del daño extra del equipo (0 si no lleva).
+         */
+        protected double getDanioArmas() {
+            return equipamiento.getAtaque();
+        }
+
+        // --- Equipo ---
+
+        /**
+         * Obtiene el equipo puesto.
+         *
+         * @return El equipamiento.
+         */
+        public Equipamiento getEquipamiento() {
+            return equipamiento;
+        }
+
+        /**
+         * Pone una pieza en un hueco concreto (o lo vacía con null).
+         *
+         * @param ranura Hueco.
+         * @param pieza  Pieza a poner, o null.
+         * @return La pieza que había antes, o null.
+         * @throws IllegalArgumentException si la clase no tiene ese hueco o la pieza no cabe en él.
+         */
+        public Equipo equipar(RanuraEquipo ranura, Equipo pieza) {
+            Equipo anterior = equipamiento.poner(ranura, pieza);
+            marcarCambio(CampoPartida.EQUIPO);
+            return anterior;
+        }
+
+        /**
+         * Se pone una pieza donde quepa, guardando en la mochila la que tuviera que sustituir.
+         *
+         * @param pieza Pieza a equipar.
+         * @return true si se equipó; false si la clase no tiene hueco para ella.
+         */
+        public boolean equipar(Equipo pieza) {
+            RanuraEquipo ranura = equipamiento.ranuraPara(pieza);
+            if (ranura == null) {
+                System.out.println(nombre + " no puede equipar " + pieza.getNombre() + ".");
+                return false;
+            }
+            Equipo anterior = equipar(ranura, pieza);
+            if (anterior != null) {
+                System.out.println("   (Guardando " + anterior.getNombre() + " en la mochila...)");
+                recogerItem(anterior);
+            }
+            System.out.println(nombre + " se equipa " + pieza.getNombre() + " (" + ranura.getDescripcion() + ").");
+            return true;
         }
 
         // --- Gestión de Inventario ---
@@ -261,9 +692,19 @@
         /**
          * Usa un objeto del inventario en la posición indicada.
          * @param indice Posición del objeto en el inventario.
+         * @return true si el objeto se usó.
+         */
+        public boolean usarObjetoDeMochila(int indice) {
+            return this.inventario.usarYConsumir(indice, this);
+        }
+
+        /**
+         * Obtiene el inventario del personaje.
+         *
+         * @return El inventario.
          */
-        public void usarObjetoDeMochila(int indice) {
-            this.inventario.usarYConsumir(indice, this);
+        public Inventario getInventario() {
+            return inventario;
         }
 
         /**
@@ -1,6 +1,6 @@
 /**
  * Subclase de Personaje que utiliza Energía y agilidad.
- * Puede equipar dos armas y atacar con ambas en el mismo turno.
+ * Puede equipar dos armas y atacar con ambas en el mismo turno; también armadura y abalorio.
  *
  * @author Javier Fernández Gavino
  * @version 1.0
@@ -16,16 +16,6 @@ public class Picaro extends Personaje {
      */
     private int energiaMaxima;
 
-    /**
-     * Arma equipada en la mano derecha.
-     */
-    private Arma arma1;
-
-    /**
-     * Arma equipada en la mano izquierda.
-     */
-    private Arma arma2;
-
 
     /**
      * Crea un Pícaro.
@@ -35,9 +25,9 @@ public class Picaro extends Personaje {
      * @param arma2  Arma de mano izquierda (puede ser null).
      */
     public Picaro(String nombre, Arma arma1, Arma arma2) {
-        super(nombre, 1, 100, 3);
-        this.arma1 = arma1;
-        this.arma2 = arma2;
+        super(nombre, 1, 100, 3, 14, // El más rápido en actuar
+                new RanuraEquipo[] {RanuraEquipo.MANO_PRINCIPAL, RanuraEquipo.MANO_SECUNDARIA,
+                        RanuraEquipo.ARMADURA, RanuraEquipo.ABALORIO}, arma1, arma2);
         this.energiaMaxima = 50;
         this.energia = this.energiaMaxima;
     }
@@ -53,6 +43,15 @@ public class Picaro extends Personaje {
         return energia;
     }
 
+    /**
+     * Obtiene la energía máxima del Pícaro.
+     *
+     * @return La energía máxima.
+     */
+    public int getEnergiaMaxima() {
+        return energiaMaxima;
+    }
+
     /**
      * Establece la energía actual del Pícaro.
      *
@@ -60,6 +59,7 @@ public class Picaro extends Personaje {
      */
     public void setEnergia(int energia) {
         this.energia = Math.max(0, Math.min(energiaMaxima, energia));
+        marcarCambio(CampoPartida.RECURSO);
     }
 
     /**
@@ -68,7 +68,7 @@ public class Picaro extends Personaje {
      * @return El arma de la mano derecha.
      */
     public Arma getArma1() {
-        return arma1;
+        return (Arma) getEquipamiento().get(RanuraEquipo.MANO_PRINCIPAL);
     }
 
     /**
@@ -77,7 +77,7 @@ public class Picaro extends Personaje {
      * @param arma1 El nuevo arma para la mano derecha.
      */
     public void setArma1(Arma arma1) {
-        this.arma1 = arma1;
+        equipar(RanuraEquipo.MANO_PRINCIPAL, arma1);
     }
 
     /**
@@ -86,7 +86,7 @@ public class Picaro extends Personaje {
      * @return El arma de la mano izquierda.
      */
     public Arma getArma2() {
-        return arma2;
+        return (Arma) getEquipamiento().get(RanuraEquipo.MANO_SECUNDARIA);
     }
 
     /**
@@ -95,7 +95,7 @@ public class Picaro extends Personaje {
      * @param arma2 El nuevo arma para la mano izquierda.
      */
     public void setArma2(Arma arma2) {
-        this.arma2 = arma2;
+        equipar(RanuraEquipo.MANO_SECUNDARIA, arma2);
     }
 
     // --- Lógica de Combate ---
@@ -112,11 +112,8 @@ public class Picaro extends Personaje {
 
         int coste = 10;
         if (energia >= coste) {
-            double d1 = (arma1 != null) ? arma1.getDanioExtra() : 0;
-            double d2 = (arma2 != null) ? arma2.getDanioExtra() : 0;
-
-            // Daño base del Pícaro + daño de armas
-            double total = d1 + d2 + (5 * getNivel());
+            // Daño base del Pícaro + daño del equipo
+            double total = getDanioArmas() + Formulas.PICARO_DANIO.evaluar(getNivel());
 
             System.out.println(getNombre() + " ataca velozmente desde las sombras.");
             objetivo.recibirDanio(total);
@@ -127,6 +124,38 @@ public class Picaro extends Personaje {
         }
     }
 
+    /**
+     * Habilidades del pícaro.
+     *
+     * @return La tabla de habilidades del pícaro.
+     */
+    @Override
+    public Habilidad[] getHabilidades() {
+        return Habilidades.PICARO;
+    }
+
+    /**
+     * Energía disponible para las habilidades.
+     *
+     * @param recurso Recurso consultado.
+     * @return Energía actual si se pide ENERGIA.
+     */
+    @Override
+    protected double getRecurso(TipoRecurso recurso) {
+        return recurso == TipoRecurso.ENERGIA ? energia : super.getRecurso(recurso);
+    }
+
+    /**
+     * Gasta energía al usar una habilidad.
+     *
+     * @param recurso Recurso a gastar.
+     * @param coste   Cantidad a gastar.
+     */
+    @Override
+    protected void gastarRecurso(TipoRecurso recurso, double coste) {
+        if (recurso == TipoRecurso.ENERGIA) setEnergia(energia - (int) coste);
+    }
+
     /**
      * Descansa para recuperar energía al máximo.
      */
@@ -143,10 +172,13 @@ public class Picaro extends Personaje {
     @Override
     public void subirNivel() {
         super.subirNivel();
-        setPuntosVidaMax(getPuntosVidaMax() + 15);
+        double vida = Formulas.PICARO_VIDA_NIVEL.evaluar(getNivel());
+        int energiaGanada = (int) Formulas.PICARO_ENERGIA_NIVEL.evaluar(getNivel());
+        setPuntosVidaMax(getPuntosVidaMax() + vida);
         setPuntosVida(getPuntosVidaMax());
-        this.energiaMaxima += 15;
-        this.energia = this.energiaMaxima;
-        System.out.println("   [Pícaro]: Agilidad mejorada (+15 Vida, +15 Energía).");
+        this.energiaMaxima += energiaGanada;
+        marcarCambio(CampoPartida.RECURSO_MAX);
+        setEnergia(this.energiaMaxima);
+        System.out.println("   [Pícaro]: Agilidad mejorada (+" + (int) vida + " Vida, +" + energiaGanada + " Energía).");
     }
 }
\ No newline at end of file
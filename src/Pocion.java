@@ -28,6 +28,22 @@ public class Pocion extends Item {
         this.tipo = tipo;
     }
 
+    /**
+     * Obtiene la cantidad de puntos que restaura.
+     * @return Puntos restaurados.
+     */
+    public double getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene el tipo de poción.
+     * @return VIDA o MANA.
+     */
+    public TipoPocion getTipo() {
+        return tipo;
+    }
+
     /**
      * Usa la poción sobre un personaje.
      * @return true si la poción tuvo efecto (y debe gastarse), false si no.
@@ -0,0 +1,43 @@
+import java.util.List;
+
+/**
+ * Política que decide a quién ataca un personaje cuando hay varios rivales.
+ * Se usa en los combates de grupo para que la selección de objetivo sea intercambiable
+ * (jugadores automáticos, distintos tipos de enemigo, etc.).
+ *
+ * @version 1.0
+ */
+public interface PoliticaDecision {
+
+    /**
+     * Ataca siempre al rival vivo con menos vida (remata heridos).
+     */
+    PoliticaDecision MAS_DEBIL = (actor, rivales) -> {
+        Personaje elegido = null;
+        for (Personaje rival : rivales) {
+            if (rival.estaVivo() && (elegido == null || rival.getPuntosVida() < elegido.getPuntosVida())) {
+                elegido = rival;
+            }
+        }
+        return elegido;
+    };
+
+    /**
+     * Ataca al primer rival vivo de la lista (mantiene el foco sobre un mismo objetivo).
+     */
+    PoliticaDecision PRIMERO_VIVO = (actor, rivales) -> {
+        for (Personaje rival : rivales) {
+            if (rival.estaVivo()) return rival;
+        }
+        return null;
+    };
+
+    /**
+     * Elige el objetivo del actor.
+     *
+     * @param actor   Personaje que va a actuar.
+     * @param rivales Personajes del bando contrario (pueden incluir muertos).
+     * @return El rival elegido, o null si no queda ninguno vivo.
+     */
+    Personaje elegirObjetivo(Personaje actor, List<? extends Personaje> rivales);
+}
@@ -0,0 +1,96 @@
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prepara en segundo plano los próximos encuentros de una sala.
+ * -
+ * Las tiradas se sacan en orden del generador aleatorio de la partida, en el hilo del juego, y
+ * solo la construcción del enemigo se hace en los hilos de trabajo. Por eso la secuencia de
+ * enemigos es exactamente la misma que generando cada uno en el momento con
+ * {@code sala.generarEnemigo(azar.nextDouble())}, pero cuando el jugador explora el siguiente
+ * enemigo normalmente ya está construido.
+ *
+ * @version 1.0
+ */
+public class PrecargadorEncuentros {
+
+    /**
+     * Encuentros preparados por adelantado.
+     */
+    public static final int ADELANTO = 3;
+
+    /**
+     * Hilos de trabajo compartidos por todas las partidas (demonio, para no impedir que el juego termine).
+     */
+    private static final ExecutorService HILOS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                Thread t = new Thread(r, "precarga-encuentros");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final Sala sala;
+    private final SplittableRandom azar;
+    private final int adelanto;
+    private final ArrayDeque<CompletableFuture<Enemigo>> preparados;
+
+    /**
+     * Empieza a preparar los encuentros de una sala.
+     *
+     * @param sala     Sala de los encuentros.
+     * @param azar     Generador de la partida para esta sala (solo lo usa este precargador).
+     * @param adelanto Encuentros a tener preparados.
+     */
+    public PrecargadorEncuentros(Sala sala, SplittableRandom azar, int adelanto) {
+        if (adelanto < 1) throw new IllegalArgumentException("El adelanto debe ser al menos 1");
+        this.sala = sala;
+        this.azar = azar;
+        this.adelanto = adelanto;
+        this.preparados = new ArrayDeque<>(adelanto);
+        rellenar();
+    }
+
+    /**
+     * Empieza a preparar los {@link #ADELANTO} próximos encuentros de una sala.
+     *
+     * @param sala Sala de los encuentros.
+     * @param azar Generador de la partida para esta sala.
+     */
+    public PrecargadorEncuentros(Sala sala, SplittableRandom azar) {
+        this(sala, azar, ADELANTO);
+    }
+
+    public Sala getSala() {
+        return sala;
+    }
+
+    /**
+     * Devuelve el siguiente encuentro (esperando solo si aún no está listo) y encarga otro.
+     *
+     * @return El enemigo del encuentro.
+     */
+    public Enemigo siguiente() {
+        if (preparados.isEmpty()) rellenar();
+        CompletableFuture<Enemigo> proximo = preparados.poll();
+        rellenar();
+        return proximo.join();
+    }
+
+    /**
+     * Descarta los encuentros preparados (al abandonar la sala).
+     */
+    public void cancelar() {
+        for (CompletableFuture<Enemigo> f : preparados) f.cancel(false);
+        preparados.clear();
+    }
+
+    private void rellenar() {
+        while (preparados.size() < adelanto) {
+            double tirada = azar.nextDouble(); // En el hilo del juego y en orden: la secuencia no depende de los hilos
+            preparados.add(CompletableFuture.supplyAsync(() -> sala.generarEnemigo(tirada), HILOS));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Prepara el siguiente nivel en segundo plano mientras se juega la misión actual.
+ * -
+ * Cuando el progreso de la misión pasa de {@link #UMBRAL}, se construyen en otro hilo la sala
+ * del siguiente nivel (con su mapa) y su misión de caza. Al entrar en el nivel, Juego recoge lo
+ * preparado con {@link #tomar}, que lo retira de forma atómica; si todavía no está listo, espera
+ * lo que falte en lugar de empezar de cero.
+ * -
+ * La sala depende del nivel del héroe, así que la preparación se hace para el nivel que tendrá
+ * tras cobrar la recompensa de la misión. Si al entrar el nivel no coincide (por ejemplo, ha
+ * ganado más experiencia en combate), lo preparado se descarta y Juego carga el nivel como siempre.
+ *
+ * @version 1.0
+ */
+public class PrecargadorNivel {
+
+    /**
+     * Progreso de la misión (entre 0 y 1) a partir del cual se prepara el siguiente nivel.
+     */
+    public static final double UMBRAL = 0.5;
+
+    /**
+     * Hilo de preparación compartido por todas las partidas (demonio, para no impedir que el juego termine).
+     */
+    private static final ExecutorService HILOS = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "precarga-nivel");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Contenido de un nivel ya construido.
+     */
+    public static final class NivelPreparado {
+        private final int nivel;
+        private final int nivelJugador;
+        private final Sala sala;
+        private final MisionCaza mision;
+
+        private NivelPreparado(int nivel, int nivelJugador, SplittableRandom azar) {
+            this.nivel = nivel;
+            this.nivelJugador = nivelJugador;
+            this.sala = new Sala(nivel, nivelJugador, azar);
+            this.mision = CatalogoNiveles.crearMision(nivel, sala);
+        }
+
+        public Sala getSala() {
+            return sala;
+        }
+        public MisionCaza getMision() {
+            return mision;
+        }
+    }
+
+    /**
+     * Preparación en curso o terminada (null si no hay ninguna).
+     */
+    private final AtomicReference<Preparacion> actual = new AtomicReference<>();
+
+    private static final class Preparacion {
+        final int nivel;
+        final int nivelJugador;
+        final CompletableFuture<NivelPreparado> futuro;
+
+        Preparacion(int nivel, int nivelJugador, SplittableRandom azar) {
+            this.nivel = nivel;
+            this.nivelJugador = nivelJugador;
+            this.futuro = CompletableFuture.supplyAsync(() -> new NivelPreparado(nivel, nivelJugador, azar), HILOS);
+        }
+    }
+
+    /**
+     * Empieza a preparar el siguiente nivel si la misión ha avanzado lo suficiente.
+     * Se puede llamar cada turno: solo lanza trabajo la primera vez o si ha cambiado el nivel previsto.
+     *
+     * @param nivelSiguiente Nivel que se cargará al completar la misión.
+     * @param jugador        Héroe.
+     * @param mision         Misión actual (o null).
+     * @param azar           Generador de la partida; si hay que preparar, la sala sale de un
+     *                       generador separado de este (en el hilo del juego, para que la partida
+     *                       se pueda repetir con la misma semilla).
+     */
+    public void comprobar(int nivelSiguiente, Personaje jugador, Mision mision, SplittableRandom azar) {
+        if (mision == null || nivelSiguiente > CatalogoNiveles.NUM_NIVELES) return;
+        if (mision.getProgresoActual() < UMBRAL * mision.getObjetivoCantidad()) return;
+
+        int nivelPrevisto = jugador.nivelTrasGanar(mision.getXpRecompensa());
+        Preparacion p = actual.get();
+        if (p != null && p.nivel == nivelSiguiente && p.nivelJugador == nivelPrevisto) return;
+
+        Preparacion nueva = new Preparacion(nivelSiguiente, nivelPrevisto, azar.split());
+        if (actual.compareAndSet(p, nueva)) {
+            if (p != null) p.futuro.cancel(false);
+        } else {
+            nueva.futuro.cancel(false);
+        }
+    }
+
+    /**
+     * Retira el nivel preparado, si coincide con el que se va a cargar.
+     *
+     * @param nivel        Nivel que se va a cargar.
+     * @param nivelJugador Nivel actual del héroe.
+     * @return El nivel preparado, o null si no hay uno válido (hay que construirlo ahora).
+     */
+    public NivelPreparado tomar(int nivel, int nivelJugador) {
+        Preparacion p = actual.getAndSet(null);
+        if (p == null) return null;
+        if (p.nivel != nivel || p.nivelJugador != nivelJugador) {
+            p.futuro.cancel(false);
+            return null;
+        }
+        try {
+            return p.futuro.join();
+        } catch (CancellationException | CompletionException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Paso de personajes a entidades de MundoEntidades y vuelta.
+ * -
+ * El juego interactivo sigue usando Personaje y sus subclases; para simular a gran escala se
+ * importan a un mundo de entidades, se ejecutan los sistemas y, si hace falta, se vuelcan los
+ * resultados (vida y recurso) al personaje. Las comprobaciones de clase se hacen aquí, una vez
+ * por personaje, y no en los sistemas.
+ *
+ * @version 1.0
+ */
+public final class PuenteEntidades {
+
+    private PuenteEntidades() {
+    }
+
+    /**
+     * Crea la entidad de un personaje con sus datos actuales.
+     * Héroes: VIDA, DEFENSA, ATAQUE, CLASE y RECURSO si usan maná o energía.
+     * Enemigos: VIDA, DEFENSA, ATAQUE y BOTIN.
+     *
+     * @param mundo Mundo de entidades.
+     * @param p     Personaje.
+     * @return Número de la entidad.
+     */
+    public static int importar(MundoEntidades mundo, Personaje p) {
+        ClasePersonaje clase = ClasePersonaje.de(p);
+        int id;
+        if (clase == null) {
+            id = mundo.crear(Componente.VIDA, Componente.DEFENSA, Componente.ATAQUE, Componente.BOTIN);
+            mundo.setAtaque(id, p instanceof Enemigo e ? e.getDanioBase() : p.getDanioArmas());
+            mundo.setBotin(id, p instanceof Enemigo e ? TablaBotin.de(e.getTipo()).getProbabilidad() : 0, p.getNivel());
+        } else if (clase == ClasePersonaje.GUERRERO) {
+            id = mundo.crear(Componente.VIDA, Componente.DEFENSA, Componente.ATAQUE, Componente.CLASE);
+            mundo.setAtaque(id, (int) Formulas.GUERRERO_FUERZA.evaluar(p.getNivel()) + p.getDanioArmas());
+        } else {
+            id = mundo.crear(Componente.VIDA, Componente.DEFENSA, Componente.ATAQUE, Componente.CLASE, Componente.RECURSO);
+            if (p instanceof Mago m) {
+                mundo.setAtaque(id, (int) Formulas.MAGO_INTELIGENCIA.evaluar(p.getNivel()));
+                mundo.setRecurso(id, m.getPuntosMana(), m.getPuntosManaMax(), 0);
+            } else {
+                Picaro pi = (Picaro) p;
+                mundo.setAtaque(id, Formulas.PICARO_DANIO.evaluar(p.getNivel()) + p.getDanioArmas());
+                mundo.setRecurso(id, pi.getEnergia(), pi.getEnergiaMaxima(), 0);
+            }
+        }
+        if (clase != null) mundo.setClase(id, EfectoSala.columna(p));
+        mundo.setVida(id, p.getPuntosVida(), p.getPuntosVidaMax());
+        mundo.setDefensa(id, p.getDefensaTotal());
+        return id;
+    }
+
+    /**
+     * Vuelca al personaje la vida y el recurso de su entidad.
+     *
+     * @param mundo Mundo de entidades.
+     * @param id    Entidad del personaje.
+     * @param p     Personaje.
+     */
+    public static void exportar(MundoEntidades mundo, int id, Personaje p) {
+        p.setPuntosVida(mundo.getVida(id));
+        if (p instanceof Mago m) m.setPuntosMana(mundo.getRecurso(id));
+        else if (p instanceof Picaro pi) pi.setEnergia((int) mundo.getRecurso(id));
+    }
+}
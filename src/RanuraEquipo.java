@@ -0,0 +1,32 @@
+/**
+ * Huecos de equipo de un personaje. Cada clase declara los que puede usar
+ * y cada hueco solo admite un tipo de pieza.
+ */
+public enum RanuraEquipo {
+    MANO_PRINCIPAL("mano derecha", Arma.class),
+    MANO_SECUNDARIA("mano izquierda", Arma.class),
+    ARMADURA("armadura", Armadura.class),
+    ABALORIO("abalorio", Abalorio.class);
+
+    private final String descripcion;
+    private final Class<? extends Equipo> tipo;
+
+    RanuraEquipo(String descripcion, Class<? extends Equipo> tipo) {
+        this.descripcion = descripcion;
+        this.tipo = tipo;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Indica si una pieza cabe en este hueco.
+     *
+     * @param pieza Pieza de equipo.
+     * @return true si es del tipo que admite el hueco.
+     */
+    public boolean admite(Equipo pieza) {
+        return tipo.isInstance(pieza);
+    }
+}
@@ -0,0 +1,240 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registro de solo anexar con los hechos de las misiones de todas las partidas.
+ * -
+ * Cada hecho publicado se guarda en el registro y se reparte a las proyecciones suscritas. Cada
+ * proyección tiene su propio hilo de trabajo que le aplica los hechos en orden, así que las
+ * vistas de lectura (ver VistasMisiones) se mantienen al día de forma incremental y quien las
+ * consulta no tiene que recorrer las partidas ni el registro.
+ * -
+ * El progreso de cualquier sesión se puede reconstruir desde el registro con {@link #reconstruir}.
+ * Para no recorrer los hechos de todas las partidas, el registro lleva además un índice con los
+ * hechos de cada sesión (los mismos objetos, en orden).
+ *
+ * @version 1.0
+ */
+public class RegistroMisiones {
+
+    /**
+     * Vista que se actualiza con cada hecho del registro.
+     * Solo la llama el hilo de trabajo de la proyección, siempre en orden de secuencia.
+     */
+    @FunctionalInterface
+    public interface Proyeccion {
+        void aplicar(EventoMision evento);
+    }
+
+    /**
+     * Progreso de una misión reconstruido a partir de sus hechos.
+     */
+    public static final class ProgresoMision {
+        private final String mision;
+        private final EventoMision.Tipo etapa;
+        private final int progreso;
+        private final int objetivo;
+
+        ProgresoMision(String mision, EventoMision.Tipo etapa, int progreso, int objetivo) {
+            this.mision = mision;
+            this.etapa = etapa;
+            this.progreso = progreso;
+            this.objetivo = objetivo;
+        }
+
+        public String getMision() {
+            return mision;
+        }
+        /**
+         * @return Último hecho de la misión (ENTREGADA si ya se cobró).
+         */
+        public EventoMision.Tipo getEtapa() {
+            return etapa;
+        }
+        public int getProgreso() {
+            return progreso;
+        }
+        public int getObjetivo() {
+            return objetivo;
+        }
+
+        @Override
+        public String toString() {
+            return mision + " " + progreso + "/" + objetivo + " (" + etapa + ")";
+        }
+    }
+
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final List<EventoMision> eventos = new ArrayList<>();
+    /** Hechos de cada sesión, en orden (protegido por el cerrojo). */
+    private final Map<String, List<EventoMision>> porSesion = new HashMap<>();
+    private final List<Trabajador> trabajadores = new ArrayList<>();
+
+    /**
+     * Suscribe una proyección y le aplica los hechos ya registrados antes de los nuevos.
+     *
+     * @param nombre     Nombre de la proyección (para el hilo de trabajo).
+     * @param proyeccion Vista a mantener.
+     */
+    public void suscribir(String nombre, Proyeccion proyeccion) {
+        cerrojo.lock();
+        try {
+            Trabajador t = new Trabajador(nombre, proyeccion);
+            t.pendientes.addAll(eventos);
+            t.recibidos = eventos.size();
+            trabajadores.add(t);
+            t.start();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Añade un hecho al registro y lo reparte a las proyecciones. No espera a que se apliquen.
+     *
+     * @param sesion Partida a la que pertenece.
+     * @param tipo   Tipo de hecho.
+     * @param mision Misión afectada.
+     * @return El hecho registrado.
+     */
+    public EventoMision publicar(String sesion, EventoMision.Tipo tipo, Mision mision) {
+        cerrojo.lock();
+        try {
+            EventoMision e = new EventoMision(eventos.size(), sesion, tipo, mision.getTitulo(),
+                    mision.getProgresoActual(), mision.getObjetivoCantidad());
+            eventos.add(e);
+            porSesion.computeIfAbsent(sesion, s -> new ArrayList<>()).add(e);
+            for (Trabajador t : trabajadores) {
+                t.recibidos++;
+                t.pendientes.add(e);
+            }
+            return e;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * @return Número de hechos registrados.
+     */
+    public int getTamanio() {
+        cerrojo.lock();
+        try {
+            return eventos.size();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Copia de los hechos registrados desde una posición.
+     *
+     * @param desde Primera secuencia a devolver.
+     * @return Hechos en orden.
+     */
+    public List<EventoMision> leer(int desde) {
+        cerrojo.lock();
+        try {
+            return new ArrayList<>(eventos.subList(Math.min(desde, eventos.size()), eventos.size()));
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Copia de los hechos de una sesión.
+     *
+     * @param sesion Partida.
+     * @return Sus hechos en orden (vacío si no tiene).
+     */
+    public List<EventoMision> leer(String sesion) {
+        cerrojo.lock();
+        try {
+            List<EventoMision> hechos = porSesion.get(sesion);
+            return hechos != null ? new ArrayList<>(hechos) : new ArrayList<>();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Reconstruye el progreso de la última misión de una sesión recorriendo sus hechos del
+     * registro. Es la fuente de verdad; las vistas solo guardan el resultado ya calculado.
+     *
+     * @param sesion Partida.
+     * @return El progreso, o null si la sesión no tiene hechos.
+     */
+    public ProgresoMision reconstruir(String sesion) {
+        ProgresoMision p = null;
+        for (EventoMision e : leer(sesion)) {
+            p = new ProgresoMision(e.getMision(), e.getTipo(), e.getProgreso(), e.getObjetivo());
+        }
+        return p;
+    }
+
+    /**
+     * Espera a que todas las proyecciones hayan aplicado los hechos publicados hasta ahora.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void esperar() throws InterruptedException {
+        List<Trabajador> copia;
+        long[] objetivos;
+        cerrojo.lock();
+        try {
+            copia = new ArrayList<>(trabajadores);
+            objetivos = new long[copia.size()];
+            for (int i = 0; i < objetivos.length; i++) objetivos[i] = copia.get(i).recibidos;
+        } finally {
+            cerrojo.unlock();
+        }
+        for (int i = 0; i < objetivos.length; i++) copia.get(i).esperar(objetivos[i]);
+    }
+
+    /**
+     * Hilo que aplica los hechos a una proyección.
+     */
+    private static final class Trabajador extends Thread {
+        private final Proyeccion proyeccion;
+        private final BlockingQueue<EventoMision> pendientes = new LinkedBlockingQueue<>();
+        /** Hechos repartidos a este trabajador (protegido por el cerrojo del registro). */
+        private long recibidos;
+        /** Hechos ya aplicados. */
+        private long aplicados;
+
+        Trabajador(String nombre, Proyeccion proyeccion) {
+            super("proyeccion-" + nombre);
+            this.proyeccion = proyeccion;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    EventoMision e = pendientes.take();
+                    try {
+                        proyeccion.aplicar(e);
+                    } catch (RuntimeException ex) {
+                        System.out.println("(!) La proyección " + getName() + " falló en " + e + ": " + ex.getMessage());
+                    }
+                    synchronized (this) {
+                        aplicados++;
+                        notifyAll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized void esperar(long hasta) throws InterruptedException {
+            while (aplicados < hasta) wait();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice espacial de rejilla uniforme sobre las posiciones de los personajes de una sala.
+ * Cada celda agrupa un bloque cuadrado de casillas y guarda sus ocupantes en una lista
+ * doblemente enlazada sobre arrays de enteros, de modo que mover un personaje cuesta O(1)
+ * y una consulta por radio solo recorre las celdas que toca el círculo.
+ * -
+ * Los personajes se dan de alta con {@link #insertar(Personaje)} y a partir de ahí la rejilla
+ * se actualiza sola cada vez que el personaje cambia de posición.
+ *
+ * @version 1.0
+ */
+public class RejillaEspacial {
+
+    /**
+     * Lado de cada celda, en casillas del mapa.
+     */
+    private final int tamanioCelda;
+    /**
+     * Número de celdas en horizontal.
+     */
+    private final int columnas;
+    /**
+     * Número de celdas en vertical.
+     */
+    private final int filas;
+    /**
+     * Primer ocupante de cada celda (-1 si está vacía).
+     */
+    private final int[] cabeza;
+
+    /**
+     * Personaje registrado en cada hueco.
+     */
+    private Personaje[] entidades;
+    /**
+     * Celda en la que está cada hueco.
+     */
+    private int[] celdaDe;
+    /**
+     * Siguiente ocupante de la misma celda.
+     */
+    private int[] siguiente;
+    /**
+     * Ocupante anterior de la misma celda.
+     */
+    private int[] anterior;
+    /**
+     * Primer hueco libre (lista de huecos reutilizables encadenada por {@code siguiente}).
+     */
+    private int libre = -1;
+    /**
+     * Huecos usados alguna vez.
+     */
+    private int usados;
+    /**
+     * Personajes registrados actualmente.
+     */
+    private int cantidad;
+
+    /**
+     * Crea una rejilla que cubre un área de casillas.
+     *
+     * @param ancho        Ancho del área en casillas.
+     * @param alto         Alto del área en casillas.
+     * @param tamanioCelda Lado de cada celda en casillas (conviene que sea del orden del radio típico de consulta).
+     */
+    public RejillaEspacial(int ancho, int alto, int tamanioCelda) {
+        if (tamanioCelda <= 0) throw new IllegalArgumentException("El tamaño de celda debe ser positivo.");
+        this.tamanioCelda = tamanioCelda;
+        this.columnas = (ancho + tamanioCelda - 1) / tamanioCelda;
+        this.filas = (alto + tamanioCelda - 1) / tamanioCelda;
+        this.cabeza = new int[columnas * filas];
+        Arrays.fill(cabeza, -1);
+
+        int capacidad = 16;
+        this.entidades = new Personaje[capacidad];
+        this.celdaDe = new int[capacidad];
+        this.siguiente = new int[capacidad];
+        this.anterior = new int[capacidad];
+    }
+
+    /**
+     * Crea una rejilla que cubre un mapa.
+     *
+     * @param mapa         Mapa de la sala.
+     * @param tamanioCelda Lado de cada celda en casillas.
+     */
+    public RejillaEspacial(Mapa mapa, int tamanioCelda) {
+        this(mapa.getAncho(), mapa.getAlto(), tamanioCelda);
+    }
+
+    // Getters
+    public int getCantidad() {
+        return cantidad;
+    }
+    public int getTamanioCelda() {
+        return tamanioCelda;
+    }
+
+    /**
+     * Da de alta un personaje en su posición actual.
+     * Si estaba registrado en otra rejilla, se le da de baja allí primero.
+     *
+     * @param p Personaje a registrar.
+     */
+    public void insertar(Personaje p) {
+        if (p.getRejilla() == this) return;
+        if (p.getRejilla() != null) p.getRejilla().eliminar(p);
+
+        int id;
+        if (libre >= 0) {
+            id = libre;
+            libre = siguiente[id];
+        } else {
+            if (usados == entidades.length) crecer();
+            id = usados++;
+        }
+        entidades[id] = p;
+        enlazar(id, celda(p.getPosX(), p.getPosY()));
+        p.setRejilla(this, id);
+        cantidad++;
+    }
+
+    /**
+     * Da de baja un personaje.
+     *
+     * @param p Personaje a eliminar.
+     */
+    public void eliminar(Personaje p) {
+        if (p.getRejilla() != this) return;
+        int id = p.getIdRejilla();
+        desenlazar(id);
+        entidades[id] = null;
+        siguiente[id] = libre;
+        libre = id;
+        p.setRejilla(null, -1);
+        cantidad--;
+    }
+
+    /**
+     * Recoloca a un personaje tras moverse. Si no cambia de celda no hace nada.
+     * Lo invoca {@link Personaje#setPosicion(int, int)}.
+     *
+     * @param p Personaje que se ha movido.
+     */
+    public void actualizar(Personaje p) {
+        int id = p.getIdRejilla();
+        int nueva = celda(p.getPosX(), p.getPosY());
+        if (celdaDe[id] != nueva) {
+            desenlazar(id);
+            enlazar(id, nueva);
+        }
+    }
+
+    /**
+     * Busca los personajes vivos dentro de un círculo.
+     *
+     * @param x      Columna del centro.
+     * @param y      Fila del centro.
+     * @param radio  Radio en casillas.
+     * @param tipo   Clase de personaje a buscar (Personaje.class para todos).
+     * @param salida Lista donde se añaden los encontrados (no se vacía).
+     * @param <T>    Tipo de personaje buscado.
+     * @return Número de personajes añadidos.
+     */
+    public <T extends Personaje> int buscarEnRadio(int x, int y, double radio, Class<T> tipo, List<? super T> salida) {
+        double radio2 = radio * radio;
+        int r = (int) Math.ceil(radio);
+        int c0 = Math.max(0, (x - r) / tamanioCelda);
+        int c1 = Math.min(columnas - 1, Math.max(0, x + r) / tamanioCelda);
+        int f0 = Math.max(0, (y - r) / tamanioCelda);
+        int f1 = Math.min(filas - 1, Math.max(0, y + r) / tamanioCelda);
+
+        int encontrados = 0;
+        for (int f = f0; f <= f1; f++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int id = cabeza[f * columnas + c]; id >= 0; id = siguiente[id]) {
+                    Personaje p = entidades[id];
+                    int dx = p.getPosX() - x;
+                    int dy = p.getPosY() - y;
+                    if (dx * dx + dy * dy <= radio2 && p.estaVivo() && tipo.isInstance(p)) {
+                        salida.add(tipo.cast(p));
+                        encontrados++;
+                    }
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Cuenta los personajes vivos dentro de un círculo sin construir ninguna lista
+     * (útil para comprobaciones de aggro).
+     *
+     * @param x     Columna del centro.
+     * @param y     Fila del centro.
+     * @param radio Radio en casillas.
+     * @param tipo  Clase de personaje a contar.
+     * @return Número de personajes en el radio.
+     */
+    public int contarEnRadio(int x, int y, double radio, Class<? extends Personaje> tipo) {
+        double radio2 = radio * radio;
+        int r = (int) Math.ceil(radio);
+        int c0 = Math.max(0, (x - r) / tamanioCelda);
+        int c1 = Math.min(columnas - 1, Math.max(0, x + r) / tamanioCelda);
+        int f0 = Math.max(0, (y - r) / tamanioCelda);
+        int f1 = Math.min(filas - 1, Math.max(0, y + r) / tamanioCelda);
+
+        int total = 0;
+        for (int f = f0; f <= f1; f++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int id = cabeza[f * columnas + c]; id >= 0; id = siguiente[id]) {
+                    Personaje p = entidades[id];
+                    int dx = p.getPosX() - x;
+                    int dy = p.getPosY() - y;
+                    if (dx * dx + dy * dy <= radio2 && p.estaVivo() && tipo.isInstance(p)) total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    // ------- Métodos auxiliares -------
+
+    private int celda(int x, int y) {
+        int c = Math.max(0, Math.min(columnas - 1, x / tamanioCelda));
+        int f = Math.max(0, Math.min(filas - 1, y / tamanioCelda));
+        return f * columnas + c;
+    }
+
+    private void enlazar(int id, int celda) {
+        int primero = cabeza[celda];
+        celdaDe[id] = celda;
+        anterior[id] = -1;
+        siguiente[id] = primero;
+        if (primero >= 0) anterior[primero] = id;
+        cabeza[celda] = id;
+    }
+
+    private void desenlazar(int id) {
+        int ant = anterior[id];
+        int sig = siguiente[id];
+        if (ant >= 0) siguiente[ant] = sig;
+        else cabeza[celdaDe[id]] = sig;
+        if (sig >= 0) anterior[sig] = ant;
+    }
+
+    private void crecer() {
+        int capacidad = entidades.length * 2;
+        entidades = Arrays.copyOf(entidades, capacidad);
+        celdaDe = Arrays.copyOf(celdaDe, capacidad);
+        siguiente = Arrays.copyOf(siguiente, capacidad);
+        anterior = Arrays.copyOf(anterior, capacidad);
+    }
+}
@@ -0,0 +1,214 @@
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pantalla de caracteres con doble búfer para dibujar paneles fijos en el terminal.
+ * -
+ * Se dibuja sobre el búfer trasero y al volcar solo se envían las celdas que han cambiado
+ * respecto a lo que ya hay en pantalla, con secuencias ANSI de posicionamiento del cursor.
+ * Cada fotograma se compone entero en memoria y se escribe de una sola vez, así que por una
+ * conexión lenta viajan unos pocos bytes por turno en lugar de menús completos.
+ * -
+ * El panel ocupa las primeras filas del terminal; el resto se reserva como zona de
+ * desplazamiento para el texto normal del juego (System.out sigue funcionando igual).
+ * Cada celda debe ser un carácter de ancho simple (sin emojis).
+ *
+ * @version 1.0
+ */
+public class RenderizadorTerminal {
+
+    private static final String ESC = "\u001b[";
+    /**
+     * Coste aproximado en bytes de recolocar el cursor: si dos tramos cambiados están más cerca
+     * que esto, es más barato reenviar las celdas intermedias que saltar.
+     */
+    private static final int SALTO_MINIMO = 8;
+
+    private final int ancho;
+    private final int alto;
+    private final PrintStream salida;
+    /**
+     * Lo que hay ahora mismo en pantalla ('\0' = desconocido, obliga a redibujar).
+     */
+    private final char[] frente;
+    /**
+     * Lo que se quiere mostrar en el próximo fotograma.
+     */
+    private final char[] fondo;
+    /**
+     * Búfer reutilizado para componer cada fotograma.
+     */
+    private final StringBuilder fotograma = new StringBuilder(256);
+
+    private long bytesEnviados;
+    private int fotogramas;
+
+    /**
+     * Crea un renderizador para un panel de tamaño fijo.
+     *
+     * @param ancho  Columnas del panel.
+     * @param alto   Filas del panel (las primeras del terminal).
+     * @param salida Flujo del terminal.
+     */
+    public RenderizadorTerminal(int ancho, int alto, PrintStream salida) {
+        if (ancho < 1 || alto < 1) throw new IllegalArgumentException("Tamaño de panel inválido");
+        this.ancho = ancho;
+        this.alto = alto;
+        this.salida = salida;
+        this.frente = new char[ancho * alto];
+        this.fondo = new char[ancho * alto];
+        limpiar();
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+    public int getAlto() {
+        return alto;
+    }
+    public long getBytesEnviados() {
+        return bytesEnviados;
+    }
+    public int getFotogramas() {
+        return fotogramas;
+    }
+
+    /**
+     * Prepara el terminal: borra la pantalla y deja el texto normal desplazándose bajo el panel.
+     */
+    public void activar() {
+        invalidar();
+        enviar(ESC + "2J" + ESC + (alto + 1) + "r" + ESC + (alto + 1) + ";1H");
+    }
+
+    /**
+     * Devuelve el terminal a su estado normal (toda la pantalla se desplaza).
+     */
+    public void desactivar() {
+        enviar(ESC + "r" + ESC + "999;1H");
+    }
+
+    /**
+     * Olvida lo que hay en pantalla: el siguiente volcado redibuja el panel entero.
+     */
+    public void invalidar() {
+        Arrays.fill(frente, '\0');
+    }
+
+    /**
+     * Borra el búfer trasero.
+     */
+    public final void limpiar() {
+        Arrays.fill(fondo, ' ');
+    }
+
+    /**
+     * Escribe texto en el búfer trasero. Lo que se sale del panel se recorta.
+     *
+     * @param columna Columna inicial (0 = izquierda).
+     * @param fila    Fila (0 = arriba).
+     * @param texto   Texto a escribir.
+     */
+    public void escribir(int columna, int fila, String texto) {
+        if (fila < 0 || fila >= alto) return;
+        int base = fila * ancho;
+        for (int i = 0; i < texto.length(); i++) {
+            int c = columna + i;
+            if (c >= ancho) break;
+            if (c >= 0) fondo[base + c] = texto.charAt(i);
+        }
+    }
+
+    /**
+     * Repite un carácter en horizontal.
+     *
+     * @param columna  Columna inicial.
+     * @param fila     Fila.
+     * @param longitud Número de celdas.
+     * @param c        Carácter.
+     */
+    public void rellenar(int columna, int fila, int longitud, char c) {
+        if (fila < 0 || fila >= alto) return;
+        int desde = Math.max(0, columna);
+        int hasta = Math.min(ancho, columna + longitud);
+        if (desde < hasta) Arrays.fill(fondo, fila * ancho + desde, fila * ancho + hasta, c);
+    }
+
+    /**
+     * Dibuja el borde de una caja con un título opcional en el lado superior.
+     *
+     * @param columna Columna de la esquina superior izquierda.
+     * @param fila    Fila de la esquina superior izquierda.
+     * @param anchoC  Ancho de la caja.
+     * @param altoC   Alto de la caja.
+     * @param titulo  Título (o null).
+     */
+    public void caja(int columna, int fila, int anchoC, int altoC, String titulo) {
+        int derecha = columna + anchoC - 1;
+        int abajo = fila + altoC - 1;
+        rellenar(columna + 1, fila, anchoC - 2, '─');
+        rellenar(columna + 1, abajo, anchoC - 2, '─');
+        for (int f = fila + 1; f < abajo; f++) {
+            escribir(columna, f, "│");
+            escribir(derecha, f, "│");
+        }
+        escribir(columna, fila, "┌");
+        escribir(derecha, fila, "┐");
+        escribir(columna, abajo, "└");
+        escribir(derecha, abajo, "┘");
+        if (titulo != null) escribir(columna + 2, fila, " " + titulo + " ");
+    }
+
+    /**
+     * Envía al terminal solo las celdas que han cambiado desde el último volcado.
+     * El cursor del texto normal se guarda y se restaura, así que no se altera.
+     *
+     * @return Bytes enviados (0 si no había cambios).
+     */
+    public int volcar() {
+        fotograma.setLength(0);
+        for (int fila = 0; fila < alto; fila++) {
+            int base = fila * ancho;
+            int c = 0;
+            while (c < ancho) {
+                if (frente[base + c] == fondo[base + c]) {
+                    c++;
+                    continue;
+                }
+                // Tramo de celdas cambiadas, uniendo huecos pequeños
+                int inicio = c;
+                int fin = c + 1;
+                int iguales = 0;
+                for (int k = fin; k < ancho && iguales < SALTO_MINIMO; k++) {
+                    if (frente[base + k] == fondo[base + k]) {
+                        iguales++;
+                    } else {
+                        iguales = 0;
+                        fin = k + 1;
+                    }
+                }
+                fotograma.append(ESC).append(fila + 1).append(';').append(inicio + 1).append('H');
+                fotograma.append(fondo, base + inicio, fin - inicio);
+                System.arraycopy(fondo, base + inicio, frente, base + inicio, fin - inicio);
+                c = fin;
+            }
+        }
+        if (fotograma.length() == 0) return 0;
+        fotograma.insert(0, "\u001b7").append("\u001b8");
+        return enviar(fotograma);
+    }
+
+    /**
+     * Escribe un bloque de una sola vez y vacía el flujo.
+     */
+    private int enviar(CharSequence texto) {
+        byte[] bytes = texto.toString().getBytes(StandardCharsets.UTF_8);
+        salida.flush(); // Lo que el juego haya impreso antes va primero
+        salida.write(bytes, 0, bytes.length);
+        salida.flush();
+        bytesEnviados += bytes.length;
+        fotogramas++;
+        return bytes.length;
+    }
+}
@@ -0,0 +1,142 @@
+import java.util.SplittableRandom;
+
+/**
+ * Aplicación de daño por lotes sobre arrays de primitivos (vida, vida máxima, defensa).
+ * -
+ * Hace exactamente las mismas operaciones que {@link Personaje#recibirDanio(double)}
+ * (restar la defensa, no bajar de 0, limitar la vida entre 0 y el máximo) y en el mismo orden,
+ * así que el resultado es idéntico bit a bit al de aplicar el golpe objeto a objeto.
+ * -
+ * Los bucles no tienen saltos ni llamadas: solo restas, Math.max/Math.min y una conversión
+ * int a double, que el compilador JIT vectoriza con instrucciones SIMD. La máscara de muertos
+ * se calcula en una pasada separada para no romper esa vectorización.
+ * -
+ * Uso como banco de pruebas: {@code java ResolutorDanio [enemigos] [rondas]}
+ *
+ * @version 1.0
+ */
+public final class ResolutorDanio {
+
+    private ResolutorDanio() {
+    }
+
+    /**
+     * Aplica el mismo daño bruto a un rango de objetivos.
+     *
+     * @param danio   Daño bruto de cada golpe.
+     * @param vida    Vida actual de cada objetivo (se modifica).
+     * @param vidaMax Vida máxima de cada objetivo.
+     * @param defensa Defensa de cada objetivo.
+     * @param desde   Primer índice (incluido).
+     * @param hasta   Último índice (excluido).
+     */
+    public static void aplicar(double danio, double[] vida, double[] vidaMax, int[] defensa, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            double real = Math.max(danio - defensa[i], 0);
+            vida[i] = Math.max(0, Math.min(vidaMax[i], vida[i] - real));
+        }
+    }
+
+    /**
+     * Aplica a cada objetivo su propio daño bruto.
+     *
+     * @param danios  Daño bruto para cada objetivo.
+     * @param vida    Vida actual de cada objetivo (se modifica).
+     * @param vidaMax Vida máxima de cada objetivo.
+     * @param defensa Defensa de cada objetivo.
+     * @param desde   Primer índice (incluido).
+     * @param hasta   Último índice (excluido).
+     */
+    public static void aplicar(double[] danios, double[] vida, double[] vidaMax, int[] defensa, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            double real = Math.max(danios[i] - defensa[i], 0);
+            vida[i] = Math.max(0, Math.min(vidaMax[i], vida[i] - real));
+        }
+    }
+
+    /**
+     * Marca qué objetivos han muerto (vida a 0).
+     *
+     * @param vida    Vida de cada objetivo.
+     * @param muertos Máscara de salida: true si el objetivo ha caído.
+     * @param desde   Primer índice (incluido).
+     * @param hasta   Último índice (excluido).
+     * @return Número de objetivos muertos en el rango.
+     */
+    public static int marcarMuertos(double[] vida, boolean[] muertos, int desde, int hasta) {
+        int total = 0;
+        for (int i = desde; i < hasta; i++) {
+            boolean muerto = !(vida[i] > 0); // Igual que !Personaje.estaVivo()
+            muertos[i] = muerto;
+            total += muerto ? 1 : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Versión de referencia, un objetivo cada vez, con la misma cuenta que Personaje.recibirDanio.
+     * Sirve para comprobar que el lote da resultados idénticos.
+     *
+     * @param danio   Daño bruto.
+     * @param vida    Vida actual.
+     * @param vidaMax Vida máxima.
+     * @param defensa Defensa.
+     * @return Vida resultante.
+     */
+    public static double aplicarUno(double danio, double vida, double vidaMax, int defensa) {
+        double danioReal = danio - defensa;
+        if (danioReal < 0) danioReal = 0;
+        return Math.max(0, Math.min(vidaMax, vida - danioReal));
+    }
+
+    /**
+     * Banco de pruebas: compara el lote con la versión objeto a objeto sobre una oleada de enemigos.
+     *
+     * @param args Opcional: número de enemigos (100000) y de rondas (200).
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        SplittableRandom azar = new SplittableRandom(42);
+        Enemigo[] oleada = new Enemigo[n];
+        double[] vida = new double[n];
+        double[] vidaMax = new double[n];
+        int[] defensa = new int[n];
+        for (int i = 0; i < n; i++) {
+            oleada[i] = new Enemigo(TipoEnemigo.ORCO_RASO, 1 + azar.nextInt(10));
+            vida[i] = oleada[i].getPuntosVida();
+            vidaMax[i] = oleada[i].getPuntosVidaMax();
+            defensa[i] = oleada[i].getDefensa();
+        }
+        double[] danios = new double[rondas];
+        for (int r = 0; r < rondas; r++) danios[r] = 0.5 + azar.nextDouble() * 3; // Golpes pequeños: la oleada aguanta
+
+        long t0 = System.nanoTime();
+        SalidaSilenciada.ejecutar(() -> {
+            for (int r = 0; r < rondas; r++) {
+                for (Enemigo e : oleada) e.recibirDanio(danios[r]);
+            }
+            return null;
+        });
+        long tObjetos = System.nanoTime() - t0;
+
+        boolean[] muertos = new boolean[n];
+        t0 = System.nanoTime();
+        int caidos = 0;
+        for (int r = 0; r < rondas; r++) {
+            aplicar(danios[r], vida, vidaMax, defensa, 0, n);
+            caidos = marcarMuertos(vida, muertos, 0, n);
+        }
+        long tLote = System.nanoTime() - t0;
+
+        int distintos = 0;
+        for (int i = 0; i < n; i++) {
+            if (Double.doubleToRawLongBits(vida[i]) != Double.doubleToRawLongBits(oleada[i].getPuntosVida())) distintos++;
+        }
+        double golpes = (double) n * rondas;
+        System.out.printf("Personaje.recibirDanio: %8.1f M golpes/s%n", golpes / tObjetos * 1e3);
+        System.out.printf("Por lotes:              %8.1f M golpes/s%n", golpes / tLote * 1e3);
+        System.out.println("Caídos: " + caidos + "  Resultados distintos: " + distintos);
+    }
+}
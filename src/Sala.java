@@ -1,3 +1,8 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Clase que representa una sala en el juego con diferentes efectos y dificultades.
  * Integra la generación de enemigos.
@@ -8,6 +13,11 @@
  */
 public class Sala {
 
+    /**
+     * Distancia mínima a la que aparecen los enemigos que acompañan al primero en una emboscada.
+     */
+    public static final int DISTANCIA_REFUERZOS = 3;
+
     /**
      * Tipo de efecto ambiental.
      */
@@ -16,6 +26,11 @@ public class Sala {
      * Descripción del efecto ambiental.
      */
     private String descripcion;
+    /**
+     * Efectos ambientales activos. Se reemplaza el array entero al añadir uno, así que se puede
+     * aplicar desde varios hilos sin cerrojo.
+     */
+    private volatile EfectoSala[] efectos;
     /**
      * Dificultad de la sala.
      */
@@ -24,6 +39,14 @@ public class Sala {
      * Nivel sugerido para el jugador en esta sala.
      */
     private int nivelSugerido;
+    /**
+     * Mapa de casillas de la sala.
+     */
+    private Mapa mapa;
+    /**
+     * Índice espacial de los personajes presentes en la sala.
+     */
+    private RejillaEspacial rejilla;
 
     /**
      * Constructor de la sala.
@@ -33,6 +56,18 @@ public class Sala {
      * @param nivelJugador Nivel actual del jugador para ajustar la dificultad.
      */
     public Sala(int numeroSala, int nivelJugador) {
+        this(numeroSala, nivelJugador, new SplittableRandom());
+    }
+
+    /**
+     * Constructor de la sala con el efecto y el mapa sacados de un generador concreto
+     * (mismo generador, misma sala).
+     *
+     * @param numeroSala   Número identificativo de la sala (1, 2, 3).
+     * @param nivelJugador Nivel actual del jugador para ajustar la dificultad.
+     * @param azar         Generador aleatorio de la partida.
+     */
+    public Sala(int numeroSala, int nivelJugador, SplittableRandom azar) {
         /**
          * Asignación de Dificultad y Nivel Sugerido.
          */
@@ -50,25 +85,15 @@ public class Sala {
         /**
          * Asignación de Efecto Ambiental Aleatorio.
          */
-        int azar = (int) (Math.random() * 4);
-        switch (azar) {
-            case 0:
-                this.tipo = TipoSala.ESCARCHA; // Antes "ESCARCHA"
-                this.descripcion = "Un frío sepulcral que congela tus reservas.";
-                break;
-            case 1:
-                this.tipo = TipoSala.NIEBLA;   // Antes "NIEBLA"
-                this.descripcion = "Vapores venenosos que corroen tu piel.";
-                break;
-            case 2:
-                this.tipo = TipoSala.BENDICION;// Antes "BENDICION"
-                this.descripcion = "Un rayo de luz celestial que purifica tus heridas.";
-                break;
-            default:
-                this.tipo = TipoSala.NORMAL;   // Antes "NORMAL"
-                this.descripcion = "Una estancia de piedra fría sin peligros aparentes.";
-                break;
-        }
+        this.tipo = TipoSala.values()[azar.nextInt(TipoSala.values().length)];
+        this.descripcion = tipo.getDescripcion();
+        this.efectos = tipo.getEfectos();
+
+        /**
+         * Generación del mapa: las salas difíciles tienen más columnas que esquivar.
+         */
+        this.mapa = Mapa.generarSala(16, 10, 0.08 * Math.min(3, numeroSala), azar);
+        this.rejilla = new RejillaEspacial(mapa, 4);
     }
 
     /**
@@ -76,65 +101,89 @@ public class Sala {
      * Ajusta las probabilidades de aparición según la dificultad de la sala.
      */
     public Enemigo generarEnemigo() {
-        double probabilidad = Math.random();
-
-        // Comparamos directamente con el Enum usando ==
-        if (this.dificultad == Dificultad.FACIL) {
-            /**
-             * 80% Orco, 15% Espectro, 5% Jefe
-             */
-            if (probabilidad < 0.05) return new Enemigo("Comandante Orco (Mini-Jefe)", nivelSugerido + 2);
-            if (probabilidad < 0.20) return new Enemigo("Espectro Débil", nivelSugerido + 1);
-            return new Enemigo("Orco Raso", nivelSugerido);
-
-        } else if (this.dificultad == Dificultad.MEDIA) {
-            /**
-             * 50% Orco, 35% Espectro, 15% Jefe
-             */
-            if (probabilidad < 0.15) return new Enemigo("Caballero Espectral (Mini-Jefe)", nivelSugerido + 2);
-            if (probabilidad < 0.50) return new Enemigo("Espectro Acechador", nivelSugerido + 1);
-            return new Enemigo("Orco Guerrero", nivelSugerido);
+        return generarEnemigo(ThreadLocalRandom.current().nextDouble());
+    }
 
-        } else {
-            /**
-             * 20% Orco, 50% Espectro, 30% Jefe
-             */
-            if (probabilidad < 0.30) return new Enemigo("SEÑOR DE LAS SOMBRAS (JEFE)", nivelSugerido + 3);
-            if (probabilidad < 0.80) return new Enemigo("Caballero Corrupto", nivelSugerido + 2);
-            return new Enemigo("Orco Berserker", nivelSugerido + 1);
+    /**
+     * Generador de enemigos con una tirada ya hecha.
+     * Permite usar un generador aleatorio propio (por hilo o por partida).
+     *
+     * @param probabilidad Tirada entre 0 (incluido) y 1 (excluido).
+     * @return El enemigo que corresponde a la tirada según la dificultad de la sala.
+     */
+    public Enemigo generarEnemigo(double probabilidad) {
+        for (Aparicion a : APARICIONES[dificultad.ordinal()]) {
+            if (probabilidad < a.hasta) return new Enemigo(a.tipo, nivelSugerido + a.bonoNivel);
+        }
+        throw new IllegalArgumentException("Tirada fuera de [0, 1): " + probabilidad);
+    }
+
+    /**
+     * Entrada de la tabla de aparición: si la tirada es menor que {@code hasta}, sale ese tipo.
+     */
+    private static final class Aparicion {
+        final double hasta;
+        final TipoEnemigo tipo;
+        final int bonoNivel;
+
+        Aparicion(double hasta, TipoEnemigo tipo, int bonoNivel) {
+            this.hasta = hasta;
+            this.tipo = tipo;
+            this.bonoNivel = bonoNivel;
         }
     }
 
     /**
-     * Aplica el efecto ambiental de la sala al personaje.
+     * Tabla de aparición por dificultad (indexada por ordinal), con umbrales acumulados.
+     */
+    private static final Aparicion[][] APARICIONES = new Aparicion[Dificultad.values().length][];
+    static {
+        // 80% Orco, 15% Espectro, 5% Jefe
+        APARICIONES[Dificultad.FACIL.ordinal()] = new Aparicion[] {
+                new Aparicion(0.05, TipoEnemigo.COMANDANTE_ORCO, 2),
+                new Aparicion(0.20, TipoEnemigo.ESPECTRO_DEBIL, 1),
+                new Aparicion(1.0, TipoEnemigo.ORCO_RASO, 0)
+        };
+        // 50% Orco, 35% Espectro, 15% Jefe
+        APARICIONES[Dificultad.MEDIA.ordinal()] = new Aparicion[] {
+                new Aparicion(0.15, TipoEnemigo.CABALLERO_ESPECTRAL, 2),
+                new Aparicion(0.50, TipoEnemigo.ESPECTRO_ACECHADOR, 1),
+                new Aparicion(1.0, TipoEnemigo.ORCO_GUERRERO, 0)
+        };
+        // 20% Orco, 50% Espectro, 30% Jefe
+        APARICIONES[Dificultad.DIFICIL.ordinal()] = new Aparicion[] {
+                new Aparicion(0.30, TipoEnemigo.SENOR_DE_LAS_SOMBRAS, 3),
+                new Aparicion(0.80, TipoEnemigo.CABALLERO_CORRUPTO, 2),
+                new Aparicion(1.0, TipoEnemigo.ORCO_BERSERKER, 1)
+        };
+    }
+
+    /**
+     * Aplica los efectos ambientales de la sala al personaje, en el orden en que se añadieron.
+     * La reacción de cada clase sale de la tabla de EfectoSala.
      *
      * @param p Personaje que entra en la sala.
      */
     public void aplicarEfecto(Personaje p) {
         System.out.println("\n--- [SALA " + dificultad + "]: " + descripcion + " ---");
 
-        // Switch sobre el Enum (no hace falta poner TipoSala.ESCARCHA, Java lo entiende)
-        switch (this.tipo) {
-            case ESCARCHA:
-                if (p instanceof Mago) {
-                    Mago m = (Mago) p;
-                    m.setPuntosMana(m.getPuntosMana() - 15);
-                    System.out.println("   * El frío drena 15 de Maná.");
-                } else if (p instanceof Picaro) {
-                    ((Picaro) p).setEnergia(((Picaro) p).getEnergia() - 15);
-                    System.out.println("   * El frío drena 15 de Energía.");
-                }
-                break;
-            case NIEBLA:
-                p.recibirDanio(10);
-                break;
-            case BENDICION:
-                p.setPuntosVida(p.getPuntosVida() + 15);
-                System.out.println("   * La luz restaura 15 PV.");
-                break;
+        int columna = EfectoSala.columna(p);
+        for (EfectoSala efecto : efectos) {
+            efecto.aplicar(p, columna);
         }
     }
 
+    /**
+     * Añade un efecto ambiental a la sala (se suma a los que ya tenga).
+     *
+     * @param efecto Efecto a añadir.
+     */
+    public synchronized void anadirEfecto(EfectoSala efecto) {
+        EfectoSala[] nuevos = Arrays.copyOf(efectos, efectos.length + 1);
+        nuevos[efectos.length] = efecto;
+        this.efectos = nuevos;
+    }
+
     /**
      * Getters de la sala.
      *
@@ -148,6 +197,86 @@ public class Sala {
         return descripcion;
     }
 
+    /**
+     * Coloca a un enemigo en la casilla libre más cercana a un personaje y lo da de alta en la
+     * rejilla de la sala. Si no queda ninguna libre, comparte casilla con él.
+     *
+     * @param enemigo Enemigo que aparece.
+     * @param ancla   Personaje junto al que aparece (normalmente el jugador).
+     */
+    public void colocarJunto(Enemigo enemigo, Personaje ancla) {
+        colocar(enemigo, ancla, 1, null);
+    }
+
+    /**
+     * Coloca una emboscada alrededor de un personaje: el primer enemigo junto a él y el resto a
+     * {@link #DISTANCIA_REFUERZOS} casillas o más, en casillas desde las que se puede llegar hasta
+     * él. Todos quedan dados de alta en la rejilla de la sala.
+     *
+     * @param enemigos Enemigos de la emboscada, el primero en cabeza.
+     * @param ancla    Personaje emboscado.
+     * @return Campo de flujo hacia el personaje, para que los refuerzos se acerquen (ver
+     *         CombateGrupal.setPersecucion).
+     */
+    public CampoFlujo colocarEmboscada(List<Enemigo> enemigos, Personaje ancla) {
+        CampoFlujo campo = campoHacia(ancla);
+        for (int i = 0; i < enemigos.size(); i++) {
+            colocar(enemigos.get(i), ancla, i == 0 ? 1 : DISTANCIA_REFUERZOS, campo);
+        }
+        return campo;
+    }
+
+    /**
+     * Campo de flujo de la sala hacia un personaje, para que lo persigan sus enemigos.
+     *
+     * @param objetivo Personaje perseguido.
+     * @return Campo ya calculado hacia su casilla.
+     */
+    public CampoFlujo campoHacia(Personaje objetivo) {
+        CampoFlujo campo = new CampoFlujo(mapa);
+        campo.calcular(mapa.indice(objetivo.getPosX(), objetivo.getPosY()));
+        return campo;
+    }
+
+    /**
+     * Coloca a un enemigo en la casilla libre más cercana a un personaje a partir de una distancia
+     * (en anillos: la distancia es el mayor de los desplazamientos en x e y). Con un campo de flujo,
+     * solo valen las casillas desde las que se llega al personaje.
+     */
+    private void colocar(Enemigo enemigo, Personaje ancla, int distancia, CampoFlujo alcanzables) {
+        int x0 = ancla.getPosX();
+        int y0 = ancla.getPosY();
+        int alcance = Math.max(mapa.getAncho(), mapa.getAlto());
+        for (int r = distancia; r < alcance; r++) {
+            for (int dy = -r; dy <= r; dy++) {
+                for (int dx = -r; dx <= r; dx++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != r) continue; // Solo el anillo de radio r
+                    int x = x0 + dx;
+                    int y = y0 + dy;
+                    if (mapa.esTransitable(x, y) && rejilla.contarEnRadio(x, y, 0, Personaje.class) == 0
+                            && (alcanzables == null || alcanzables.esAlcanzable(mapa.indice(x, y)))) {
+                        enemigo.setPosicion(x, y);
+                        rejilla.insertar(enemigo);
+                        return;
+                    }
+                }
+            }
+        }
+        if (distancia > 1) {
+            colocar(enemigo, ancla, 1, null); // No queda sitio tan lejos: lo más cerca posible
+            return;
+        }
+        enemigo.setPosicion(x0, y0);
+        rejilla.insertar(enemigo);
+    }
+
+    /**
+     * @return Copia de los efectos ambientales activos.
+     */
+    public EfectoSala[] getEfectos() {
+        return efectos.clone();
+    }
+
     public Dificultad getDificultad() {
         return dificultad;
     }
@@ -156,6 +285,14 @@ public class Sala {
         return nivelSugerido;
     }
 
+    public Mapa getMapa() {
+        return mapa;
+    }
+
+    public RejillaEspacial getRejilla() {
+        return rejilla;
+    }
+
     /**
      * Representación en cadena de la sala.
      *
@@ -165,6 +302,7 @@ public class Sala {
     public String toString() {
         return "Sala{" +
                 "tipo=" + tipo + // Se imprime el nombre del Enum automáticamente
+                ", efectos=" + Arrays.toString(efectos) +
                 ", descripcion='" + descripcion + '\'' +
                 ", dificultad=" + dificultad +
                 ", nivelSugerido=" + nivelSugerido +
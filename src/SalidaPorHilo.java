@@ -0,0 +1,216 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Salida estándar que reparte lo que escribe cada hilo a su propio destino.
+ * -
+ * Las clases del juego narran con System.out. Cuando varias partidas se juegan a la vez y cada
+ * una tiene que devolver su propia narración (por ejemplo, en ServidorJuego), se instala este
+ * flujo como System.out y cada hilo de partida elige dónde acaba su texto con {@link #dirigir}.
+ * Los hilos sin destino escriben en la salida original.
+ * -
+ * Todos los métodos públicos de PrintStream (print, println, printf, format, append, write...)
+ * se pasan tal cual al destino del hilo, así que ninguna forma de escribir se escapa a la salida
+ * original. Este flujo no toma ningún cerrojo: los hilos con destinos distintos no se esperan
+ * entre sí para narrar.
+ *
+ * @version 1.0
+ */
+public final class SalidaPorHilo extends PrintStream {
+
+    private static final ThreadLocal<PrintStream> DESTINO = new ThreadLocal<>();
+
+    private static SalidaPorHilo instalada;
+
+    private final PrintStream original;
+
+    private SalidaPorHilo(PrintStream original) {
+        super(original, true);
+        this.original = original;
+    }
+
+    /**
+     * Sustituye System.out por un flujo repartido por hilos (solo la primera vez).
+     */
+    public static synchronized void instalar() {
+        if (instalada == null) {
+            instalada = new SalidaPorHilo(System.out);
+            System.setOut(instalada);
+        }
+    }
+
+    /**
+     * Dirige la salida del hilo actual a otro flujo.
+     *
+     * @param destino Flujo donde acaba la salida del hilo (null para volver a la salida original).
+     */
+    public static void dirigir(PrintStream destino) {
+        if (destino == null) DESTINO.remove();
+        else DESTINO.set(destino);
+    }
+
+    /**
+     * @return Destino del hilo actual, o null si escribe en la salida original.
+     */
+    public static PrintStream getDestino() {
+        return DESTINO.get();
+    }
+
+    /**
+     * Crea un destino que acumula el texto en memoria (UTF-8), para leerlo con
+     * {@code texto.toString(StandardCharsets.UTF_8)}.
+     *
+     * @param texto Donde se acumulan los bytes.
+     * @return Flujo que escribe en él.
+     */
+    public static PrintStream enMemoria(ByteArrayOutputStream texto) {
+        return new PrintStream(texto, true, StandardCharsets.UTF_8);
+    }
+
+    private PrintStream actual() {
+        PrintStream destino = DESTINO.get();
+        return destino != null ? destino : original;
+    }
+
+    @Override
+    public void flush() {
+        actual().flush();
+    }
+    @Override
+    public void close() {
+        actual().close();
+    }
+    @Override
+    public boolean checkError() {
+        return actual().checkError();
+    }
+    @Override
+    public void write(int b) {
+        actual().write(b);
+    }
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        actual().write(buf, off, len);
+    }
+    @Override
+    public void write(byte[] buf) {
+        actual().write(buf, 0, buf.length);
+    }
+    @Override
+    public void writeBytes(byte[] buf) {
+        actual().write(buf, 0, buf.length);
+    }
+    @Override
+    public void print(boolean b) {
+        actual().print(b);
+    }
+    @Override
+    public void print(char c) {
+        actual().print(c);
+    }
+    @Override
+    public void print(int i) {
+        actual().print(i);
+    }
+    @Override
+    public void print(long l) {
+        actual().print(l);
+    }
+    @Override
+    public void print(float f) {
+        actual().print(f);
+    }
+    @Override
+    public void print(double d) {
+        actual().print(d);
+    }
+    @Override
+    public void print(char[] s) {
+        actual().print(s);
+    }
+    @Override
+    public void print(String s) {
+        actual().print(s);
+    }
+    @Override
+    public void print(Object obj) {
+        actual().print(obj);
+    }
+    @Override
+    public void println() {
+        actual().println();
+    }
+    @Override
+    public void println(boolean x) {
+        actual().println(x);
+    }
+    @Override
+    public void println(char x) {
+        actual().println(x);
+    }
+    @Override
+    public void println(int x) {
+        actual().println(x);
+    }
+    @Override
+    public void println(long x) {
+        actual().println(x);
+    }
+    @Override
+    public void println(float x) {
+        actual().println(x);
+    }
+    @Override
+    public void println(double x) {
+        actual().println(x);
+    }
+    @Override
+    public void println(char[] x) {
+        actual().println(x);
+    }
+    @Override
+    public void println(String x) {
+        actual().println(x);
+    }
+    @Override
+    public void println(Object x) {
+        actual().println(x);
+    }
+    @Override
+    public PrintStream printf(String format, Object... args) {
+        actual().printf(format, args);
+        return this;
+    }
+    @Override
+    public PrintStream printf(Locale l, String format, Object... args) {
+        actual().printf(l, format, args);
+        return this;
+    }
+    @Override
+    public PrintStream format(String format, Object... args) {
+        actual().format(format, args);
+        return this;
+    }
+    @Override
+    public PrintStream format(Locale l, String format, Object... args) {
+        actual().format(l, format, args);
+        return this;
+    }
+    @Override
+    public PrintStream append(CharSequence csq) {
+        actual().append(csq);
+        return this;
+    }
+    @Override
+    public PrintStream append(CharSequence csq, int start, int end) {
+        actual().append(csq, start, end);
+        return this;
+    }
+    @Override
+    public PrintStream append(char c) {
+        actual().append(c);
+        return this;
+    }
+}
@@ -0,0 +1,163 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta código del juego sin escribir nada por consola.
+ * Las clases del juego narran cada acción con System.out; en las simulaciones masivas
+ * esa salida no interesa y además serializa a todos los hilos en el mismo PrintStream.
+ * -
+ * Solo se silencia el hilo que llama: System.out pasa a ser un {@link SalidaPorHilo} y el hilo
+ * dirige su salida a un flujo que descarta todo sin tomar cerrojos. El resto de la aplicación
+ * sigue escribiendo con normalidad, y cada hilo de trabajo de una simulación paralela tiene
+ * que envolver su propia tarea.
+ *
+ * @version 1.0
+ */
+public final class SalidaSilenciada {
+
+    /**
+     * Flujo que descarta todo lo que recibe.
+     */
+    private static final PrintStream NULA = new Nula();
+
+    private SalidaSilenciada() {
+    }
+
+    /**
+     * Ejecuta una tarea en el hilo actual con su salida estándar descartada, y la restaura al terminar.
+     *
+     * @param tarea Tarea a ejecutar.
+     * @param <T>   Tipo del resultado.
+     * @return El resultado de la tarea.
+     */
+    public static <T> T ejecutar(Supplier<T> tarea) {
+        SalidaPorHilo.instalar();
+        PrintStream anterior = SalidaPorHilo.getDestino();
+        SalidaPorHilo.dirigir(NULA);
+        try {
+            return tarea.get();
+        } finally {
+            SalidaPorHilo.dirigir(anterior);
+        }
+    }
+
+    /**
+     * PrintStream que no hace nada. Sobrescribe todos los métodos públicos para que ninguno
+     * formatee texto ni tome el cerrojo interno de PrintStream.
+     */
+    private static final class Nula extends PrintStream {
+        Nula() {
+            super(OutputStream.nullOutputStream());
+        }
+
+        @Override
+        public void flush() {
+        }
+        @Override
+        public void close() {
+        }
+        @Override
+        public boolean checkError() {
+            return false;
+        }
+        @Override
+        public void write(int b) {
+        }
+        @Override
+        public void write(byte[] buf, int off, int len) {
+        }
+        @Override
+        public void write(byte[] buf) {
+        }
+        @Override
+        public void writeBytes(byte[] buf) {
+        }
+        @Override
+        public void print(boolean b) {
+        }
+        @Override
+        public void print(char c) {
+        }
+        @Override
+        public void print(int i) {
+        }
+        @Override
+        public void print(long l) {
+        }
+        @Override
+        public void print(float f) {
+        }
+        @Override
+        public void print(double d) {
+        }
+        @Override
+        public void print(char[] s) {
+        }
+        @Override
+        public void print(String s) {
+        }
+        @Override
+        public void print(Object obj) {
+        }
+        @Override
+        public void println() {
+        }
+        @Override
+        public void println(boolean x) {
+        }
+        @Override
+        public void println(char x) {
+        }
+        @Override
+        public void println(int x) {
+        }
+        @Override
+        public void println(long x) {
+        }
+        @Override
+        public void println(float x) {
+        }
+        @Override
+        public void println(double x) {
+        }
+        @Override
+        public void println(char[] x) {
+        }
+        @Override
+        public void println(String x) {
+        }
+        @Override
+        public void println(Object x) {
+        }
+        @Override
+        public PrintStream printf(String format, Object... args) {
+            return this;
+        }
+        @Override
+        public PrintStream printf(Locale l, String format, Object... args) {
+            return this;
+        }
+        @Override
+        public PrintStream format(String format, Object... args) {
+            return this;
+        }
+        @Override
+        public PrintStream format(Locale l, String format, Object... args) {
+            return this;
+        }
+        @Override
+        public PrintStream append(CharSequence csq) {
+            return this;
+        }
+        @Override
+        public PrintStream append(CharSequence csq, int start, int end) {
+            return this;
+        }
+        @Override
+        public PrintStream append(char c) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API HTTP/JSON local para jugar partidas desde herramientas o un cliente web, sin nada instalado
+ * aparte del JDK (com.sun.net.httpserver). Cada petición se atiende en su propio hilo virtual.
+ * -
+ * Rutas (los cuerpos son objetos JSON planos):
+ * - POST   /partidas                    {"nombre": "Ana", "clase": "GUERRERO"}  crea una partida (201)
+ * - GET    /partidas/{id}               estado de la partida
+ * - POST   /partidas/{id}/explorar      explora la sala (puede empezar un combate)
+ * - POST   /partidas/{id}/combate       {"accion": "atacar|descansar|objeto|habilidad", "indice": 0}
+ * - POST   /partidas/{id}/inventario    {"indice": 0}  usa o equipa un objeto de la mochila
+ * - GET    /partidas/{id}/mision        estado de la misión en curso
+ * - DELETE /partidas/{id}               termina la partida
+ * Las respuestas de las operaciones llevan el estado (héroe, enemigo, misión) y la narración
+ * ("mensajes"). Los errores son {"error": "..."} con 400 (petición mal formada), 404 (no existe),
+ * 405 (método no admitido), 409 (la partida no está en el momento adecuado), 503 (demasiadas partidas)
+ * o 500 (fallo inesperado).
+ * -
+ * Las partidas se guardan en un ConcurrentHashMap y cada una serializa sus propias peticiones
+ * (ver SesionJuego), así que no hay ningún cerrojo global en el camino de una petición.
+ * Una partida deja el mapa en cuanto termina (la respuesta que la termina ya trae el estado
+ * TERMINADA; después su id da 404). El límite de partidas abiertas se reserva con un contador
+ * atómico antes de crearla, así que nunca se supera aunque lleguen muchas creaciones a la vez.
+ * -
+ * Uso: {@code java ServidorJuego [puerto]} o, para una prueba de carga local,
+ * {@code java ServidorJuego --carga [clientes] [segundos]}.
+ *
+ * @version 1.0
+ */
+public class ServidorJuego {
+
+    /**
+     * Puerto por defecto.
+     */
+    public static final int PUERTO = 8080;
+
+    /**
+     * Partidas abiertas a la vez como máximo.
+     */
+    public static final int MAX_SESIONES = 10_000;
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, SesionJuego> sesiones = new ConcurrentHashMap<>();
+    /** Partidas abiertas más las que se están creando (plazas reservadas). */
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private final AtomicLong siguienteId = new AtomicLong(1);
+    private final LongAdder peticiones = new LongAdder();
+
+    /**
+     * Crea el servidor (no empieza a escuchar hasta {@link #iniciar}).
+     *
+     * @param puerto Puerto local (0 = cualquiera libre).
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public ServidorJuego(int puerto) throws IOException {
+        SalidaPorHilo.instalar();
+        // Sin esto el servidor del JDK no activa TCP_NODELAY y cada respuesta pequeña espera ~40 ms
+        // al ACK retardado del cliente. Se lee al cargar la configuración del servidor, así que va antes de create.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", puerto), 1024);
+        servidor.createContext("/partidas", this::atender);
+        servidor.setExecutor(hilos);
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Deja de aceptar peticiones y termina todas las partidas.
+     */
+    public void detener() {
+        servidor.stop(0);
+        hilos.shutdown();
+        for (SesionJuego s : sesiones.values()) s.cerrar();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * @return Peticiones atendidas desde que se creó el servidor.
+     */
+    public long getPeticiones() {
+        return peticiones.sum();
+    }
+
+    // ------- Peticiones -------
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        peticiones.increment();
+        try (intercambio) {
+            String metodo = intercambio.getRequestMethod();
+            String[] partes = intercambio.getRequestURI().getPath().split("/");
+            // partes[0] = "", partes[1] = "partidas", partes[2] = id, partes[3] = operación
+            try {
+                if (partes.length == 2) {
+                    if (!metodo.equals("POST")) throw new ErrorPeticion(405, "Método no admitido: " + metodo);
+                    responder(intercambio, 201, crear(leerCuerpo(intercambio)));
+                    return;
+                }
+                if (partes.length > 4) throw new ErrorPeticion(404, "Ruta desconocida");
+                SesionJuego sesion = sesiones.get(partes[2]);
+                if (sesion == null) throw new ErrorPeticion(404, "No existe la partida " + partes[2]);
+                String operacion = partes.length == 4 ? partes[3] : "";
+                String respuesta;
+                switch (metodo + " " + operacion) {
+                    case "GET ":
+                        respuesta = sesion.consultar();
+                        break;
+                    case "DELETE ":
+                        retirar(sesion.getId());
+                        sesion.cerrar();
+                        respuesta = Json.cadena(new StringBuilder("{\"id\":"), sesion.getId()).append(",\"estado\":\"TERMINADA\"}").toString();
+                        break;
+                    case "POST explorar":
+                        respuesta = sesion.explorar();
+                        break;
+                    case "POST combate": {
+                        Map<String, String> cuerpo = leerCuerpo(intercambio);
+                        respuesta = sesion.combatir(cuerpo.get("accion"), entero(cuerpo, "indice", false));
+                        break;
+                    }
+                    case "POST inventario":
+                        respuesta = sesion.usarObjeto(entero(leerCuerpo(intercambio), "indice", true));
+                        break;
+                    case "GET mision":
+                        respuesta = sesion.mision();
+                        break;
+                    default:
+                        if (operacion.isEmpty() || operacion.equals("explorar") || operacion.equals("combate")
+                                || operacion.equals("inventario") || operacion.equals("mision")) {
+                            throw new ErrorPeticion(405, "Método no admitido: " + metodo);
+                        }
+                        throw new ErrorPeticion(404, "Operación desconocida: " + operacion);
+                }
+                responder(intercambio, 200, respuesta);
+            } catch (ErrorPeticion e) {
+                error(intercambio, e.codigo, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                error(intercambio, 400, e.getMessage());
+            } catch (IllegalStateException e) {
+                error(intercambio, 409, e.getMessage());
+            } catch (RuntimeException e) {
+                error(intercambio, 500, "Error interno: " + e);
+            }
+        }
+    }
+
+    private String crear(Map<String, String> cuerpo) {
+        String clase = cuerpo.get("clase");
+        if (clase == null) throw new IllegalArgumentException("Falta la clase del héroe");
+        ClasePersonaje elegida;
+        try {
+            elegida = ClasePersonaje.valueOf(clase.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Clase desconocida: " + clase);
+        }
+        Long semilla = null;
+        if (cuerpo.get("semilla") != null) {
+            try {
+                semilla = Long.valueOf(cuerpo.get("semilla"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'semilla' debe ser un número entero");
+            }
+        }
+        if (abiertas.incrementAndGet() > MAX_SESIONES) {
+            abiertas.decrementAndGet();
+            throw new ErrorPeticion(503, "Demasiadas partidas abiertas");
+        }
+        String id = Long.toString(siguienteId.getAndIncrement());
+        SesionJuego sesion;
+        try {
+            sesion = new SesionJuego(id, cuerpo.get("nombre"), elegida, semilla, () -> retirar(id));
+        } catch (RuntimeException e) {
+            abiertas.decrementAndGet();
+            throw e;
+        }
+        sesiones.put(id, sesion);
+        // Si la partida terminó antes de entrar en el mapa, su aviso no encontró nada que quitar
+        if (sesion.haTerminado()) retirar(id);
+        return sesion.consultar();
+    }
+
+    /**
+     * Quita una partida del mapa y libera su plaza (solo la primera vez que se llama para ese id).
+     */
+    private void retirar(String id) {
+        if (sesiones.remove(id) != null) abiertas.decrementAndGet();
+    }
+
+    private static Map<String, String> leerCuerpo(HttpExchange intercambio) throws IOException {
+        return Json.leerObjeto(new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static Integer entero(Map<String, String> cuerpo, String clave, boolean obligatorio) {
+        String valor = cuerpo.get(clave);
+        if (valor == null) {
+            if (obligatorio) throw new IllegalArgumentException("Falta '" + clave + "'");
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + clave + "' debe ser un número entero");
+        }
+    }
+
+    private static void responder(HttpExchange intercambio, int codigo, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    private static void error(HttpExchange intercambio, int codigo, String mensaje) throws IOException {
+        StringBuilder sb = new StringBuilder("{\"error\":");
+        Json.cadena(sb, mensaje);
+        responder(intercambio, codigo, sb.append('}').toString());
+    }
+
+    /**
+     * Petición que se responde con un código de error concreto (404, 405, 503...).
+     */
+    private static final class ErrorPeticion extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int codigo;
+
+        ErrorPeticion(int codigo, String mensaje) {
+            super(mensaje, null, false, false);
+            this.codigo = codigo;
+        }
+    }
+
+    // ------- Arranque y prueba de carga -------
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--carga")) {
+            int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+            int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+            pruebaCarga(clientes, segundos);
+            return;
+        }
+        ServidorJuego servidor = new ServidorJuego(args.length > 0 ? Integer.parseInt(args[0]) : PUERTO);
+        servidor.iniciar();
+        System.out.println("Servidor de partidas en http://127.0.0.1:" + servidor.getPuerto() + "/partidas");
+    }
+
+    /**
+     * Levanta el servidor en un puerto libre y lo bombardea desde este mismo proceso: cada cliente
+     * crea una partida y la juega (explorar, atacar, consultar la misión) hasta que termina,
+     * y entonces empieza otra.
+     */
+    private static void pruebaCarga(int clientes, int segundos) throws Exception {
+        ServidorJuego servidor = new ServidorJuego(0);
+        servidor.iniciar();
+        String base = "http://127.0.0.1:" + servidor.getPuerto() + "/partidas";
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+        LongAdder correctas = new LongAdder();
+        LongAdder fallidas = new LongAdder();
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int c = 0; c < clientes; c++) {
+                String[] clases = {"GUERRERO", "MAGO", "PICARO"};
+                String clase = clases[c % clases.length];
+                tareas.add(hilos.submit(() -> {
+                    String id = null;
+                    String estado = "TERMINADA";
+                    while (System.nanoTime() < fin) {
+                        HttpResponse<String> r;
+                        if (estado.equals("TERMINADA")) {
+                            r = enviar(cliente, "POST", base, "{\"nombre\": \"Carga\", \"clase\": \"" + clase + "\"}");
+                            id = extraer(r.body(), "id");
+                        } else if (estado.equals("COMBATE")) {
+                            r = enviar(cliente, "POST", base + "/" + id + "/combate", "{\"accion\": \"atacar\"}");
+                        } else {
+                            r = enviar(cliente, "GET", base + "/" + id + "/mision", null);
+                            if (r.statusCode() == 200) correctas.increment();
+                            r = enviar(cliente, "POST", base + "/" + id + "/explorar", "");
+                        }
+                        if (r.statusCode() / 100 == 2) {
+                            correctas.increment();
+                            estado = extraer(r.body(), "estado");
+                        } else {
+                            fallidas.increment();
+                            // Se abandona la partida: se cierra para no ocupar una plaza
+                            if (id != null) enviar(cliente, "DELETE", base + "/" + id, null);
+                            estado = "TERMINADA";
+                        }
+                    }
+                    if (id != null) enviar(cliente, "DELETE", base + "/" + id, null);
+                    return null;
+                }));
+            }
+            for (Future<?> t : tareas) t.get();
+        }
+        System.out.printf("%d clientes, %d s: %,.0f peticiones/s (%d correctas, %d fallidas)%n", clientes, segundos,
+                (correctas.sum() + fallidas.sum()) / (double) segundos, correctas.sum(), fallidas.sum());
+        servidor.detener();
+    }
+
+    private static HttpResponse<String> enviar(HttpClient cliente, String metodo, String url, String cuerpo)
+            throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publicador = cuerpo == null
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(cuerpo);
+        return cliente.send(HttpRequest.newBuilder(URI.create(url)).method(metodo, publicador).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Valor de texto de una clave de primer nivel en una respuesta del servidor (las respuestas
+     * empiezan siempre por "id" y "estado", antes de cualquier objeto anidado).
+     */
+    private static String extraer(String json, String clave) {
+        String marca = "\"" + clave + "\":\"";
+        int i = json.indexOf(marca);
+        if (i < 0) return "TERMINADA";
+        int j = json.indexOf('"', i + marca.length());
+        return json.substring(i + marca.length(), j);
+    }
+}
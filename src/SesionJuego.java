@@ -0,0 +1,456 @@
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Partida manejada por peticiones en lugar de por teclado (la usa ServidorJuego).
+ * -
+ * Cada sesión tiene su propio Juego, jugándose en su propio hilo virtual con una FuenteEntrada
+ * que recibe las órdenes de las peticiones. Cada operación (explorar, atacar...) envía al Juego
+ * las mismas líneas que teclearía el jugador en la consola, espera a que el Juego vuelva a pedir
+ * una orden y devuelve el estado resultante y la narración en JSON. Así la API sigue exactamente
+ * las reglas de la partida de consola.
+ * -
+ * Las peticiones de una misma sesión se atienden de una en una (cerrojo de la sesión); sesiones
+ * distintas no comparten ningún cerrojo. La narración se recoge con SalidaPorHilo, que tiene que
+ * estar instalada.
+ * -
+ * El estado del Juego solo se lee mientras su hilo está parado pidiendo una orden (o ha terminado).
+ * Si una petición se cansa de esperar ("La partida no responde"), las siguientes también responden
+ * con ese error hasta que el Juego vuelva a pedir una orden, en lugar de leer el estado a medias.
+ *
+ * @version 1.0
+ */
+public class SesionJuego {
+
+    /**
+     * Momento de la partida.
+     */
+    public enum Estado {
+        /** En el menú principal. */
+        MENU,
+        /** En combate, esperando la acción del héroe. */
+        COMBATE,
+        /** La partida ha terminado (victoria final, muerte o salida). */
+        TERMINADA
+    }
+
+    /**
+     * Tiempo máximo que se espera a que el Juego procese unas órdenes.
+     */
+    public static final long ESPERA_MAXIMA_MS = 10_000;
+
+    private final String id;
+    private final Juego juego;
+    private final FuenteSesion fuente = new FuenteSesion();
+    /** Narración del hilo de la partida (ByteArrayOutputStream está sincronizado). */
+    private final ByteArrayOutputStream narracion = new ByteArrayOutputStream();
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    /**
+     * Crea la sesión y su héroe.
+     *
+     * @param id     Identificador de la sesión.
+     * @param nombre Nombre del héroe.
+     * @param clase  Clase del héroe.
+     * @throws IllegalArgumentException si el nombre está vacío.
+     */
+    public SesionJuego(String id, String nombre, ClasePersonaje clase) {
+        this(id, nombre, clase, null);
+    }
+
+    /**
+     * Crea la sesión y su héroe, con una semilla fija si se indica (la misma semilla y las mismas
+     * órdenes repiten la partida).
+     *
+     * @param id      Identificador de la sesión.
+     * @param nombre  Nombre del héroe.
+     * @param clase   Clase del héroe.
+     * @param semilla Semilla de la partida (null = al azar).
+     * @throws IllegalArgumentException si el nombre está vacío.
+     */
+    public SesionJuego(String id, String nombre, ClasePersonaje clase, Long semilla) {
+        this(id, nombre, clase, semilla, null);
+    }
+
+    /**
+     * Crea la sesión y su héroe, avisando cuando su partida termine.
+     *
+     * @param id          Identificador de la sesión.
+     * @param nombre      Nombre del héroe.
+     * @param clase       Clase del héroe.
+     * @param semilla     Semilla de la partida (null = al azar).
+     * @param alTerminar  Se ejecuta en el hilo de la partida cuando esta acaba (null = nada).
+     * @throws IllegalArgumentException si el nombre está vacío.
+     */
+    public SesionJuego(String id, String nombre, ClasePersonaje clase, Long semilla, Runnable alTerminar) {
+        if (nombre == null || nombre.isBlank()) throw new IllegalArgumentException("El nombre no puede estar vacío");
+        if (clase == null) throw new IllegalArgumentException("Falta la clase del héroe");
+        this.id = id;
+        this.juego = semilla != null ? Juego.crear(fuente, semilla) : Juego.crear(fuente);
+        Thread.ofVirtual().name("sesion-" + id).start(() -> {
+            SalidaPorHilo.dirigir(SalidaPorHilo.enMemoria(narracion));
+            try {
+                juego.iniciarJuego();
+            } catch (NoSuchElementException e) {
+                // Sesión cerrada mientras esperaba una orden
+            } catch (RuntimeException e) {
+                System.out.println("(!) La partida se ha detenido: " + e.getMessage());
+            } finally {
+                fuente.terminar();
+                if (alTerminar != null) alTerminar.run();
+            }
+        });
+        cerrojo.lock();
+        try {
+            ordenar(nombre.strip(), String.valueOf(clase.ordinal() + 1));
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return Momento actual de la partida.
+     */
+    public Estado getEstado() {
+        cerrojo.lock();
+        try {
+            return estado();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * @return true si la partida ya ha terminado (no espera a que el Juego esté parado).
+     */
+    public boolean haTerminado() {
+        return fuente.haTerminado();
+    }
+
+    /**
+     * Explora la sala (opción 1 del menú). Puede empezar un combate.
+     *
+     * @return Estado en JSON con la narración.
+     * @throws IllegalStateException si la partida no está en el menú.
+     */
+    public String explorar() {
+        cerrojo.lock();
+        try {
+            exigir(Estado.MENU);
+            ordenar("1");
+            return describir();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Realiza una acción de combate.
+     *
+     * @param accion "atacar", "descansar", "objeto" o "habilidad".
+     * @param indice Posición del objeto o de la habilidad (solo para "objeto" y "habilidad").
+     * @return Estado en JSON con la narración.
+     * @throws IllegalArgumentException si la acción no existe o le falta el índice.
+     * @throws IllegalStateException    si la partida no está en combate.
+     */
+    public String combatir(String accion, Integer indice) {
+        String[] ordenes;
+        switch (accion == null ? "" : accion.toLowerCase(Locale.ROOT)) {
+            case "atacar": ordenes = new String[] {"1"}; break;
+            case "descansar": ordenes = new String[] {"3"}; break;
+            case "objeto": ordenes = new String[] {"2", String.valueOf(exigirIndice(indice))}; break;
+            case "habilidad": ordenes = new String[] {"4", String.valueOf(exigirIndice(indice))}; break;
+            default: throw new IllegalArgumentException("Acción de combate desconocida: " + accion);
+        }
+        cerrojo.lock();
+        try {
+            exigir(Estado.COMBATE);
+            ordenar(ordenes);
+            return describir();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Usa o equipa un objeto de la mochila (desde el menú o en combate, donde gasta el turno).
+     *
+     * @param indice Posición del objeto.
+     * @return Estado en JSON con la narración.
+     * @throws IllegalArgumentException si no hay objeto en esa posición.
+     * @throws IllegalStateException    si la partida ha terminado.
+     */
+    public String usarObjeto(int indice) {
+        cerrojo.lock();
+        try {
+            Estado estado = estado();
+            if (estado == Estado.TERMINADA) throw new IllegalStateException("La partida ha terminado");
+            if (indice < 0 || indice >= juego.getJugador().getInventario().getCantidad()) {
+                throw new IllegalArgumentException("No hay ningún objeto en la posición " + indice);
+            }
+            if (estado == Estado.MENU) ordenar("3", String.valueOf(indice));
+            else ordenar("2", String.valueOf(indice));
+            return describir();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Estado de la misión en curso (no envía órdenes al Juego).
+     *
+     * @return Misión en JSON.
+     */
+    public String mision() {
+        cerrojo.lock();
+        try {
+            return mision(new StringBuilder()).toString();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Estado completo de la partida (no envía órdenes al Juego).
+     *
+     * @return Estado en JSON, con la narración pendiente si la hay.
+     */
+    public String consultar() {
+        cerrojo.lock();
+        try {
+            return describir();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Termina la partida: el Juego deja de recibir órdenes y su hilo acaba.
+     */
+    public void cerrar() {
+        fuente.cerrar();
+    }
+
+    // ------- Métodos auxiliares (con el cerrojo tomado) -------
+
+    /**
+     * Envía órdenes y espera a que el Juego las procese y vuelva a pedir otra (o termine).
+     */
+    private void ordenar(String... ordenes) {
+        fuente.enviar(ordenes);
+        fuente.esperarTurno();
+    }
+
+    private Estado estado() {
+        if (!fuente.enReposo()) throw new IllegalStateException("La partida no responde");
+        if (fuente.haTerminado()) return Estado.TERMINADA;
+        return juego.getEnemigoActual() != null ? Estado.COMBATE : Estado.MENU;
+    }
+
+    private void exigir(Estado esperado) {
+        Estado actual = estado();
+        if (actual != esperado) throw new IllegalStateException("La partida está en " + actual + ", no en " + esperado);
+    }
+
+    private static int exigirIndice(Integer indice) {
+        if (indice == null) throw new IllegalArgumentException("Falta el índice");
+        return indice;
+    }
+
+    /**
+     * Estado en JSON y narración acumulada desde la última respuesta (que se vacía).
+     */
+    private String describir() {
+        Estado estado = estado();
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"id\":");
+        Json.cadena(sb, id);
+        sb.append(",\"estado\":\"").append(estado).append('"');
+        sb.append(",\"nivel\":").append(juego.getNivelActual());
+
+        Personaje jugador = juego.getJugador();
+        sb.append(",\"heroe\":");
+        if (jugador == null) {
+            sb.append("null");
+        } else {
+            sb.append("{\"nombre\":");
+            Json.cadena(sb, jugador.getNombre());
+            sb.append(",\"clase\":\"").append(ClasePersonaje.de(jugador)).append('"');
+            sb.append(",\"nivel\":").append(jugador.getNivel());
+            sb.append(",\"experiencia\":").append(jugador.getExperiencia());
+            sb.append(",\"vida\":").append(redondear(jugador.getPuntosVida()));
+            sb.append(",\"vidaMax\":").append(redondear(jugador.getPuntosVidaMax()));
+            sb.append(",\"mochila\":[");
+            Inventario mochila = jugador.getInventario();
+            for (int i = 0; i < mochila.getCantidad(); i++) {
+                if (i > 0) sb.append(',');
+                Json.cadena(sb, mochila.getItem(i).getNombre());
+            }
+            sb.append("]}");
+        }
+
+        Enemigo enemigo = juego.getEnemigoActual();
+        sb.append(",\"enemigo\":");
+        if (enemigo == null || estado != Estado.COMBATE) {
+            sb.append("null");
+        } else {
+            sb.append("{\"nombre\":");
+            Json.cadena(sb, enemigo.getNombre());
+            sb.append(",\"nivel\":").append(enemigo.getNivel());
+            sb.append(",\"vida\":").append(redondear(enemigo.getPuntosVida()));
+            sb.append(",\"vidaMax\":").append(redondear(enemigo.getPuntosVidaMax()));
+            sb.append('}');
+        }
+
+        sb.append(",\"mision\":");
+        mision(sb);
+
+        sb.append(",\"mensajes\":[");
+        String texto;
+        synchronized (narracion) {
+            texto = narracion.toString(StandardCharsets.UTF_8);
+            narracion.reset();
+        }
+        boolean primero = true;
+        for (String linea : texto.split("\n")) {
+            linea = linea.strip();
+            if (linea.isEmpty()) continue;
+            if (!primero) sb.append(',');
+            Json.cadena(sb, linea);
+            primero = false;
+        }
+        return sb.append("]}").toString();
+    }
+
+    private StringBuilder mision(StringBuilder sb) {
+        estado(); // Comprueba que el Juego está parado
+        Mision mision = juego.getMisionActual();
+        if (mision == null) return sb.append("null");
+        sb.append("{\"titulo\":");
+        Json.cadena(sb, mision.getTitulo());
+        sb.append(",\"descripcion\":");
+        Json.cadena(sb, mision.getDescripcion());
+        sb.append(",\"estado\":\"").append(mision.getEstado()).append('"');
+        sb.append(",\"progreso\":").append(mision.getProgresoActual());
+        sb.append(",\"objetivo\":").append(mision.getObjetivoCantidad());
+        return sb.append('}');
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    /**
+     * Entrada del Juego alimentada por las peticiones.
+     * Además de las órdenes, sabe si el Juego está parado pidiendo una, que es cuando la
+     * petición en curso puede leer el estado y responder.
+     */
+    private static final class FuenteSesion implements FuenteEntrada {
+        private final ReentrantLock cerrojo = new ReentrantLock();
+        private final Condition cambio = cerrojo.newCondition();
+        private final ArrayDeque<String> pendientes = new ArrayDeque<>();
+        /** El Juego está parado en leerLinea sin órdenes pendientes. */
+        private boolean esperando;
+        /** No habrá más órdenes: la próxima lectura sin órdenes termina la partida. */
+        private boolean cerrada;
+        /** El hilo de la partida ha terminado. */
+        private boolean terminada;
+
+        @Override
+        public String leerLinea() {
+            cerrojo.lock();
+            try {
+                while (pendientes.isEmpty()) {
+                    if (cerrada) throw new NoSuchElementException("Sesión cerrada");
+                    esperando = true;
+                    cambio.signalAll();
+                    cambio.awaitUninterruptibly();
+                }
+                return pendientes.poll();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        void enviar(String... ordenes) {
+            cerrojo.lock();
+            try {
+                for (String o : ordenes) pendientes.add(o);
+                esperando = false;
+                cambio.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        /**
+         * Espera a que el Juego pida otra orden con todas las enviadas ya procesadas, o termine.
+         */
+        void esperarTurno() {
+            cerrojo.lock();
+            try {
+                long restante = TimeUnit.MILLISECONDS.toNanos(ESPERA_MAXIMA_MS);
+                while (!esperando && !terminada) {
+                    if (restante <= 0) throw new IllegalStateException("La partida no responde");
+                    restante = cambio.awaitNanos(restante);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Espera interrumpida");
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        /**
+         * @return true si el Juego está parado pidiendo una orden o ha terminado (su estado se puede leer).
+         */
+        boolean enReposo() {
+            cerrojo.lock();
+            try {
+                return esperando || terminada;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        boolean haTerminado() {
+            cerrojo.lock();
+            try {
+                return terminada;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        void cerrar() {
+            cerrojo.lock();
+            try {
+                cerrada = true;
+                cambio.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        void terminar() {
+            cerrojo.lock();
+            try {
+                terminada = true;
+                cambio.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+}
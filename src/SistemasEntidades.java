@@ -0,0 +1,203 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Sistemas de MundoEntidades: combate, regeneración, efectos de sala y botín.
+ * -
+ * Cada sistema pide los arquetipos que tienen sus componentes y recorre sus arrays de principio a
+ * fin. La cuenta del daño es la de ResolutorDanio (idéntica a Personaje.recibirDanio), y los
+ * efectos de sala usan las cantidades de EfectoSala, así que el resultado coincide con el de
+ * aplicar lo mismo objeto a objeto.
+ * -
+ * Uso como banco de pruebas: {@code java SistemasEntidades [enemigos] [rondas]}. Compara las entidades
+ * con dos recorridos objeto a objeto: el del juego (EfectoSala y recibirDanio, que montan la
+ * narración aunque se descarte) y uno con la misma cuenta sin narrar, que es la comparación justa
+ * para medir la disposición de los datos.
+ *
+ * @version 1.0
+ */
+public final class SistemasEntidades {
+
+    private static final long VIDA = Componente.VIDA.bit();
+    private static final long VIDA_DEFENSA = Componente.mascara(Componente.VIDA, Componente.DEFENSA);
+
+    private SistemasEntidades() {
+    }
+
+    /**
+     * Sistema de combate: aplica un golpe a todas las entidades con los componentes indicados
+     * (y, como mínimo, VIDA y DEFENSA).
+     *
+     * @param mundo      Mundo de entidades.
+     * @param danio      Daño bruto del golpe.
+     * @param requeridos Máscara de componentes de los objetivos (0 = todos los que tienen vida y defensa).
+     */
+    public static void combate(MundoEntidades mundo, double danio, long requeridos) {
+        for (MundoEntidades.Arquetipo a : mundo.consultar(requeridos | VIDA_DEFENSA)) {
+            ResolutorDanio.aplicar(danio, a.vida, a.vidaMax, a.defensa, 0, a.tamanio);
+        }
+    }
+
+    /**
+     * Suma el ataque de todas las entidades con los componentes indicados y vida.
+     *
+     * @param mundo      Mundo de entidades.
+     * @param requeridos Máscara de componentes de los atacantes.
+     * @return Daño total de los atacantes que siguen vivos.
+     */
+    public static double ataqueTotal(MundoEntidades mundo, long requeridos) {
+        double total = 0;
+        for (MundoEntidades.Arquetipo a : mundo.consultar(requeridos | VIDA | Componente.ATAQUE.bit())) {
+            for (int i = 0; i < a.tamanio; i++) {
+                total += a.vida[i] > 0 ? a.ataque[i] : 0;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Sistema de regeneración: cada entidad con recurso recupera lo que le toca por turno.
+     *
+     * @param mundo Mundo de entidades.
+     */
+    public static void regeneracion(MundoEntidades mundo) {
+        for (MundoEntidades.Arquetipo a : mundo.consultar(Componente.RECURSO.bit())) {
+            double[] recurso = a.recurso, max = a.recursoMax, regen = a.regeneracion;
+            for (int i = 0; i < a.tamanio; i++) {
+                recurso[i] = Math.min(max[i], recurso[i] + regen[i]);
+            }
+        }
+    }
+
+    /**
+     * Sistema de efectos de sala: aplica los efectos, en orden, a todas las entidades con vida.
+     * El daño se mitiga con la defensa (si la tienen) y el drenaje solo afecta a quien tiene recurso,
+     * como en la tabla de EfectoSala.
+     *
+     * @param mundo   Mundo de entidades.
+     * @param efectos Efectos de la sala.
+     */
+    public static void efectosSala(MundoEntidades mundo, EfectoSala[] efectos) {
+        for (MundoEntidades.Arquetipo a : mundo.consultar(VIDA)) {
+            int[] defensa = a.defensa != null ? a.defensa : new int[a.tamanio];
+            for (EfectoSala e : efectos) {
+                if (e.getDanio() != 0) ResolutorDanio.aplicar(e.getDanio(), a.vida, a.vidaMax, defensa, 0, a.tamanio);
+                if (e.getCuracion() != 0) {
+                    for (int i = 0; i < a.tamanio; i++) {
+                        a.vida[i] = Math.max(0, Math.min(a.vidaMax[i], a.vida[i] + e.getCuracion()));
+                    }
+                }
+                if (e.getDrenaje() != 0 && a.recurso != null) {
+                    for (int i = 0; i < a.tamanio; i++) {
+                        a.recurso[i] = Math.max(0, Math.min(a.recursoMax[i], a.recurso[i] - e.getDrenaje()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sistema de botín: retira las entidades muertas y tira el botín de las que lo tienen.
+     *
+     * @param mundo Mundo de entidades.
+     * @param azar  Generador de las tiradas (una por baja con botín, en orden de arquetipo y fila).
+     * @return Nivel del botín de cada baja que lo ha soltado.
+     */
+    public static int[] recogerBajas(MundoEntidades mundo, SplittableRandom azar) {
+        int[] niveles = new int[8];
+        int soltados = 0;
+        for (MundoEntidades.Arquetipo a : mundo.consultar(VIDA)) {
+            // De atrás adelante: al destruir, la fila la ocupa una entidad ya revisada
+            for (int i = a.tamanio - 1; i >= 0; i--) {
+                if (a.vida[i] > 0) continue;
+                if (a.probabilidadBotin != null && azar.nextDouble() < a.probabilidadBotin[i]) {
+                    if (soltados == niveles.length) niveles = Arrays.copyOf(niveles, soltados * 2);
+                    niveles[soltados++] = a.nivelBotin[i];
+                }
+                mundo.destruir(a.entidades[i]);
+            }
+        }
+        return Arrays.copyOf(niveles, soltados);
+    }
+
+    /**
+     * Banco de pruebas: una oleada de enemigos recibe los efectos de una sala y golpes durante
+     * varias rondas, como objetos (narrando y sin narrar) y como entidades, y se comparan los resultados.
+     *
+     * @param args Opcional: número de enemigos (100000) y de rondas (100).
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        EfectoSala[] efectos = {EfectoSala.NIEBLA, EfectoSala.BENDICION};
+
+        SplittableRandom azar = new SplittableRandom(42);
+        Enemigo[] oleada = new Enemigo[n];
+        Enemigo[] callada = new Enemigo[n];
+        MundoEntidades mundo = new MundoEntidades();
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            int nivel = 1 + azar.nextInt(10);
+            oleada[i] = new Enemigo(TipoEnemigo.ORCO_RASO, nivel);
+            callada[i] = new Enemigo(TipoEnemigo.ORCO_RASO, nivel);
+            ids[i] = PuenteEntidades.importar(mundo, oleada[i]);
+        }
+        double[] danios = new double[rondas];
+        for (int r = 0; r < rondas; r++) danios[r] = 0.5 + azar.nextDouble() * 3;
+
+        long t0 = System.nanoTime();
+        SalidaSilenciada.ejecutar(() -> {
+            for (int r = 0; r < rondas; r++) {
+                for (Enemigo e : oleada) {
+                    int columna = EfectoSala.columna(e);
+                    for (EfectoSala efecto : efectos) efecto.aplicar(e, columna);
+                    e.recibirDanio(danios[r]);
+                }
+            }
+            return null;
+        });
+        long tObjetos = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (int r = 0; r < rondas; r++) {
+            for (Enemigo e : callada) {
+                for (EfectoSala efecto : efectos) {
+                    if (efecto.getDanio() != 0) golpearSinNarrar(e, efecto.getDanio());
+                    if (efecto.getCuracion() != 0) e.setPuntosVida(e.getPuntosVida() + efecto.getCuracion());
+                }
+                golpearSinNarrar(e, danios[r]);
+            }
+        }
+        long tCallados = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (int r = 0; r < rondas; r++) {
+            efectosSala(mundo, efectos);
+            combate(mundo, danios[r], 0);
+        }
+        long tEntidades = System.nanoTime() - t0;
+
+        int distintos = 0;
+        for (int i = 0; i < n; i++) {
+            long bits = Double.doubleToRawLongBits(mundo.getVida(ids[i]));
+            if (bits != Double.doubleToRawLongBits(oleada[i].getPuntosVida())
+                    || bits != Double.doubleToRawLongBits(callada[i].getPuntosVida())) distintos++;
+        }
+        double pasos = (double) n * rondas;
+        System.out.printf("Objetos (narrando):    %8.1f M pasos/s%n", pasos / tObjetos * 1e3);
+        System.out.printf("Objetos (sin narrar):  %8.1f M pasos/s%n", pasos / tCallados * 1e3);
+        System.out.printf("Entidades:             %8.1f M pasos/s  (x%.1f frente a objetos sin narrar)%n",
+                pasos / tEntidades * 1e3, (double) tCallados / tEntidades);
+        System.out.println("Resultados distintos: " + distintos + "  Botines: "
+                + recogerBajas(mundo, new SplittableRandom(7)).length + "  Quedan: " + mundo.getTamanio());
+    }
+
+    /**
+     * La cuenta de Personaje.recibirDanio sin montar la línea de narración.
+     */
+    private static void golpearSinNarrar(Personaje p, double danio) {
+        double danioReal = danio - p.getDefensaTotal();
+        if (danioReal < 0) danioReal = 0;
+        p.setPuntosVida(p.getPuntosVida() - danioReal);
+    }
+}
@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+
+/**
+ * Suscriptor del {@link BusEventos} que guarda en disco un diario de combate por partida.
+ * -
+ * Va montando el diario de cada sesión con los eventos que recibe y lo escribe por tramos de hasta
+ * {@link #TRAMO} entradas, cada uno en su fichero {@code <directorio>/<sesion>-<n>.dcmb} de
+ * {@link CodecDiario}: un tramo se escribe al llenarse, cuando el héroe cae y, lo que quede, al
+ * cerrarse el bus. Así la memoria no pasa de un tramo por partida abierta y una caída del proceso
+ * solo pierde lo que no se había escrito. Cada tramo después del primero empieza con una entrada
+ * OBJETIVO que repite la última del anterior, para que se pueda leer por separado.
+ * -
+ * Todo ocurre en el hilo de entrega del bus. Pide los eventos de {@link #PEDIDO} en {@link #PEDIDO}:
+ * si el disco va lento, deja de pedir y los eventos se quedan en su cola del bus. Se suscribe con
+ * DESCARTAR, para no frenar nunca las partidas: si la cola se llena, el bus descarta eventos y el
+ * diario lo nota por el salto en su número de secuencia y anota una entrada HUECO en su lugar.
+ * -
+ * Los turnos del diario son los de la partida (acciones del menú y rondas de combate).
+ *
+ * @version 1.0
+ */
+public class SuscriptorDiario implements Flow.Subscriber<EventoJuego> {
+
+    /**
+     * Eventos que se piden de una vez.
+     */
+    public static final int PEDIDO = 256;
+
+    /**
+     * Entradas de un tramo del diario (un bloque del códec).
+     */
+    public static final int TRAMO = CodecDiario.EVENTOS_POR_BLOQUE;
+
+    /**
+     * Diario de una sesión mientras se recibe.
+     */
+    private static final class Sesion {
+        /** Entradas aún no escritas (null si está todo en disco). */
+        DiarioCombate tramo;
+        /** Última entrada escrita, para empezar el tramo siguiente: turno, enemigo y vidas. */
+        int[] ultima;
+        int tramosEscritos;
+        long secuencia;
+    }
+
+    private final Path directorio;
+    private final boolean comprimir;
+    /** Solo los usa el hilo de entrega del bus. */
+    private final Map<String, Sesion> sesiones = new HashMap<>();
+    private Flow.Subscription suscripcion;
+    private int pendientes;
+
+    private final CountDownLatch terminado = new CountDownLatch(1);
+    private volatile int escritos;
+    private volatile int huecos;
+    private volatile Throwable error;
+
+    /**
+     * @param directorio Directorio donde se escriben los diarios (se crea si no existe).
+     * @param comprimir  true para comprimir los bloques de los diarios (ver CodecDiario).
+     */
+    public SuscriptorDiario(Path directorio, boolean comprimir) {
+        this.directorio = directorio;
+        this.comprimir = comprimir;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription suscripcion) {
+        this.suscripcion = suscripcion;
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // El bus cancela la suscripción y llama a onError
+        }
+        pendientes = PEDIDO;
+        suscripcion.request(PEDIDO);
+    }
+
+    @Override
+    public void onNext(EventoJuego evento) {
+        Sesion sesion = sesiones.computeIfAbsent(evento.getSesion(), s -> new Sesion());
+        if (sesion.tramo == null) {
+            sesion.tramo = new DiarioCombate();
+            int[] u = sesion.ultima;
+            if (u != null) sesion.tramo.anadir(u[0], DiarioCombate.Tipo.OBJETIVO, u[1], -1, u[2], u[3]);
+        }
+        DiarioCombate diario = sesion.tramo;
+        int turno = (int) evento.getTurno();
+        int vidaJugador = DiarioCombate.centesimas(evento.getVidaJugador());
+        int vidaEnemigo = DiarioCombate.centesimas(evento.getVidaEnemigo());
+        if (evento.getSecuencia() != sesion.secuencia + 1) {
+            diario.anadir(turno, DiarioCombate.Tipo.HUECO, evento.getTipoEnemigo(), -1, vidaJugador, vidaEnemigo);
+            huecos++;
+        }
+        sesion.secuencia = evento.getSecuencia();
+        int objeto = evento.getObjeto() != null ? diario.codigoObjeto(evento.getObjeto()) : -1;
+        diario.anadir(turno, evento.getAccion(), evento.getTipoEnemigo(), objeto, vidaJugador, vidaEnemigo);
+
+        try {
+            if (diario.getTamanio() >= TRAMO || evento.getAccion() == DiarioCombate.Tipo.DERROTA) {
+                escribir(evento.getSesion(), sesion);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (--pendientes == 0) {
+            pendientes = PEDIDO;
+            suscripcion.request(PEDIDO);
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        if (error instanceof UncheckedIOException) {
+            System.out.println("(!) No se pudieron escribir los diarios en " + directorio + ": " + error.getCause().getMessage());
+        }
+        this.error = error;
+        sesiones.clear();
+        terminado.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            for (Map.Entry<String, Sesion> e : sesiones.entrySet()) {
+                if (e.getValue().tramo != null) escribir(e.getKey(), e.getValue());
+            }
+        } catch (IOException e) {
+            System.out.println("(!) No se pudieron escribir los diarios en " + directorio + ": " + e.getMessage());
+            error = e;
+        } finally {
+            sesiones.clear();
+            terminado.countDown();
+        }
+    }
+
+    /**
+     * Escribe las entradas pendientes de una sesión como su siguiente tramo. Al escribir el primero
+     * se borran los tramos que quedaran de una ejecución anterior con la misma sesión.
+     */
+    private void escribir(String nombre, Sesion sesion) throws IOException {
+        DiarioCombate tramo = sesion.tramo;
+        if (sesion.tramosEscritos == 0) {
+            try (DirectoryStream<Path> viejos = Files.newDirectoryStream(directorio, nombre + "-*.dcmb")) {
+                for (Path viejo : viejos) Files.delete(viejo);
+            }
+        }
+        CodecDiario.escribir(tramo, fichero(directorio, nombre, sesion.tramosEscritos), comprimir);
+        int u = tramo.getTamanio() - 1;
+        sesion.ultima = new int[] {tramo.turnoCrudo(u), tramo.enemigoCrudo(u), tramo.vidaJugadorCruda(u), tramo.vidaEnemigoCruda(u)};
+        sesion.tramosEscritos++;
+        sesion.tramo = null;
+        escritos++;
+    }
+
+    /**
+     * Fichero de un tramo del diario de una sesión.
+     *
+     * @param directorio Directorio de los diarios.
+     * @param sesion     Sesión (partida).
+     * @param tramo      Número del tramo, desde 0.
+     * @return Ruta del fichero.
+     */
+    public static Path fichero(Path directorio, String sesion, int tramo) {
+        return directorio.resolve(String.format("%s-%03d.dcmb", sesion, tramo));
+    }
+
+    /**
+     * Espera a que el bus se cierre y los diarios estén escritos.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void esperar() throws InterruptedException {
+        terminado.await();
+    }
+
+    /**
+     * @return Tramos de diario escritos en disco.
+     */
+    public int getEscritos() {
+        return escritos;
+    }
+
+    /**
+     * @return Huecos anotados por eventos perdidos en el bus.
+     */
+    public int getHuecos() {
+        return huecos;
+    }
+
+    /**
+     * @return El error que cortó la suscripción o la escritura, o null.
+     */
+    public Throwable getError() {
+        return error;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Tablas de botín por tipo de enemigo, indexadas por {@link TipoEnemigo#getId()}.
+ * -
+ * Como las tablas de aparición de Sala, cada tabla tiene umbrales acumulados: con una tirada entre
+ * 0 y 1 sale la primera entrada cuyo umbral la supera, y si no la supera ninguna el enemigo no
+ * suelta nada. La potencia de cada objeto sale de una fórmula de {@link Formulas} según el nivel
+ * del enemigo. Los tipos sin tabla propia usan {@link #COMUN}.
+ *
+ * @version 1.0
+ */
+public final class TablaBotin {
+
+    /**
+     * Entrada de la tabla: si la tirada es menor que {@code hasta}, sale este objeto.
+     */
+    private static final class Entrada {
+        final double hasta;
+        final String nombre;
+        final Formula potencia;
+        /** Tipo de poción, o null si es un arma. */
+        final TipoPocion pocion;
+
+        Entrada(double hasta, String nombre, Formula potencia, TipoPocion pocion) {
+            this.hasta = hasta;
+            this.nombre = nombre;
+            this.potencia = potencia;
+            this.pocion = pocion;
+        }
+
+        Item crear(int nivel) {
+            double valor = potencia.evaluar(nivel);
+            return pocion == null ? new Arma(nombre, valor) : new Pocion(nombre, valor, pocion);
+        }
+    }
+
+    private static Entrada arma(double hasta, String nombre) {
+        return new Entrada(hasta, nombre, Formulas.BOTIN_ARMA, null);
+    }
+
+    private static Entrada salud(double hasta) {
+        return new Entrada(hasta, "Poción de Salud", Formulas.BOTIN_POCION_SALUD, TipoPocion.VIDA);
+    }
+
+    private static Entrada mana(double hasta) {
+        return new Entrada(hasta, "Poción de Maná", Formulas.BOTIN_POCION_MANA, TipoPocion.MANA);
+    }
+
+    /**
+     * Tabla de los tipos que no tienen una propia: 20% arma, 20% poción de salud.
+     */
+    public static final TablaBotin COMUN = new TablaBotin(arma(0.20, "Espada Bastarda"), salud(0.40));
+
+    private static final TablaBotin[] POR_TIPO = new TablaBotin[TipoEnemigo.MAX_TIPOS];
+    static {
+        // Orcos: armas y pociones de salud
+        TablaBotin orcos = COMUN;
+        POR_TIPO[TipoEnemigo.ORCO_RASO.getId()] = orcos;
+        POR_TIPO[TipoEnemigo.ORCO_GUERRERO.getId()] = orcos;
+        POR_TIPO[TipoEnemigo.ORCO_BERSERKER.getId()] = new TablaBotin(arma(0.25, "Hacha Berserker"), salud(0.45));
+        POR_TIPO[TipoEnemigo.COMANDANTE_ORCO.getId()] = new TablaBotin(arma(0.35, "Espada Bastarda"), salud(0.60));
+        // Espectros: sobre todo maná
+        TablaBotin espectros = new TablaBotin(mana(0.20), arma(0.30, "Daga Envenenada"), salud(0.40));
+        POR_TIPO[TipoEnemigo.ESPECTRO_DEBIL.getId()] = espectros;
+        POR_TIPO[TipoEnemigo.ESPECTRO_ACECHADOR.getId()] = espectros;
+        POR_TIPO[TipoEnemigo.CABALLERO_ESPECTRAL.getId()] = new TablaBotin(mana(0.30), arma(0.45, "Daga Envenenada"), salud(0.60));
+        // Caballeros y señores oscuros
+        POR_TIPO[TipoEnemigo.CABALLERO_CORRUPTO.getId()] = new TablaBotin(arma(0.25, "Mandoble Corrupto"), salud(0.45));
+        POR_TIPO[TipoEnemigo.SENOR_DE_LAS_SOMBRAS.getId()] = new TablaBotin(mana(0.20), arma(0.40, "Hoja Sombría"), salud(0.60));
+        // Lord Malacor es el jefe final: no suelta nada (ver Jefe.soltarBotin)
+        POR_TIPO[TipoEnemigo.LORD_MALACOR.getId()] = new TablaBotin();
+    }
+
+    private final Entrada[] entradas;
+
+    private TablaBotin(Entrada... entradas) {
+        this.entradas = entradas;
+    }
+
+    /**
+     * @param tipo Tipo de enemigo.
+     * @return Su tabla de botín, o {@link #COMUN} si no tiene una propia.
+     */
+    public static TablaBotin de(TipoEnemigo tipo) {
+        TablaBotin tabla = POR_TIPO[tipo.getId()];
+        return tabla != null ? tabla : COMUN;
+    }
+
+    /**
+     * Objeto que corresponde a una tirada.
+     *
+     * @param tirada Tirada entre 0 (incluido) y 1 (excluido).
+     * @param nivel  Nivel del enemigo (da la potencia del objeto).
+     * @return El objeto, o null si no suelta nada.
+     */
+    public Item soltar(double tirada, int nivel) {
+        for (Entrada e : entradas) {
+            if (tirada < e.hasta) return e.crear(nivel);
+        }
+        return null;
+    }
+
+    /**
+     * @return Probabilidad de soltar algún objeto.
+     */
+    public double getProbabilidad() {
+        return entradas.length == 0 ? 0 : entradas[entradas.length - 1].hasta;
+    }
+}
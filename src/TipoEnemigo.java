@@ -0,0 +1,114 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registro de tipos de enemigo, cada uno con un número denso (0, 1, 2...).
+ * -
+ * Las misiones, las tablas de aparición y las estadísticas se refieren al tipo por su número, así
+ * que comprobar si una baja cuenta para una misión es comparar dos int, y cambiar el nombre que se
+ * muestra no rompe nada. Los tipos del juego están como constantes; {@link #registrar} añade otros
+ * (por ejemplo, los que aparecen al leer un diario) y {@link #buscar} encuentra uno por su nombre.
+ * Los nombres no distinguen mayúsculas ni espacios al principio o al final.
+ *
+ * @version 1.0
+ */
+public final class TipoEnemigo {
+
+    /**
+     * Tipos como máximo, para que los contadores por tipo puedan ser arrays de tamaño fijo.
+     */
+    public static final int MAX_TIPOS = 256;
+
+    private static final Map<String, TipoEnemigo> POR_NOMBRE = new HashMap<>();
+    private static volatile TipoEnemigo[] porId = new TipoEnemigo[0];
+
+    public static final TipoEnemigo ORCO_RASO = registrar("Orco Raso");
+    public static final TipoEnemigo ORCO_GUERRERO = registrar("Orco Guerrero");
+    public static final TipoEnemigo ORCO_BERSERKER = registrar("Orco Berserker");
+    public static final TipoEnemigo COMANDANTE_ORCO = registrar("Comandante Orco (Mini-Jefe)");
+    public static final TipoEnemigo ESPECTRO_DEBIL = registrar("Espectro Débil");
+    public static final TipoEnemigo ESPECTRO_ACECHADOR = registrar("Espectro Acechador");
+    public static final TipoEnemigo CABALLERO_ESPECTRAL = registrar("Caballero Espectral (Mini-Jefe)");
+    public static final TipoEnemigo CABALLERO_CORRUPTO = registrar("Caballero Corrupto");
+    public static final TipoEnemigo SENOR_DE_LAS_SOMBRAS = registrar("SEÑOR DE LAS SOMBRAS (JEFE)");
+    public static final TipoEnemigo LORD_MALACOR = registrar("Lord Malacor");
+
+    private final int id;
+    private final String nombre;
+
+    private TipoEnemigo(int id, String nombre) {
+        this.id = id;
+        this.nombre = nombre;
+    }
+
+    /**
+     * Devuelve el tipo con ese nombre, registrándolo si no existe.
+     *
+     * @param nombre Nombre que se muestra del enemigo.
+     * @return El tipo (el mismo objeto para el mismo nombre, sin distinguir mayúsculas).
+     * @throws IllegalStateException si ya hay {@link #MAX_TIPOS} tipos.
+     */
+    public static synchronized TipoEnemigo registrar(String nombre) {
+        String clave = clave(nombre);
+        TipoEnemigo tipo = POR_NOMBRE.get(clave);
+        if (tipo != null) return tipo;
+        TipoEnemigo[] actuales = porId;
+        if (actuales.length == MAX_TIPOS) throw new IllegalStateException("Demasiados tipos de enemigo");
+        tipo = new TipoEnemigo(actuales.length, nombre);
+        TipoEnemigo[] nuevos = Arrays.copyOf(actuales, actuales.length + 1);
+        nuevos[tipo.id] = tipo;
+        POR_NOMBRE.put(clave, tipo);
+        porId = nuevos;
+        return tipo;
+    }
+
+    /**
+     * Busca un tipo ya registrado por su nombre.
+     *
+     * @param nombre Nombre del enemigo (sin distinguir mayúsculas).
+     * @return El tipo.
+     * @throws IllegalArgumentException si no hay ningún tipo con ese nombre.
+     */
+    public static synchronized TipoEnemigo buscar(String nombre) {
+        TipoEnemigo tipo = POR_NOMBRE.get(clave(nombre));
+        if (tipo == null) throw new IllegalArgumentException("No existe el tipo de enemigo " + nombre);
+        return tipo;
+    }
+
+    private static String clave(String nombre) {
+        return nombre.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param id Número de tipo.
+     * @return El tipo.
+     * @throws IllegalArgumentException si no hay ningún tipo con ese número.
+     */
+    public static TipoEnemigo porId(int id) {
+        TipoEnemigo[] tipos = porId;
+        if (id < 0 || id >= tipos.length) throw new IllegalArgumentException("No existe el tipo de enemigo " + id);
+        return tipos[id];
+    }
+
+    /**
+     * @return Tipos registrados.
+     */
+    public static int getCantidad() {
+        return porId.length;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
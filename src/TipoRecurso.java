@@ -0,0 +1,8 @@
+/**
+ * Recurso que consume una habilidad al usarse.
+ */
+public enum TipoRecurso {
+    NINGUNO,
+    MANA,
+    ENERGIA
+}
@@ -1,9 +1,29 @@
 /**
  * Enumera los tipos de salas disponibles en el juego.
+ * Cada tipo tiene su descripción y los efectos ambientales con los que empieza la sala.
  */
 public enum TipoSala {
-    ESCARCHA,
-    NIEBLA,
-    BENDICION,
-    NORMAL
+    ESCARCHA("Un frío sepulcral que congela tus reservas.", EfectoSala.ESCARCHA),
+    NIEBLA("Vapores venenosos que corroen tu piel.", EfectoSala.NIEBLA),
+    BENDICION("Un rayo de luz celestial que purifica tus heridas.", EfectoSala.BENDICION),
+    NORMAL("Una estancia de piedra fría sin peligros aparentes.");
+
+    private final String descripcion;
+    private final EfectoSala[] efectos;
+
+    TipoSala(String descripcion, EfectoSala... efectos) {
+        this.descripcion = descripcion;
+        this.efectos = efectos;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * @return Copia de los efectos iniciales de este tipo de sala.
+     */
+    public EfectoSala[] getEfectos() {
+        return efectos.clone();
+    }
 }
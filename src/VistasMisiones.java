@@ -0,0 +1,152 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vistas de lectura de las misiones, mantenidas por proyecciones del RegistroMisiones.
+ * -
+ * Cada vista la escribe solo su hilo de proyección y se puede consultar desde cualquier hilo en
+ * tiempo constante: progreso por partida, misiones completadas y embudo por misión (cuántas
+ * partidas llegaron a cada etapa).
+ *
+ * @version 1.0
+ */
+public class VistasMisiones {
+
+    private final ProgresoPartidas progreso = new ProgresoPartidas();
+    private final Completadas completadas = new Completadas();
+    private final Embudos embudos = new Embudos();
+
+    /**
+     * Crea las vistas y las suscribe al registro (se ponen al día con lo ya registrado).
+     *
+     * @param registro Registro de misiones.
+     */
+    public VistasMisiones(RegistroMisiones registro) {
+        registro.suscribir("progreso", progreso);
+        registro.suscribir("completadas", completadas);
+        registro.suscribir("embudos", embudos);
+    }
+
+    public ProgresoPartidas getProgreso() {
+        return progreso;
+    }
+    public Completadas getCompletadas() {
+        return completadas;
+    }
+    public Embudos getEmbudos() {
+        return embudos;
+    }
+
+    /**
+     * Progreso de la misión actual (o la última) de cada partida.
+     */
+    public static final class ProgresoPartidas implements RegistroMisiones.Proyeccion {
+        private final Map<String, RegistroMisiones.ProgresoMision> porSesion = new ConcurrentHashMap<>();
+
+        @Override
+        public void aplicar(EventoMision e) {
+            porSesion.put(e.getSesion(),
+                    new RegistroMisiones.ProgresoMision(e.getMision(), e.getTipo(), e.getProgreso(), e.getObjetivo()));
+        }
+
+        /**
+         * @param sesion Partida.
+         * @return Su progreso, o null si no ha tenido misiones.
+         */
+        public RegistroMisiones.ProgresoMision de(String sesion) {
+            return porSesion.get(sesion);
+        }
+        public int getPartidas() {
+            return porSesion.size();
+        }
+    }
+
+    /**
+     * Misiones completadas, en total y por misión.
+     */
+    public static final class Completadas implements RegistroMisiones.Proyeccion {
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> porMision = new ConcurrentHashMap<>();
+
+        @Override
+        public void aplicar(EventoMision e) {
+            if (e.getTipo() != EventoMision.Tipo.COMPLETADA) return;
+            total.increment();
+            porMision.computeIfAbsent(e.getMision(), m -> new LongAdder()).increment();
+        }
+
+        public long getTotal() {
+            return total.sum();
+        }
+        public long de(String mision) {
+            LongAdder n = porMision.get(mision);
+            return n == null ? 0 : n.sum();
+        }
+    }
+
+    /**
+     * Embudo de cada misión: partidas que la aceptaron, que avanzaron, que la completaron y que la cobraron.
+     * Cada partida cuenta una sola vez por etapa, aunque notifique varios progresos.
+     */
+    public static final class Embudos implements RegistroMisiones.Proyeccion {
+        private static final EventoMision.Tipo[] ETAPAS = EventoMision.Tipo.values();
+
+        private final Map<String, LongAdder[]> porMision = new ConcurrentHashMap<>();
+        /**
+         * Última etapa de cada misión en curso ("sesion|mision"). Solo la usa el hilo de la proyección.
+         */
+        private final Map<String, EventoMision.Tipo> enCurso = new HashMap<>();
+
+        @Override
+        public void aplicar(EventoMision e) {
+            String clave = e.getSesion() + "|" + e.getMision();
+            EventoMision.Tipo anterior = (e.getTipo() == EventoMision.Tipo.ACEPTADA) ? null : enCurso.get(clave);
+            int desde = (anterior == null) ? 0 : anterior.ordinal() + 1;
+            if (desde <= e.getTipo().ordinal()) {
+                LongAdder[] etapas = porMision.computeIfAbsent(e.getMision(), m -> nuevasEtapas());
+                // Si falta algún hecho intermedio, las etapas anteriores también se han alcanzado
+                for (int i = desde; i <= e.getTipo().ordinal(); i++) etapas[i].increment();
+            }
+            if (e.getTipo() == EventoMision.Tipo.ENTREGADA) enCurso.remove(clave);
+            else if (anterior == null || e.getTipo().ordinal() > anterior.ordinal()) enCurso.put(clave, e.getTipo());
+        }
+
+        /**
+         * @param mision Título de la misión.
+         * @param etapa  Etapa del embudo.
+         * @return Partidas que llegaron a esa etapa.
+         */
+        public long de(String mision, EventoMision.Tipo etapa) {
+            LongAdder[] etapas = porMision.get(mision);
+            return etapas == null ? 0 : etapas[etapa.ordinal()].sum();
+        }
+
+        /**
+         * @return Títulos de las misiones con algún hecho.
+         */
+        public Set<String> getMisiones() {
+            return porMision.keySet();
+        }
+
+        /**
+         * @param mision Título de la misión.
+         * @return Texto con el embudo de la misión.
+         */
+        public String describir(String mision) {
+            StringBuilder sb = new StringBuilder(mision).append(':');
+            for (EventoMision.Tipo etapa : ETAPAS) {
+                sb.append(' ').append(etapa).append('=').append(de(mision, etapa));
+            }
+            return sb.toString();
+        }
+
+        private static LongAdder[] nuevasEtapas() {
+            LongAdder[] etapas = new LongAdder[ETAPAS.length];
+            for (int i = 0; i < etapas.length; i++) etapas[i] = new LongAdder();
+            return etapas;
+        }
+    }
+}